@@ -0,0 +1,110 @@
+package se.umu.id14ant.thirty;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import se.umu.id14ant.thirty.model.Die;
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.model.RandomSource;
+import se.umu.id14ant.thirty.model.Score;
+import se.umu.id14ant.thirty.model.ScoringMethod;
+
+/**
+ * The previous parcel format of a game, kept as a baseline for {@link ParcelBenchmark}. It writes the id of every
+ * die and the name of the scoring method of every score as strings.
+ */
+public class LegacyParcelableGame implements Parcelable {
+
+    private final Game mGame;
+
+    public LegacyParcelableGame(Game game){
+        mGame = game;
+    }
+
+    public Game getGame(){
+        return mGame;
+    }
+
+    protected LegacyParcelableGame(Parcel in) {
+        int currentRound = in.readInt();
+        int throwsLeft = in.readInt();
+        RandomSource random = RandomSource.create(in.readLong());
+        random.setState(in.readLong());
+
+        Die[] dices = new Die[in.readInt()];
+        for(int i = 0; i < dices.length; i++){
+            String id = in.readString();
+            boolean isSaved = in.readByte() != 0;
+            dices[i] = new Die(id, isSaved, in.readInt(), random);
+        }
+
+        int numberOfScores = in.readInt();
+        List<Score> scores = new ArrayList<>(numberOfScores);
+        for(int i = 0; i < numberOfScores; i++){
+            int round = in.readInt();
+            int score = in.readInt();
+            scores.add(new Score(round, score, methodFromName(in.readString())));
+        }
+
+        mGame = new Game(currentRound, throwsLeft, dices, scores, in.createBooleanArray(), random);
+    }
+
+    public static final Creator<LegacyParcelableGame> CREATOR = new Creator<LegacyParcelableGame>() {
+        @Override
+        public LegacyParcelableGame createFromParcel(Parcel in) {
+            return new LegacyParcelableGame(in);
+        }
+
+        @Override
+        public LegacyParcelableGame[] newArray(int size) {
+            return new LegacyParcelableGame[size];
+        }
+    };
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeInt(mGame.getCurrentRound());
+        dest.writeInt(mGame.getThrowsLeft());
+        dest.writeLong(mGame.getRandom().getSeed());
+        dest.writeLong(mGame.getRandom().getState());
+
+        Die[] dices = mGame.getDices();
+        dest.writeInt(dices.length);
+        for (Die die: dices) {
+            dest.writeString(die.getId());
+            dest.writeByte((byte) (die.isSaved() ? 1 : 0));
+            dest.writeInt(die.getValue());
+        }
+
+        List<Score> scores = mGame.getScores();
+        dest.writeInt(scores.size());
+        for (Score score: scores) {
+            dest.writeInt(score.getRound());
+            dest.writeInt(score.getScore());
+            dest.writeString(score.getScoringMethod().toString());
+        }
+
+        boolean[] usedSumMethods = new boolean[Game.NUMBER_OF_ROUNDS];
+        for(int i = 0; i < usedSumMethods.length; i++){
+            usedSumMethods[i] = mGame.methodIsUsed(i);
+        }
+        dest.writeBooleanArray(usedSumMethods);
+    }
+
+    private static ScoringMethod methodFromName(String name){
+        for (ScoringMethod method: ScoringMethod.values()) {
+            if(method.toString().equals(name)){
+                return method;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scoring method " + name);
+    }
+}
@@ -0,0 +1,108 @@
+package se.umu.id14ant.thirty;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.model.ParcelableGame;
+import se.umu.id14ant.thirty.model.ScoringMethod;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the size and the marshal and unmarshal time of the compact parcel format of a game with the previous
+ * format. Runs on a device, since it needs a real {@link Parcel}. The numbers are written to the log.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ParcelBenchmark {
+
+    private static final String TAG = "ParcelBenchmark";
+    private static final int WARMUP = 2000;
+    private static final int ITERATIONS = 20000;
+    private static final int ROUNDS_PLAYED = 5;
+    private static final long SEED = 42;
+
+    @Test
+    public void compactFormatIsSmallerAndRestoresTheGame() throws Exception {
+        Game game = createGame();
+
+        long[] legacy = measure(new LegacyParcelableGame(game), LegacyParcelableGame.CREATOR);
+        long[] compact = measure(new ParcelableGame(game), ParcelableGame.CREATOR);
+        log("legacy", legacy);
+        log("compact", compact);
+
+        assertTrue(compact[0] < legacy[0]);
+
+        Parcel parcel = Parcel.obtain();
+        new ParcelableGame(game).writeToParcel(parcel, 0);
+        parcel.setDataPosition(0);
+        Game restored = ParcelableGame.CREATOR.createFromParcel(parcel).getGame();
+        parcel.recycle();
+
+        assertEquals(game.toPacked(), restored.toPacked());
+        assertEquals(game.getResult(), restored.getResult());
+        assertEquals(game.getScores().size(), restored.getScores().size());
+        for(int i = 0; i < game.getScores().size(); i++){
+            assertEquals(game.getScores().get(i).getRound(), restored.getScores().get(i).getRound());
+            assertEquals(game.getScores().get(i).getScore(), restored.getScores().get(i).getScore());
+            assertEquals(game.getScores().get(i).getScoringMethod(), restored.getScores().get(i).getScoringMethod());
+        }
+    }
+
+    /**
+     * Returns a game in the middle of a round, with some rounds already scored.
+     * @return the game.
+     */
+    private static Game createGame(){
+        Game game = new Game(SEED);
+        for(int round = 0; round < ROUNDS_PLAYED; round++){
+            game.rollDices();
+            ScoringMethod method = ScoringMethod.fromIndex(round);
+            int score = method == ScoringMethod.LOW
+                    ? game.calculateLowScore() : game.calculateScore(method.getTarget());
+            game.addScore(score, method);
+            game.addUsedMethod(method.getIndex());
+            game.nextRound();
+        }
+        game.rollDices();
+        game.getDices()[2].toggleSaved();
+        return game;
+    }
+
+    /**
+     * Writes and reads the given object repeatedly.
+     * @param parcelable the object to write.
+     * @param creator the creator reading it back.
+     * @return the size in bytes, and the total nanoseconds spent writing and reading.
+     */
+    private static long[] measure(Parcelable parcelable, Parcelable.Creator<?> creator){
+        long[] result = new long[3];
+        for(int i = 0; i < WARMUP + ITERATIONS; i++){
+            Parcel parcel = Parcel.obtain();
+            long start = System.nanoTime();
+            parcelable.writeToParcel(parcel, 0);
+            long written = System.nanoTime();
+            parcel.setDataPosition(0);
+            creator.createFromParcel(parcel);
+            long read = System.nanoTime();
+
+            if(i >= WARMUP){
+                result[0] = parcel.dataSize();
+                result[1] += written - start;
+                result[2] += read - written;
+            }
+            parcel.recycle();
+        }
+        return result;
+    }
+
+    private static void log(String format, long[] result){
+        Log.i(TAG, String.format("%s: %d bytes, write %d ns, read %d ns", format, result[0],
+                result[1] / ITERATIONS, result[2] / ITERATIONS));
+    }
+}
@@ -0,0 +1,21 @@
+package se.umu.id14ant.thirty;
+
+import android.app.Application;
+
+import se.umu.id14ant.thirty.metrics.ActivityMetrics;
+
+/**
+ * The application of the game, turning on the metrics of the process before the first activity is created if they
+ * were on when the app was last used.
+ */
+public class ThirtyApplication extends Application {
+
+    /**
+     * Called when the process starts, before any activity is created.
+     */
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        ActivityMetrics.install(this);
+    }
+}
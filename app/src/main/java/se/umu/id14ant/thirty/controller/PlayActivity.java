@@ -1,6 +1,6 @@
 package se.umu.id14ant.thirty.controller;
 
-import android.content.Context;
+import android.arch.lifecycle.ViewModelProviders;
 import android.content.Intent;
 import android.support.v7.app.AppCompatActivity;
 import android.os.Bundle;
@@ -9,20 +9,22 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import se.umu.id14ant.thirty.R;
-import se.umu.id14ant.thirty.model.Die;
 import se.umu.id14ant.thirty.model.Game;
-import se.umu.id14ant.thirty.model.ImageHandler;
+import se.umu.id14ant.thirty.session.GameAdvisor;
+import se.umu.id14ant.thirty.session.GameSessionViewModel;
+import se.umu.id14ant.thirty.strategy.Advice;
+import se.umu.id14ant.thirty.view.DiceBoardView;
 
 /**
  * Activity that displays the play screen of the game.
  */
 public class PlayActivity extends AppCompatActivity {
 
-    private static final String KEY_GAME = "game";
-    private static final String EXTRA_GAME_PLAY = "se.umu.id14ant.thirty.play";
     private static final int SCORE_REQUEST = 0;
 
+    private GameSessionViewModel mSession;
     private Game mGame;
+    private DiceBoardView mDiceBoard;
 
     /**
      * Creates the play screen and initializes necessary attributes.
@@ -33,25 +35,64 @@ public class PlayActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_play);
 
-        //Get saved game state if there is one, otherwise create a new game state.
-        if(savedInstanceState != null){
-            mGame = savedInstanceState.getParcelable(KEY_GAME);
-        } else {
-            mGame = new Game();
+        //Get the game of the session if there is one, otherwise start a session with a new game state.
+        mSession = ViewModelProviders.of(this).get(GameSessionViewModel.class);
+        if(!mSession.connect(null, savedInstanceState)){
+            mSession.start(new Game());
         }
+        mGame = mSession.getGame();
+
+        //Toggle the saved state of a die when it is tapped.
+        mDiceBoard = findViewById(R.id.dice_board);
+        mDiceBoard.setOnDieClickListener(new DiceBoardView.OnDieClickListener() {
+            @Override
+            public void onDieClick(int die) {
+                mSession.cancelAdvice();
+                mGame.toggleSaved(die);
+                mDiceBoard.setDice(mGame.getDices());
+            }
+        });
 
         setCurrentRound();
         showDices();
     }
 
     /**
-     * Saves the game state if the activity gets destroyed.
-     * @param savedInstanceState the instance state used for storing the game state.
+     * Saves the session in case the process is killed while the activity is in the background.
+     * @param savedInstanceState the instance state used for storing the session.
      */
     @Override
     public void onSaveInstanceState(Bundle savedInstanceState){
         super.onSaveInstanceState(savedInstanceState);
-        savedInstanceState.putParcelable(KEY_GAME, mGame);
+        mSession.save(savedInstanceState);
+    }
+
+    /**
+     * Cancels advice that has not arrived yet, since the activity would not show it.
+     */
+    @Override
+    protected void onStop(){
+        super.onStop();
+        mSession.cancelAdvice();
+    }
+
+    /**
+     * Asks the advisor which dices to keep and saves them when the advice arrives. If there is no throws the user
+     * gets noted by a toast.
+     * @param view the current view.
+     */
+    public void suggestDices(View view){
+        if(mGame.getThrowsLeft() == 0){
+            Toast.makeText(this, R.string.no_throws, Toast.LENGTH_SHORT).show();
+            return;
+        }
+        mSession.adviseKeep(new GameAdvisor.OnAdviceListener() {
+            @Override
+            public void onAdvice(Advice advice) {
+                GameAdvisor.applyKeep(mGame, advice);
+                mDiceBoard.setDice(mGame.getDices());
+            }
+        });
     }
 
     /**
@@ -60,6 +101,7 @@ public class PlayActivity extends AppCompatActivity {
      * @param view the current view.
      */
     public void throwDices(View view){
+        mSession.cancelAdvice();
         boolean throwsLeft = mGame.rollDices();
         if(throwsLeft){
             showDices();
@@ -72,49 +114,10 @@ public class PlayActivity extends AppCompatActivity {
      * Changes the images of the dices and updates number of throws left.
      */
     private void showDices(){
-        View v = findViewById(android.R.id.content);
-        for(Die die: mGame.getDices()){
-            ImageHandler.setDieImage(v, die);
-        }
-
+        mDiceBoard.setDice(mGame.getDices());
         setThrowsLeft();
     }
 
-    /**
-     * Toggles the state of the given die and change the color of the die to correspond to the
-     * new state.
-     * @param view the clicked button.
-     */
-    public void saveDie(View view){
-        Die [] dices = mGame.getDices();
-        switch (view.getId()) {
-            case R.id.dice1:
-                dices[0].toggleSaved();
-                ImageHandler.setDieImage(view, dices[0]);
-                break;
-            case R.id.dice2:
-                dices[1].toggleSaved();
-                ImageHandler.setDieImage(view, dices[1]);
-                break;
-            case R.id.dice3:
-                dices[2].toggleSaved();
-                ImageHandler.setDieImage(view, dices[2]);
-                break;
-            case R.id.dice4:
-                dices[3].toggleSaved();
-                ImageHandler.setDieImage(view, dices[3]);
-                break;
-            case R.id.dice5:
-                dices[4].toggleSaved();
-                ImageHandler.setDieImage(view, dices[4]);
-                break;
-            case R.id.dice6:
-                dices[5].toggleSaved();
-                ImageHandler.setDieImage(view, dices[5]);
-                break;
-        }
-    }
-
     /**
      * Displays the current round on the screen.
      */
@@ -136,24 +139,14 @@ public class PlayActivity extends AppCompatActivity {
      * @param view the current view.
      */
     public void getScore(View view){
-        Intent intent = ScoreActivity.newIntent(PlayActivity.this, mGame);
+        Intent intent = ScoreActivity.newIntent(PlayActivity.this, mSession.getSessionId());
         startActivityForResult(intent, SCORE_REQUEST);
     }
 
     /**
-     * Returns a intent connected to the score activity, and that contains the current game state.
-     * @param packageContext the given context.
-     * @param game the current game state.
-     * @return the intent.
-     */
-    public static Intent newIntent(Context packageContext, Game game){
-        Intent i = new Intent(packageContext, ScoreActivity.class);
-        i.putExtra(EXTRA_GAME_PLAY, game);
-        return i;
-    }
-
-    /**
-     * Receives the result from the score activity when the user has selected scoring method.
+     * Receives the result from the score activity. The score activity changes the game of the session, so there is
+     * nothing to read from the result. If the user selected a scoring method the first throw of the next round is
+     * made, otherwise the dices are shown again as they are in the game.
      * @param requestCode the request code of the result.
      * @param resultCode the result code of the result.
      * @param data the intent sent with the result.
@@ -162,10 +155,11 @@ public class PlayActivity extends AppCompatActivity {
     protected void onActivityResult(int requestCode, int resultCode, Intent data) {
         if (requestCode == SCORE_REQUEST) {
             if (resultCode == RESULT_OK) {
-                mGame = data.getParcelableExtra(EXTRA_GAME_PLAY);
                 throwDices(null);
-                setCurrentRound();
+            } else{
+                showDices();
             }
+            setCurrentRound();
         }
     }
 }
@@ -1,32 +1,51 @@
 package se.umu.id14ant.thirty.controller;
 
+import android.arch.lifecycle.ViewModelProviders;
 import android.content.Context;
 import android.content.Intent;
 import android.content.res.Configuration;
 import android.support.v7.app.AppCompatActivity;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.v7.widget.DefaultItemAnimator;
 import android.support.v7.widget.DividerItemDecoration;
 import android.support.v7.widget.GridLayoutManager;
 import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import se.umu.id14ant.thirty.R;
+import se.umu.id14ant.thirty.history.FileGameHistory;
+import se.umu.id14ant.thirty.history.HistoryEntry;
+import se.umu.id14ant.thirty.history.HistoryStatistics;
 import se.umu.id14ant.thirty.model.Score;
 import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.session.GameSessionViewModel;
 
 /**
  * Activity that displays the result activity.
  */
 public class ResultActivity extends AppCompatActivity {
 
-    private static final String EXTRA_GAME_RESULT = "se.umu.id14ant.thirty.result";
+    private static final String EXTRA_SESSION_RESULT = "se.umu.id14ant.thirty.result";
+    private static final String HISTORY_FILE = "history";
+    private static final String TAG = "ResultActivity";
+    //A single thread, so two result screens never use the history file at the same time.
+    private static final ExecutorService sHistoryExecutor = Executors.newSingleThreadExecutor();
+
+    private GameSessionViewModel mSession;
+    private String[] mMethodNames;
 
     /**
      * Creates the result screen and initializes the necessary attributes.
@@ -37,8 +56,16 @@ public class ResultActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_result);
 
-        //Gets the game state from the given intent.
-        Game game = getIntent().getParcelableExtra(EXTRA_GAME_RESULT);
+        //The names of the scoring methods, indexed as the methods.
+        mMethodNames = getResources().getStringArray(R.array.score_array);
+
+        //Gets the game state of the session given by the intent.
+        mSession = ViewModelProviders.of(this).get(GameSessionViewModel.class);
+        if(!mSession.connect(getIntent().getStringExtra(EXTRA_SESSION_RESULT), savedInstanceState)){
+            finish();
+            return;
+        }
+        Game game = mSession.getGame();
 
         //Initializes the recycler view and adapter used for displaying the result for each round.
         RecyclerView recyclerView = findViewById(R.id.recycler_view);
@@ -59,18 +86,96 @@ public class ResultActivity extends AppCompatActivity {
 
         TextView textView = findViewById(R.id.total_score);
         textView.setText(String.valueOf(game.getResult()));
+
+        //Only store the game the first time, not when the activity is recreated.
+        showStatistics(savedInstanceState == null ? game : null);
+    }
+
+    /**
+     * Saves the session in case the process is killed while the activity is in the background.
+     * @param savedInstanceState the instance state used for storing the session.
+     */
+    @Override
+    public void onSaveInstanceState(Bundle savedInstanceState){
+        super.onSaveInstanceState(savedInstanceState);
+        mSession.save(savedInstanceState);
+    }
+
+    /**
+     * Stores the given game in the game history on a background thread, then displays the statistics and best
+     * results of all stored games.
+     * @param game the finished game, or null if it is already stored.
+     */
+    private void showStatistics(final Game game){
+        final File file = new File(getFilesDir(), HISTORY_FILE);
+        final long timestamp = System.currentTimeMillis();
+        final Handler mainHandler = new Handler(Looper.getMainLooper());
+        sHistoryExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final HistoryStatistics statistics;
+                final List<HistoryEntry> leaderboard;
+                try {
+                    FileGameHistory history = FileGameHistory.open(file);
+                    try {
+                        if(game != null){
+                            history.add(game, timestamp);
+                        }
+                        statistics = history.getStatistics();
+                        leaderboard = history.getLeaderboard();
+                    } finally {
+                        history.close();
+                    }
+                } catch (IOException e) {
+                    Log.w(TAG, "Cannot use the game history", e);
+                    return;
+                }
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if(!isDestroyed()){
+                            displayStatistics(statistics, leaderboard);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Displays the statistics of the stored games and the results of the best ones.
+     * @param statistics the statistics.
+     * @param leaderboard the best games, best first.
+     */
+    private void displayStatistics(HistoryStatistics statistics, List<HistoryEntry> leaderboard){
+        StringBuilder text = new StringBuilder(String.format(getResources().getString(R.string.result_statistics),
+                statistics.getGames(), statistics.getMean(), statistics.getBest(), statistics.getLongestStreak()));
+        if(!leaderboard.isEmpty()){
+            StringBuilder results = new StringBuilder();
+            for (HistoryEntry entry: leaderboard) {
+                if(results.length() > 0){
+                    results.append(", ");
+                }
+                results.append(entry.getResult());
+            }
+            text.append(String.format(getResources().getString(R.string.result_leaderboard), results));
+        }
+
+        TextView textView = findViewById(R.id.statistics);
+        textView.setText(text);
+        textView.setVisibility(View.VISIBLE);
     }
 
     /**
-     * Returns a new intent containing the given game state. Used by other activities to create
+     * Returns a new intent showing the result of the game of the given session. Used by other activities to create
      * intents before starting this activity.
      * @param packageContext the current context.
-     * @param game the game state.
-     * @return the intent containing the game state.
+     * @param sessionId the id of the game session.
+     * @return the intent containing the session id.
      */
-    public static Intent newIntent(Context packageContext, Game game){
+    public static Intent newIntent(Context packageContext, String sessionId){
         Intent i = new Intent(packageContext, ResultActivity.class);
-        i.putExtra(EXTRA_GAME_RESULT, game);
+        i.putExtra(EXTRA_SESSION_RESULT, sessionId);
         return i;
     }
 
@@ -99,7 +204,7 @@ public class ResultActivity extends AppCompatActivity {
          */
         public void bind(Score score){
             textViewRound.setText(String.format(getResources().getString(R.string.current_round), score.getRound()));
-            textViewMethod.setText(score.getScoringMethod());
+            textViewMethod.setText(mMethodNames[score.getScoringMethod().getIndex()]);
             textViewScore.setText(String.valueOf(score.getScore()));
         }
     }
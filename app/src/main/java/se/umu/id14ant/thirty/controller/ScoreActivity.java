@@ -1,36 +1,42 @@
 package se.umu.id14ant.thirty.controller;
 
+import android.arch.lifecycle.ViewModelProviders;
 import android.content.Context;
 import android.content.Intent;
-import android.graphics.Color;
-import android.support.annotation.NonNull;
 import android.support.v7.app.AppCompatActivity;
 import android.os.Bundle;
+import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.AdapterView;
-import android.widget.ArrayAdapter;
+import android.widget.BaseAdapter;
 import android.widget.Button;
-import android.widget.Spinner;
+import android.widget.ListView;
 import android.widget.TextView;
 import android.widget.Toast;
 
 import se.umu.id14ant.thirty.R;
 import se.umu.id14ant.thirty.model.Die;
 import se.umu.id14ant.thirty.model.Game;
-import se.umu.id14ant.thirty.model.ImageHandler;
+import se.umu.id14ant.thirty.model.ScoringMethod;
+import se.umu.id14ant.thirty.session.GameAdvisor;
+import se.umu.id14ant.thirty.session.GameSessionViewModel;
+import se.umu.id14ant.thirty.strategy.Advice;
+import se.umu.id14ant.thirty.view.DiceBoardView;
 
 /**
  * Activity that displays the score activity of the game.
  */
 public class ScoreActivity extends AppCompatActivity {
 
-    private static final String EXTRA_GAME_SCORE = "se.umu.id14ant.thirty.mScore";
-    private static final int LOW = 1;
+    private static final String EXTRA_SESSION_SCORE = "se.umu.id14ant.thirty.mScore";
 
+    private GameSessionViewModel mSession;
     private Game mGame;
-    private int mScore;
-    private Spinner mSpinner;
+    private int[] mMethodScores;
+    private ListView mScoreTable;
+    private MethodAdapter mAdapter;
+    private DiceBoardView mDiceBoard;
 
     /**
      * Creates the score screen and initializes the necessary attributes.
@@ -41,22 +47,34 @@ public class ScoreActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_score);
 
-        //Get the game state from previous activity.
-        mGame = getIntent().getParcelableExtra(EXTRA_GAME_SCORE);
+        //Get the game state of the session started by the previous activity.
+        mSession = ViewModelProviders.of(this).get(GameSessionViewModel.class);
+        if(!mSession.connect(getIntent().getStringExtra(EXTRA_SESSION_SCORE), savedInstanceState)){
+            finish();
+            return;
+        }
+        mGame = mSession.getGame();
         setCurrentRound();
 
-        //Initialize spinner options and add a listener.
-        mSpinner = findViewById(R.id.score_spinner);
-        addItemsToSpinner();
-        addListenerToSpinner();
+        //Show every die as unsaved to avoid showing gray dices. The saved states are kept until the round is scored,
+        //since the user may go back to the play screen.
+        mDiceBoard = findViewById(R.id.dice_board);
+        mDiceBoard.setDice(mGame.getDices(), false);
+
+        //The scores of all methods for the final roll, shown for every method that is still available. The list
+        //keeps the selected method itself when the activity is recreated.
+        mMethodScores = mGame.getMethodScores();
+        mAdapter = new MethodAdapter(availableMethods());
+        mScoreTable = findViewById(R.id.score_table);
+        mScoreTable.setAdapter(mAdapter);
 
-        //For each die change the state to unsaved to avoid showing gray dices and display the images.
-        for (Die die: mGame.getDices()) {
-            if(die.isSaved()){
-                die.toggleSaved();
+        //Tint the groups of dices behind the score of the selected method.
+        mScoreTable.setOnItemClickListener(new AdapterView.OnItemClickListener() {
+            @Override
+            public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
+                showGroups();
             }
-            ImageHandler.setDieImage(findViewById(android.R.id.content), die);
-        }
+        });
 
         //Change the button text if the current round was the last one.
         if(mGame.getCurrentRound() == 10){
@@ -66,115 +84,119 @@ public class ScoreActivity extends AppCompatActivity {
     }
 
     /**
-     * Creates an adapter and add items to spinner using the string array declared as a
-     * string resource.
+     * Saves the session in case the process is killed while the activity is in the background.
+     * @param savedInstanceState the instance state used for storing the session.
      */
-    private void addItemsToSpinner(){
-        ArrayAdapter<CharSequence> adapter = new ArrayAdapter<CharSequence>(this,
-                android.R.layout.simple_spinner_item, getResources().getStringArray(R.array.score_array)) {
-
-            //Disable the default-value and all used scoring methods.
-            @Override
-            public boolean isEnabled(int position) {
-                return position != 0 && !mGame.methodIsUsed(position - 1);
-            }
-
-            //Change the color of the used scoring method to distinguish these from the selectable ones.
-            @Override
-            public View getDropDownView(int position, View convertView,
-                                        @NonNull ViewGroup parent) {
-                View mView = super.getDropDownView(position, convertView, parent);
-                TextView mTextView = (TextView) mView;
-                if(position == 0){
-                    mTextView.setTextColor(Color.LTGRAY);
-                } else{
-                    if (mGame.methodIsUsed(position-1)) {
-                        mTextView.setTextColor(Color.LTGRAY);
-                    } else {
-                        mTextView.setTextColor(Color.BLACK);
-                    }
-                }
-
-                return mView;
-            }
-        };
+    @Override
+    public void onSaveInstanceState(Bundle savedInstanceState){
+        super.onSaveInstanceState(savedInstanceState);
+        mSession.save(savedInstanceState);
+    }
 
-        adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
-        mSpinner.setAdapter(adapter);
+    /**
+     * Shows the groups of the method selected before the activity was recreated, once the list has restored it.
+     * @param savedInstanceState the instance state saved before destruction of the activity.
+     */
+    @Override
+    protected void onRestoreInstanceState(Bundle savedInstanceState){
+        super.onRestoreInstanceState(savedInstanceState);
+        showGroups();
     }
 
     /**
-     * Adds a listener to the spinner to act upon the users choice.
+     * Cancels advice that has not arrived yet, since the activity would not show it.
      */
-    private void addListenerToSpinner(){
-        mSpinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
-            @Override
-            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                calculateScore(position);
-            }
+    @Override
+    protected void onStop(){
+        super.onStop();
+        mSession.cancelAdvice();
+    }
 
+    /**
+     * Asks the advisor which scoring method to use and selects it in the list when the advice arrives.
+     * @param view the current view.
+     */
+    public void suggestMethod(View view){
+        mSession.adviseMethod(new GameAdvisor.OnAdviceListener() {
             @Override
-            public void onNothingSelected(AdapterView<?> parent) {
-                //Does nothing
+            public void onAdvice(Advice advice) {
+                for(int position = 0; position < mAdapter.getCount(); position++){
+                    if(mAdapter.getItem(position) == advice.getMethod()){
+                        mScoreTable.setItemChecked(position, true);
+                        mScoreTable.smoothScrollToPosition(position);
+                        showGroups();
+                    }
+                }
             }
         });
     }
 
     /**
-     * Displays the current round in the view.
+     * Tints the dices by the groups behind the score of the selected method, or removes the tints if no method is
+     * selected.
      */
-    private void setCurrentRound(){
-        TextView textViewRound = findViewById(R.id.current_round);
-        textViewRound.setText(String.format(getResources().getString(R.string.current_round), mGame.getCurrentRound()));
+    private void showGroups(){
+        int position = mScoreTable.getCheckedItemPosition();
+        if(position == ListView.INVALID_POSITION){
+            mDiceBoard.setGroups(null);
+        } else{
+            mDiceBoard.setGroups(mGame.explainScore(mAdapter.getItem(position)));
+        }
     }
 
     /**
-     * Calculates the score of the chosen method and displays the score in the view.
-     * @param position the selected position
+     * Returns the indices of the scoring methods that are not used.
+     * @return the available methods.
      */
-    private void calculateScore(int position){
-        if(position == LOW){
-            mScore = mGame.calculateLowScore();
-            showScore(mScore);
-        } else if(position > LOW){
-            mScore = mGame.calculateScore(position+2);
-            showScore(mScore);
+    private int[] availableMethods(){
+        int[] methods = new int[Game.NUMBER_OF_ROUNDS - mGame.getCurrentRound() + 1];
+        int count = 0;
+        for(int i = 0; i < Game.NUMBER_OF_ROUNDS && count < methods.length; i++){
+            if(!mGame.methodIsUsed(i)){
+                methods[count++] = i;
+            }
         }
+        return methods;
     }
 
     /**
-     * Displays the score in the view.
-     * @param score the score.
+     * Displays the current round in the view.
      */
-    private void showScore(int score){
-        TextView textView =  findViewById(R.id.chosen_score);
-        textView.setText(String.format(getResources().getString(R.string.show_score), score));
-        textView.setVisibility(View.VISIBLE);
+    private void setCurrentRound(){
+        TextView textViewRound = findViewById(R.id.current_round);
+        textViewRound.setText(String.format(getResources().getString(R.string.current_round), mGame.getCurrentRound()));
     }
 
     /**
-     * Updates the game state and if there is rounds left, sends the state back to the play
-     * activity. Otherwise starts the result activity.
+     * Updates the game state and if there is rounds left, returns to the play activity. Otherwise starts the result
+     * activity.
      * @param view the current view.
      */
     public void nextRound(View view){
-        int methodIndex = mSpinner.getSelectedItemPosition();
-        String scoringMethod = mSpinner.getSelectedItem().toString();
+        int position = mScoreTable.getCheckedItemPosition();
 
-        //If the user has chosen a valid scoring method update game state, otherwise display a toast with feedback.
-        if(methodIndex >= LOW){
-            methodIndex = convertMethodIndex(methodIndex);
-            mGame.addScore(mScore, scoringMethod);
+        //If the user has chosen a scoring method update game state, otherwise display a toast with feedback.
+        if(position != ListView.INVALID_POSITION){
+            int methodIndex = mAdapter.getItem(position);
+            mGame.addScore(mMethodScores[methodIndex], ScoringMethod.fromIndex(methodIndex));
             mGame.addUsedMethod(methodIndex);
 
             //If the current round was the last, start the result activity, otherwise send result to play activity.
             if(mGame.getCurrentRound() == Game.NUMBER_OF_ROUNDS){
-                Intent intent = ResultActivity.newIntent(ScoreActivity.this, mGame);
+                Intent intent = ResultActivity.newIntent(ScoreActivity.this, mSession.getSessionId());
                 startActivity(intent);
                 finish();
             } else{
+                //The next round starts with every die unsaved.
+                Die[] dices = mGame.getDices();
+                for(int i = 0; i < dices.length; i++){
+                    if(dices[i].isSaved()){
+                        mGame.toggleSaved(i);
+                    }
+                }
                 mGame.nextRound();
-                setResult();
+                setResult(RESULT_OK);
+                finish();
             }
         } else {
             Toast.makeText(this, R.string.choose_method_toast, Toast.LENGTH_SHORT).show();
@@ -182,32 +204,81 @@ public class ScoreActivity extends AppCompatActivity {
     }
 
     /**
-     * Sends the result to the play activity, containing the updated game state.
+     * Returns a new intent for scoring the game of the given session.
+     * @param packageContext the current context.
+     * @param sessionId the id of the game session.
+     * @return the intent containing the session id.
      */
-    private void setResult(){
-        Intent intent = PlayActivity.newIntent(ScoreActivity.this, mGame);
-        setResult(RESULT_OK, intent);
-        finish();
+    public static Intent newIntent(Context packageContext, String sessionId){
+        Intent i = new Intent(packageContext, ScoreActivity.class);
+        i.putExtra(EXTRA_SESSION_SCORE, sessionId);
+        return i;
     }
 
     /**
-     * Converts the spinner index to match the value of the scoring method.
-     * @param position the selected position in the spinner.
-     * @return the value of the corresponding scoring method.
+     * Inner class showing each available scoring method with the score it would give.
      */
-    private int convertMethodIndex(int position){
-        return position-1;
-    }
+    private class MethodAdapter extends BaseAdapter {
+        private final int[] mMethods;
+        private final String[] mMethodNames;
 
-    /**
-     * Returns a new intent containing the given game state.
-     * @param packageContext the current context.
-     * @param game the game state.
-     * @return the intent containing the game state.
-     */
-    public static Intent newIntent(Context packageContext, Game game){
-        Intent i = new Intent(packageContext, ScoreActivity.class);
-        i.putExtra(EXTRA_GAME_SCORE, game);
-        return i;
+        /**
+         * Creates a new instance.
+         * @param methods the indices of the methods to show.
+         */
+        public MethodAdapter(int[] methods) {
+            mMethods = methods;
+            mMethodNames = getResources().getStringArray(R.array.score_array);
+        }
+
+        /**
+         * Returns the number of methods.
+         * @return the number of methods.
+         */
+        @Override
+        public int getCount() {
+            return mMethods.length;
+        }
+
+        /**
+         * Returns the index of the scoring method at the given position.
+         * @param position the position in the list.
+         * @return the index of the method.
+         */
+        @Override
+        public Integer getItem(int position) {
+            return mMethods[position];
+        }
+
+        /**
+         * Returns the id of the item at the given position, which is the index of its method.
+         * @param position the position in the list.
+         * @return the id.
+         */
+        @Override
+        public long getItemId(int position) {
+            return mMethods[position];
+        }
+
+        /**
+         * Returns the row of the method at the given position, reusing the given row if there is one.
+         * @param position the position in the list.
+         * @param convertView an earlier row to reuse, or null.
+         * @param parent the list.
+         * @return the row.
+         */
+        @Override
+        public View getView(int position, View convertView, ViewGroup parent) {
+            View row = convertView;
+            if(row == null){
+                row = LayoutInflater.from(parent.getContext()).inflate(R.layout.score_item, parent, false);
+            }
+            int method = mMethods[position];
+            TextView textViewMethod = row.findViewById(R.id.score_method);
+            TextView textViewScore = row.findViewById(R.id.score_points);
+            textViewMethod.setText(mMethodNames[method]);
+            textViewScore.setText(String.format(getResources().getString(R.string.show_score), mMethodScores[method]));
+            return row;
+        }
     }
 }
@@ -3,9 +3,20 @@ package se.umu.id14ant.thirty.controller;
 import android.content.Intent;
 import android.support.v7.app.AppCompatActivity;
 import android.os.Bundle;
+import android.util.Log;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.view.View;
+import android.widget.Toast;
 
+import java.io.File;
+import java.io.IOException;
+
+import se.umu.id14ant.thirty.BuildConfig;
 import se.umu.id14ant.thirty.R;
+import se.umu.id14ant.thirty.metrics.ActivityMetrics;
+import se.umu.id14ant.thirty.metrics.Metrics;
+import se.umu.id14ant.thirty.session.GameAdvisor;
 
 /**
  * Activity that displays the home screen of the game.
@@ -13,6 +24,8 @@ import se.umu.id14ant.thirty.R;
  */
 public class StartActivity extends AppCompatActivity {
 
+    private static final String TAG = "StartActivity";
+
     /**
      * Called on creation of the activity.
      * @param savedInstanceState instance state saved before destruction of activity.
@@ -21,6 +34,44 @@ public class StartActivity extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_start);
+
+        //Load the strategy table in the background, so it is ready before the first advice.
+        GameAdvisor.getInstance().loadTables(getApplicationContext());
+    }
+
+    /**
+     * Adds the items turning the metrics overlay on and off and exporting the metrics, in debug builds only.
+     * @param menu the options menu.
+     * @return true if the menu should be shown.
+     */
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        if(!BuildConfig.DEBUG){
+            return false;
+        }
+        getMenuInflater().inflate(R.menu.start, menu);
+        menu.findItem(R.id.show_metrics).setChecked(Metrics.isEnabled());
+        return true;
+    }
+
+    /**
+     * Turns the metrics on or off, or writes them to a file and offers to share them.
+     * @param item the selected item.
+     * @return true if the selection was handled.
+     */
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        switch (item.getItemId()) {
+            case R.id.show_metrics:
+                item.setChecked(!item.isChecked());
+                ActivityMetrics.setEnabled(this, item.isChecked());
+                return true;
+            case R.id.export_metrics:
+                exportMetrics();
+                return true;
+            default:
+                return super.onOptionsItemSelected(item);
+        }
     }
 
     /**
@@ -31,4 +82,23 @@ public class StartActivity extends AppCompatActivity {
         Intent intent = new Intent(this, PlayActivity.class);
         startActivity(intent);
     }
+
+    /**
+     * Writes the metrics to a file of the app and offers to send the same JSON to another app.
+     */
+    private void exportMetrics(){
+        File file;
+        try {
+            file = ActivityMetrics.export(this);
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot export the metrics", e);
+            return;
+        }
+        Toast.makeText(this, getString(R.string.metrics_exported, file.getPath()), Toast.LENGTH_SHORT).show();
+
+        Intent intent = new Intent(Intent.ACTION_SEND);
+        intent.setType("text/plain");
+        intent.putExtra(Intent.EXTRA_TEXT, Metrics.toJson());
+        startActivity(Intent.createChooser(intent, getString(R.string.metrics_export)));
+    }
 }
@@ -0,0 +1,233 @@
+package se.umu.id14ant.thirty.metrics;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v4.content.ContextCompat;
+import android.util.TypedValue;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import se.umu.id14ant.thirty.R;
+
+/**
+ * Turns the metrics of the process on and off, times every activity from its creation until its first frame is drawn
+ * and shows the metrics in an overlay on top of the resumed activity while they are on. The choice is kept between
+ * launches of the app.
+ *
+ * All methods must be called on the main thread. While metrics are off, an activity costs a volatile read when it is
+ * created and resumed.
+ */
+public class ActivityMetrics implements Application.ActivityLifecycleCallbacks {
+
+    private static final String PREFERENCES = "metrics";
+    private static final String KEY_ENABLED = "enabled";
+    private static final String EXPORT_FILE = "metrics.json";
+    private static final long OVERLAY_INTERVAL_MILLIS = 500;
+    private static final int OVERLAY_PADDING_DP = 4;
+    private static final int OVERLAY_TEXT_SP = 10;
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final ActivityMetrics sInstance = new ActivityMetrics();
+
+    private final Map<Activity, Long> mCreated = new WeakHashMap<>();
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mUpdateOverlay = new Runnable() {
+        @Override
+        public void run() {
+            updateOverlay();
+        }
+    };
+    private TextView mOverlay;
+
+    /**
+     * Turns metrics on if they were on when the app was last used, and starts following the activities of the app.
+     * @param application the application.
+     */
+    public static void install(Application application){
+        SharedPreferences preferences = application.getSharedPreferences(PREFERENCES, Context.MODE_PRIVATE);
+        Metrics.setEnabled(preferences.getBoolean(KEY_ENABLED, false));
+        application.registerActivityLifecycleCallbacks(sInstance);
+    }
+
+    /**
+     * Turns metrics on or off, showing or hiding the overlay on the given activity.
+     * @param activity the resumed activity.
+     * @param enabled true to record metrics, otherwise false.
+     */
+    public static void setEnabled(Activity activity, boolean enabled){
+        activity.getSharedPreferences(PREFERENCES, Context.MODE_PRIVATE).edit()
+                .putBoolean(KEY_ENABLED, enabled)
+                .apply();
+        Metrics.setEnabled(enabled);
+        if(enabled){
+            sInstance.showOverlay(activity);
+        } else{
+            sInstance.hideOverlay();
+        }
+    }
+
+    /**
+     * Writes the metrics recorded so far as JSON to a file of the app, replacing the last export.
+     * @param context the context.
+     * @return the file.
+     * @throws IOException if the file cannot be written.
+     */
+    public static File export(Context context) throws IOException {
+        File file = new File(context.getFilesDir(), EXPORT_FILE);
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            Metrics.writeJson(writer);
+        } finally {
+            writer.close();
+        }
+        return file;
+    }
+
+    /**
+     * Takes the start of the activity, if metrics are on. Called during the creation of the activity.
+     * @param activity the activity.
+     * @param savedInstanceState the saved instance state.
+     */
+    @Override
+    public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+        long start = Metrics.start();
+        if(start != 0){
+            mCreated.put(activity, start);
+        }
+    }
+
+    /**
+     * Records the time from the creation of the activity until its first frame is drawn, once its views exist.
+     * @param activity the activity.
+     */
+    @Override
+    public void onActivityStarted(Activity activity) {
+        Long created = mCreated.remove(activity);
+        if(created == null){
+            return;
+        }
+        final long start = created;
+        final Metric metric = Metrics.metric("activity." + activity.getClass().getSimpleName() + ".firstDraw");
+        final View decorView = activity.getWindow().getDecorView();
+        decorView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                decorView.getViewTreeObserver().removeOnPreDrawListener(this);
+                metric.stop(start);
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Shows the overlay on the activity, if metrics are on.
+     * @param activity the activity.
+     */
+    @Override
+    public void onActivityResumed(Activity activity) {
+        if(Metrics.isEnabled()){
+            showOverlay(activity);
+        }
+    }
+
+    /**
+     * Removes the overlay from the activity, so it is only updated while it can be seen.
+     * @param activity the activity.
+     */
+    @Override
+    public void onActivityPaused(Activity activity) {
+        hideOverlay();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onActivityStopped(Activity activity) {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+    }
+
+    /**
+     * Forgets the start of an activity destroyed before it was started.
+     * @param activity the activity.
+     */
+    @Override
+    public void onActivityDestroyed(Activity activity) {
+        mCreated.remove(activity);
+    }
+
+    /**
+     * Adds the overlay in the bottom corner of the content of the given activity and starts updating it. The overlay
+     * cannot be clicked, so touches reach the views below it.
+     * @param activity the activity.
+     */
+    private void showOverlay(Activity activity){
+        hideOverlay();
+        ViewGroup content = activity.findViewById(android.R.id.content);
+        TextView overlay = new TextView(activity);
+        overlay.setTextSize(TypedValue.COMPLEX_UNIT_SP, OVERLAY_TEXT_SP);
+        overlay.setTextColor(ContextCompat.getColor(activity, R.color.metricsOverlayText));
+        overlay.setBackgroundColor(ContextCompat.getColor(activity, R.color.metricsOverlayBackground));
+        int padding = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, OVERLAY_PADDING_DP,
+                activity.getResources().getDisplayMetrics());
+        overlay.setPadding(padding, padding, padding, padding);
+        content.addView(overlay, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT, Gravity.BOTTOM | Gravity.END));
+        mOverlay = overlay;
+        updateOverlay();
+    }
+
+    /**
+     * Stops updating the overlay and removes it from its activity, if it is shown.
+     */
+    private void hideOverlay(){
+        mHandler.removeCallbacks(mUpdateOverlay);
+        if(mOverlay != null){
+            ((ViewGroup) mOverlay.getParent()).removeView(mOverlay);
+            mOverlay = null;
+        }
+    }
+
+    /**
+     * Shows one line for every metric that has recorded something, in milliseconds, and schedules the next update.
+     */
+    private void updateOverlay(){
+        String format = mOverlay.getResources().getString(R.string.metrics_line);
+        StringBuilder text = new StringBuilder();
+        for (Metric metric: Metrics.getMetrics()) {
+            if(metric.getCount() == 0){
+                continue;
+            }
+            if(text.length() > 0){
+                text.append('\n');
+            }
+            text.append(String.format(format, metric.getName(), metric.getCount(),
+                    metric.getPercentile(50) / NANOS_PER_MILLI, metric.getPercentile(90) / NANOS_PER_MILLI,
+                    metric.getPercentile(99) / NANOS_PER_MILLI, metric.getMax() / NANOS_PER_MILLI));
+        }
+        mOverlay.setText(text.length() > 0 ? text : mOverlay.getResources().getString(R.string.metrics_empty));
+        mHandler.postDelayed(mUpdateOverlay, OVERLAY_INTERVAL_MILLIS);
+    }
+}
@@ -0,0 +1,127 @@
+package se.umu.id14ant.thirty.model;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import se.umu.id14ant.thirty.metrics.Metric;
+import se.umu.id14ant.thirty.metrics.Metrics;
+
+/**
+ * Wraps a game state so it can be stored in a bundle or sent with an intent. The game itself lives in the
+ * Android-free core module.
+ *
+ * The game is written as a few primitives: the state packed by {@link PackedGame}, the seed and state of the random
+ * source, and the scores of the finished rounds packed five to a long. Each score takes twelve bits, the index of the
+ * scoring method followed by the score. The round of a score is its position in the list, since one score is added
+ * per round.
+ * @author Anna Nystedt.
+ */
+public class ParcelableGame implements Parcelable {
+
+    private static final int SCORE_BITS = 12;
+    private static final int METHOD_BITS = 4;
+    private static final int SCORES_PER_LONG = Long.SIZE / SCORE_BITS;
+    private static final int SCORE_MASK = (1 << (SCORE_BITS - METHOD_BITS)) - 1;
+    private static final int METHOD_MASK = (1 << METHOD_BITS) - 1;
+    private static final Metric WRITE_METRIC = Metrics.metric("parcel.writeGame");
+    private static final Metric READ_METRIC = Metrics.metric("parcel.readGame");
+
+    private final Game mGame;
+
+    /**
+     * Creates a wrapper around the given game state.
+     * @param game the game state.
+     */
+    public ParcelableGame(Game game){
+        mGame = game;
+    }
+
+    /**
+     * Returns the wrapped game state.
+     * @return the game state.
+     */
+    public Game getGame(){
+        return mGame;
+    }
+
+    /**
+     * Restores the game state written by {@link #writeToParcel(Parcel, int)}.
+     * @param in the parcel to read from.
+     */
+    protected ParcelableGame(Parcel in) {
+        long start = Metrics.start();
+        long state = in.readLong();
+
+        //Restore the random source so the game continues with the same rolls as if it was never saved.
+        RandomSource random = RandomSource.create(in.readLong());
+        random.setState(in.readLong());
+
+        int numberOfScores = in.readInt();
+        List<Score> scores = new ArrayList<>(numberOfScores);
+        long packedScores = 0;
+        for(int i = 0; i < numberOfScores; i++){
+            if(i % SCORES_PER_LONG == 0){
+                packedScores = in.readLong();
+            }
+            int packed = (int) (packedScores >>> (SCORE_BITS * (i % SCORES_PER_LONG)));
+            ScoringMethod method = ScoringMethod.fromIndex((packed >>> (SCORE_BITS - METHOD_BITS)) & METHOD_MASK);
+            scores.add(new Score(i + 1, packed & SCORE_MASK, method));
+        }
+
+        mGame = Game.fromPacked(state, scores, random);
+        READ_METRIC.stop(start);
+    }
+
+    /**
+     * Auto-generated class by Android Studio.
+     */
+    public static final Creator<ParcelableGame> CREATOR = new Creator<ParcelableGame>() {
+        @Override
+        public ParcelableGame createFromParcel(Parcel in) {
+            return new ParcelableGame(in);
+        }
+
+        @Override
+        public ParcelableGame[] newArray(int size) {
+            return new ParcelableGame[size];
+        }
+    };
+
+    /**
+     * {@inheritDoc}
+     *
+     * Auto-generated by Android Studio.
+     */
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        long start = Metrics.start();
+        dest.writeLong(mGame.toPacked());
+        dest.writeLong(mGame.getRandom().getSeed());
+        dest.writeLong(mGame.getRandom().getState());
+
+        List<Score> scores = mGame.getScores();
+        dest.writeInt(scores.size());
+        long packedScores = 0;
+        for(int i = 0; i < scores.size(); i++){
+            Score score = scores.get(i);
+            long packed = (score.getScoringMethod().getIndex() << (SCORE_BITS - METHOD_BITS)) | score.getScore();
+            packedScores |= packed << (SCORE_BITS * (i % SCORES_PER_LONG));
+            if(i % SCORES_PER_LONG == SCORES_PER_LONG - 1 || i == scores.size() - 1){
+                dest.writeLong(packedScores);
+                packedScores = 0;
+            }
+        }
+        WRITE_METRIC.stop(start);
+    }
+}
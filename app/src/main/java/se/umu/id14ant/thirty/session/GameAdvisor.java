@@ -0,0 +1,203 @@
+package se.umu.id14ant.thirty.session;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import se.umu.id14ant.thirty.model.Die;
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.strategy.Advice;
+import se.umu.id14ant.thirty.strategy.MoveAdvisor;
+import se.umu.id14ant.thirty.tables.TableAssets;
+
+/**
+ * Runs the move advisor of the process on a background thread and delivers its advice on the main thread. A search
+ * takes at most {@link MoveAdvisor#DEFAULT_BUDGET_MILLIS} milliseconds, so the advice arrives without the screen
+ * waiting for it.
+ *
+ * The advisor is shared by every game of the process, so its caches outlive the activities. It is only used from the
+ * single background thread, and the state of the game is copied on the main thread when the advice is requested.
+ * Once the optimal strategy table generated by the build has been loaded, the advice is read from it instead.
+ */
+public class GameAdvisor {
+
+    private static final String TAG = "GameAdvisor";
+    private static final GameAdvisor sInstance = new GameAdvisor();
+
+    private final MoveAdvisor mAdvisor = new MoveAdvisor();
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService mExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }
+            }, "advisor");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    private boolean mTablesRequested;
+
+    /**
+     * Listener receiving the advice on the main thread.
+     */
+    public interface OnAdviceListener {
+
+        /**
+         * Called with the advice, unless the request has been cancelled.
+         * @param advice the advice.
+         */
+        void onAdvice(Advice advice);
+    }
+
+    /**
+     * Returns the advisor of the process.
+     * @return the advisor.
+     */
+    public static GameAdvisor getInstance(){
+        return sInstance;
+    }
+
+    /**
+     * Loads the optimal strategy table on the background thread, ahead of any advice requested after this call. If
+     * the table cannot be loaded, the advice keeps being searched for. Only the first call loads anything, and it
+     * must be made on the main thread.
+     * @param context the context of the app.
+     */
+    public void loadTables(final Context context){
+        if(mTablesRequested){
+            return;
+        }
+        mTablesRequested = true;
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    mAdvisor.setExactStrategy(TableAssets.openStrategy(context));
+                } catch (IOException e) {
+                    Log.w(TAG, "Could not load the strategy table", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Requests which dices to keep before the next throw of the game. There must be throws left.
+     * @param game the game.
+     * @param listener the listener receiving the advice.
+     * @return the request, used to cancel it.
+     */
+    public Request adviseKeep(Game game, OnAdviceListener listener){
+        final int usedMethods = game.getUsedMethods();
+        final int[] values = game.getValues();
+        final int throwsLeft = game.getThrowsLeft();
+        return submit(new Search() {
+            @Override
+            public Advice run() {
+                return mAdvisor.adviseKeep(usedMethods, values, throwsLeft);
+            }
+        }, listener);
+    }
+
+    /**
+     * Requests which unused scoring method to score the current dices of the game with.
+     * @param game the game.
+     * @param listener the listener receiving the advice.
+     * @return the request, used to cancel it.
+     */
+    public Request adviseMethod(Game game, OnAdviceListener listener){
+        final int usedMethods = game.getUsedMethods();
+        final int[] values = game.getValues();
+        return submit(new Search() {
+            @Override
+            public Advice run() {
+                return mAdvisor.adviseMethod(usedMethods, values);
+            }
+        }, listener);
+    }
+
+    /**
+     * Runs the search on the background thread and posts the advice to the listener.
+     * @param search the search.
+     * @param listener the listener.
+     * @return the request.
+     */
+    private Request submit(final Search search, final OnAdviceListener listener){
+        final Request request = new Request();
+        request.mFuture = mExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                if(request.mCancelled){
+                    return;
+                }
+                final Advice advice = search.run();
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        //Cancelling also happens on the main thread, so no advice gets through after it.
+                        if(!request.mCancelled){
+                            listener.onAdvice(advice);
+                        }
+                    }
+                });
+            }
+        });
+        return request;
+    }
+
+    /**
+     * Applies advice of which dices to keep to the game, by toggling every die whose saved state differs.
+     * @param game the game.
+     * @param advice the advice.
+     */
+    public static void applyKeep(Game game, Advice advice){
+        Die[] dices = game.getDices();
+        for(int i = 0; i < dices.length; i++){
+            boolean keep = (advice.getKeepMask() & (1 << i)) != 0;
+            if(dices[i].isSaved() != keep){
+                game.toggleSaved(i);
+            }
+        }
+    }
+
+    /**
+     * A search run on the background thread.
+     */
+    private interface Search {
+
+        /**
+         * Runs the search.
+         * @return the advice.
+         */
+        Advice run();
+    }
+
+    /**
+     * A pending request for advice.
+     */
+    public static class Request {
+        private volatile boolean mCancelled;
+        private Future<?> mFuture;
+
+        /**
+         * Cancels the request. The search is interrupted if it is running, and the listener is not called. Must be
+         * called on the main thread.
+         */
+        public void cancel(){
+            mCancelled = true;
+            mFuture.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package se.umu.id14ant.thirty.session;
+
+import se.umu.id14ant.thirty.model.Game;
+
+/**
+ * A game that is being played, shared by the activities showing it. The activities pass the id of the session to
+ * each other instead of the game itself, and all of them change the same game.
+ */
+public class GameSession {
+
+    private final String mId;
+    private final Game mGame;
+    private int mReferences;
+
+    /**
+     * Creates a session for the given game.
+     * @param id the id of the session.
+     * @param game the game.
+     */
+    GameSession(String id, Game game){
+        mId = id;
+        mGame = game;
+    }
+
+    /**
+     * Returns the id of the session, used to find it in the {@link GameSessionRepository}.
+     * @return the id.
+     */
+    public String getId(){
+        return mId;
+    }
+
+    /**
+     * Returns the game of the session.
+     * @return the game.
+     */
+    public Game getGame(){
+        return mGame;
+    }
+
+    /**
+     * Adds a user of the session.
+     */
+    void acquire(){
+        mReferences++;
+    }
+
+    /**
+     * Removes a user of the session.
+     * @return true if the session has no users left, otherwise false.
+     */
+    boolean release(){
+        return --mReferences <= 0;
+    }
+}
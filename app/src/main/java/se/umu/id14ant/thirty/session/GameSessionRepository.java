@@ -0,0 +1,90 @@
+package se.umu.id14ant.thirty.session;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import se.umu.id14ant.thirty.model.Game;
+
+/**
+ * Holds the game sessions of the process. A session is kept as long as some activity uses it, which each activity
+ * does through its {@link GameSessionViewModel}, and is removed when the last one is cleared.
+ *
+ * The repository only lives as long as the process. If the process is killed the activities restore their sessions
+ * from the game they saved in their instance state, under the same id, see {@link #restore(String, Game)}.
+ */
+public class GameSessionRepository {
+
+    private static final GameSessionRepository sInstance = new GameSessionRepository();
+
+    private final Map<String, GameSession> mSessions = new HashMap<>();
+
+    /**
+     * Returns the repository of the process.
+     * @return the repository.
+     */
+    public static GameSessionRepository getInstance(){
+        return sInstance;
+    }
+
+    /**
+     * Creates a session for the given game and adds a user of it.
+     * @param game the game.
+     * @return the session.
+     */
+    public synchronized GameSession create(Game game){
+        GameSession session = new GameSession(UUID.randomUUID().toString(), game);
+        session.acquire();
+        mSessions.put(session.getId(), session);
+        return session;
+    }
+
+    /**
+     * Returns the session with the given id and adds a user of it.
+     * @param id the id of the session.
+     * @return the session, or null if there is no session with the id.
+     */
+    public synchronized GameSession acquire(String id){
+        GameSession session = mSessions.get(id);
+        if(session != null){
+            session.acquire();
+        }
+        return session;
+    }
+
+    /**
+     * Returns the session with the given id and adds a user of it. If there is no such session, which happens when
+     * the process has been killed since it was created, it is created with the given game. The first activity to be
+     * restored decides the game, since a session that still exists holds a newer game than any saved one.
+     * @param id the id of the session.
+     * @param game the game saved with the session.
+     * @return the session.
+     */
+    public synchronized GameSession restore(String id, Game game){
+        GameSession session = mSessions.get(id);
+        if(session == null){
+            session = new GameSession(id, game);
+            mSessions.put(id, session);
+        }
+        session.acquire();
+        return session;
+    }
+
+    /**
+     * Removes a user of the given session, and removes the session if it has no users left.
+     * @param session the session.
+     */
+    public synchronized void release(GameSession session){
+        if(session.release()){
+            mSessions.remove(session.getId());
+        }
+    }
+
+    /**
+     * Returns the number of sessions.
+     * @return the number of sessions.
+     */
+    public synchronized int size(){
+        return mSessions.size();
+    }
+}
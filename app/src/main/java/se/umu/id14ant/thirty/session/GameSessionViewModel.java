@@ -0,0 +1,162 @@
+package se.umu.id14ant.thirty.session;
+
+import android.arch.lifecycle.ViewModel;
+import android.os.Bundle;
+
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.model.ParcelableGame;
+
+/**
+ * Holds the game session of an activity. The view model survives configuration changes, so a rotated activity gets
+ * the same game without parceling it. The session is released when the activity is finished for good.
+ *
+ * The game is still saved in the instance state of the activity, since that is the only thing left if the process is
+ * killed while the activity is in the background.
+ */
+public class GameSessionViewModel extends ViewModel {
+
+    private static final String KEY_SESSION = "se.umu.id14ant.thirty.session";
+    private static final String KEY_GAME = "se.umu.id14ant.thirty.sessionGame";
+
+    private final GameSessionRepository mRepository;
+    private final GameAdvisor mAdvisor;
+    private GameSession mSession;
+    private GameAdvisor.Request mAdviceRequest;
+
+    /**
+     * Creates a view model using the repository of the process.
+     */
+    public GameSessionViewModel(){
+        this(GameSessionRepository.getInstance(), GameAdvisor.getInstance());
+    }
+
+    /**
+     * Creates a view model using the given repository and advisor.
+     * @param repository the repository.
+     * @param advisor the advisor.
+     */
+    GameSessionViewModel(GameSessionRepository repository, GameAdvisor advisor){
+        mRepository = repository;
+        mAdvisor = advisor;
+    }
+
+    /**
+     * Returns true if the view model has a session, which it keeps when the activity is recreated.
+     * @return true if there is a session, otherwise false.
+     */
+    public boolean hasSession(){
+        return mSession != null;
+    }
+
+    /**
+     * Starts a new session with the given game.
+     * @param game the game.
+     */
+    public void start(Game game){
+        release();
+        mSession = mRepository.create(game);
+    }
+
+    /**
+     * Connects to the session with the given id. If the session is gone because the process has been killed, it is
+     * restored from the given instance state.
+     * @param id the id of the session, or null to use the id in the instance state.
+     * @param savedInstanceState the instance state saved by {@link #save(Bundle)}, or null.
+     * @return true if the session was found or restored, otherwise false.
+     */
+    public boolean connect(String id, Bundle savedInstanceState){
+        if(mSession != null){
+            return true;
+        }
+        if(id == null && savedInstanceState != null){
+            id = savedInstanceState.getString(KEY_SESSION);
+        }
+        if(id == null){
+            return false;
+        }
+
+        mSession = mRepository.acquire(id);
+        if(mSession == null && savedInstanceState != null && id.equals(savedInstanceState.getString(KEY_SESSION))){
+            ParcelableGame saved = savedInstanceState.getParcelable(KEY_GAME);
+            if(saved != null){
+                mSession = mRepository.restore(id, saved.getGame());
+            }
+        }
+        return mSession != null;
+    }
+
+    /**
+     * Saves the id and the game of the session in the given instance state.
+     * @param outState the instance state.
+     */
+    public void save(Bundle outState){
+        if(mSession != null){
+            outState.putString(KEY_SESSION, mSession.getId());
+            outState.putParcelable(KEY_GAME, new ParcelableGame(mSession.getGame()));
+        }
+    }
+
+    /**
+     * Returns the id of the session, used to pass the session to another activity.
+     * @return the id.
+     */
+    public String getSessionId(){
+        return mSession.getId();
+    }
+
+    /**
+     * Returns the game of the session.
+     * @return the game.
+     */
+    public Game getGame(){
+        return mSession.getGame();
+    }
+
+    /**
+     * Requests which dices to keep before the next throw, cancelling any earlier request. There must be throws left.
+     * @param listener the listener receiving the advice on the main thread.
+     */
+    public void adviseKeep(GameAdvisor.OnAdviceListener listener){
+        cancelAdvice();
+        mAdviceRequest = mAdvisor.adviseKeep(mSession.getGame(), listener);
+    }
+
+    /**
+     * Requests which scoring method to use, cancelling any earlier request.
+     * @param listener the listener receiving the advice on the main thread.
+     */
+    public void adviseMethod(GameAdvisor.OnAdviceListener listener){
+        cancelAdvice();
+        mAdviceRequest = mAdvisor.adviseMethod(mSession.getGame(), listener);
+    }
+
+    /**
+     * Cancels the pending request for advice, if there is one. Called when the dices change, since the advice would
+     * no longer fit them, and when the activity stops.
+     */
+    public void cancelAdvice(){
+        if(mAdviceRequest != null){
+            mAdviceRequest.cancel();
+            mAdviceRequest = null;
+        }
+    }
+
+    /**
+     * Releases the session when the activity is finished.
+     */
+    @Override
+    protected void onCleared(){
+        cancelAdvice();
+        release();
+    }
+
+    /**
+     * Releases the session if there is one.
+     */
+    private void release(){
+        if(mSession != null){
+            mRepository.release(mSession);
+            mSession = null;
+        }
+    }
+}
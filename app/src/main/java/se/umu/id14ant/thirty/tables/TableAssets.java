@@ -0,0 +1,100 @@
+package se.umu.id14ant.thirty.tables;
+
+import android.content.Context;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+import se.umu.id14ant.thirty.strategy.MappedStrategy;
+
+/**
+ * Opens the tables the build generated as assets, described by {@link TableIndex}.
+ *
+ * Assets are compressed in the package and cannot be mapped from there, so the first time a table is opened it is
+ * streamed into the files of the app and checked against the checksum of the index. Later opens map that file
+ * directly. The file is named by its checksum, so an update of the app with a new table never opens an old copy.
+ */
+public final class TableAssets {
+
+    private static final String STRATEGY_PREFIX = "strategy-";
+    private static final String TABLE_SUFFIX = ".tbl";
+    private static final int BUFFER_SIZE = 8192;
+
+    private TableAssets(){
+    }
+
+    /**
+     * Opens the optimal strategy table, copying it out of the package the first time. Must not be called on the
+     * main thread.
+     * @param context the context of the app.
+     * @return the strategy.
+     * @throws IOException if the table cannot be copied or opened.
+     */
+    public static MappedStrategy openStrategy(Context context) throws IOException {
+        File directory = context.getFilesDir();
+        String name = String.format(Locale.ROOT, "%s%08x%s", STRATEGY_PREFIX, TableIndex.STRATEGY_CRC, TABLE_SUFFIX);
+        File file = new File(directory, name);
+        if(file.length() != TableIndex.STRATEGY_SIZE){
+            copyAsset(context, TableIndex.STRATEGY_ASSET, file, TableIndex.STRATEGY_CRC);
+            deleteOlderCopies(directory, name);
+        }
+        return MappedStrategy.open(file);
+    }
+
+    /**
+     * Streams an asset into a file, which only appears once its whole content has been checked.
+     * @param context the context of the app.
+     * @param asset the name of the asset.
+     * @param file the file.
+     * @param expectedCrc the CRC-32 the content must have.
+     * @throws IOException if the asset cannot be copied or its checksum differs.
+     */
+    private static void copyAsset(Context context, String asset, File file, long expectedCrc) throws IOException {
+        File temporary = new File(file.getPath() + ".tmp");
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        InputStream in = context.getAssets().open(asset);
+        try {
+            OutputStream out = new FileOutputStream(temporary);
+            try {
+                int read;
+                while((read = in.read(buffer)) > 0){
+                    crc.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+
+        if(crc.getValue() != expectedCrc || !temporary.renameTo(file)){
+            temporary.delete();
+            throw new IOException("Could not copy asset " + asset);
+        }
+    }
+
+    /**
+     * Deletes the copies of strategy tables other than the current one.
+     * @param directory the directory of the copies.
+     * @param current the name of the current copy.
+     */
+    private static void deleteOlderCopies(File directory, String current){
+        File[] files = directory.listFiles();
+        if(files == null){
+            return;
+        }
+        for (File file: files) {
+            String name = file.getName();
+            if(name.startsWith(STRATEGY_PREFIX) && name.endsWith(TABLE_SUFFIX) && !name.equals(current)){
+                file.delete();
+            }
+        }
+    }
+}
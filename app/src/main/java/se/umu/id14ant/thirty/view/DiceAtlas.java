@@ -0,0 +1,107 @@
+package se.umu.id14ant.thirty.view;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+
+import se.umu.id14ant.thirty.R;
+
+/**
+ * All twelve die faces decoded once into a single bitmap, white faces on the first row and grey faces on the second,
+ * ordered by value. Drawing a die copies a part of the atlas, so no resources are looked up while drawing.
+ */
+final class DiceAtlas {
+
+    private static final int FACES = 6;
+    private static final int[] WHITE_FACES = {R.drawable.white1, R.drawable.white2, R.drawable.white3,
+            R.drawable.white4, R.drawable.white5, R.drawable.white6};
+    private static final int[] GREY_FACES = {R.drawable.grey1, R.drawable.grey2, R.drawable.grey3,
+            R.drawable.grey4, R.drawable.grey5, R.drawable.grey6};
+
+    private static DiceAtlas sAtlas;
+
+    private final Bitmap mBitmap;
+    private final int mFaceSize;
+    private final int mDensityDpi;
+
+    /**
+     * Returns the atlas for the density of the given resources, decoding it on first use.
+     * @param resources the resources holding the faces.
+     * @return the atlas.
+     */
+    static synchronized DiceAtlas get(Resources resources){
+        int densityDpi = resources.getDisplayMetrics().densityDpi;
+        if(sAtlas == null || sAtlas.mDensityDpi != densityDpi){
+            sAtlas = new DiceAtlas(resources, densityDpi);
+        }
+        return sAtlas;
+    }
+
+    /**
+     * Decodes the faces and draws them into the atlas.
+     * @param resources the resources holding the faces.
+     * @param densityDpi the density the faces are decoded for.
+     */
+    private DiceAtlas(Resources resources, int densityDpi){
+        mDensityDpi = densityDpi;
+        Bitmap[] white = decode(resources, WHITE_FACES);
+        Bitmap[] grey = decode(resources, GREY_FACES);
+        mFaceSize = white[0].getWidth();
+
+        mBitmap = Bitmap.createBitmap(FACES * mFaceSize, 2 * mFaceSize, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(mBitmap);
+        Rect destination = new Rect();
+        for(int i = 0; i < FACES; i++){
+            destination.set(i * mFaceSize, 0, (i + 1) * mFaceSize, mFaceSize);
+            canvas.drawBitmap(white[i], null, destination, null);
+            destination.offset(0, mFaceSize);
+            canvas.drawBitmap(grey[i], null, destination, null);
+            white[i].recycle();
+            grey[i].recycle();
+        }
+    }
+
+    /**
+     * Returns the bitmap holding all faces.
+     * @return the bitmap.
+     */
+    Bitmap getBitmap(){
+        return mBitmap;
+    }
+
+    /**
+     * Returns the size in pixels of a face, which is square.
+     * @return the size.
+     */
+    int getFaceSize(){
+        return mFaceSize;
+    }
+
+    /**
+     * Sets the given rectangle to the part of the atlas showing a face.
+     * @param value the value of the die, between 1 and 6.
+     * @param saved true for the face of a saved die, otherwise false.
+     * @param source the rectangle to set.
+     */
+    void getSource(int value, boolean saved, Rect source){
+        int left = (value - 1) * mFaceSize;
+        int top = saved ? mFaceSize : 0;
+        source.set(left, top, left + mFaceSize, top + mFaceSize);
+    }
+
+    /**
+     * Decodes the given drawables.
+     * @param resources the resources holding the drawables.
+     * @param ids the ids of the drawables.
+     * @return the bitmaps.
+     */
+    private static Bitmap[] decode(Resources resources, int[] ids){
+        Bitmap[] bitmaps = new Bitmap[ids.length];
+        for(int i = 0; i < ids.length; i++){
+            bitmaps[i] = BitmapFactory.decodeResource(resources, ids[i]);
+        }
+        return bitmaps;
+    }
+}
@@ -0,0 +1,336 @@
+package se.umu.id14ant.thirty.view;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffColorFilter;
+import android.graphics.Rect;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+
+import se.umu.id14ant.thirty.R;
+import se.umu.id14ant.thirty.metrics.Metric;
+import se.umu.id14ant.thirty.metrics.Metrics;
+import se.umu.id14ant.thirty.model.Die;
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.model.ScoreResult;
+
+/**
+ * Shows all dices of a game in a grid drawn on a single canvas, replacing one image button per die. Faces are
+ * taken from a {@link DiceAtlas} decoded once, and taps are mapped to dices by the view itself.
+ *
+ * The grid is configured with the attributes diceColumns, dieSize, diePadding and dieSelectable. Each die takes a
+ * cell of its size plus the padding on every side, and a tap anywhere in the cell selects the die.
+ *
+ * The groups of dices behind a score can be shown by tinting each group in a color of its own. The tinted paints are
+ * created with the view, so drawing never allocates.
+ */
+public class DiceBoardView extends View {
+
+    private static final int DICES = Game.NUMBER_OF_DICES;
+    private static final Metric DRAW_METRIC = Metrics.metric("view.drawDice");
+
+    /**
+     * Receives taps on the dices of the board.
+     */
+    public interface OnDieClickListener {
+
+        /**
+         * Called when a die has been tapped.
+         * @param die the index of the die.
+         */
+        void onDieClick(int die);
+    }
+
+    private final DiceAtlas mAtlas;
+    private final Paint mPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Rect mSource = new Rect();
+    private final Rect mDestination = new Rect();
+    private final Rect[] mCells = new Rect[DICES];
+    private final int[] mValues = new int[DICES];
+    private final int[] mGroups = new int[DICES];
+    private final Paint[] mGroupPaints;
+    private int mSavedMask;
+
+    private int mColumns;
+    private int mDieSize;
+    private int mDiePadding;
+    private boolean mSelectable;
+    private OnDieClickListener mListener;
+    private int mPressedDie = -1;
+
+    /**
+     * Creates a board with the default attributes.
+     * @param context the context.
+     */
+    public DiceBoardView(Context context){
+        this(context, null);
+    }
+
+    /**
+     * Creates a board with attributes from a layout.
+     * @param context the context.
+     * @param attrs the attributes.
+     */
+    public DiceBoardView(Context context, AttributeSet attrs){
+        super(context, attrs);
+        mAtlas = DiceAtlas.get(getResources());
+        for(int i = 0; i < DICES; i++){
+            mCells[i] = new Rect();
+            mValues[i] = i + 1;
+            mGroups[i] = -1;
+        }
+
+        TypedArray colors = getResources().obtainTypedArray(R.array.die_group_colors);
+        try {
+            mGroupPaints = new Paint[colors.length()];
+            for(int i = 0; i < mGroupPaints.length; i++){
+                mGroupPaints[i] = new Paint(Paint.FILTER_BITMAP_FLAG);
+                mGroupPaints[i].setColorFilter(new PorterDuffColorFilter(colors.getColor(i, 0),
+                        PorterDuff.Mode.MULTIPLY));
+            }
+        } finally {
+            colors.recycle();
+        }
+
+        TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.DiceBoardView);
+        try {
+            mColumns = Math.max(1, a.getInt(R.styleable.DiceBoardView_diceColumns, 3));
+            mDieSize = a.getDimensionPixelSize(R.styleable.DiceBoardView_dieSize, mAtlas.getFaceSize());
+            mDiePadding = a.getDimensionPixelSize(R.styleable.DiceBoardView_diePadding, 0);
+            mSelectable = a.getBoolean(R.styleable.DiceBoardView_dieSelectable, true);
+        } finally {
+            a.recycle();
+        }
+    }
+
+    /**
+     * Shows the values and saved states of the given dices, redrawing only if something changed.
+     * @param dices the dices.
+     */
+    public void setDice(Die[] dices){
+        setDice(dices, true);
+    }
+
+    /**
+     * Shows the values of the given dices, and their saved states if asked to, redrawing only if something changed.
+     * @param dices the dices.
+     * @param showSaved true to show saved dices as saved, false to show every die as unsaved.
+     */
+    public void setDice(Die[] dices, boolean showSaved){
+        boolean changed = false;
+        int savedMask = 0;
+        for(int i = 0; i < DICES; i++){
+            if(mValues[i] != dices[i].getValue()){
+                mValues[i] = dices[i].getValue();
+                changed = true;
+            }
+            if(showSaved && dices[i].isSaved()){
+                savedMask |= 1 << i;
+            }
+        }
+        if(changed || savedMask != mSavedMask){
+            mSavedMask = savedMask;
+            invalidate();
+        }
+    }
+
+    /**
+     * Tints the dices of each group of the given score, or removes the tints.
+     * @param result the score and its groups, or null to show no groups.
+     */
+    public void setGroups(ScoreResult result){
+        for(int i = 0; i < DICES; i++){
+            mGroups[i] = -1;
+        }
+        if(result != null){
+            for(int group = 0; group < result.getGroupCount(); group++){
+                for(int i = 0; i < DICES; i++){
+                    if((result.getGroup(group) & (1 << i)) != 0){
+                        mGroups[i] = group;
+                    }
+                }
+            }
+        }
+        invalidate();
+    }
+
+    /**
+     * Returns the group the given die is shown as part of.
+     * @param die the index of the die.
+     * @return the index of the group, or -1 if the die is not part of any group.
+     */
+    public int getGroup(int die){
+        return mGroups[die];
+    }
+
+    /**
+     * Returns the value shown for the given die.
+     * @param die the index of the die.
+     * @return the value.
+     */
+    public int getValue(int die){
+        return mValues[die];
+    }
+
+    /**
+     * Returns true if the given die is shown as saved, otherwise false.
+     * @param die the index of the die.
+     * @return true if the die is saved.
+     */
+    public boolean isSaved(int die){
+        return (mSavedMask & (1 << die)) != 0;
+    }
+
+    /**
+     * Sets the listener receiving taps on the dices.
+     * @param listener the listener, or null.
+     */
+    public void setOnDieClickListener(OnDieClickListener listener){
+        mListener = listener;
+    }
+
+    /**
+     * Sets whether tapping a die is reported to the listener.
+     * @param selectable true if the dices can be tapped, otherwise false.
+     */
+    public void setSelectable(boolean selectable){
+        mSelectable = selectable;
+    }
+
+    /**
+     * Returns the number of dices on each row.
+     * @return the number of columns.
+     */
+    public int getColumns(){
+        return mColumns;
+    }
+
+    /**
+     * Returns the die shown at the given position of the view.
+     * @param x the horizontal position.
+     * @param y the vertical position.
+     * @return the index of the die, or -1 if there is no die at the position.
+     */
+    public int dieAt(float x, float y){
+        for(int i = 0; i < DICES; i++){
+            Rect cell = mCells[i];
+            if(x >= cell.left && x < cell.right && y >= cell.top && y < cell.bottom){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the bounds of the cell of the given die, including its padding.
+     * @param die the index of the die.
+     * @return a copy of the bounds.
+     */
+    public Rect getCellBounds(int die){
+        return new Rect(mCells[die]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec){
+        int cell = mDieSize + 2 * mDiePadding;
+        int width = getPaddingLeft() + getPaddingRight() + mColumns * cell;
+        int height = getPaddingTop() + getPaddingBottom() + rows() * cell;
+        setMeasuredDimension(resolveSize(width, widthMeasureSpec), resolveSize(height, heightMeasureSpec));
+    }
+
+    /**
+     * Places the cells of the dices, centering the grid in the view.
+     * @param w the new width.
+     * @param h the new height.
+     * @param oldw the old width.
+     * @param oldh the old height.
+     */
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh){
+        int cell = mDieSize + 2 * mDiePadding;
+        int left = getPaddingLeft() + (w - getPaddingLeft() - getPaddingRight() - mColumns * cell) / 2;
+        int top = getPaddingTop() + (h - getPaddingTop() - getPaddingBottom() - rows() * cell) / 2;
+        for(int i = 0; i < DICES; i++){
+            int x = left + (i % mColumns) * cell;
+            int y = top + (i / mColumns) * cell;
+            mCells[i].set(x, y, x + cell, y + cell);
+        }
+    }
+
+    /**
+     * Draws every die from the atlas, tinted by the color of its group if it is part of one.
+     * @param canvas the canvas.
+     */
+    @Override
+    protected void onDraw(Canvas canvas){
+        long start = Metrics.start();
+        for(int i = 0; i < DICES; i++){
+            if(mValues[i] < 1){
+                continue;
+            }
+            mAtlas.getSource(mValues[i], isSaved(i), mSource);
+            Rect cell = mCells[i];
+            mDestination.set(cell.left + mDiePadding, cell.top + mDiePadding,
+                    cell.right - mDiePadding, cell.bottom - mDiePadding);
+            Paint paint = mGroups[i] < 0 ? mPaint : mGroupPaints[mGroups[i] % mGroupPaints.length];
+            canvas.drawBitmap(mAtlas.getBitmap(), mSource, mDestination, paint);
+        }
+        DRAW_METRIC.stop(start);
+    }
+
+    /**
+     * Reports a tap on a die when the finger is lifted over the same die it was put down on.
+     * @param event the touch event.
+     * @return true if the event was handled.
+     */
+    @Override
+    public boolean onTouchEvent(MotionEvent event){
+        if(!mSelectable || !isEnabled()){
+            return false;
+        }
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                mPressedDie = dieAt(event.getX(), event.getY());
+                return mPressedDie >= 0;
+            case MotionEvent.ACTION_UP:
+                int die = dieAt(event.getX(), event.getY());
+                boolean tapped = die >= 0 && die == mPressedDie;
+                mPressedDie = -1;
+                if(tapped){
+                    performClick();
+                    if(mListener != null){
+                        mListener.onDieClick(die);
+                    }
+                }
+                return tapped;
+            case MotionEvent.ACTION_CANCEL:
+                mPressedDie = -1;
+                return true;
+            default:
+                return mPressedDie >= 0;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean performClick(){
+        return super.performClick();
+    }
+
+    /**
+     * Returns the number of rows of the grid.
+     * @return the number of rows.
+     */
+    private int rows(){
+        return (DICES + mColumns - 1) / mColumns;
+    }
+}
@@ -0,0 +1,209 @@
+package se.umu.id14ant.thirty.view;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.os.SystemClock;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import se.umu.id14ant.thirty.R;
+import se.umu.id14ant.thirty.model.Die;
+import se.umu.id14ant.thirty.model.RandomSource;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the layout and hit-testing of the dice board.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DiceBoardViewTest {
+
+    private static final int DIE_SIZE = 60;
+    private static final int DIE_PADDING = 10;
+    private static final int CELL = DIE_SIZE + 2 * DIE_PADDING;
+
+    @Test
+    public void measuresGridOfCells() {
+        DiceBoardView board = createBoard(3, true);
+        board.measure(View.MeasureSpec.UNSPECIFIED, View.MeasureSpec.UNSPECIFIED);
+        assertEquals(3 * CELL, board.getMeasuredWidth());
+        assertEquals(2 * CELL, board.getMeasuredHeight());
+
+        board = createBoard(6, true);
+        board.measure(View.MeasureSpec.UNSPECIFIED, View.MeasureSpec.UNSPECIFIED);
+        assertEquals(6 * CELL, board.getMeasuredWidth());
+        assertEquals(CELL, board.getMeasuredHeight());
+    }
+
+    @Test
+    public void gridIsCenteredInLargerView() {
+        DiceBoardView board = createBoard(3, true);
+        board.layout(0, 0, 3 * CELL + 40, 2 * CELL + 20);
+
+        assertEquals(new Rect(20, 10, 20 + CELL, 10 + CELL), board.getCellBounds(0));
+        assertEquals(new Rect(20 + 2 * CELL, 10 + CELL, 20 + 3 * CELL, 10 + 2 * CELL), board.getCellBounds(5));
+    }
+
+    @Test
+    public void dieAtMapsEveryCell() {
+        DiceBoardView board = createBoard(3, true);
+        board.layout(0, 0, 3 * CELL + 40, 2 * CELL + 20);
+
+        for(int die = 0; die < 6; die++){
+            Rect cell = board.getCellBounds(die);
+            assertEquals(die, board.dieAt(cell.exactCenterX(), cell.exactCenterY()));
+            assertEquals(die, board.dieAt(cell.left, cell.top));
+            assertEquals(die, board.dieAt(cell.right - 1, cell.bottom - 1));
+        }
+        assertEquals(-1, board.dieAt(5, 5));
+        assertEquals(-1, board.dieAt(20 + 3 * CELL, 10));
+        assertEquals(-1, board.dieAt(20, 10 + 2 * CELL));
+    }
+
+    @Test
+    public void tapReportsDie() {
+        DiceBoardView board = createBoard(6, true);
+        board.layout(0, 0, 6 * CELL, CELL);
+        List<Integer> clicks = listen(board);
+
+        tap(board, board.getCellBounds(4), board.getCellBounds(4));
+        tap(board, board.getCellBounds(0), board.getCellBounds(0));
+        assertEquals(2, clicks.size());
+        assertEquals(4, (int) clicks.get(0));
+        assertEquals(0, (int) clicks.get(1));
+    }
+
+    @Test
+    public void dragBetweenDiceIsIgnored() {
+        DiceBoardView board = createBoard(6, true);
+        board.layout(0, 0, 6 * CELL, CELL);
+        List<Integer> clicks = listen(board);
+
+        tap(board, board.getCellBounds(1), board.getCellBounds(2));
+        assertTrue(clicks.isEmpty());
+    }
+
+    @Test
+    public void tapsAreIgnoredWhenNotSelectable() {
+        DiceBoardView board = createBoard(3, false);
+        board.layout(0, 0, 3 * CELL, 2 * CELL);
+        List<Integer> clicks = listen(board);
+
+        tap(board, board.getCellBounds(3), board.getCellBounds(3));
+        assertTrue(clicks.isEmpty());
+    }
+
+    @Test
+    public void showsValuesAndSavedState() {
+        DiceBoardView board = createBoard(3, true);
+        board.layout(0, 0, 3 * CELL, 2 * CELL);
+
+        Die[] dices = new Die[6];
+        for(int i = 0; i < dices.length; i++){
+            dices[i] = new Die("dice" + (i + 1), i % 2 == 0, 6 - i, RandomSource.create(i));
+        }
+        board.setDice(dices);
+        for(int i = 0; i < dices.length; i++){
+            assertEquals(6 - i, board.getValue(i));
+            assertEquals(i % 2 == 0, board.isSaved(i));
+        }
+
+        //Drawing takes every face from the atlas.
+        Bitmap bitmap = Bitmap.createBitmap(3 * CELL, 2 * CELL, Bitmap.Config.ARGB_8888);
+        board.draw(new Canvas(bitmap));
+    }
+
+    @Test
+    public void savedDiceCanBeShownAsUnsaved() {
+        DiceBoardView board = createBoard(3, true);
+        Die[] dices = new Die[6];
+        for(int i = 0; i < dices.length; i++){
+            dices[i] = new Die("dice" + (i + 1), true, i + 1, RandomSource.create(i));
+        }
+        board.setDice(dices, false);
+        for(int i = 0; i < dices.length; i++){
+            assertFalse(board.isSaved(i));
+            assertTrue(dices[i].isSaved());
+        }
+
+        board.setDice(dices);
+        for(int i = 0; i < dices.length; i++){
+            assertTrue(board.isSaved(i));
+        }
+    }
+
+    @Test
+    public void atlasHoldsWhiteAndGreyFaces() {
+        DiceAtlas atlas = DiceAtlas.get(RuntimeEnvironment.application.getResources());
+        int size = atlas.getFaceSize();
+        assertEquals(6 * size, atlas.getBitmap().getWidth());
+        assertEquals(2 * size, atlas.getBitmap().getHeight());
+
+        Rect source = new Rect();
+        atlas.getSource(1, false, source);
+        assertEquals(new Rect(0, 0, size, size), source);
+        atlas.getSource(6, true, source);
+        assertEquals(new Rect(5 * size, size, 6 * size, 2 * size), source);
+        assertSame(atlas, DiceAtlas.get(RuntimeEnvironment.application.getResources()));
+    }
+
+    /**
+     * Creates a board with dices of a fixed size.
+     * @param columns the number of columns.
+     * @param selectable true if the dices can be tapped.
+     * @return the board.
+     */
+    private static DiceBoardView createBoard(int columns, boolean selectable){
+        AttributeSet attrs = Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.diceColumns, String.valueOf(columns))
+                .addAttribute(R.attr.dieSize, DIE_SIZE + "px")
+                .addAttribute(R.attr.diePadding, DIE_PADDING + "px")
+                .addAttribute(R.attr.dieSelectable, String.valueOf(selectable))
+                .build();
+        return new DiceBoardView(RuntimeEnvironment.application, attrs);
+    }
+
+    /**
+     * Adds a listener collecting the tapped dices.
+     * @param board the board.
+     * @return the list the tapped dices are added to.
+     */
+    private static List<Integer> listen(DiceBoardView board){
+        final List<Integer> clicks = new ArrayList<>();
+        board.setOnDieClickListener(new DiceBoardView.OnDieClickListener() {
+            @Override
+            public void onDieClick(int die) {
+                clicks.add(die);
+            }
+        });
+        return clicks;
+    }
+
+    /**
+     * Puts a finger down in the center of one cell and lifts it in the center of another.
+     * @param board the board.
+     * @param down the cell touched first.
+     * @param up the cell where the finger is lifted.
+     */
+    private static void tap(DiceBoardView board, Rect down, Rect up){
+        long time = SystemClock.uptimeMillis();
+        MotionEvent event = MotionEvent.obtain(time, time, MotionEvent.ACTION_DOWN,
+                down.exactCenterX(), down.exactCenterY(), 0);
+        board.dispatchTouchEvent(event);
+        event.recycle();
+        event = MotionEvent.obtain(time, time + 50, MotionEvent.ACTION_UP, up.exactCenterX(), up.exactCenterY(), 0);
+        board.dispatchTouchEvent(event);
+        event.recycle();
+    }
+}
@@ -0,0 +1,107 @@
+package se.umu.id14ant.thirty.events;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.model.ScoreTable;
+import se.umu.id14ant.thirty.model.ScoringMethod;
+
+/**
+ * Benchmarks of writing and replaying game event logs, measured per game of about fifty events.
+ */
+@State(Scope.Thread)
+public class EventLogBenchmark {
+
+    private static final int GAMES = 1000;
+    private static final long SEED = 42;
+
+    private File mLog;
+    private File mOutput;
+
+    @Setup
+    public void setUp() throws IOException {
+        mLog = File.createTempFile("replay", ".log");
+        mOutput = File.createTempFile("record", ".log");
+        mLog.delete();
+        EventLogWriter writer = EventLogWriter.open(mLog);
+        try {
+            record(writer);
+        } finally {
+            writer.close();
+        }
+    }
+
+    @TearDown
+    public void tearDown(){
+        mLog.delete();
+        mOutput.delete();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public long record() throws IOException {
+        mOutput.delete();
+        EventLogWriter writer = EventLogWriter.open(mOutput);
+        try {
+            return record(writer);
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public GameReplay replay() throws IOException {
+        GameReplay replay = GameReplay.replay(mLog);
+        if(!replay.matches()){
+            throw new IllegalStateException("Replay does not match the log");
+        }
+        return replay;
+    }
+
+    /**
+     * Plays games saving random dices between the throws and choosing random methods, writing their events.
+     * @param writer the writer.
+     * @return the sum of the results.
+     */
+    private static long record(EventLogWriter writer){
+        Random random = new Random(SEED);
+        long total = 0;
+        for(int i = 0; i < GAMES; i++){
+            Game game = new Game(SEED + i);
+            game.setEventListener(writer);
+            for(int round = 1; round <= Game.NUMBER_OF_ROUNDS; round++){
+                do{
+                    for(int die = 0; die < Game.NUMBER_OF_DICES; die++){
+                        if(random.nextInt(4) == 0){
+                            game.toggleSaved(die);
+                        }
+                    }
+                } while(game.rollDices());
+
+                int method;
+                do{
+                    method = random.nextInt(Game.NUMBER_OF_ROUNDS);
+                } while(game.methodIsUsed(method));
+                ScoringMethod scoringMethod = ScoringMethod.fromIndex(method);
+                game.addScore(method == ScoreTable.LOW
+                        ? game.calculateLowScore() : game.calculateScore(scoringMethod.getTarget()), scoringMethod);
+                game.addUsedMethod(method);
+                if(round < Game.NUMBER_OF_ROUNDS){
+                    game.nextRound();
+                }
+            }
+            total += game.getResult();
+        }
+        return total;
+    }
+}
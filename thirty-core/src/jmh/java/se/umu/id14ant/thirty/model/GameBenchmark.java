@@ -0,0 +1,178 @@
+package se.umu.id14ant.thirty.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmarks of the hot paths of the game engine. Modes, time unit and the GC profiler used for the allocation rate
+ * are configured in the jmh block of the build file.
+ */
+public class GameBenchmark {
+
+    private static final long SEED = 42;
+
+    /**
+     * The dices used as input by the benchmarks.
+     */
+    @State(Scope.Thread)
+    public static class DiceState {
+
+        /**
+         * The kind of throw. Adversarial has every die below every target and many equal sums, so no die is
+         * discarded early and the number of candidate groups is as large as possible.
+         */
+        @Param({"random", "ones", "sixes", "adversarial"})
+        public String dices;
+
+        Game mGame;
+
+        @Setup
+        public void setUp(){
+            mGame = createGame(values(dices));
+        }
+    }
+
+    /**
+     * The dices and target used when benchmarking the target scoring methods.
+     */
+    @State(Scope.Thread)
+    public static class TargetState {
+
+        @Param({"random", "ones", "sixes", "adversarial"})
+        public String dices;
+
+        @Param({"4", "5", "6", "7", "8", "9", "10", "11", "12"})
+        public int target;
+
+        Game mGame;
+
+        @Setup
+        public void setUp(){
+            mGame = createGame(values(dices));
+        }
+    }
+
+    /**
+     * A game where all rounds have been scored.
+     */
+    @State(Scope.Thread)
+    public static class FinishedState {
+
+        Game mGame;
+
+        @Setup
+        public void setUp(){
+            mGame = playGame(new Game());
+        }
+    }
+
+    @Benchmark
+    public boolean rollDices(DiceState state){
+        //Starting a new round resets the number of throws, so every call rolls.
+        state.mGame.nextRound();
+        return state.mGame.rollDices();
+    }
+
+    @Benchmark
+    public int calculateScore(TargetState state){
+        return state.mGame.calculateScore(state.target);
+    }
+
+    @Benchmark
+    public int calculateLowScore(DiceState state){
+        return state.mGame.calculateLowScore();
+    }
+
+    @Benchmark
+    public int getResult(FinishedState state){
+        return state.mGame.getResult();
+    }
+
+    @Benchmark
+    public void playGame(Blackhole blackhole){
+        blackhole.consume(playGame(new Game()).getResult());
+    }
+
+    /**
+     * Plays a full game where all throws are used without saving any dices, and the unused scoring method giving
+     * the highest score is chosen each round.
+     * @param game the new game.
+     * @return the finished game.
+     */
+    private static Game playGame(Game game){
+        for(int round = 1; round <= Game.NUMBER_OF_ROUNDS; round++){
+            while(game.rollDices()){
+                //Use all throws.
+            }
+
+            int bestMethod = -1;
+            int bestScore = -1;
+            for(int i = 0; i < Game.NUMBER_OF_ROUNDS; i++){
+                if(game.methodIsUsed(i)){
+                    continue;
+                }
+                int score = i == ScoreTable.LOW ? game.calculateLowScore() : game.calculateScore(i + 3);
+                if(score > bestScore){
+                    bestScore = score;
+                    bestMethod = i;
+                }
+            }
+            game.addScore(bestScore, ScoringMethod.fromIndex(bestMethod));
+            game.addUsedMethod(bestMethod);
+
+            if(round < Game.NUMBER_OF_ROUNDS){
+                game.nextRound();
+                game.rollDices();
+            }
+        }
+        return game;
+    }
+
+    /**
+     * Returns the dice values of the given kind of throw.
+     * @param kind the kind of throw.
+     * @return the dice values.
+     */
+    private static int[] values(String kind){
+        switch (kind) {
+            case "random":
+                Random random = new Random(SEED);
+                int[] values = new int[ScoreTable.DICES];
+                for(int i = 0; i < values.length; i++){
+                    values[i] = random.nextInt(ScoreTable.FACES) + 1;
+                }
+                return values;
+            case "ones":
+                return new int[]{1, 1, 1, 1, 1, 1};
+            case "sixes":
+                return new int[]{6, 6, 6, 6, 6, 6};
+            case "adversarial":
+                return new int[]{1, 1, 2, 2, 3, 3};
+            default:
+                throw new IllegalArgumentException("Unknown kind of throw: " + kind);
+        }
+    }
+
+    /**
+     * Creates a game in the first round with the given dice values.
+     * @param values the dice values.
+     * @return the game.
+     */
+    private static Game createGame(int[] values){
+        RandomSource random = RandomSource.create(SEED);
+        Die[] dices = new Die[values.length];
+        for(int i = 0; i < values.length; i++){
+            dices[i] = new Die("dice" + (i + 1), false, values[i], random);
+        }
+        List<Score> scores = new ArrayList<>();
+        return new Game(1, 2, dices, scores, new boolean[Game.NUMBER_OF_ROUNDS], random);
+    }
+}
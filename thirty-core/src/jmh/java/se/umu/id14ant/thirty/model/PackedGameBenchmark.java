@@ -0,0 +1,59 @@
+package se.umu.id14ant.thirty.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks of the packed game state, both as an engine and as a serialized form of {@link Game}.
+ */
+@State(Scope.Thread)
+public class PackedGameBenchmark {
+
+    private static final long SEED = 42;
+
+    private RandomSource mRandom;
+    private Game mGame;
+    private long mState;
+
+    @Setup
+    public void setUp(){
+        mRandom = RandomSource.create(SEED);
+        mGame = new Game(SEED);
+        mGame.rollDices();
+        mState = mGame.toPacked();
+    }
+
+    @Benchmark
+    public long toPacked(){
+        return mGame.toPacked();
+    }
+
+    @Benchmark
+    public Game fromPacked(){
+        return Game.fromPacked(mState, mRandom);
+    }
+
+    @Benchmark
+    public int playGame(){
+        long state = PackedGame.newGame(mRandom);
+        while(!PackedGame.isFinished(state)){
+            state = PackedGame.roll(PackedGame.roll(state, mRandom), mRandom);
+
+            //Choose the unused method giving the highest score.
+            int usedMethods = PackedGame.usedMethods(state);
+            int rank = PackedGame.rank(state);
+            int bestMethod = -1;
+            int bestScore = -1;
+            for(int method = 0; method < Game.NUMBER_OF_ROUNDS; method++){
+                if((usedMethods & (1 << method)) == 0 && ScoreTable.getScore(rank, method) > bestScore){
+                    bestScore = ScoreTable.getScore(rank, method);
+                    bestMethod = method;
+                }
+            }
+            state = PackedGame.chooseMethod(state, bestMethod);
+        }
+        return PackedGame.total(state);
+    }
+}
@@ -0,0 +1,42 @@
+package se.umu.id14ant.thirty.events;
+
+/**
+ * The binary format of a game event log, written by {@link EventLogWriter} and read by {@link EventLogReader}.
+ *
+ * A log starts with a header of {@value #HEADER_SIZE} bytes: the magic number "THRE" as an int, the format version
+ * as a short and a reserved short. The header is followed by records that are only ever appended. Each record is a
+ * byte with the length of its payload, a byte with its type, and the payload:
+ * <pre>
+ * type         payload
+ * START        long seed, long state of the random source, long game packed by PackedGame
+ * ROLL         byte rolled dices, int values of the rolled dices
+ * TOGGLE_SAVED byte die
+ * SCORE        byte scoring method, byte score
+ * NEXT_ROUND   nothing
+ * </pre>
+ * All values are big-endian. Readers skip records of unknown types using the length, and a record cut short at the
+ * end of the file, as left by a crash while writing, is treated as the end of the log.
+ */
+public final class EventLog {
+
+    public static final int MAGIC = 0x54485245;
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 8;
+    public static final int RECORD_HEADER_SIZE = 2;
+
+    public static final byte START = 1;
+    public static final byte ROLL = 2;
+    public static final byte TOGGLE_SAVED = 3;
+    public static final byte SCORE = 4;
+    public static final byte NEXT_ROUND = 5;
+
+    static final int START_SIZE = 24;
+    static final int ROLL_SIZE = 5;
+    static final int TOGGLE_SAVED_SIZE = 1;
+    static final int SCORE_SIZE = 2;
+    static final int NEXT_ROUND_SIZE = 0;
+    static final int MAX_RECORD_SIZE = RECORD_HEADER_SIZE + 255;
+
+    private EventLog(){
+    }
+}
@@ -0,0 +1,200 @@
+package se.umu.id14ant.thirty.events;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+import se.umu.id14ant.thirty.model.GameEventListener;
+
+/**
+ * Reads a log in the format described by {@link EventLog} and passes its events to a listener, in the order they
+ * were written. The file is read through a direct buffer and reading does not allocate per event.
+ */
+public class EventLogReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileInputStream mIn;
+    private final FileChannel mChannel;
+    private final ByteBuffer mBuffer;
+    private long mPosition;
+    private long mEvents;
+    private boolean mTruncated;
+
+    /**
+     * Opens the given log and reads its header.
+     * @param file the file.
+     * @throws IOException if the file cannot be read or is not an event log.
+     */
+    public EventLogReader(File file) throws IOException {
+        mIn = new FileInputStream(file);
+        mChannel = mIn.getChannel();
+        mBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        mBuffer.limit(0);
+        try {
+            if(!fill(EventLog.HEADER_SIZE) || mBuffer.getInt() != EventLog.MAGIC){
+                throw new IOException("Not an event log");
+            }
+            short version = mBuffer.getShort();
+            if(version != EventLog.VERSION){
+                throw new IOException("Unsupported event log version " + version);
+            }
+            mBuffer.getShort();
+            mPosition = EventLog.HEADER_SIZE;
+        } catch (IOException | RuntimeException e) {
+            mIn.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the length of the part of a log holding complete records.
+     * @param file the file.
+     * @return the length in bytes.
+     * @throws IOException if the file cannot be read or is not an event log.
+     */
+    public static long validLength(File file) throws IOException {
+        EventLogReader reader = new EventLogReader(file);
+        try {
+            reader.read(null);
+            return reader.getPosition();
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads all remaining events and passes them to the given listener.
+     * @param listener the listener, or null to only read the events.
+     * @return the number of events read.
+     * @throws IOException if the file cannot be read or holds a malformed record.
+     */
+    public long read(GameEventListener listener) throws IOException {
+        long events = 0;
+        while(fill(EventLog.RECORD_HEADER_SIZE)){
+            int size = mBuffer.get(mBuffer.position()) & 0xff;
+            if(!fill(EventLog.RECORD_HEADER_SIZE + size)){
+                break;
+            }
+            mBuffer.get();
+            byte type = mBuffer.get();
+            int end = mBuffer.position() + size;
+            if(listener != null){
+                dispatch(type, size, listener);
+            }
+            mBuffer.position(end);
+            mPosition += EventLog.RECORD_HEADER_SIZE + size;
+            events++;
+        }
+        mTruncated = mBuffer.hasRemaining();
+        mEvents += events;
+        return events;
+    }
+
+    /**
+     * Returns the position in the file after the last complete record read.
+     * @return the position.
+     */
+    public long getPosition(){
+        return mPosition;
+    }
+
+    /**
+     * Returns the number of events read so far.
+     * @return the number of events.
+     */
+    public long getEvents(){
+        return mEvents;
+    }
+
+    /**
+     * Returns true if the log ended with an incomplete record, otherwise false.
+     * @return true if the log is truncated.
+     */
+    public boolean isTruncated(){
+        return mTruncated;
+    }
+
+    /**
+     * Closes the file.
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        mIn.close();
+    }
+
+    /**
+     * Decodes the payload of a record and passes it to the listener. Records of unknown types are skipped.
+     * @param type the type of the record.
+     * @param size the size of the payload.
+     * @param listener the listener.
+     * @throws IOException if the size does not match the type.
+     */
+    private void dispatch(byte type, int size, GameEventListener listener) throws IOException {
+        switch (type) {
+            case EventLog.START:
+                checkSize(type, size, EventLog.START_SIZE);
+                listener.onStart(mBuffer.getLong(), mBuffer.getLong(), mBuffer.getLong());
+                break;
+            case EventLog.ROLL:
+                checkSize(type, size, EventLog.ROLL_SIZE);
+                int rollMask = mBuffer.get() & 0xff;
+                listener.onRoll(rollMask, mBuffer.getInt());
+                break;
+            case EventLog.TOGGLE_SAVED:
+                checkSize(type, size, EventLog.TOGGLE_SAVED_SIZE);
+                listener.onToggleSaved(mBuffer.get() & 0xff);
+                break;
+            case EventLog.SCORE:
+                checkSize(type, size, EventLog.SCORE_SIZE);
+                int method = mBuffer.get() & 0xff;
+                listener.onScore(method, mBuffer.get() & 0xff);
+                break;
+            case EventLog.NEXT_ROUND:
+                checkSize(type, size, EventLog.NEXT_ROUND_SIZE);
+                listener.onNextRound();
+                break;
+        }
+    }
+
+    /**
+     * Checks that a record has the payload size of its type.
+     * @param type the type of the record.
+     * @param size the size of the payload.
+     * @param expected the size of the payload of the type.
+     * @throws IOException if the sizes differ.
+     */
+    private void checkSize(byte type, int size, int expected) throws IOException {
+        if(size != expected){
+            throw new IOException("Malformed record of type " + type + " at position " + mPosition);
+        }
+    }
+
+    /**
+     * Reads from the file until the buffer holds at least the given number of bytes or the file ends.
+     * @param bytes the number of bytes needed.
+     * @return true if the bytes are available, false if the file ended first.
+     * @throws IOException if the file cannot be read.
+     */
+    private boolean fill(int bytes) throws IOException {
+        if(mBuffer.remaining() >= bytes){
+            return true;
+        }
+        mBuffer.compact();
+        try {
+            while(mBuffer.position() < bytes){
+                if(mChannel.read(mBuffer) < 0){
+                    return false;
+                }
+            }
+        } finally {
+            mBuffer.flip();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,180 @@
+package se.umu.id14ant.thirty.events;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+import se.umu.id14ant.thirty.model.GameEventListener;
+
+/**
+ * Appends the events of games to a log file in the format described by {@link EventLog}. Attach it to a game with
+ * {@link se.umu.id14ant.thirty.model.Game#setEventListener(GameEventListener)}; several games may be written one
+ * after another to the same log.
+ *
+ * Events are collected in a direct buffer and written to the file channel when the buffer is full, on
+ * {@link #flush()} and on {@link #close()}, so writing an event does not allocate. Since the listener methods cannot
+ * throw, an error while writing is kept and thrown by the next call to flush or close, and later events are dropped.
+ * A writer is not thread-safe.
+ */
+public class EventLogWriter implements GameEventListener, Flushable, Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final RandomAccessFile mFile;
+    private final FileChannel mChannel;
+    private final ByteBuffer mBuffer;
+    private IOException mError;
+
+    /**
+     * Opens the given log for appending, creating it if it does not exist. A record left incomplete at the end of an
+     * existing log is removed first, which means the whole log is read once.
+     * @param file the file.
+     * @return the writer.
+     * @throws IOException if the file cannot be opened or is not an event log.
+     */
+    public static EventLogWriter open(File file) throws IOException {
+        long length = file.length() > 0 ? EventLogReader.validLength(file) : 0;
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            return new EventLogWriter(randomAccessFile, length);
+        } catch (IOException | RuntimeException e) {
+            randomAccessFile.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Positions the file after its last complete record, writing the header if the file is empty.
+     * @param file the opened file.
+     * @param length the length of the complete part of the file.
+     * @throws IOException if the file cannot be written.
+     */
+    private EventLogWriter(RandomAccessFile file, long length) throws IOException {
+        mFile = file;
+        mChannel = file.getChannel();
+        mBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.BIG_ENDIAN);
+
+        mChannel.truncate(length);
+        mChannel.position(length);
+        if(length == 0){
+            mBuffer.putInt(EventLog.MAGIC);
+            mBuffer.putShort(EventLog.VERSION);
+            mBuffer.putShort((short) 0);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onStart(long seed, long randomState, long state){
+        if(begin(EventLog.START, EventLog.START_SIZE)){
+            mBuffer.putLong(seed);
+            mBuffer.putLong(randomState);
+            mBuffer.putLong(state);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onRoll(int rollMask, int values){
+        if(begin(EventLog.ROLL, EventLog.ROLL_SIZE)){
+            mBuffer.put((byte) rollMask);
+            mBuffer.putInt(values);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onToggleSaved(int die){
+        if(begin(EventLog.TOGGLE_SAVED, EventLog.TOGGLE_SAVED_SIZE)){
+            mBuffer.put((byte) die);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onScore(int method, int score){
+        if(begin(EventLog.SCORE, EventLog.SCORE_SIZE)){
+            mBuffer.put((byte) method);
+            mBuffer.put((byte) score);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onNextRound(){
+        begin(EventLog.NEXT_ROUND, EventLog.NEXT_ROUND_SIZE);
+    }
+
+    /**
+     * Writes all buffered events to the file.
+     * @throws IOException if an event could not be written, now or earlier.
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+        if(mError != null){
+            throw mError;
+        }
+    }
+
+    /**
+     * Writes all buffered events and closes the file.
+     * @throws IOException if an event could not be written or the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            mFile.close();
+        }
+    }
+
+    /**
+     * Makes room for a record and writes its header.
+     * @param type the type of the record.
+     * @param size the size of the payload.
+     * @return true if the payload should be written, false if the writer has failed.
+     */
+    private boolean begin(byte type, int size){
+        if(mBuffer.remaining() < EventLog.RECORD_HEADER_SIZE + size){
+            drain();
+        }
+        if(mError != null){
+            return false;
+        }
+        mBuffer.put((byte) size);
+        mBuffer.put(type);
+        return true;
+    }
+
+    /**
+     * Writes the buffer to the file, keeping the first error.
+     */
+    private void drain(){
+        mBuffer.flip();
+        try {
+            while(mError == null && mBuffer.hasRemaining()){
+                mChannel.write(mBuffer);
+            }
+        } catch (IOException e) {
+            mError = e;
+        }
+        mBuffer.clear();
+    }
+}
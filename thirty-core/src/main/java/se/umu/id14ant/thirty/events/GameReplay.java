@@ -0,0 +1,207 @@
+package se.umu.id14ant.thirty.events;
+
+import java.io.File;
+import java.io.IOException;
+
+import se.umu.id14ant.thirty.model.Die;
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.model.GameEventListener;
+import se.umu.id14ant.thirty.model.PackedGame;
+import se.umu.id14ant.thirty.model.RandomSource;
+import se.umu.id14ant.thirty.model.ScoreTable;
+import se.umu.id14ant.thirty.model.ScoringMethod;
+
+/**
+ * Replays logged events on a fresh {@link Game} and checks that the engine reproduces them. Every start event
+ * restores the game and its random source, so every roll must give the logged values and every score must equal the
+ * score the engine calculates for the dices at that point. Events that do not match are counted, and replay
+ * continues with the values calculated by the engine.
+ *
+ * Rolls can only be reproduced for games using the default {@link RandomSource}.
+ */
+public class GameReplay implements GameEventListener {
+
+    private static final int BITS_PER_DIE = PackedGame.BITS_PER_DIE;
+    private static final int DIE_MASK = (1 << BITS_PER_DIE) - 1;
+
+    private Game mGame;
+    private long mGames;
+    private long mRounds;
+    private long mTotalScore;
+    private long mRollMismatches;
+    private long mScoreMismatches;
+    private long mInvalidEvents;
+
+    /**
+     * Replays all events of the given log.
+     * @param file the log.
+     * @return the replay, holding the results.
+     * @throws IOException if the log cannot be read.
+     */
+    public static GameReplay replay(File file) throws IOException {
+        GameReplay replay = new GameReplay();
+        EventLogReader reader = new EventLogReader(file);
+        try {
+            reader.read(replay);
+        } finally {
+            reader.close();
+        }
+        return replay;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onStart(long seed, long randomState, long state){
+        RandomSource random = RandomSource.create(seed);
+        random.setState(randomState);
+        mGame = Game.fromPacked(state, random);
+        mGames++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onRoll(int rollMask, int values){
+        if(mGame == null || rollMask != unsavedMask() || !mGame.rollDices()){
+            mInvalidEvents++;
+            return;
+        }
+
+        Die[] dices = mGame.getDices();
+        for(int i = 0; i < dices.length; i++){
+            if((rollMask & (1 << i)) != 0 && dices[i].getValue() != ((values >>> (BITS_PER_DIE * i)) & DIE_MASK)){
+                mRollMismatches++;
+                return;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onToggleSaved(int die){
+        if(mGame == null || die >= Game.NUMBER_OF_DICES){
+            mInvalidEvents++;
+            return;
+        }
+        mGame.toggleSaved(die);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onScore(int method, int score){
+        if(mGame == null || method >= Game.NUMBER_OF_ROUNDS || mGame.methodIsUsed(method)){
+            mInvalidEvents++;
+            return;
+        }
+
+        ScoringMethod scoringMethod = ScoringMethod.fromIndex(method);
+        int calculated = method == ScoreTable.LOW
+                ? mGame.calculateLowScore() : mGame.calculateScore(scoringMethod.getTarget());
+        if(calculated != score){
+            mScoreMismatches++;
+        }
+        mGame.addScore(calculated, scoringMethod);
+        mGame.addUsedMethod(method);
+        mRounds++;
+        mTotalScore += calculated;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onNextRound(){
+        if(mGame == null || mGame.getCurrentRound() >= Game.NUMBER_OF_ROUNDS){
+            mInvalidEvents++;
+            return;
+        }
+        mGame.nextRound();
+    }
+
+    /**
+     * Returns the game being replayed, in the state after the last event.
+     * @return the game, or null if no start event has been replayed.
+     */
+    public Game getGame(){
+        return mGame;
+    }
+
+    /**
+     * Returns the number of start events replayed.
+     * @return the number of games.
+     */
+    public long getGames(){
+        return mGames;
+    }
+
+    /**
+     * Returns the number of scores replayed.
+     * @return the number of scored rounds.
+     */
+    public long getRounds(){
+        return mRounds;
+    }
+
+    /**
+     * Returns the sum of all scores calculated during the replay.
+     * @return the total score.
+     */
+    public long getTotalScore(){
+        return mTotalScore;
+    }
+
+    /**
+     * Returns the number of rolls where the engine gave other values than the logged ones.
+     * @return the number of mismatching rolls.
+     */
+    public long getRollMismatches(){
+        return mRollMismatches;
+    }
+
+    /**
+     * Returns the number of scores that differ from the score calculated by the engine.
+     * @return the number of mismatching scores.
+     */
+    public long getScoreMismatches(){
+        return mScoreMismatches;
+    }
+
+    /**
+     * Returns the number of events that could not be applied to the game, such as a roll of dices that are saved or
+     * a score for a used method.
+     * @return the number of invalid events.
+     */
+    public long getInvalidEvents(){
+        return mInvalidEvents;
+    }
+
+    /**
+     * Returns true if every event was reproduced by the engine, otherwise false.
+     * @return true if the log matches the engine.
+     */
+    public boolean matches(){
+        return mRollMismatches == 0 && mScoreMismatches == 0 && mInvalidEvents == 0;
+    }
+
+    /**
+     * Returns the dices of the game that are not saved.
+     * @return the mask, where bit i is set if die i is not saved.
+     */
+    private int unsavedMask(){
+        Die[] dices = mGame.getDices();
+        int mask = 0;
+        for(int i = 0; i < dices.length; i++){
+            if(!dices[i].isSaved()){
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+}
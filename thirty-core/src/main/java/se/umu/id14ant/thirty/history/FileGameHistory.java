@@ -0,0 +1,363 @@
+package se.umu.id14ant.thirty.history;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import se.umu.id14ant.thirty.model.Game;
+
+/**
+ * A game history stored in two files: an append-only file with one fixed-size record per game, and a small summary
+ * file next to it holding the statistics and the leaderboard. The summary is replaced after every added game, so
+ * opening the history reads only the summary and never the stored games. If the summary is missing, damaged or
+ * behind the game file, for example after a crash between the two writes, the games it does not cover are read and
+ * added to it.
+ *
+ * The game file starts with a header of {@value #HEADER_SIZE} bytes: the magic number "THRH", the format version as
+ * a short, a reserved short and the record size as an int. Each record holds the timestamp as a long, the result as
+ * a short, and the scoring method and score of every round as bytes. All values are big-endian.
+ *
+ * A history is not thread-safe.
+ */
+public class FileGameHistory implements GameHistory, Closeable {
+
+    public static final int HEADER_SIZE = 16;
+    public static final int MAGIC = 0x54485248;
+    public static final short VERSION = 1;
+    public static final int DEFAULT_LEADERBOARD_SIZE = 10;
+
+    private static final int SUMMARY_MAGIC = 0x54485253;
+    private static final String SUMMARY_SUFFIX = ".summary";
+    private static final int RECORDS_PER_READ = 2048;
+
+    private final RandomAccessFile mFile;
+    private final FileChannel mChannel;
+    private final File mSummaryFile;
+    private final ByteBuffer mRecord;
+    private final int mLeaderboardSize;
+    private long mSize;
+    private HistoryStatistics mStatistics;
+    private Leaderboard mLeaderboard;
+
+    /**
+     * Opens the history stored in the given file with a leaderboard of the default size, creating it if it does not
+     * exist.
+     * @param file the game file.
+     * @return the history.
+     * @throws IOException if the file cannot be opened or is not a game history.
+     */
+    public static FileGameHistory open(File file) throws IOException {
+        return open(file, DEFAULT_LEADERBOARD_SIZE);
+    }
+
+    /**
+     * Opens the history stored in the given file, creating it if it does not exist.
+     * @param file the game file.
+     * @param leaderboardSize the number of games on the leaderboard.
+     * @return the history.
+     * @throws IOException if the file cannot be opened or is not a game history.
+     */
+    public static FileGameHistory open(File file, int leaderboardSize) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            return new FileGameHistory(randomAccessFile, new File(file.getPath() + SUMMARY_SUFFIX), leaderboardSize);
+        } catch (IOException | RuntimeException e) {
+            randomAccessFile.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Validates or writes the header, removes an incomplete last record and brings the summary up to date.
+     * @param file the opened game file.
+     * @param summaryFile the summary file.
+     * @param leaderboardSize the number of games on the leaderboard.
+     * @throws IOException if the files cannot be read or written.
+     */
+    private FileGameHistory(RandomAccessFile file, File summaryFile, int leaderboardSize) throws IOException {
+        mFile = file;
+        mChannel = file.getChannel();
+        mSummaryFile = summaryFile;
+        mLeaderboardSize = leaderboardSize;
+        mRecord = ByteBuffer.allocate(HistoryEntry.RECORD_SIZE).order(ByteOrder.BIG_ENDIAN);
+
+        long length = mChannel.size();
+        if(length == 0){
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+            header.putInt(MAGIC);
+            header.putShort(VERSION);
+            header.putShort((short) 0);
+            header.putInt(HistoryEntry.RECORD_SIZE);
+            header.flip();
+            writeFully(header, 0);
+            length = HEADER_SIZE;
+        } else{
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+            readFully(header, 0);
+            if(header.getInt() != MAGIC || header.getShort() != VERSION){
+                throw new IOException("Not a game history");
+            }
+            header.getShort();
+            if(header.getInt() != HistoryEntry.RECORD_SIZE){
+                throw new IOException("Unexpected record size");
+            }
+        }
+
+        //Drop a record cut short by a crash while it was written.
+        mSize = (length - HEADER_SIZE) / HistoryEntry.RECORD_SIZE;
+        mChannel.truncate(position(mSize));
+
+        long covered = readSummary();
+        if(covered < mSize){
+            catchUp(covered);
+            writeSummary();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public HistoryEntry add(Game game, long timestamp) throws IOException {
+        HistoryEntry entry = HistoryEntry.of(mSize, timestamp, game);
+        mRecord.clear();
+        entry.write(mRecord);
+        mRecord.flip();
+        writeFully(mRecord, position(mSize));
+        mSize++;
+
+        mStatistics.add(entry);
+        mLeaderboard.offer(entry);
+        writeSummary();
+        return entry;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public HistoryEntry get(long index) throws IOException {
+        if(index < 0 || index >= mSize){
+            throw new IndexOutOfBoundsException("Game " + index + " of " + mSize);
+        }
+        mRecord.clear();
+        readFully(mRecord, position(index));
+        return HistoryEntry.read(index, mRecord);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long size(){
+        return mSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public HistoryStatistics getStatistics(){
+        return mStatistics;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<HistoryEntry> getLeaderboard(){
+        return mLeaderboard.getEntries();
+    }
+
+    /**
+     * Closes the game file.
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        mFile.close();
+    }
+
+    /**
+     * Reads the summary file if it is valid and does not cover more games than are stored. Otherwise the statistics
+     * and the leaderboard start empty.
+     * @return the number of games covered by the statistics and the leaderboard.
+     */
+    private long readSummary(){
+        mStatistics = new HistoryStatistics();
+        mLeaderboard = new Leaderboard(mLeaderboardSize);
+
+        ByteBuffer summary;
+        try {
+            summary = readFile(mSummaryFile);
+        } catch (IOException e) {
+            return 0;
+        }
+        if(summary.remaining() < 8 || checksum(summary, summary.limit() - 8) != summary.getLong(summary.limit() - 8)){
+            return 0;
+        }
+
+        HistoryStatistics statistics;
+        Leaderboard leaderboard = new Leaderboard(mLeaderboardSize);
+        long covered;
+        try {
+            if(summary.getInt() != SUMMARY_MAGIC || summary.getShort() != VERSION
+                    || summary.getShort() != mLeaderboardSize){
+                return 0;
+            }
+            covered = summary.getLong();
+            if(covered > mSize){
+                return 0;
+            }
+            statistics = HistoryStatistics.read(summary);
+            int entries = summary.getInt();
+            for(int i = 0; i < entries; i++){
+                long index = summary.getLong();
+                leaderboard.offer(HistoryEntry.read(index, summary));
+            }
+        } catch (BufferUnderflowException e) {
+            return 0;
+        }
+        mStatistics = statistics;
+        mLeaderboard = leaderboard;
+        return covered;
+    }
+
+    /**
+     * Replaces the summary file with the current statistics and leaderboard. The summary is written to a temporary
+     * file that is then renamed, so a crash never leaves a partly written summary.
+     * @throws IOException if the file cannot be written.
+     */
+    private void writeSummary() throws IOException {
+        List<HistoryEntry> entries = mLeaderboard.getEntries();
+        ByteBuffer summary = ByteBuffer.allocate(24 + HistoryStatistics.SIZE
+                + entries.size() * (8 + HistoryEntry.RECORD_SIZE) + 8).order(ByteOrder.BIG_ENDIAN);
+        summary.putInt(SUMMARY_MAGIC);
+        summary.putShort(VERSION);
+        summary.putShort((short) mLeaderboardSize);
+        summary.putLong(mSize);
+        mStatistics.write(summary);
+        summary.putInt(entries.size());
+        for (HistoryEntry entry: entries) {
+            summary.putLong(entry.getIndex());
+            entry.write(summary);
+        }
+        summary.putLong(checksum(summary, summary.position()));
+        summary.flip();
+
+        File temporary = new File(mSummaryFile.getPath() + ".tmp");
+        FileOutputStream out = new FileOutputStream(temporary);
+        try {
+            FileChannel channel = out.getChannel();
+            while(summary.hasRemaining()){
+                channel.write(summary);
+            }
+        } finally {
+            out.close();
+        }
+        if(!temporary.renameTo(mSummaryFile) && !(mSummaryFile.delete() && temporary.renameTo(mSummaryFile))){
+            throw new IOException("Cannot replace " + mSummaryFile);
+        }
+    }
+
+    /**
+     * Adds the stored games from the given index onwards to the statistics and the leaderboard.
+     * @param from the index of the first game to add.
+     * @throws IOException if the games cannot be read.
+     */
+    private void catchUp(long from) throws IOException {
+        ByteBuffer records = ByteBuffer.allocate(RECORDS_PER_READ * HistoryEntry.RECORD_SIZE)
+                .order(ByteOrder.BIG_ENDIAN);
+        for(long index = from; index < mSize;){
+            int count = (int) Math.min(RECORDS_PER_READ, mSize - index);
+            records.clear();
+            records.limit(count * HistoryEntry.RECORD_SIZE);
+            readFully(records, position(index));
+            for(int i = 0; i < count; i++, index++){
+                HistoryEntry entry = HistoryEntry.read(index, records);
+                mStatistics.add(entry);
+                mLeaderboard.offer(entry);
+            }
+        }
+    }
+
+    /**
+     * Returns the position in the game file of the given record.
+     * @param index the index of the record.
+     * @return the position.
+     */
+    private static long position(long index){
+        return HEADER_SIZE + index * HistoryEntry.RECORD_SIZE;
+    }
+
+    /**
+     * Writes the remaining bytes of the buffer to the game file at the given position.
+     * @param buffer the bytes.
+     * @param position the position.
+     * @throws IOException if the file cannot be written.
+     */
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while(buffer.hasRemaining()){
+            position += mChannel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Fills the remaining space of the buffer from the game file at the given position, then flips the buffer.
+     * @param buffer the buffer.
+     * @param position the position.
+     * @throws IOException if the file cannot be read or ends too early.
+     */
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while(buffer.hasRemaining()){
+            int read = mChannel.read(buffer, position);
+            if(read < 0){
+                throw new IOException("Unexpected end of the game history");
+            }
+            position += read;
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Reads a whole file.
+     * @param file the file.
+     * @return a buffer holding the contents.
+     * @throws IOException if the file cannot be read.
+     */
+    private static ByteBuffer readFile(File file) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            FileChannel channel = in.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size()).order(ByteOrder.BIG_ENDIAN);
+            while(buffer.hasRemaining() && channel.read(buffer) >= 0){
+                //Read until the buffer is full.
+            }
+            buffer.flip();
+            return buffer;
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Calculates the CRC-32 of the first bytes of the buffer.
+     * @param buffer the buffer.
+     * @param length the number of bytes.
+     * @return the checksum.
+     */
+    private static long checksum(ByteBuffer buffer, int length){
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), buffer.arrayOffset(), length);
+        return crc.getValue();
+    }
+}
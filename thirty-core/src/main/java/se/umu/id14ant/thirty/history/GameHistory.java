@@ -0,0 +1,47 @@
+package se.umu.id14ant.thirty.history;
+
+import java.io.IOException;
+import java.util.List;
+
+import se.umu.id14ant.thirty.model.Game;
+
+/**
+ * A store of finished games, keeping statistics and a leaderboard that are updated as games are added.
+ */
+public interface GameHistory {
+
+    /**
+     * Stores a finished game.
+     * @param game the game, where all rounds have been scored.
+     * @param timestamp the time the game was finished, in milliseconds since the epoch.
+     * @return the stored entry.
+     * @throws IOException if the game cannot be stored.
+     */
+    HistoryEntry add(Game game, long timestamp) throws IOException;
+
+    /**
+     * Returns the stored game at the given position.
+     * @param index the position, starting at zero for the first game.
+     * @return the entry.
+     * @throws IOException if the game cannot be read.
+     */
+    HistoryEntry get(long index) throws IOException;
+
+    /**
+     * Returns the number of stored games.
+     * @return the number of games.
+     */
+    long size();
+
+    /**
+     * Returns the statistics over all stored games.
+     * @return the statistics.
+     */
+    HistoryStatistics getStatistics();
+
+    /**
+     * Returns the best stored games, best first.
+     * @return the entries of the leaderboard.
+     */
+    List<HistoryEntry> getLeaderboard();
+}
@@ -0,0 +1,142 @@
+package se.umu.id14ant.thirty.history;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.model.Score;
+import se.umu.id14ant.thirty.model.ScoringMethod;
+
+/**
+ * A finished game stored in a {@link GameHistory}: when it was played, the method and score of each round and the
+ * result.
+ */
+public class HistoryEntry {
+
+    static final int RECORD_SIZE = 10 + 2 * Game.NUMBER_OF_ROUNDS;
+
+    private final long mIndex;
+    private final long mTimestamp;
+    private final byte[] mMethods;
+    private final byte[] mScores;
+    private final int mResult;
+
+    /**
+     * Creates an entry from the scores of a finished game.
+     * @param index the position of the game in the history.
+     * @param timestamp the time the game was finished, in milliseconds since the epoch.
+     * @param game the finished game.
+     * @return the entry.
+     */
+    static HistoryEntry of(long index, long timestamp, Game game){
+        List<Score> scores = game.getScores();
+        if(scores.size() != Game.NUMBER_OF_ROUNDS){
+            throw new IllegalArgumentException("Only finished games can be stored");
+        }
+        byte[] methods = new byte[Game.NUMBER_OF_ROUNDS];
+        byte[] values = new byte[Game.NUMBER_OF_ROUNDS];
+        for(int i = 0; i < Game.NUMBER_OF_ROUNDS; i++){
+            methods[i] = (byte) scores.get(i).getScoringMethod().getIndex();
+            values[i] = (byte) scores.get(i).getScore();
+        }
+        return new HistoryEntry(index, timestamp, methods, values, game.getResult());
+    }
+
+    /**
+     * Creates an entry.
+     * @param index the position of the game in the history.
+     * @param timestamp the time the game was finished, in milliseconds since the epoch.
+     * @param methods the index of the scoring method of each round.
+     * @param scores the score of each round.
+     * @param result the total score.
+     */
+    HistoryEntry(long index, long timestamp, byte[] methods, byte[] scores, int result){
+        mIndex = index;
+        mTimestamp = timestamp;
+        mMethods = methods;
+        mScores = scores;
+        mResult = result;
+    }
+
+    /**
+     * Returns the position of the game in the history, starting at zero.
+     * @return the index.
+     */
+    public long getIndex(){
+        return mIndex;
+    }
+
+    /**
+     * Returns the time the game was finished.
+     * @return the time in milliseconds since the epoch.
+     */
+    public long getTimestamp(){
+        return mTimestamp;
+    }
+
+    /**
+     * Returns the total score of the game.
+     * @return the result.
+     */
+    public int getResult(){
+        return mResult;
+    }
+
+    /**
+     * Returns the scoring method used in the given round.
+     * @param round the round, starting at 1.
+     * @return the scoring method.
+     */
+    public ScoringMethod getScoringMethod(int round){
+        return ScoringMethod.fromIndex(mMethods[round - 1]);
+    }
+
+    /**
+     * Returns the score of the given round.
+     * @param round the round, starting at 1.
+     * @return the score.
+     */
+    public int getScore(int round){
+        return mScores[round - 1] & 0xff;
+    }
+
+    /**
+     * Returns the scores of all rounds.
+     * @return the list of scores.
+     */
+    public List<Score> getScores(){
+        List<Score> scores = new ArrayList<>(Game.NUMBER_OF_ROUNDS);
+        for(int round = 1; round <= Game.NUMBER_OF_ROUNDS; round++){
+            scores.add(new Score(round, getScore(round), getScoringMethod(round)));
+        }
+        return scores;
+    }
+
+    /**
+     * Writes the entry, without its index, as {@value #RECORD_SIZE} bytes.
+     * @param buffer the buffer to write to.
+     */
+    void write(ByteBuffer buffer){
+        buffer.putLong(mTimestamp);
+        buffer.putShort((short) mResult);
+        buffer.put(mMethods);
+        buffer.put(mScores);
+    }
+
+    /**
+     * Reads an entry written by {@link #write(ByteBuffer)}.
+     * @param index the position of the game in the history.
+     * @param buffer the buffer to read from.
+     * @return the entry.
+     */
+    static HistoryEntry read(long index, ByteBuffer buffer){
+        long timestamp = buffer.getLong();
+        int result = buffer.getShort();
+        byte[] methods = new byte[Game.NUMBER_OF_ROUNDS];
+        byte[] scores = new byte[Game.NUMBER_OF_ROUNDS];
+        buffer.get(methods);
+        buffer.get(scores);
+        return new HistoryEntry(index, timestamp, methods, scores, result);
+    }
+}
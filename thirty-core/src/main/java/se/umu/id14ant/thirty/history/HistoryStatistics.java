@@ -0,0 +1,179 @@
+package se.umu.id14ant.thirty.history;
+
+import java.nio.ByteBuffer;
+
+import se.umu.id14ant.thirty.model.Game;
+
+/**
+ * Statistics over all games of a history, updated in constant time for every added game so they never need to be
+ * calculated from the stored games. The variance is kept with Welford's method, which stays accurate for any number
+ * of games.
+ *
+ * A streak is a run of games where each game scored more than the one before it.
+ */
+public class HistoryStatistics {
+
+    static final int SIZE = 8 * 4 + 4 * 5 + 8 * Game.NUMBER_OF_ROUNDS;
+
+    private long mGames;
+    private double mMean;
+    private double mSquaredDeviations;
+    private long mTotal;
+    private int mBest;
+    private int mWorst;
+    private int mLastResult;
+    private int mCurrentStreak;
+    private int mLongestStreak;
+    private final long[] mMethodTotals = new long[Game.NUMBER_OF_ROUNDS];
+
+    /**
+     * Adds a finished game to the statistics.
+     * @param entry the game.
+     */
+    void add(HistoryEntry entry){
+        int result = entry.getResult();
+        mGames++;
+        mTotal += result;
+        double delta = result - mMean;
+        mMean += delta / mGames;
+        mSquaredDeviations += delta * (result - mMean);
+
+        if(mGames == 1){
+            mBest = result;
+            mWorst = result;
+            mCurrentStreak = 1;
+        } else{
+            mBest = Math.max(mBest, result);
+            mWorst = Math.min(mWorst, result);
+            mCurrentStreak = result > mLastResult ? mCurrentStreak + 1 : 1;
+        }
+        mLongestStreak = Math.max(mLongestStreak, mCurrentStreak);
+        mLastResult = result;
+
+        for(int round = 1; round <= Game.NUMBER_OF_ROUNDS; round++){
+            mMethodTotals[entry.getScoringMethod(round).getIndex()] += entry.getScore(round);
+        }
+    }
+
+    /**
+     * Returns the number of games.
+     * @return the number of games.
+     */
+    public long getGames(){
+        return mGames;
+    }
+
+    /**
+     * Returns the mean result.
+     * @return the mean, or zero if there are no games.
+     */
+    public double getMean(){
+        return mMean;
+    }
+
+    /**
+     * Returns the sample variance of the results.
+     * @return the variance, or zero if there are fewer than two games.
+     */
+    public double getVariance(){
+        return mGames < 2 ? 0 : mSquaredDeviations / (mGames - 1);
+    }
+
+    /**
+     * Returns the sample standard deviation of the results.
+     * @return the standard deviation, or zero if there are fewer than two games.
+     */
+    public double getStandardDeviation(){
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Returns the sum of all results.
+     * @return the total.
+     */
+    public long getTotal(){
+        return mTotal;
+    }
+
+    /**
+     * Returns the best result.
+     * @return the best result, or zero if there are no games.
+     */
+    public int getBest(){
+        return mBest;
+    }
+
+    /**
+     * Returns the worst result.
+     * @return the worst result, or zero if there are no games.
+     */
+    public int getWorst(){
+        return mWorst;
+    }
+
+    /**
+     * Returns the average score of the given scoring method. Every game uses every method once.
+     * @param method the index of the scoring method.
+     * @return the average score, or zero if there are no games.
+     */
+    public double getMethodAverage(int method){
+        return mGames == 0 ? 0 : (double) mMethodTotals[method] / mGames;
+    }
+
+    /**
+     * Returns the length of the streak the latest game belongs to.
+     * @return the current streak.
+     */
+    public int getCurrentStreak(){
+        return mCurrentStreak;
+    }
+
+    /**
+     * Returns the length of the longest streak.
+     * @return the longest streak.
+     */
+    public int getLongestStreak(){
+        return mLongestStreak;
+    }
+
+    /**
+     * Writes the statistics as {@value #SIZE} bytes.
+     * @param buffer the buffer to write to.
+     */
+    void write(ByteBuffer buffer){
+        buffer.putLong(mGames);
+        buffer.putDouble(mMean);
+        buffer.putDouble(mSquaredDeviations);
+        buffer.putLong(mTotal);
+        buffer.putInt(mBest);
+        buffer.putInt(mWorst);
+        buffer.putInt(mLastResult);
+        buffer.putInt(mCurrentStreak);
+        buffer.putInt(mLongestStreak);
+        for (long total: mMethodTotals) {
+            buffer.putLong(total);
+        }
+    }
+
+    /**
+     * Reads statistics written by {@link #write(ByteBuffer)}.
+     * @param buffer the buffer to read from.
+     * @return the statistics.
+     */
+    static HistoryStatistics read(ByteBuffer buffer){
+        HistoryStatistics statistics = new HistoryStatistics();
+        statistics.mGames = buffer.getLong();
+        statistics.mMean = buffer.getDouble();
+        statistics.mSquaredDeviations = buffer.getDouble();
+        statistics.mTotal = buffer.getLong();
+        statistics.mBest = buffer.getInt();
+        statistics.mWorst = buffer.getInt();
+        statistics.mLastResult = buffer.getInt();
+        statistics.mCurrentStreak = buffer.getInt();
+        statistics.mLongestStreak = buffer.getInt();
+        for(int i = 0; i < statistics.mMethodTotals.length; i++){
+            statistics.mMethodTotals[i] = buffer.getLong();
+        }
+        return statistics;
+    }
+}
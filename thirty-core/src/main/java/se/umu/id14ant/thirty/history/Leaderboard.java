@@ -0,0 +1,88 @@
+package se.umu.id14ant.thirty.history;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The best games of a history, keeping at most a fixed number of entries. The entries are held in a heap with the
+ * worst entry first, so offering a game takes O(log K) time for K entries. Among games with the same result the
+ * one played first ranks higher.
+ */
+public class Leaderboard {
+
+    /**
+     * Orders entries from best to worst.
+     */
+    static final Comparator<HistoryEntry> BEST_FIRST = new Comparator<HistoryEntry>() {
+        @Override
+        public int compare(HistoryEntry a, HistoryEntry b){
+            if(a.getResult() != b.getResult()){
+                return a.getResult() > b.getResult() ? -1 : 1;
+            }
+            return a.getIndex() < b.getIndex() ? -1 : a.getIndex() == b.getIndex() ? 0 : 1;
+        }
+    };
+
+    private final int mCapacity;
+    private final PriorityQueue<HistoryEntry> mEntries;
+
+    /**
+     * Creates an empty leaderboard.
+     * @param capacity the largest number of entries kept.
+     */
+    public Leaderboard(int capacity){
+        if(capacity <= 0){
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        mCapacity = capacity;
+        mEntries = new PriorityQueue<>(capacity, Collections.reverseOrder(BEST_FIRST));
+    }
+
+    /**
+     * Adds the entry if the leaderboard is not full or the entry is better than the worst one, which is then
+     * removed.
+     * @param entry the entry.
+     * @return true if the entry was added, otherwise false.
+     */
+    public boolean offer(HistoryEntry entry){
+        if(mEntries.size() < mCapacity){
+            mEntries.add(entry);
+            return true;
+        }
+        if(BEST_FIRST.compare(entry, mEntries.peek()) < 0){
+            mEntries.poll();
+            mEntries.add(entry);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the largest number of entries kept.
+     * @return the capacity.
+     */
+    public int getCapacity(){
+        return mCapacity;
+    }
+
+    /**
+     * Returns the number of entries.
+     * @return the number of entries.
+     */
+    public int size(){
+        return mEntries.size();
+    }
+
+    /**
+     * Returns the entries, best first.
+     * @return a new list of the entries.
+     */
+    public List<HistoryEntry> getEntries(){
+        List<HistoryEntry> entries = new ArrayList<>(mEntries);
+        Collections.sort(entries, BEST_FIRST);
+        return entries;
+    }
+}
@@ -0,0 +1,180 @@
+package se.umu.id14ant.thirty.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts values in buckets of roughly equal relative width, so percentiles can be read back with a few percent error
+ * using a fixed amount of memory. With n sub-bucket bits, values below 2^n get a bucket each and every power of two
+ * above that is split into 2^n buckets, so a percentile is at most 1/2^n above the exact one.
+ *
+ * Recording is lock-free, so any thread may record while another reads. A reader sees every recorded value
+ * eventually, but the count, buckets and maximum are not read as one snapshot.
+ */
+public class Histogram {
+
+    private final int mSubBucketBits;
+    private final int mSubBuckets;
+    private final AtomicLongArray mCounts;
+    private final AtomicLong mCount = new AtomicLong();
+    private final AtomicLong mTotal = new AtomicLong();
+    private final AtomicLong mMax = new AtomicLong();
+
+    /**
+     * Creates an empty histogram.
+     * @param subBucketBits the number of bits of a value kept below its highest bit, from 1 to 16.
+     * @throws IllegalArgumentException if the number of bits is out of range.
+     */
+    public Histogram(int subBucketBits){
+        if(subBucketBits < 1 || subBucketBits > 16){
+            throw new IllegalArgumentException("Unsupported number of sub-bucket bits: " + subBucketBits);
+        }
+        mSubBucketBits = subBucketBits;
+        mSubBuckets = 1 << subBucketBits;
+        mCounts = new AtomicLongArray((Long.SIZE - subBucketBits + 1) * mSubBuckets);
+    }
+
+    /**
+     * Returns the number of bits of a value kept below its highest bit.
+     * @return the number of sub-bucket bits.
+     */
+    public int getSubBucketBits(){
+        return mSubBucketBits;
+    }
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     * @param value the value.
+     */
+    public void record(long value){
+        if(value < 0){
+            value = 0;
+        }
+        mCounts.incrementAndGet(bucketOf(value));
+        mCount.incrementAndGet();
+        mTotal.addAndGet(value);
+        raiseMax(value);
+    }
+
+    /**
+     * Adds the values recorded by the given histogram.
+     * @param other the other histogram.
+     * @throws IllegalArgumentException if the other histogram has another number of sub-bucket bits.
+     */
+    public void add(Histogram other){
+        if(other.mSubBucketBits != mSubBucketBits){
+            throw new IllegalArgumentException("Cannot add a histogram with " + other.mSubBucketBits
+                    + " sub-bucket bits to one with " + mSubBucketBits);
+        }
+        for(int i = 0; i < mCounts.length(); i++){
+            long count = other.mCounts.get(i);
+            if(count != 0){
+                mCounts.addAndGet(i, count);
+            }
+        }
+        mCount.addAndGet(other.mCount.get());
+        mTotal.addAndGet(other.mTotal.get());
+        raiseMax(other.mMax.get());
+    }
+
+    /**
+     * Returns the number of recorded values.
+     * @return the number of values.
+     */
+    public long getCount(){
+        return mCount.get();
+    }
+
+    /**
+     * Returns the mean value.
+     * @return the mean, or 0 if nothing is recorded.
+     */
+    public double getMean(){
+        long count = mCount.get();
+        return count == 0 ? 0 : (double) mTotal.get() / count;
+    }
+
+    /**
+     * Returns the highest value.
+     * @return the highest value, or 0 if nothing is recorded.
+     */
+    public long getMax(){
+        return mMax.get();
+    }
+
+    /**
+     * Returns the value that the given percentage of the recorded values are at or below. The value is the upper end
+     * of the bucket holding it, so it is never lower than the exact percentile.
+     * @param percentile the percentage, from 0 to 100.
+     * @return the value, or 0 if nothing is recorded.
+     */
+    public long getPercentile(double percentile){
+        long count = 0;
+        for(int i = 0; i < mCounts.length(); i++){
+            count += mCounts.get(i);
+        }
+        if(count == 0){
+            return 0;
+        }
+        long max = mMax.get();
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for(int i = 0; i < mCounts.length(); i++){
+            seen += mCounts.get(i);
+            if(seen >= rank){
+                return Math.min(highestValueOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Forgets every recorded value.
+     */
+    public void reset(){
+        for(int i = 0; i < mCounts.length(); i++){
+            mCounts.set(i, 0);
+        }
+        mCount.set(0);
+        mTotal.set(0);
+        mMax.set(0);
+    }
+
+    /**
+     * Returns the bucket of the given value.
+     * @param value the value, not negative.
+     * @return the index of the bucket.
+     */
+    int bucketOf(long value){
+        if(value < mSubBuckets){
+            return (int) value;
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - mSubBucketBits;
+        return shift * mSubBuckets + (int) (value >>> shift);
+    }
+
+    /**
+     * Returns the highest value of the given bucket.
+     * @param bucket the index of the bucket.
+     * @return the highest value.
+     */
+    long highestValueOf(int bucket){
+        if(bucket < 2 * mSubBuckets){
+            return bucket;
+        }
+        int shift = bucket / mSubBuckets - 1;
+        long sub = bucket - shift * mSubBuckets;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /**
+     * Raises the maximum to the given value, if it is higher.
+     * @param value the value.
+     */
+    private void raiseMax(long value){
+        long max = mMax.get();
+        while(value > max && !mMax.compareAndSet(max, value)){
+            max = mMax.get();
+        }
+    }
+}
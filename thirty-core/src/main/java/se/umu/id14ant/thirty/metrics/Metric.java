@@ -0,0 +1,40 @@
+package se.umu.id14ant.thirty.metrics;
+
+/**
+ * The durations of one instrumented operation, in nanoseconds. Values below 16 nanoseconds get a bucket each, and
+ * every power of two above that is split into 16 buckets.
+ */
+public class Metric extends Histogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    private final String mName;
+
+    /**
+     * Creates an empty metric. Metrics are created through {@link Metrics#metric(String)}.
+     * @param name the name of the metric.
+     */
+    Metric(String name){
+        super(SUB_BUCKET_BITS);
+        mName = name;
+    }
+
+    /**
+     * Returns the name of the metric.
+     * @return the name.
+     */
+    public String getName(){
+        return mName;
+    }
+
+    /**
+     * Records the time passed since the given start, unless the start is 0 because metrics were turned off when it
+     * was taken.
+     * @param start the start from {@link Metrics#start()}.
+     */
+    public void stop(long start){
+        if(start != 0){
+            record(System.nanoTime() - start);
+        }
+    }
+}
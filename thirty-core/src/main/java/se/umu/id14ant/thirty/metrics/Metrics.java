@@ -0,0 +1,147 @@
+package se.umu.id14ant.thirty.metrics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The metrics of the process, timing the hot paths of the game with the monotonic clock. Metrics are off by default.
+ *
+ * An instrumented operation takes a start from {@link #start()} and passes it to {@link Metric#stop(long)} when it
+ * is done. While metrics are off the start is 0 without reading the clock, and stopping does nothing, so the cost of
+ * an instrumented operation is a single volatile read. Metrics are registered by name once, usually in a static
+ * field of the instrumented class, and recording never locks.
+ */
+public final class Metrics {
+
+    private static final double[] PERCENTILES = {50, 90, 99};
+    private static final Map<String, Metric> sMetrics = new LinkedHashMap<>();
+    private static volatile boolean sEnabled;
+
+    private Metrics(){
+    }
+
+    /**
+     * Returns the metric of the given name, registering it the first time.
+     * @param name the name of the metric.
+     * @return the metric.
+     */
+    public static Metric metric(String name){
+        synchronized (sMetrics) {
+            Metric metric = sMetrics.get(name);
+            if(metric == null){
+                metric = new Metric(name);
+                sMetrics.put(name, metric);
+            }
+            return metric;
+        }
+    }
+
+    /**
+     * Returns every registered metric, in the order they were registered.
+     * @return a copy of the metrics.
+     */
+    public static List<Metric> getMetrics(){
+        synchronized (sMetrics) {
+            return new ArrayList<>(sMetrics.values());
+        }
+    }
+
+    /**
+     * Returns true if metrics are recorded, otherwise false.
+     * @return true if metrics are on.
+     */
+    public static boolean isEnabled(){
+        return sEnabled;
+    }
+
+    /**
+     * Turns metrics on or off. Operations that started while metrics were off are not recorded.
+     * @param enabled true to record metrics, otherwise false.
+     */
+    public static void setEnabled(boolean enabled){
+        sEnabled = enabled;
+    }
+
+    /**
+     * Returns the start of an instrumented operation, to pass to {@link Metric#stop(long)}.
+     * @return the time of the monotonic clock in nanoseconds, or 0 if metrics are off.
+     */
+    public static long start(){
+        if(!sEnabled){
+            return 0;
+        }
+        long now = System.nanoTime();
+        return now != 0 ? now : 1;
+    }
+
+    /**
+     * Forgets every recorded duration of every metric.
+     */
+    public static void reset(){
+        for (Metric metric: getMetrics()) {
+            metric.reset();
+        }
+    }
+
+    /**
+     * Writes every metric as a JSON object with the count, mean, percentiles and maximum of its durations in
+     * nanoseconds, keyed by the name of the metric.
+     * @param out the destination.
+     * @throws IOException if writing fails.
+     */
+    public static void writeJson(Appendable out) throws IOException {
+        out.append("{\n  \"enabled\": ").append(String.valueOf(sEnabled)).append(",\n  \"metrics\": {");
+        String separator = "\n";
+        for (Metric metric: getMetrics()) {
+            out.append(separator).append("    \"");
+            appendEscaped(out, metric.getName());
+            out.append("\": {\"count\": ").append(String.valueOf(metric.getCount()));
+            out.append(", \"meanNanos\": ").append(String.format(Locale.ROOT, "%.1f", metric.getMean()));
+            for (double percentile: PERCENTILES) {
+                out.append(", \"p").append(String.valueOf((int) percentile)).append("Nanos\": ");
+                out.append(String.valueOf(metric.getPercentile(percentile)));
+            }
+            out.append(", \"maxNanos\": ").append(String.valueOf(metric.getMax())).append('}');
+            separator = ",\n";
+        }
+        out.append("\n  }\n}\n");
+    }
+
+    /**
+     * Returns every metric as JSON, as written by {@link #writeJson(Appendable)}.
+     * @return the JSON text.
+     */
+    public static String toJson(){
+        StringBuilder json = new StringBuilder();
+        try {
+            writeJson(json);
+        } catch (IOException e) {
+            //A string builder never throws.
+            throw new AssertionError(e);
+        }
+        return json.toString();
+    }
+
+    /**
+     * Appends the given text with the characters that have to be escaped in a JSON string escaped.
+     * @param out the destination.
+     * @param text the text.
+     * @throws IOException if writing fails.
+     */
+    private static void appendEscaped(Appendable out, String text) throws IOException {
+        for(int i = 0; i < text.length(); i++){
+            char c = text.charAt(i);
+            if(c == '"' || c == '\\'){
+                out.append('\\').append(c);
+            } else if(c < ' '){
+                out.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else{
+                out.append(c);
+            }
+        }
+    }
+}
@@ -1,30 +1,47 @@
 package se.umu.id14ant.thirty.model;
 
-import android.os.Parcel;
-import android.os.Parcelable;
-
-import java.util.Random;
-
-
 /**
  * Representing a die that can be thrown during the game.
  * @author Anna Nystedt.
  */
-public class Die implements Parcelable {
+public class Die {
 
     private String mId;
     private boolean mIsSaved;
     private int mValue;
-    private Random mRandom = new Random();
+    private RandomSource mRandom;
 
     /**
      * Create a new die instance with random value.
      */
     public Die(){
+        this(new SplitMixRandom());
+    }
+
+    /**
+     * Create a new die instance with a random value, using the given source for all rolls.
+     * @param random the source of random numbers.
+     */
+    public Die(RandomSource random){
+        mRandom = random;
         roll();
         mIsSaved = false;
     }
 
+    /**
+     * Creates a die with the given state, used when restoring a saved game.
+     * @param id the id of the die.
+     * @param isSaved true if the die is saved, otherwise false.
+     * @param value the value of the die.
+     * @param random the source of random numbers used for later rolls.
+     */
+    public Die(String id, boolean isSaved, int value, RandomSource random){
+        mId = id;
+        mIsSaved = isSaved;
+        mValue = value;
+        mRandom = random;
+    }
+
     /**
      * Sets the id of the die. The id should match the id of a dice in the layout.
      * @param id the id.
@@ -60,63 +77,22 @@ public class Die implements Parcelable {
      * Rolls the die to change its value.
      */
     public void roll(){
-        mValue = mRandom.nextInt(6)+1;
-    }
-
-    /**
-     * Returns the value of the die.
-     * @return the value.
-     */
-    public int getValue(){
-        return mValue;
-    }
-
-    /**
-     * {@inheritDoc}
-     *
-     * Auto-generated by Android Studio.
-     */
-    protected Die(Parcel in) {
-        mId = in.readString();
-        mIsSaved = in.readByte() != 0;
-        mValue = in.readInt();
-        mRandom = new Random();
+        mValue = mRandom.rollDie();
     }
 
     /**
-     * {@inheritDoc}
-     *
-     * Auto-generated by Android Studio.
+     * Sets the value of the die, used when the game rolls several dices at once.
+     * @param value the value.
      */
-    @Override
-    public void writeToParcel(Parcel dest, int flags) {
-        dest.writeString(mId);
-        dest.writeByte((byte) (mIsSaved ? 1 : 0));
-        dest.writeInt(mValue);
+    void setValue(int value){
+        mValue = value;
     }
 
     /**
-     * {@inheritDoc}
-     *
-     * Auto-generated by Android Studio.
+     * Returns the value of the die.
+     * @return the value.
      */
-    @Override
-    public int describeContents() {
-        return 0;
+    public int getValue(){
+        return mValue;
     }
-
-    /**
-     * Auto-generated class by Android Studio.
-     */
-    public static final Creator<Die> CREATOR = new Creator<Die>() {
-        @Override
-        public Die createFromParcel(Parcel in) {
-            return new Die(in);
-        }
-
-        @Override
-        public Die[] newArray(int size) {
-            return new Die[size];
-        }
-    };
 }
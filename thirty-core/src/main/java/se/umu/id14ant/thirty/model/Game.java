@@ -0,0 +1,514 @@
+package se.umu.id14ant.thirty.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import se.umu.id14ant.thirty.metrics.Metric;
+import se.umu.id14ant.thirty.metrics.Metrics;
+
+/**
+ * Representing the state of the game, containing all important information about the current game.
+ *
+ * A game is played under the standard {@link Rules} unless other rules are given. The constants below are the
+ * numbers of the standard rules, and only standard games can be packed by {@link PackedGame}.
+ * @author Anna Nystedt.
+ */
+public class Game {
+
+    public static final int NUMBER_OF_DICES = 6;
+    public static final int NUMBER_OF_THROWS = 3;
+    public static final int NUMBER_OF_ROUNDS = 10;
+
+    private static final int BITS_PER_DIE = PackedGame.BITS_PER_DIE;
+    private static final int DIE_MASK = (1 << BITS_PER_DIE) - 1;
+    private static final Metric ROLL_METRIC = Metrics.metric("game.rollDices");
+    private static final Metric SCORE_METRIC = Metrics.metric("game.calculateScore");
+    private static final Metric METHOD_SCORES_METRIC = Metrics.metric("game.methodScores");
+    private static final int[] NO_GROUPS = new int[0];
+
+    private int mCurrentRound;
+    private int mThrowsLeft;
+    private int mResult;
+    private int mRollGeneration;
+    private int mScoresGeneration = -1;
+    private int[] mMethodScores;
+    private final Rules mRules;
+    private MultisetScorer mScorer;
+    private PartitionScorer mExplainer;
+    private int[] mValues;
+    private RandomSource mRandom;
+    private GameEventListener mListener;
+
+    private Die[] mDices;
+    private List<Score> mScores;
+    private boolean[] mUsedSumMethods;
+
+    /**
+     * Creates a game state and initializes the necessary attributes.
+     */
+    public Game(){
+        this(new SplitMixRandom());
+    }
+
+    /**
+     * Creates a game state where all dices are rolled by the default source with the given seed. Two games with the
+     * same seed where the same dices are saved get identical rolls.
+     * @param seed the seed.
+     */
+    public Game(long seed){
+        this(RandomSource.create(seed));
+    }
+
+    /**
+     * Creates a game state where all dices are rolled using the given source of random numbers.
+     * @param random the source of random numbers.
+     */
+    public Game(RandomSource random){
+        this(Rules.STANDARD, random);
+    }
+
+    /**
+     * Creates a game under the given rules where all dices are rolled using the given source of random numbers.
+     * @param rules the rules.
+     * @param random the source of random numbers.
+     */
+    public Game(Rules rules, RandomSource random){
+        mRules = rules;
+        mRandom = random;
+        mCurrentRound = 1;
+        mThrowsLeft = rules.getThrows()-1;
+
+        mUsedSumMethods = new boolean[rules.getMethods()];
+        mScores = new ArrayList<>();
+        mDices = new Die[rules.getDices()];
+
+        for(int i = 0; i<mDices.length; i++){
+            mDices[i] = new Die("dice"+(i+1), false, 0, random);
+        }
+        roll((1 << mDices.length) - 1);
+    }
+
+    /**
+     * Creates a game with the given state, used when restoring a saved game.
+     * @param currentRound the current round.
+     * @param throwsLeft the number of throws left on the current round.
+     * @param dices the dices.
+     * @param scores the scores of the finished rounds.
+     * @param usedSumMethods the used scoring methods.
+     * @param random the source of random numbers, in the state it had when the game was saved.
+     */
+    public Game(int currentRound, int throwsLeft, Die[] dices, List<Score> scores, boolean[] usedSumMethods,
+                RandomSource random){
+        mRules = Rules.STANDARD;
+        mRandom = random;
+        mCurrentRound = currentRound;
+        mThrowsLeft = throwsLeft;
+        mDices = dices;
+        mScores = scores;
+        mUsedSumMethods = usedSumMethods;
+        for (Score score: scores) {
+            mResult += score.getScore();
+        }
+    }
+
+    /**
+     * Creates a game from a state packed by {@link PackedGame}. The packed state only holds the total score, so the
+     * list of scores of the created game is empty, while the result includes the finished rounds.
+     * @param state the packed state.
+     * @param random the source of random numbers used for later rolls.
+     * @return the game.
+     */
+    public static Game fromPacked(long state, RandomSource random){
+        Game game = fromPacked(state, new ArrayList<Score>(), random);
+        game.mResult = PackedGame.total(state);
+        return game;
+    }
+
+    /**
+     * Creates a game from a state packed by {@link PackedGame} and the scores of its finished rounds. The result is
+     * the sum of the given scores.
+     * @param state the packed state.
+     * @param scores the scores of the finished rounds.
+     * @param random the source of random numbers used for later rolls.
+     * @return the game.
+     */
+    public static Game fromPacked(long state, List<Score> scores, RandomSource random){
+        int savedMask = PackedGame.savedMask(state);
+        Die[] dices = new Die[NUMBER_OF_DICES];
+        for(int i = 0; i < NUMBER_OF_DICES; i++){
+            dices[i] = new Die("dice"+(i+1), (savedMask & (1 << i)) != 0, PackedGame.value(state, i), random);
+        }
+
+        int usedMethods = PackedGame.usedMethods(state);
+        boolean[] usedSumMethods = new boolean[NUMBER_OF_ROUNDS];
+        for(int i = 0; i < NUMBER_OF_ROUNDS; i++){
+            usedSumMethods[i] = (usedMethods & (1 << i)) != 0;
+        }
+
+        return new Game(PackedGame.round(state), PackedGame.throwsLeft(state), dices, scores, usedSumMethods, random);
+    }
+
+    /**
+     * Packs the state of the game into a single long, see {@link PackedGame}.
+     * @return the packed state.
+     * @throws IllegalStateException if the game is not played under the standard rules.
+     */
+    public long toPacked(){
+        if(!mRules.isStandard()){
+            throw new IllegalStateException("Only games under the standard rules can be packed");
+        }
+        int values = 0;
+        int savedMask = 0;
+        for(int i = 0; i < mDices.length; i++){
+            values |= mDices[i].getValue() << (BITS_PER_DIE * i);
+            if(mDices[i].isSaved()){
+                savedMask |= 1 << i;
+            }
+        }
+        return PackedGame.pack(values, savedMask, mCurrentRound, mThrowsLeft, getUsedMethods(), mResult);
+    }
+
+    /**
+     * Returns the rules of the game.
+     * @return the rules.
+     */
+    public Rules getRules(){
+        return mRules;
+    }
+
+    /**
+     * Returns the source of random numbers used for rolling. Its seed and state are enough to continue the game
+     * with the same rolls.
+     * @return the source of random numbers.
+     */
+    public RandomSource getRandom(){
+        return mRandom;
+    }
+
+    /**
+     * Sets the listener receiving every later change of the game, or removes it if null. The listener is
+     * immediately told the current position of the game, so only games under the standard rules can have one.
+     * @param listener the listener, or null.
+     */
+    public void setEventListener(GameEventListener listener){
+        mListener = listener;
+        if(listener != null){
+            listener.onStart(mRandom.getSeed(), mRandom.getState(), toPacked());
+        }
+    }
+
+    /**
+     * Returns the list of dices.
+     * @return the list of dices.
+     */
+    public Die[] getDices(){
+        return mDices;
+    }
+
+    /**
+     * Returns true if there are throws left, otherwise returns false. If there are throws left all
+     * dices that is not saved get rolled.
+     * @return true if the dices were rolled, otherwise false.
+     */
+    public boolean rollDices(){
+        long start = Metrics.start();
+        try {
+            if(mThrowsLeft > 0){
+                int rollMask = 0;
+                for(int i = 0; i < mDices.length; i++){
+                    //Only roll the dices that are not saved.
+                    if(!mDices[i].isSaved()){
+                        rollMask |= 1 << i;
+                    }
+                }
+                long values = roll(rollMask);
+
+                mThrowsLeft -= 1;
+                if(mListener != null){
+                    mListener.onRoll(rollMask, (int) values);
+                }
+                return true;
+            } else{
+                return false;
+            }
+        } finally {
+            ROLL_METRIC.stop(start);
+        }
+    }
+
+    /**
+     * Rolls the given dices from a single draw of the random source and unpacks the values. Dices with other than
+     * six faces are rolled one at a time.
+     * @param rollMask the dices to roll, where bit i selects die i.
+     * @return the new values, three bits per die with die i at bit 3i, or zero for dices with other than six faces.
+     */
+    private long roll(int rollMask){
+        mRollGeneration++;
+        if(mRules.getFaces() != RandomSource.FACES){
+            for(int i = 0, mask = rollMask; mask != 0; i++, mask >>>= 1){
+                if((mask & 1) != 0){
+                    mDices[i].setValue(mRandom.nextInt(mRules.getFaces()) + 1);
+                }
+            }
+            return 0;
+        }
+        long values = mRandom.rollAll(rollMask);
+        for(int i = 0, mask = rollMask; mask != 0; i++, mask >>>= 1){
+            if((mask & 1) != 0){
+                mDices[i].setValue((int) (values >>> (BITS_PER_DIE * i)) & DIE_MASK);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Changes the saved state of the given die to the opposite. Use this rather than {@link Die#toggleSaved()} so
+     * the change reaches the event listener.
+     * @param die the index of the die.
+     */
+    public void toggleSaved(int die){
+        mDices[die].toggleSaved();
+        if(mListener != null){
+            mListener.onToggleSaved(die);
+        }
+    }
+
+    /**
+     * Increments the current round and reset number of throws.
+     */
+    public void nextRound(){
+        mCurrentRound++;
+        mThrowsLeft = mRules.getThrows();
+        if(mListener != null){
+            mListener.onNextRound();
+        }
+    }
+
+    /**
+     * Returns the number of the current round.
+     * @return the current round.
+     */
+    public int getCurrentRound(){
+        return mCurrentRound;
+    }
+
+    /**
+     * Adds a score to the list of scores.
+     * @param score the score to be added.
+     * @param scoringMethod the method used for calculating score.
+     */
+    public void addScore(int score, ScoringMethod scoringMethod){
+        mScores.add(new Score(mCurrentRound, score, scoringMethod));
+        mResult += score;
+        if(mListener != null){
+            mListener.onScore(scoringMethod.getIndex(), score);
+        }
+    }
+
+    /**
+     * Adds a score scored with the method of the given index, which works under any rules.
+     * @param score the score to be added.
+     * @param method the index of the method used for calculating score.
+     */
+    public void addScore(int score, int method){
+        if(mRules.isStandard()){
+            addScore(score, ScoringMethod.fromIndex(method));
+            return;
+        }
+        mScores.add(new Score(mCurrentRound, score, method));
+        mResult += score;
+        if(mListener != null){
+            mListener.onScore(method, score);
+        }
+    }
+
+    /**
+     * Sets the value of the given index to true, to show that the method has been used.
+     * @param i the index of the used method.
+     */
+    public void addUsedMethod(int i){
+        mUsedSumMethods[i] = true;
+    }
+
+    /**
+     * Returns true if the given method is used, otherwise returns false.
+     * @param i the given index.
+     * @return true if the method is used, otherwise false.
+     */
+    public boolean methodIsUsed(int i){
+        return mUsedSumMethods[i];
+    }
+
+    /**
+     * Returns the used scoring methods as a bitmask, where bit i is set if method i is used.
+     * @return the used methods.
+     */
+    public int getUsedMethods(){
+        int usedMethods = 0;
+        for(int i = 0; i < mUsedSumMethods.length; i++){
+            if(mUsedSumMethods[i]){
+                usedMethods |= 1 << i;
+            }
+        }
+        return usedMethods;
+    }
+
+    /**
+     * Returns the number of throws left on the current round.
+     * @return the number of throws left.
+     */
+    public int getThrowsLeft(){
+        return mThrowsLeft;
+    }
+
+    /**
+     * Returns the list containing all scores.
+     * @return the list with scores.
+     */
+    public List<Score> getScores(){
+        return mScores;
+    }
+
+    /**
+     * Returns the total sum of all scores.
+     * @return the total sum.
+     */
+    public int getResult(){
+        return mResult;
+    }
+
+    /**
+     * Returns a number that changes every time the dices are rolled. Values derived from the dices can be cached
+     * together with the generation they were derived at.
+     * @return the roll generation.
+     */
+    public int getRollGeneration(){
+        return mRollGeneration;
+    }
+
+    /**
+     * Returns the score of the current dices for every scoring method, indexed as the used methods. The scores are
+     * calculated once per roll and the same array is returned until the dices are rolled again, so it must not be
+     * modified.
+     * @return the scores.
+     */
+    public int[] getMethodScores(){
+        if(mScoresGeneration != mRollGeneration){
+            long start = Metrics.start();
+            if(mMethodScores == null){
+                mMethodScores = new int[mRules.getMethods()];
+            }
+            if(mRules.isStandard()){
+                int rank = ScoreTable.rank(mDices);
+                for(int method = 0; method < NUMBER_OF_ROUNDS; method++){
+                    mMethodScores[method] = ScoreTable.getScore(rank, method);
+                }
+            } else{
+                scorer().scoreAll(currentValues(), mMethodScores);
+            }
+            mScoresGeneration = mRollGeneration;
+            METHOD_SCORES_METRIC.stop(start);
+        }
+        return mMethodScores;
+    }
+
+    /**
+     * Calculates and returns the score for the scoring method low.
+     * @return the score.
+     */
+    public int calculateLowScore(){
+        long start = Metrics.start();
+        try {
+            if(!mRules.isStandard()){
+                return scorer().score(currentValues(), Rules.LOW);
+            }
+            return ScoreTable.getScore(ScoreTable.rank(mDices), ScoreTable.LOW);
+        } finally {
+            SCORE_METRIC.stop(start);
+        }
+    }
+
+    /**
+     * Calculates and returns the score for all scoring methods (excl. Low). The dices are split into the groups
+     * summing to the chosen method that gives the highest score. Use {@link #explainScore(int)} to also get the
+     * groups.
+     * @param chosenMethod the chosen scoring method.
+     * @return the score.
+     */
+    public int calculateScore(int chosenMethod){
+        long start = Metrics.start();
+        try {
+            if(!mRules.isStandard()){
+                return scorer().score(currentValues(), mRules.methodForTarget(chosenMethod));
+            }
+            return ScoreTable.getScore(ScoreTable.rank(mDices), ScoreTable.methodForTarget(chosenMethod));
+        } finally {
+            SCORE_METRIC.stop(start);
+        }
+    }
+
+    /**
+     * Calculates the score of the current dices with the method of the given index, together with the groups of
+     * dices giving it. The score is the same as from {@link #getMethodScores()}. Games with more than 16 dices
+     * cannot be explained.
+     *
+     * The values and the scorer are kept by the game, so only the result and its groups are allocated.
+     * @param method the index of the scoring method.
+     * @return the score and its groups.
+     */
+    public ScoreResult explainScore(int method){
+        int[] values = currentValues();
+        if(method == Rules.LOW){
+            int lowMask = 0;
+            int low = 0;
+            for(int i = 0; i < values.length; i++){
+                if(values[i] <= mRules.getLowLimit()){
+                    lowMask |= 1 << i;
+                    low += values[i];
+                }
+            }
+            return new ScoreResult(method, low, lowMask == 0 ? NO_GROUPS : new int[]{lowMask});
+        }
+        if(mExplainer == null){
+            mExplainer = new PartitionScorer(mDices.length);
+        }
+        return mExplainer.explain(values, method, mRules.getTarget(method));
+    }
+
+    /**
+     * Returns the current dice values.
+     * @return the values, in the order of the dices.
+     */
+    public int[] getValues(){
+        int[] values = new int[mDices.length];
+        for(int i = 0; i < mDices.length; i++){
+            values[i] = mDices[i].getValue();
+        }
+        return values;
+    }
+
+    /**
+     * Returns the current dice values in an array kept by the game, overwritten by the next call.
+     * @return the values, in the order of the dices.
+     */
+    private int[] currentValues(){
+        if(mValues == null){
+            mValues = new int[mDices.length];
+        }
+        for(int i = 0; i < mDices.length; i++){
+            mValues[i] = mDices[i].getValue();
+        }
+        return mValues;
+    }
+
+    /**
+     * Returns the scorer of games under other than the standard rules, created when first needed.
+     * @return the scorer.
+     */
+    private MultisetScorer scorer(){
+        if(mScorer == null){
+            mScorer = new MultisetScorer(mRules);
+        }
+        return mScorer;
+    }
+}
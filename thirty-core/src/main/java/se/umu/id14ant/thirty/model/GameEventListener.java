@@ -0,0 +1,43 @@
+package se.umu.id14ant.thirty.model;
+
+/**
+ * Receives every change made to a {@link Game}, in the order they happen. Together the events describe the game
+ * completely, so they can be logged and replayed later.
+ *
+ * Listeners are called on the thread changing the game and should return quickly.
+ */
+public interface GameEventListener {
+
+    /**
+     * Called when the listener is attached to a game, with the position the following events continue from.
+     * @param seed the seed of the random source of the game.
+     * @param randomState the current state of the random source.
+     * @param state the game packed by {@link PackedGame}.
+     */
+    void onStart(long seed, long randomState, long state);
+
+    /**
+     * Called when dices have been rolled.
+     * @param rollMask the rolled dices, where bit i is set if die i was rolled.
+     * @param values the new values of the rolled dices, three bits per die with die i at bit 3i.
+     */
+    void onRoll(int rollMask, int values);
+
+    /**
+     * Called when the saved state of a die has been changed.
+     * @param die the index of the die.
+     */
+    void onToggleSaved(int die);
+
+    /**
+     * Called when a score has been added for the current round.
+     * @param method the index of the scoring method.
+     * @param score the score.
+     */
+    void onScore(int method, int score);
+
+    /**
+     * Called when the game has moved to the next round.
+     */
+    void onNextRound();
+}
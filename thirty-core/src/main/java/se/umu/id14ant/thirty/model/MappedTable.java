@@ -0,0 +1,260 @@
+package se.umu.id14ant.thirty.model;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * A read-only table of fixed-size records stored in a file and accessed through a memory mapping.
+ *
+ * The file starts with a header of {@value #HEADER_SIZE} bytes, followed by the records in order of their index:
+ * <pre>
+ *  0  int   magic number "THRT"
+ *  4  short format version
+ *  6  short table type, chosen by the code writing the table
+ *  8  int   size of a record in bytes
+ * 12  int   number of records
+ * 16  long  CRC-32 of all records
+ * 24  -     reserved, zero
+ * </pre>
+ * All values are big-endian. Opening a table only reads the header, and values are read directly from the mapping,
+ * so only the pages holding the records that are used get loaded. For the same reason the checksum is only
+ * calculated when {@link #verify()} is called.
+ */
+public class MappedTable implements Closeable {
+
+    public static final int HEADER_SIZE = 32;
+    public static final int MAGIC = 0x54485254;
+    public static final short VERSION = 1;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final RandomAccessFile mFile;
+    private final MappedByteBuffer mBuffer;
+    private final int mType;
+    private final int mRecordSize;
+    private final int mRecordCount;
+    private final long mChecksum;
+
+    /**
+     * Opens the table stored in the given file.
+     * @param file the file.
+     * @param type the expected table type.
+     * @return the table.
+     * @throws IOException if the file cannot be read or does not hold a table of the given type.
+     */
+    public static MappedTable open(File file, int type) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            return new MappedTable(randomAccessFile, type);
+        } catch (IOException | RuntimeException e) {
+            randomAccessFile.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes a table to the given file, replacing any existing file.
+     * @param file the file.
+     * @param type the table type.
+     * @param recordSize the size of a record in bytes.
+     * @param records the records, from position zero to the limit of the buffer.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(File file, int type, int recordSize, ByteBuffer records) throws IOException {
+        ByteBuffer data = records.duplicate();
+        data.rewind();
+        if(recordSize <= 0 || data.remaining() % recordSize != 0){
+            throw new IllegalArgumentException("The records do not match the record size " + recordSize);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.putShort((short) type);
+        header.putInt(recordSize);
+        header.putInt(data.remaining() / recordSize);
+        header.putLong(checksum(data.duplicate()));
+        header.rewind();
+
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            FileChannel channel = out.getChannel();
+            while(header.hasRemaining()){
+                channel.write(header);
+            }
+            while(data.hasRemaining()){
+                channel.write(data);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Maps the given file and validates its header.
+     * @param file the opened file.
+     * @param type the expected table type.
+     * @throws IOException if the file cannot be read or does not hold a table of the given type.
+     */
+    private MappedTable(RandomAccessFile file, int type) throws IOException {
+        mFile = file;
+        long length = file.length();
+        if(length < HEADER_SIZE){
+            throw new IOException("File too short for a table header");
+        }
+
+        mBuffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, length);
+        mBuffer.order(ByteOrder.BIG_ENDIAN);
+        if(mBuffer.getInt(0) != MAGIC){
+            throw new IOException("Not a table file");
+        }
+        if(mBuffer.getShort(4) != VERSION){
+            throw new IOException("Unsupported table version " + mBuffer.getShort(4));
+        }
+        mType = mBuffer.getShort(6);
+        if(mType != type){
+            throw new IOException("Expected table type " + type + " but found " + mType);
+        }
+        mRecordSize = mBuffer.getInt(8);
+        mRecordCount = mBuffer.getInt(12);
+        mChecksum = mBuffer.getLong(16);
+        if(mRecordSize <= 0 || mRecordCount < 0 || HEADER_SIZE + (long) mRecordSize * mRecordCount != length){
+            throw new IOException("Table size does not match its header");
+        }
+    }
+
+    /**
+     * Returns the type of the table.
+     * @return the table type.
+     */
+    public int getType(){
+        return mType;
+    }
+
+    /**
+     * Returns the size of a record in bytes.
+     * @return the record size.
+     */
+    public int getRecordSize(){
+        return mRecordSize;
+    }
+
+    /**
+     * Returns the number of records.
+     * @return the number of records.
+     */
+    public int getRecordCount(){
+        return mRecordCount;
+    }
+
+    /**
+     * Returns the byte at the given offset of a record.
+     * @param record the index of the record.
+     * @param offset the offset within the record.
+     * @return the value.
+     */
+    public byte getByte(int record, int offset){
+        return mBuffer.get(position(record, offset, 1));
+    }
+
+    /**
+     * Returns the short at the given offset of a record.
+     * @param record the index of the record.
+     * @param offset the offset within the record.
+     * @return the value.
+     */
+    public short getShort(int record, int offset){
+        return mBuffer.getShort(position(record, offset, 2));
+    }
+
+    /**
+     * Returns the int at the given offset of a record.
+     * @param record the index of the record.
+     * @param offset the offset within the record.
+     * @return the value.
+     */
+    public int getInt(int record, int offset){
+        return mBuffer.getInt(position(record, offset, 4));
+    }
+
+    /**
+     * Returns the float at the given offset of a record.
+     * @param record the index of the record.
+     * @param offset the offset within the record.
+     * @return the value.
+     */
+    public float getFloat(int record, int offset){
+        return mBuffer.getFloat(position(record, offset, 4));
+    }
+
+    /**
+     * Returns the double at the given offset of a record.
+     * @param record the index of the record.
+     * @param offset the offset within the record.
+     * @return the value.
+     */
+    public double getDouble(int record, int offset){
+        return mBuffer.getDouble(position(record, offset, 8));
+    }
+
+    /**
+     * Calculates the checksum of all records and compares it with the one in the header. This reads the whole
+     * file.
+     * @throws IOException if the checksum does not match.
+     */
+    public void verify() throws IOException {
+        ByteBuffer data = mBuffer.duplicate();
+        data.position(HEADER_SIZE);
+        if(checksum(data) != mChecksum){
+            throw new IOException("Table checksum mismatch");
+        }
+    }
+
+    /**
+     * Closes the file. The mapping stays valid until it is garbage collected, but the table should not be used
+     * after it is closed.
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        mFile.close();
+    }
+
+    /**
+     * Returns the position in the file of a value in a record.
+     * @param record the index of the record.
+     * @param offset the offset within the record.
+     * @param size the size of the value.
+     * @return the position.
+     */
+    private int position(int record, int offset, int size){
+        if(record < 0 || record >= mRecordCount || offset < 0 || offset + size > mRecordSize){
+            throw new IndexOutOfBoundsException("Record " + record + ", offset " + offset);
+        }
+        return HEADER_SIZE + record * mRecordSize + offset;
+    }
+
+    /**
+     * Calculates the CRC-32 of the remaining bytes of the buffer.
+     * @param data the bytes.
+     * @return the checksum.
+     */
+    private static long checksum(ByteBuffer data){
+        CRC32 crc = new CRC32();
+        byte[] chunk = new byte[BUFFER_SIZE];
+        while(data.hasRemaining()){
+            int length = Math.min(chunk.length, data.remaining());
+            data.get(chunk, 0, length);
+            crc.update(chunk, 0, length);
+        }
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,280 @@
+package se.umu.id14ant.thirty.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Calculates scores under any {@link Rules}, for dice counts where the subset search of {@link PartitionScorer} is
+ * out of reach.
+ *
+ * The score of a target only depends on how many dices show each value, so the search runs over count vectors
+ * instead of subsets of dices. A group is a multiset of values summing to the target, and the groups of every target
+ * are listed once when the scorer is created. The most groups of a throw is found by a memoized search: the lowest
+ * value left is either part of exactly one group whose lowest value it is, or left out of all groups. Values above
+ * the target are dropped first, since they can never be part of a group, and the search stops as soon as it reaches
+ * the sum of the values divided by the target.
+ *
+ * A throw of n dices with f faces has at most ((n / f) + 2)^f count vectors, 6400 for twenty six-sided dices, against
+ * 3^n steps for the subset search, and the bound usually cuts the search far shorter. All working memory is allocated
+ * when the scorer is created, so a call never allocates. An instance must therefore not be shared between threads.
+ */
+public class MultisetScorer {
+
+    private final Rules mRules;
+    private final int mFaces;
+    private final int[][][][] mGroups;
+    private final int[] mCounts;
+    private final int[] mWeights;
+    private final int[] mState;
+    private final int[] mBest;
+    private final int[] mStamps;
+    private final int[][] mFitting;
+    private final int[] mFittingStart;
+    private final int[] mOffsets;
+    private int mStamp;
+
+    /**
+     * Creates a scorer for the given rules.
+     * @param rules the rules.
+     */
+    public MultisetScorer(Rules rules){
+        mRules = rules;
+        mFaces = rules.getFaces();
+        mCounts = new int[mFaces];
+        mWeights = new int[mFaces];
+        mState = new int[mFaces];
+        mBest = new int[maxStates(rules.getDices(), mFaces)];
+        mStamps = new int[mBest.length];
+
+        //The groups of each target, split by their lowest value.
+        int mostGroups = 0;
+        mGroups = new int[rules.getMethods()][][][];
+        for(int method = 1; method < rules.getMethods(); method++){
+            mGroups[method] = new int[mFaces][][];
+            int groupsOfTarget = 0;
+            for(int lowest = 1; lowest <= mFaces; lowest++){
+                List<int[]> groups = new ArrayList<>();
+                int[] group = new int[mFaces];
+                group[lowest - 1] = 1;
+                listGroups(groups, group, rules.getTarget(method) - lowest, lowest, 1, rules.getDices());
+                mGroups[method][lowest - 1] = groups.toArray(new int[groups.size()][]);
+                groupsOfTarget += groups.size();
+            }
+            mostGroups = Math.max(mostGroups, groupsOfTarget);
+        }
+        mFitting = new int[mostGroups][];
+        mFittingStart = new int[mFaces + 1];
+        mOffsets = new int[mostGroups];
+    }
+
+    /**
+     * Returns the rules of the scorer.
+     * @return the rules.
+     */
+    public Rules getRules(){
+        return mRules;
+    }
+
+    /**
+     * Calculates the score of the given dice values with the given method.
+     * @param values the dice values, as many as the rules have dices.
+     * @param method the index of the scoring method.
+     * @return the score.
+     */
+    public int score(int[] values, int method){
+        countValues(values);
+        return scoreCounts(method);
+    }
+
+    /**
+     * Calculates the score of the given dice values with every method.
+     * @param values the dice values, as many as the rules have dices.
+     * @param scores the array receiving the score of each method, indexed by method.
+     */
+    public void scoreAll(int[] values, int[] scores){
+        countValues(values);
+        for(int method = 0; method < mRules.getMethods(); method++){
+            scores[method] = scoreCounts(method);
+        }
+    }
+
+    /**
+     * Counts the dices showing each value.
+     * @param values the dice values.
+     */
+    private void countValues(int[] values){
+        if(values.length != mRules.getDices()){
+            throw new IllegalArgumentException("Expected " + mRules.getDices() + " dices but got " + values.length);
+        }
+        for(int face = 0; face < mFaces; face++){
+            mCounts[face] = 0;
+        }
+        for (int value: values) {
+            if(value < 1 || value > mFaces){
+                throw new IllegalArgumentException("Invalid die value: " + value);
+            }
+            mCounts[value - 1]++;
+        }
+    }
+
+    /**
+     * Calculates the score of the counted values with the given method.
+     * @param method the index of the scoring method.
+     * @return the score.
+     */
+    private int scoreCounts(int method){
+        if(method == Rules.LOW){
+            int low = 0;
+            for(int value = 1; value <= mRules.getLowLimit(); value++){
+                low += value * mCounts[value - 1];
+            }
+            return low;
+        }
+        int target = mRules.getTarget(method);
+        return target * mostGroups(mGroups[method], target);
+    }
+
+    /**
+     * Finds the most disjoint groups among the counted values.
+     *
+     * Every count vector within the throw gets an index in a mixed radix system where value v has the weight of all
+     * lower values, so the best of each vector can be remembered in a flat array. Only the groups that fit within the
+     * whole throw are tried, and the offset of each group in the index is calculated once.
+     * @param groups the groups of the target by their lowest value, each as the number of dices of each value.
+     * @param target the target sum.
+     * @return the number of groups.
+     */
+    private int mostGroups(int[][][] groups, int target){
+        int states = 1;
+        int index = 0;
+        int sum = 0;
+        for(int face = 0; face < mFaces; face++){
+            mState[face] = face < target ? mCounts[face] : 0;
+            mWeights[face] = states;
+            index += mState[face] * states;
+            sum += mState[face] * (face + 1);
+            states *= mState[face] + 1;
+        }
+
+        //Keep the groups that fit within the throw, still split by their lowest value.
+        int fitting = 0;
+        for(int lowest = 0; lowest < mFaces; lowest++){
+            mFittingStart[lowest] = fitting;
+            for (int[] group: groups[lowest]) {
+                int offset = 0;
+                boolean fits = true;
+                for(int value = lowest; value < mFaces && fits; value++){
+                    fits = group[value] <= mState[value];
+                    offset += group[value] * mWeights[value];
+                }
+                if(fits){
+                    mFitting[fitting] = group;
+                    mOffsets[fitting] = offset;
+                    fitting++;
+                }
+            }
+        }
+        mFittingStart[mFaces] = fitting;
+
+        //A new stamp marks every remembered result of earlier calls as stale without clearing the array.
+        if(++mStamp == 0){
+            Arrays.fill(mStamps, 0);
+            mStamp = 1;
+        }
+        return search(index, sum, target);
+    }
+
+    /**
+     * Returns the most groups within the count vector in mState, which has the given index and sum. The vector is
+     * changed during the search but restored before returning.
+     *
+     * The groups containing the lowest value are tried before leaving that die out of all groups, and the search
+     * stops as soon as it reaches the sum divided by the target, since no vector can hold more groups than that.
+     * @param index the index of the vector.
+     * @param sum the sum of the values in the vector.
+     * @param target the target sum.
+     * @return the number of groups.
+     */
+    private int search(int index, int sum, int target){
+        int bound = sum / target;
+        if(bound == 0){
+            return 0;
+        }
+        if(mStamps[index] == mStamp){
+            return mBest[index];
+        }
+
+        int lowest = 0;
+        while(mState[lowest] == 0){
+            lowest++;
+        }
+        int best = 0;
+        for(int i = mFittingStart[lowest]; i < mFittingStart[lowest + 1] && best < bound; i++){
+            int[] group = mFitting[i];
+            boolean fits = true;
+            for(int value = lowest; value < mFaces && fits; value++){
+                fits = group[value] <= mState[value];
+            }
+            if(fits){
+                for(int value = lowest; value < mFaces; value++){
+                    mState[value] -= group[value];
+                }
+                best = Math.max(best, search(index - mOffsets[i], sum - target, target) + 1);
+                for(int value = lowest; value < mFaces; value++){
+                    mState[value] += group[value];
+                }
+            }
+        }
+        if(best < bound){
+            mState[lowest]--;
+            best = Math.max(best, search(index - mWeights[lowest], sum - lowest - 1, target));
+            mState[lowest]++;
+        }
+
+        mBest[index] = best;
+        mStamps[index] = mStamp;
+        return best;
+    }
+
+    /**
+     * Lists every multiset of values summing to the remaining target, with values not lower than the given one.
+     * @param groups the list receiving the groups.
+     * @param group the group being built, as the number of dices of each value.
+     * @param remaining the sum left to reach.
+     * @param minValue the lowest value allowed.
+     * @param size the number of dices in the group so far.
+     * @param maxSize the most dices of a group.
+     */
+    private void listGroups(List<int[]> groups, int[] group, int remaining, int minValue, int size, int maxSize){
+        if(remaining == 0){
+            groups.add(group.clone());
+            return;
+        }
+        if(size == maxSize){
+            return;
+        }
+        for(int value = minValue; value <= Math.min(remaining, mFaces); value++){
+            group[value - 1]++;
+            listGroups(groups, group, remaining - value, value, size + 1, maxSize);
+            group[value - 1]--;
+        }
+    }
+
+    /**
+     * Returns the most count vectors a throw can have, which is when the dices are spread evenly over the values.
+     * @param dices the number of dices.
+     * @param faces the number of faces.
+     * @return the number of count vectors.
+     */
+    private static int maxStates(int dices, int faces){
+        long states = 1;
+        for(int face = 0; face < faces; face++){
+            states *= dices / faces + (face < dices % faces ? 2 : 1);
+        }
+        if(states > Integer.MAX_VALUE){
+            throw new IllegalArgumentException("Too many dices and faces to score");
+        }
+        return (int) states;
+    }
+}
@@ -0,0 +1,251 @@
+package se.umu.id14ant.thirty.model;
+
+/**
+ * Numbering of every multiset of zero to six dice values. A multiset describes which values a group of dices show
+ * without caring about their order, which is all that matters for scoring and for deciding what to keep.
+ *
+ * The multisets are numbered by size first, and within a size by their rank in the combinatorial number system. The
+ * rank of a multiset of six values is therefore the same as its rank in {@link ScoreTable}. Adding or removing a
+ * single value is a table lookup, so algorithms can walk between multisets without building any arrays.
+ */
+public final class Multisets {
+
+    public static final int FACES = 6;
+    public static final int MAX_SIZE = 6;
+    public static final int COUNT = 924;
+
+    private static final int COUNT_BITS = 3;
+    private static final int COUNT_MASK = (1 << COUNT_BITS) - 1;
+
+    private static final int[][] BINOMIAL = createBinomials(FACES + MAX_SIZE);
+    private static final int[] OFFSETS = createOffsets();
+
+    private static final int[] COUNTS = new int[COUNT];
+    private static final int[] SIZES = new int[COUNT];
+    private static final int[] ADD = new int[COUNT * FACES];
+    private static final int[] REMOVE = new int[COUNT * FACES];
+
+    static {
+        fill(0, 0, 0);
+        for(int index = 0; index < COUNT; index++){
+            for(int face = 0; face < FACES; face++){
+                int counts = COUNTS[index];
+                ADD[index * FACES + face] = SIZES[index] < MAX_SIZE
+                        ? index(counts + (1 << (COUNT_BITS * face))) : -1;
+                REMOVE[index * FACES + face] = countOf(counts, face) > 0
+                        ? index(counts - (1 << (COUNT_BITS * face))) : -1;
+            }
+        }
+    }
+
+    private Multisets(){
+    }
+
+    /**
+     * Returns the number of the multiset formed by the given dice values.
+     * @param values the dice values, each between 1 and 6.
+     * @return the number of the multiset.
+     */
+    public static int indexOf(int[] values){
+        int counts = 0;
+        for (int value: values) {
+            counts += 1 << (COUNT_BITS * (value - 1));
+        }
+        return index(counts);
+    }
+
+    /**
+     * Returns the number of the multiset formed by the dice values selected by the given mask, where bit i selects
+     * value i.
+     * @param values the dice values, each between 1 and 6.
+     * @param mask the selected dices.
+     * @return the number of the multiset.
+     */
+    public static int indexOf(int[] values, int mask){
+        int counts = 0;
+        for(int i = 0; i < values.length; i++){
+            if((mask & (1 << i)) != 0){
+                counts += 1 << (COUNT_BITS * (values[i] - 1));
+            }
+        }
+        return index(counts);
+    }
+
+    /**
+     * Returns a mask selecting dices that together form the given multiset, choosing the first matching dices. The
+     * multiset must be contained in the dice values.
+     * @param values the dice values, each between 1 and 6.
+     * @param index the number of the multiset.
+     * @return the mask, where bit i selects value i.
+     */
+    public static int maskOf(int[] values, int index){
+        int mask = 0;
+        for(int i = 0; i < values.length && index != 0; i++){
+            int smaller = remove(index, values[i]);
+            if(smaller >= 0){
+                mask |= 1 << i;
+                index = smaller;
+            }
+        }
+        if(index != 0){
+            throw new IllegalArgumentException("The multiset is not part of the dice values");
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the number of the multiset with one more die showing the given value.
+     * @param index the number of the multiset.
+     * @param value the value to add, between 1 and 6.
+     * @return the number of the larger multiset, or -1 if the multiset already holds six values.
+     */
+    public static int add(int index, int value){
+        return ADD[index * FACES + value - 1];
+    }
+
+    /**
+     * Returns the number of the multiset with one die showing the given value removed.
+     * @param index the number of the multiset.
+     * @param value the value to remove, between 1 and 6.
+     * @return the number of the smaller multiset, or -1 if the multiset holds no such value.
+     */
+    public static int remove(int index, int value){
+        return REMOVE[index * FACES + value - 1];
+    }
+
+    /**
+     * Returns the number of values in the multiset.
+     * @param index the number of the multiset.
+     * @return the size.
+     */
+    public static int size(int index){
+        return SIZES[index];
+    }
+
+    /**
+     * Returns how many times the given value occurs in the multiset.
+     * @param index the number of the multiset.
+     * @param value the value, between 1 and 6.
+     * @return the number of occurrences.
+     */
+    public static int count(int index, int value){
+        return countOf(COUNTS[index], value - 1);
+    }
+
+    /**
+     * Returns the number of the first multiset of the given size. The multisets of a size are numbered
+     * consecutively.
+     * @param size the size.
+     * @return the number of the first multiset.
+     */
+    public static int first(int size){
+        return OFFSETS[size];
+    }
+
+    /**
+     * Returns the number of the full multiset with the given rank in {@link ScoreTable}.
+     * @param rank the rank.
+     * @return the number of the multiset.
+     */
+    public static int ofRank(int rank){
+        return OFFSETS[MAX_SIZE] + rank;
+    }
+
+    /**
+     * Returns the rank in {@link ScoreTable} of the given multiset of six values.
+     * @param index the number of the multiset.
+     * @return the rank.
+     */
+    public static int rank(int index){
+        return index - OFFSETS[MAX_SIZE];
+    }
+
+    /**
+     * Writes the values of the multiset in increasing order to the given array.
+     * @param index the number of the multiset.
+     * @param values the array to write to, at least as long as the multiset.
+     * @return the number of values written.
+     */
+    public static int values(int index, int[] values){
+        int position = 0;
+        for(int face = 0; face < FACES; face++){
+            for(int i = countOf(COUNTS[index], face); i > 0; i--){
+                values[position++] = face + 1;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Returns the number of the multiset given as the count of each face packed into an int, three bits per face.
+     * @param counts the packed counts.
+     * @return the number of the multiset.
+     */
+    private static int index(int counts){
+        int rank = 0;
+        int position = 0;
+        for(int face = 0; face < FACES; face++){
+            for(int i = countOf(counts, face); i > 0; i--){
+                rank += BINOMIAL[face + position][position + 1];
+                position++;
+            }
+        }
+        return OFFSETS[position] + rank;
+    }
+
+    /**
+     * Returns the count of the given face from packed counts.
+     * @param counts the packed counts.
+     * @param face the face, between 0 and 5.
+     * @return the count.
+     */
+    private static int countOf(int counts, int face){
+        return (counts >>> (COUNT_BITS * face)) & COUNT_MASK;
+    }
+
+    /**
+     * Recursively generates the counts of every multiset and stores them at their numbers.
+     * @param face the face to choose a count for.
+     * @param counts the packed counts chosen so far.
+     * @param size the number of values chosen so far.
+     */
+    private static void fill(int face, int counts, int size){
+        if(face == FACES){
+            int index = index(counts);
+            COUNTS[index] = counts;
+            SIZES[index] = size;
+            return;
+        }
+        for(int count = 0; size + count <= MAX_SIZE; count++){
+            fill(face + 1, counts + (count << (COUNT_BITS * face)), size + count);
+        }
+    }
+
+    /**
+     * Returns the number of the first multiset of each size, with one extra entry holding the total count.
+     * @return the offsets indexed by size.
+     */
+    private static int[] createOffsets(){
+        int[] offsets = new int[MAX_SIZE + 2];
+        for(int size = 0; size <= MAX_SIZE; size++){
+            offsets[size + 1] = offsets[size] + BINOMIAL[size + FACES - 1][size];
+        }
+        return offsets;
+    }
+
+    /**
+     * Creates Pascal's triangle up to the given size.
+     * @param n the largest n to include.
+     * @return the binomial coefficients indexed as [n][k].
+     */
+    private static int[][] createBinomials(int n){
+        int[][] binomial = new int[n + 1][n + 1];
+        for(int i = 0; i <= n; i++){
+            binomial[i][0] = 1;
+            for(int j = 1; j <= i; j++){
+                binomial[i][j] = binomial[i - 1][j - 1] + binomial[i - 1][j];
+            }
+        }
+        return binomial;
+    }
+}
@@ -0,0 +1,279 @@
+package se.umu.id14ant.thirty.model;
+
+/**
+ * The state of a game packed into a single long, together with the rules of the game working directly on such
+ * states. Simulators, solvers and caches can keep millions of games in a long array, and playing never allocates.
+ *
+ * The bits of a state are used as follows:
+ * <pre>
+ *  0-17  dice values, three bits per die with die i at bit 3i
+ * 18-23  saved dices, bit i set if die i is saved
+ * 24-27  current round, 1 to 10
+ * 28-29  throws left on the current round
+ * 30-39  used scoring methods, bit i set if method i is used
+ * 40-48  total score of the finished rounds
+ * </pre>
+ * Scoring methods are indexed as in {@link ScoreTable}. The scores of the individual rounds are not part of the
+ * state, only their total.
+ */
+public final class PackedGame {
+
+    public static final int BITS_PER_DIE = 3;
+
+    private static final int DICES = Game.NUMBER_OF_DICES;
+    private static final int ALL_DICES = (1 << DICES) - 1;
+    private static final int ALL_METHODS = (1 << Game.NUMBER_OF_ROUNDS) - 1;
+    private static final int DIE_MASK = (1 << BITS_PER_DIE) - 1;
+
+    private static final int VALUES_SHIFT = 0;
+    private static final int VALUES_BITS = DICES * BITS_PER_DIE;
+    private static final int SAVED_SHIFT = VALUES_SHIFT + VALUES_BITS;
+    private static final int SAVED_BITS = DICES;
+    private static final int ROUND_SHIFT = SAVED_SHIFT + SAVED_BITS;
+    private static final int ROUND_BITS = 4;
+    private static final int THROWS_SHIFT = ROUND_SHIFT + ROUND_BITS;
+    private static final int THROWS_BITS = 2;
+    private static final int METHODS_SHIFT = THROWS_SHIFT + THROWS_BITS;
+    private static final int METHODS_BITS = Game.NUMBER_OF_ROUNDS;
+    private static final int TOTAL_SHIFT = METHODS_SHIFT + METHODS_BITS;
+    private static final int TOTAL_BITS = 9;
+
+    private PackedGame(){
+    }
+
+    /**
+     * Packs the given parts into a state.
+     * @param values the dice values, three bits per die.
+     * @param savedMask the saved dices.
+     * @param round the current round, between 1 and 10.
+     * @param throwsLeft the number of throws left, between 0 and 3.
+     * @param usedMethods the used scoring methods.
+     * @param total the total score of the finished rounds.
+     * @return the state.
+     */
+    public static long pack(int values, int savedMask, int round, int throwsLeft, int usedMethods, int total){
+        if(round < 1 || round > Game.NUMBER_OF_ROUNDS || throwsLeft < 0 || throwsLeft > Game.NUMBER_OF_THROWS
+                || total < 0 || total >= 1 << TOTAL_BITS){
+            throw new IllegalArgumentException("Game state out of range");
+        }
+        return field(values, VALUES_SHIFT, VALUES_BITS)
+                | field(savedMask, SAVED_SHIFT, SAVED_BITS)
+                | field(round, ROUND_SHIFT, ROUND_BITS)
+                | field(throwsLeft, THROWS_SHIFT, THROWS_BITS)
+                | field(usedMethods, METHODS_SHIFT, METHODS_BITS)
+                | field(total, TOTAL_SHIFT, TOTAL_BITS);
+    }
+
+    /**
+     * Creates the state of a new game, where the first throw has been made.
+     * @param random the source used for the first throw.
+     * @return the state.
+     */
+    public static long newGame(RandomSource random){
+        return pack((int) random.rollAll(ALL_DICES), 0, 1, Game.NUMBER_OF_THROWS - 1, 0, 0);
+    }
+
+    /**
+     * Returns the dice values, three bits per die with die i at bit 3i.
+     * @param state the state.
+     * @return the packed values.
+     */
+    public static int values(long state){
+        return get(state, VALUES_SHIFT, VALUES_BITS);
+    }
+
+    /**
+     * Returns the value of the given die.
+     * @param state the state.
+     * @param die the index of the die.
+     * @return the value.
+     */
+    public static int value(long state, int die){
+        return (values(state) >>> (BITS_PER_DIE * die)) & DIE_MASK;
+    }
+
+    /**
+     * Returns the saved dices, where bit i is set if die i is saved.
+     * @param state the state.
+     * @return the saved dices.
+     */
+    public static int savedMask(long state){
+        return get(state, SAVED_SHIFT, SAVED_BITS);
+    }
+
+    /**
+     * Returns the current round.
+     * @param state the state.
+     * @return the round, starting at 1.
+     */
+    public static int round(long state){
+        return get(state, ROUND_SHIFT, ROUND_BITS);
+    }
+
+    /**
+     * Returns the number of throws left on the current round.
+     * @param state the state.
+     * @return the number of throws left.
+     */
+    public static int throwsLeft(long state){
+        return get(state, THROWS_SHIFT, THROWS_BITS);
+    }
+
+    /**
+     * Returns the used scoring methods, where bit i is set if method i is used.
+     * @param state the state.
+     * @return the used methods.
+     */
+    public static int usedMethods(long state){
+        return get(state, METHODS_SHIFT, METHODS_BITS);
+    }
+
+    /**
+     * Returns the total score of the finished rounds.
+     * @param state the state.
+     * @return the total score.
+     */
+    public static int total(long state){
+        return get(state, TOTAL_SHIFT, TOTAL_BITS);
+    }
+
+    /**
+     * Returns true if all scoring methods are used, otherwise false.
+     * @param state the state.
+     * @return true if the game is finished.
+     */
+    public static boolean isFinished(long state){
+        return usedMethods(state) == ALL_METHODS;
+    }
+
+    /**
+     * Returns the state with the saved state of the given die changed to the opposite.
+     * @param state the state.
+     * @param die the index of the die.
+     * @return the new state.
+     */
+    public static long toggleSaved(long state, int die){
+        return state ^ (1L << (SAVED_SHIFT + die));
+    }
+
+    /**
+     * Returns the state with the given dices saved and all others not saved.
+     * @param state the state.
+     * @param savedMask the dices to save.
+     * @return the new state.
+     */
+    public static long withSaved(long state, int savedMask){
+        return (state & ~fieldMask(SAVED_SHIFT, SAVED_BITS)) | field(savedMask, SAVED_SHIFT, SAVED_BITS);
+    }
+
+    /**
+     * Rolls all dices that are not saved, if there are throws left.
+     * @param state the state.
+     * @param random the source used for rolling.
+     * @return the new state, or the same state if there were no throws left.
+     */
+    public static long roll(long state, RandomSource random){
+        int throwsLeft = throwsLeft(state);
+        if(throwsLeft == 0){
+            return state;
+        }
+        int rollMask = ~savedMask(state) & ALL_DICES;
+        long rolled = random.rollAll(rollMask);
+
+        //Clear the values of the rolled dices before adding the new ones.
+        long clear = 0;
+        for(int die = 0; die < DICES; die++){
+            if((rollMask & (1 << die)) != 0){
+                clear |= (long) DIE_MASK << (VALUES_SHIFT + BITS_PER_DIE * die);
+            }
+        }
+        state = (state & ~clear) | (rolled << VALUES_SHIFT);
+        return set(state, THROWS_SHIFT, THROWS_BITS, throwsLeft - 1);
+    }
+
+    /**
+     * Returns the rank of the dices in {@link ScoreTable}.
+     * @param state the state.
+     * @return the rank.
+     */
+    public static int rank(long state){
+        return ScoreTable.rankPacked(values(state));
+    }
+
+    /**
+     * Returns the score of the current dices for the given scoring method.
+     * @param state the state.
+     * @param method the index of the scoring method.
+     * @return the score.
+     */
+    public static int score(long state, int method){
+        return ScoreTable.getScore(rank(state), method);
+    }
+
+    /**
+     * Scores the current dices with the given unused method and moves to the next round. The dices of the next
+     * round are not saved and not yet thrown, so it starts with all throws left. The dice values are kept until
+     * then. If this was the last round the round number is left unchanged.
+     * @param state the state.
+     * @param method the index of an unused scoring method.
+     * @return the new state.
+     */
+    public static long chooseMethod(long state, int method){
+        int usedMethods = usedMethods(state);
+        if((usedMethods & (1 << method)) != 0){
+            throw new IllegalArgumentException("Scoring method " + method + " is already used");
+        }
+        usedMethods |= 1 << method;
+        int round = round(state);
+        int throwsLeft = throwsLeft(state);
+        if(usedMethods != ALL_METHODS){
+            round++;
+            throwsLeft = Game.NUMBER_OF_THROWS;
+        }
+        return pack(values(state), 0, round, throwsLeft, usedMethods, total(state) + score(state, method));
+    }
+
+    /**
+     * Returns the given value shifted into place.
+     * @param value the value.
+     * @param shift the position of the field.
+     * @param bits the size of the field.
+     * @return the field.
+     */
+    private static long field(int value, int shift, int bits){
+        return ((long) value & ((1L << bits) - 1)) << shift;
+    }
+
+    /**
+     * Returns a mask covering the given field.
+     * @param shift the position of the field.
+     * @param bits the size of the field.
+     * @return the mask.
+     */
+    private static long fieldMask(int shift, int bits){
+        return ((1L << bits) - 1) << shift;
+    }
+
+    /**
+     * Returns the value of the given field.
+     * @param state the state.
+     * @param shift the position of the field.
+     * @param bits the size of the field.
+     * @return the value.
+     */
+    private static int get(long state, int shift, int bits){
+        return (int) ((state >>> shift) & ((1L << bits) - 1));
+    }
+
+    /**
+     * Returns the state with the given field replaced.
+     * @param state the state.
+     * @param shift the position of the field.
+     * @param bits the size of the field.
+     * @param value the new value.
+     * @return the new state.
+     */
+    private static long set(long state, int shift, int bits, int value){
+        return (state & ~fieldMask(shift, bits)) | field(value, shift, bits);
+    }
+}
@@ -0,0 +1,185 @@
+package se.umu.id14ant.thirty.model;
+
+/**
+ * Calculates the score of a set of dices for a given target sum. The score is the highest total that can be reached
+ * by splitting the dices into disjoint groups where each group sums exactly to the target.
+ *
+ * A subset of the dices is represented as a bitmask where bit i is set if die i is part of the subset. The sum of
+ * every subset is calculated once per call, after which the best partition is found by dynamic programming over the
+ * masks. All working memory is allocated when the scorer is created, so a call never allocates. An instance must
+ * therefore not be shared between threads.
+ */
+public class PartitionScorer {
+
+    private final int mMaxDices;
+    private final int[] mSums;
+    private final int[] mBest;
+
+    /**
+     * Creates a scorer able to handle up to the given number of dices.
+     * @param maxDices the maximum number of dices that will be scored.
+     */
+    public PartitionScorer(int maxDices){
+        if(maxDices < 1 || maxDices > 16){
+            throw new IllegalArgumentException("Unsupported number of dices: " + maxDices);
+        }
+        mMaxDices = maxDices;
+        mSums = new int[1 << maxDices];
+        mBest = new int[1 << maxDices];
+    }
+
+    /**
+     * Calculates the score of the given dices for the given target sum.
+     * @param dices the dices.
+     * @param target the target sum of each group.
+     * @return the score.
+     */
+    public int score(Die[] dices, int target){
+        int count = checkCount(dices.length);
+        int full = (1 << count) - 1;
+        mSums[0] = 0;
+        for(int mask = 1; mask <= full; mask++){
+            mSums[mask] = mSums[mask & (mask - 1)] + dices[Integer.numberOfTrailingZeros(mask)].getValue();
+        }
+        return findBest(full, target);
+    }
+
+    /**
+     * Calculates the score of the given dice values for the given target sum.
+     * @param values the dice values.
+     * @param target the target sum of each group.
+     * @return the score.
+     */
+    public int score(int[] values, int target){
+        int count = checkCount(values.length);
+        int full = (1 << count) - 1;
+        mSums[0] = 0;
+        for(int mask = 1; mask <= full; mask++){
+            mSums[mask] = mSums[mask & (mask - 1)] + values[Integer.numberOfTrailingZeros(mask)];
+        }
+        return findBest(full, target);
+    }
+
+    /**
+     * Calculates the score of the given dice values for the given target, together with the groups giving it.
+     *
+     * The groups are read back from the table of best scores filled in by the same search {@link #score(int[], int)}
+     * runs, so the search is not repeated, and callers asking for the score alone pay nothing for this.
+     * @param values the dice values.
+     * @param method the index of the scoring method, only stored in the result.
+     * @param target the target sum of each group.
+     * @return the result, the only object allocated besides its array of groups.
+     */
+    public ScoreResult explain(int[] values, int method, int target){
+        int score = score(values, target);
+        int[] groups = new int[score / target];
+        int mask = (1 << values.length) - 1;
+        for(int count = 0; count < groups.length; count++){
+            groups[count] = nextGroup(mask, target);
+            mask = remaining(mask, groups[count]);
+        }
+        return new ScoreResult(method, score, groups);
+    }
+
+    /**
+     * Returns the dices of the groups giving the score of the given dice values for the given target, found like
+     * {@link #explain(int[], int, int)} finds them but without allocating.
+     * @param values the dice values.
+     * @param target the target sum of each group.
+     * @return the dices in any of the groups, where bit i refers to die i.
+     */
+    public int groupMask(int[] values, int target){
+        int score = score(values, target);
+        int used = 0;
+        int mask = (1 << values.length) - 1;
+        for(int count = score / target; count > 0; count--){
+            int group = nextGroup(mask, target);
+            used |= group;
+            mask = remaining(mask, group);
+        }
+        return used;
+    }
+
+    /**
+     * Returns the group holding the lowest die of the given mask that is part of a best split of the mask, read back
+     * from the table of best scores of the last search. Lower dices left out of all groups are skipped.
+     * @param mask the dices left, with at least one group among them.
+     * @param target the target sum of each group.
+     * @return the dices of the group.
+     */
+    private int nextGroup(int mask, int target){
+        while(true){
+            int lowest = mask & -mask;
+            int rest = mask ^ lowest;
+            if(mBest[rest] == mBest[mask]){
+                //The lowest die is left out of all groups.
+                mask = rest;
+                continue;
+            }
+            int sub = rest;
+            while(mSums[sub | lowest] != target || target + mBest[rest ^ sub] != mBest[mask]){
+                sub = (sub - 1) & rest;
+            }
+            return sub | lowest;
+        }
+    }
+
+    /**
+     * Returns the dices left after taking the given group, which also drops the lower dices skipped to reach it.
+     * @param mask the dices left before the group.
+     * @param group the group returned by {@link #nextGroup(int, int)}.
+     * @return the dices left.
+     */
+    private static int remaining(int mask, int group){
+        int lowest = group & -group;
+        return mask & ~group & ~(lowest - 1);
+    }
+
+    /**
+     * Returns the number of dices if the scorer can handle it, otherwise throws an exception.
+     * @param count the number of dices.
+     * @return the number of dices.
+     */
+    private int checkCount(int count){
+        if(count > mMaxDices){
+            throw new IllegalArgumentException("Too many dices: " + count);
+        }
+        return count;
+    }
+
+    /**
+     * Finds the highest score of the dices in the given mask, using the subset sums already calculated.
+     *
+     * For each mask the lowest die is either left out of all groups, or it is part of exactly one group that sums to
+     * the target. In the latter case the best score of the remaining dices has already been calculated, since the
+     * remaining mask is smaller than the current one.
+     * @param full the mask containing all dices.
+     * @param target the target sum of each group.
+     * @return the score.
+     */
+    private int findBest(int full, int target){
+        mBest[0] = 0;
+        for(int mask = 1; mask <= full; mask++){
+            int lowest = mask & -mask;
+            int rest = mask ^ lowest;
+            int best = mBest[rest];
+
+            //Try every group containing the lowest die, by walking through all subsets of the remaining dices.
+            int sub = rest;
+            while(true){
+                if(mSums[sub | lowest] == target){
+                    int candidate = target + mBest[rest ^ sub];
+                    if(candidate > best){
+                        best = candidate;
+                    }
+                }
+                if(sub == 0){
+                    break;
+                }
+                sub = (sub - 1) & rest;
+            }
+            mBest[mask] = best;
+        }
+        return mBest[full];
+    }
+}
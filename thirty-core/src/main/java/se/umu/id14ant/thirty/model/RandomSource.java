@@ -0,0 +1,108 @@
+package se.umu.id14ant.thirty.model;
+
+/**
+ * Source of random numbers used when rolling dices.
+ *
+ * A source is created from a seed and keeps its whole state in a single long, so a game can store the seed and the
+ * current state and later continue with exactly the same rolls. Sources are not thread-safe; each game or worker
+ * should have its own.
+ */
+public abstract class RandomSource {
+
+    public static final int FACES = 6;
+
+    private static final int BITS_PER_DIE = 3;
+    private static final int DICES_PER_DRAW = 6;
+    private static final int OUTCOMES_PER_DRAW = 46656;
+    private static final long DRAW_LIMIT = Long.MAX_VALUE - Long.MAX_VALUE % OUTCOMES_PER_DRAW;
+
+    /**
+     * Creates the default source with the given seed.
+     * @param seed the seed.
+     * @return the source.
+     */
+    public static RandomSource create(long seed){
+        return new SplitMixRandom(seed);
+    }
+
+    /**
+     * Returns the next 64 random bits.
+     * @return the random bits.
+     */
+    public abstract long nextLong();
+
+    /**
+     * Returns the seed the source was created with.
+     * @return the seed.
+     */
+    public abstract long getSeed();
+
+    /**
+     * Returns the current state of the source.
+     * @return the state.
+     */
+    public abstract long getState();
+
+    /**
+     * Restores a state previously returned by {@link #getState()}.
+     * @param state the state.
+     */
+    public abstract void setState(long state);
+
+    /**
+     * Returns a uniformly distributed value between zero (inclusive) and the given bound (exclusive).
+     * @param bound the bound, greater than zero.
+     * @return the value.
+     */
+    public int nextInt(int bound){
+        if(bound <= 0){
+            throw new IllegalArgumentException("Bound must be positive");
+        }
+        //Reject the top part of the range that would make some values more likely than others.
+        long limit = Long.MAX_VALUE - Long.MAX_VALUE % bound;
+        long bits;
+        do {
+            bits = nextLong() >>> 1;
+        } while(bits >= limit);
+        return (int) (bits % bound);
+    }
+
+    /**
+     * Rolls a single die.
+     * @return a value between 1 and 6.
+     */
+    public int rollDie(){
+        return nextInt(FACES) + 1;
+    }
+
+    /**
+     * Rolls the dices selected by the given mask, where bit i selects die i. Six dices are rolled from each 64-bit
+     * draw by reading it as a number with six base-6 digits.
+     * @param rollMask the dices to roll, at most 21.
+     * @return the values packed three bits per die, with die i at bit 3i. Dices not rolled are zero.
+     */
+    public long rollAll(int rollMask){
+        if(Integer.numberOfLeadingZeros(rollMask) < Integer.SIZE - Long.SIZE / BITS_PER_DIE){
+            throw new IllegalArgumentException("Too many dices to roll");
+        }
+        long values = 0;
+        long digits = 0;
+        int digitsLeft = 0;
+        while(rollMask != 0){
+            if(digitsLeft == 0){
+                long bits;
+                do {
+                    bits = nextLong() >>> 1;
+                } while(bits >= DRAW_LIMIT);
+                digits = bits % OUTCOMES_PER_DRAW;
+                digitsLeft = DICES_PER_DRAW;
+            }
+            int die = Integer.numberOfTrailingZeros(rollMask);
+            values |= (digits % FACES + 1) << (BITS_PER_DIE * die);
+            digits /= FACES;
+            digitsLeft--;
+            rollMask &= rollMask - 1;
+        }
+        return values;
+    }
+}
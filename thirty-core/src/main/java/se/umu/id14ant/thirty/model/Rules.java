@@ -0,0 +1,183 @@
+package se.umu.id14ant.thirty.model;
+
+import java.util.Arrays;
+
+/**
+ * The rules of a variant of the game: the number of dices and their faces, the number of throws per round, the
+ * target sums and the limit of Low. There is one scoring method per target plus Low, and one round per method.
+ *
+ * Methods are indexed as in {@link Game}: index 0 is Low and index i is the target at position i - 1 of the
+ * target list. The standard rules are six six-sided dices, three throws, the targets 4 to 12 and Low counting dices
+ * of three or less, and only they are backed by the precalculated {@link ScoreTable}. Other rules are scored by a
+ * {@link MultisetScorer}.
+ *
+ * Rules are immutable.
+ */
+public final class Rules {
+
+    public static final int MAX_DICES = 20;
+    public static final int MAX_FACES = 20;
+    public static final int MAX_METHODS = 31;
+    public static final int LOW = 0;
+
+    public static final Rules STANDARD = new Rules(Game.NUMBER_OF_DICES, RandomSource.FACES, Game.NUMBER_OF_THROWS,
+            new int[]{4, 5, 6, 7, 8, 9, 10, 11, 12}, 3);
+
+    private final int mDices;
+    private final int mFaces;
+    private final int mThrows;
+    private final int[] mTargets;
+    private final int mLowLimit;
+
+    /**
+     * Creates rules.
+     * @param dices the number of dices, between 1 and {@link #MAX_DICES}.
+     * @param faces the number of faces of each die, numbered from 1, between 1 and {@link #MAX_FACES}.
+     * @param throwsPerRound the number of throws per round, at least 1.
+     * @param targets the distinct target sums, in the order of their methods.
+     * @param lowLimit the highest value counted by Low, between 0 and the number of faces.
+     */
+    public Rules(int dices, int faces, int throwsPerRound, int[] targets, int lowLimit){
+        if(dices < 1 || dices > MAX_DICES){
+            throw new IllegalArgumentException("Unsupported number of dices: " + dices);
+        }
+        if(faces < 1 || faces > MAX_FACES){
+            throw new IllegalArgumentException("Unsupported number of faces: " + faces);
+        }
+        if(throwsPerRound < 1){
+            throw new IllegalArgumentException("At least one throw per round is needed");
+        }
+        if(targets.length < 1 || targets.length + 1 > MAX_METHODS){
+            throw new IllegalArgumentException("Unsupported number of targets: " + targets.length);
+        }
+        for(int i = 0; i < targets.length; i++){
+            if(targets[i] < 1 || targets[i] > dices * faces){
+                throw new IllegalArgumentException("Target " + targets[i] + " can never be reached");
+            }
+            for(int j = 0; j < i; j++){
+                if(targets[j] == targets[i]){
+                    throw new IllegalArgumentException("Target " + targets[i] + " is given twice");
+                }
+            }
+        }
+        if(lowLimit < 0 || lowLimit > faces){
+            throw new IllegalArgumentException("Unsupported limit of Low: " + lowLimit);
+        }
+        mDices = dices;
+        mFaces = faces;
+        mThrows = throwsPerRound;
+        mTargets = targets.clone();
+        mLowLimit = lowLimit;
+    }
+
+    /**
+     * Returns the number of dices.
+     * @return the number of dices.
+     */
+    public int getDices(){
+        return mDices;
+    }
+
+    /**
+     * Returns the number of faces of each die.
+     * @return the number of faces.
+     */
+    public int getFaces(){
+        return mFaces;
+    }
+
+    /**
+     * Returns the number of throws per round.
+     * @return the number of throws.
+     */
+    public int getThrows(){
+        return mThrows;
+    }
+
+    /**
+     * Returns the number of scoring methods, which is also the number of rounds.
+     * @return the number of methods.
+     */
+    public int getMethods(){
+        return mTargets.length + 1;
+    }
+
+    /**
+     * Returns the target sum of the given method.
+     * @param method the index of the method.
+     * @return the target sum, or zero for Low.
+     */
+    public int getTarget(int method){
+        return method == LOW ? 0 : mTargets[method - 1];
+    }
+
+    /**
+     * Returns the target sums, in the order of their methods.
+     * @return a copy of the targets.
+     */
+    public int[] getTargets(){
+        return mTargets.clone();
+    }
+
+    /**
+     * Returns the method with the given target sum.
+     * @param target the target sum.
+     * @return the index of the method.
+     */
+    public int methodForTarget(int target){
+        for(int i = 0; i < mTargets.length; i++){
+            if(mTargets[i] == target){
+                return i + 1;
+            }
+        }
+        throw new IllegalArgumentException("No scoring method with target " + target);
+    }
+
+    /**
+     * Returns the highest value counted by Low.
+     * @return the limit of Low.
+     */
+    public int getLowLimit(){
+        return mLowLimit;
+    }
+
+    /**
+     * Returns the used methods bitmask where every method is used.
+     * @return the bitmask.
+     */
+    public int getAllMethods(){
+        return (1 << getMethods()) - 1;
+    }
+
+    /**
+     * Returns true if these are the standard rules.
+     * @return true if the rules are standard, otherwise false.
+     */
+    public boolean isStandard(){
+        return this == STANDARD || equals(STANDARD);
+    }
+
+    @Override
+    public boolean equals(Object other){
+        if(this == other){
+            return true;
+        }
+        if(!(other instanceof Rules)){
+            return false;
+        }
+        Rules rules = (Rules) other;
+        return mDices == rules.mDices && mFaces == rules.mFaces && mThrows == rules.mThrows
+                && mLowLimit == rules.mLowLimit && Arrays.equals(mTargets, rules.mTargets);
+    }
+
+    @Override
+    public int hashCode(){
+        return (((mDices * 31 + mFaces) * 31 + mThrows) * 31 + mLowLimit) * 31 + Arrays.hashCode(mTargets);
+    }
+
+    @Override
+    public String toString(){
+        return mDices + "d" + mFaces + ", " + mThrows + " throws, targets " + Arrays.toString(mTargets) + ", Low <= "
+                + mLowLimit;
+    }
+}
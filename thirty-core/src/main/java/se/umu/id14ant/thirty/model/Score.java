@@ -0,0 +1,70 @@
+package se.umu.id14ant.thirty.model;
+
+/**
+ * Represents a score containing round number, scoring method and score.
+ * @author Anna Nystedt.
+ */
+public class Score {
+
+    private int mRound;
+    private int mScore;
+    private int mMethod;
+    private ScoringMethod mScoringMethod;
+
+    /**
+     * Creates a score based on the given values.
+     * @param round the number of the round.
+     * @param score the score.
+     * @param scoringMethod the used scoring method.
+     */
+    public Score(int round, int score, ScoringMethod scoringMethod){
+        mRound = round;
+        mScore = score;
+        mMethod = scoringMethod.getIndex();
+        mScoringMethod = scoringMethod;
+    }
+
+    /**
+     * Creates a score of a game under other than the standard rules, where the method is only known by its index.
+     * @param round the number of the round.
+     * @param score the score.
+     * @param method the index of the used scoring method in the rules of the game.
+     */
+    public Score(int round, int score, int method){
+        mRound = round;
+        mScore = score;
+        mMethod = method;
+    }
+
+    /**
+     * Returns the number of the round.
+     * @return the round.
+     */
+    public int getRound() {
+        return mRound;
+    }
+
+    /**
+     * Returns the score.
+     * @return the score.
+     */
+    public int getScore() {
+        return mScore;
+    }
+
+    /**
+     * Returns the index of the scoring method.
+     * @return the index of the method.
+     */
+    public int getMethod(){
+        return mMethod;
+    }
+
+    /**
+     * Returns the scoring method.
+     * @return the scoring method, or null for a game under other than the standard rules.
+     */
+    public ScoringMethod getScoringMethod(){
+        return mScoringMethod;
+    }
+}
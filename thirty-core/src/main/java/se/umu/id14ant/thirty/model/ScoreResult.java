@@ -0,0 +1,70 @@
+package se.umu.id14ant.thirty.model;
+
+/**
+ * The score of a throw with one method together with the groups of dices behind it. A group is a bitmask where bit
+ * i refers to die i. For a target the groups are disjoint and each sums to the target, and for Low the single group
+ * holds the dices counted, if any.
+ */
+public class ScoreResult {
+
+    private final int mMethod;
+    private final int mScore;
+    private final int[] mGroups;
+
+    /**
+     * Creates a result.
+     * @param method the index of the scoring method.
+     * @param score the score.
+     * @param groups the groups of dices. The array is not copied.
+     */
+    ScoreResult(int method, int score, int[] groups){
+        mMethod = method;
+        mScore = score;
+        mGroups = groups;
+    }
+
+    /**
+     * Returns the index of the scoring method.
+     * @return the index of the method.
+     */
+    public int getMethod(){
+        return mMethod;
+    }
+
+    /**
+     * Returns the score.
+     * @return the score.
+     */
+    public int getScore(){
+        return mScore;
+    }
+
+    /**
+     * Returns the number of groups.
+     * @return the number of groups.
+     */
+    public int getGroupCount(){
+        return mGroups.length;
+    }
+
+    /**
+     * Returns the dices of the given group.
+     * @param group the index of the group.
+     * @return the dices, where bit i refers to die i.
+     */
+    public int getGroup(int group){
+        return mGroups[group];
+    }
+
+    /**
+     * Returns the dices that are part of any group.
+     * @return the dices, where bit i refers to die i.
+     */
+    public int getUsedMask(){
+        int used = 0;
+        for (int group: mGroups) {
+            used |= group;
+        }
+        return used;
+    }
+}
@@ -0,0 +1,185 @@
+package se.umu.id14ant.thirty.model;
+
+/**
+ * Lookup table holding the score of every scoring method for every possible throw of six dices.
+ *
+ * Since the score does not depend on the order of the dices, a throw is identified by its multiset of values. Six
+ * dices with six faces only have 462 distinct multisets, which are numbered by their rank in the combinatorial number
+ * system. The table is built once, when the class is first used, and scoring is then a single lookup.
+ *
+ * The scoring methods are indexed the same way as the used methods in {@link Game}: index 0 is Low and index 1 to 9
+ * are the targets 4 to 12.
+ */
+public final class ScoreTable {
+
+    public static final int DICES = 6;
+    public static final int FACES = 6;
+    public static final int MULTISETS = 462;
+    public static final int METHODS = 10;
+    public static final int LOW = 0;
+
+    private static final int LOW_LIMIT = 3;
+    private static final int MIN_TARGET = 4;
+    private static final int MAX_TARGET = 12;
+    private static final int COUNT_BITS = 3;
+
+    private static final int[][] BINOMIAL = createBinomials(FACES + DICES, DICES);
+    private static final short[][] SCORES = createScores();
+
+    private ScoreTable(){
+    }
+
+    /**
+     * Returns the rank of the multiset formed by the values of the given dices.
+     * @param dices the six dices.
+     * @return the rank, between 0 and 461.
+     */
+    public static int rank(Die[] dices){
+        checkLength(dices.length);
+        int counts = 0;
+        for (Die die: dices) {
+            counts += 1 << (COUNT_BITS * (die.getValue() - 1));
+        }
+        return rankCounts(counts);
+    }
+
+    /**
+     * Returns the rank of the multiset formed by the given dice values.
+     * @param values the six dice values, each between 1 and 6.
+     * @return the rank, between 0 and 461.
+     */
+    public static int rank(int[] values){
+        checkLength(values.length);
+        int counts = 0;
+        for (int value: values) {
+            counts += 1 << (COUNT_BITS * (value - 1));
+        }
+        return rankCounts(counts);
+    }
+
+    /**
+     * Returns the rank of the multiset formed by dice values packed three bits per die, as in {@link PackedGame}.
+     * @param values the six packed dice values.
+     * @return the rank, between 0 and 461.
+     */
+    public static int rankPacked(int values){
+        int counts = 0;
+        for(int die = 0; die < DICES; die++){
+            int value = (values >>> (PackedGame.BITS_PER_DIE * die)) & ((1 << PackedGame.BITS_PER_DIE) - 1);
+            counts += 1 << (COUNT_BITS * (value - 1));
+        }
+        return rankCounts(counts);
+    }
+
+    /**
+     * Returns the score of the given multiset for the given scoring method.
+     * @param rank the rank of the multiset.
+     * @param method the index of the scoring method.
+     * @return the score.
+     */
+    public static int getScore(int rank, int method){
+        return SCORES[rank][method];
+    }
+
+    /**
+     * Returns the index of the scoring method with the given target sum.
+     * @param target the target sum, between 4 and 12.
+     * @return the index of the scoring method.
+     */
+    public static int methodForTarget(int target){
+        if(target < MIN_TARGET || target > MAX_TARGET){
+            throw new IllegalArgumentException("No scoring method with target " + target);
+        }
+        return target - MIN_TARGET + 1;
+    }
+
+    /**
+     * Throws an exception if the number of dices does not match the table.
+     * @param length the number of dices.
+     */
+    private static void checkLength(int length){
+        if(length != DICES){
+            throw new IllegalArgumentException("Expected " + DICES + " dices but got " + length);
+        }
+    }
+
+    /**
+     * Returns the rank of a multiset given as the count of each face packed into an int, three bits per face.
+     *
+     * Walking the faces in increasing order gives the values in sorted order. The i:th sorted value v is mapped to
+     * v + i, which turns the multiset into a strictly increasing sequence whose rank is the sum of C(v + i, i + 1).
+     * @param counts the packed counts.
+     * @return the rank.
+     */
+    private static int rankCounts(int counts){
+        int rank = 0;
+        int position = 0;
+        for(int face = 0; face < FACES; face++){
+            int count = (counts >>> (COUNT_BITS * face)) & ((1 << COUNT_BITS) - 1);
+            for(int i = 0; i < count; i++){
+                rank += BINOMIAL[face + position][position + 1];
+                position++;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Creates Pascal's triangle up to the given size.
+     * @param n the largest n to include.
+     * @param k the largest k to include.
+     * @return the binomial coefficients indexed as [n][k].
+     */
+    private static int[][] createBinomials(int n, int k){
+        int[][] binomial = new int[n + 1][k + 1];
+        for(int i = 0; i <= n; i++){
+            binomial[i][0] = 1;
+            for(int j = 1; j <= Math.min(i, k); j++){
+                binomial[i][j] = binomial[i - 1][j - 1] + (j < i ? binomial[i - 1][j] : 0);
+            }
+        }
+        return binomial;
+    }
+
+    /**
+     * Creates the table by scoring one representative of every multiset.
+     * @return the scores indexed as [rank][method].
+     */
+    private static short[][] createScores(){
+        short[][] scores = new short[MULTISETS][METHODS];
+        PartitionScorer scorer = new PartitionScorer(DICES);
+        int[] values = new int[DICES];
+        fill(scores, scorer, values, 0, 1);
+        return scores;
+    }
+
+    /**
+     * Recursively generates every sorted sequence of values and scores it once it is complete.
+     * @param scores the table to fill.
+     * @param scorer the scorer used for the target methods.
+     * @param values the sequence being generated.
+     * @param position the position to fill next.
+     * @param minValue the smallest value allowed at the position.
+     */
+    private static void fill(short[][] scores, PartitionScorer scorer, int[] values, int position, int minValue){
+        if(position == DICES){
+            short[] row = scores[rank(values)];
+            int low = 0;
+            for (int value: values) {
+                if(value <= LOW_LIMIT){
+                    low += value;
+                }
+            }
+            row[LOW] = (short) low;
+            for(int target = MIN_TARGET; target <= MAX_TARGET; target++){
+                row[methodForTarget(target)] = (short) scorer.score(values, target);
+            }
+            return;
+        }
+
+        for(int value = minValue; value <= FACES; value++){
+            values[position] = value;
+            fill(scores, scorer, values, position + 1, value);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package se.umu.id14ant.thirty.model;
+
+/**
+ * The scoring methods of the game. The ordinal of a method is its index, as used for the used methods in
+ * {@link Game} and the columns of {@link ScoreTable}.
+ */
+public enum ScoringMethod {
+
+    LOW(0),
+    FOUR(4),
+    FIVE(5),
+    SIX(6),
+    SEVEN(7),
+    EIGHT(8),
+    NINE(9),
+    TEN(10),
+    ELEVEN(11),
+    TWELVE(12);
+
+    private static final ScoringMethod[] VALUES = values();
+
+    private final int mTarget;
+
+    /**
+     * Creates a scoring method.
+     * @param target the target sum of each group, or zero for Low.
+     */
+    ScoringMethod(int target){
+        mTarget = target;
+    }
+
+    /**
+     * Returns the method with the given index.
+     * @param index the index, between 0 and 9.
+     * @return the scoring method.
+     */
+    public static ScoringMethod fromIndex(int index){
+        return VALUES[index];
+    }
+
+    /**
+     * Returns the index of the method.
+     * @return the index.
+     */
+    public int getIndex(){
+        return ordinal();
+    }
+
+    /**
+     * Returns the target sum of each group, or zero for Low.
+     * @return the target sum.
+     */
+    public int getTarget(){
+        return mTarget;
+    }
+
+    /**
+     * Returns the name shown for the method, "Low" or the target sum.
+     * @return the name.
+     */
+    @Override
+    public String toString(){
+        return this == LOW ? "Low" : String.valueOf(mTarget);
+    }
+}
@@ -0,0 +1,84 @@
+package se.umu.id14ant.thirty.model;
+
+/**
+ * The default random source, using the SplitMix64 generator. It is fast, needs no synchronization and its state is a
+ * single long that is advanced by a constant on every draw.
+ */
+public class SplitMixRandom extends RandomSource {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static long sSeedUniquifier = System.nanoTime();
+
+    private final long mSeed;
+    private long mState;
+
+    /**
+     * Creates a generator with a seed that differs between calls.
+     */
+    public SplitMixRandom(){
+        this(nextSeed());
+    }
+
+    /**
+     * Creates a generator with the given seed.
+     * @param seed the seed.
+     */
+    public SplitMixRandom(long seed){
+        mSeed = seed;
+        mState = seed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long nextLong(){
+        mState += GOLDEN_GAMMA;
+        return mix(mState);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getSeed(){
+        return mSeed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getState(){
+        return mState;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setState(long state){
+        mState = state;
+    }
+
+    /**
+     * Scrambles the bits of the given value using the SplitMix64 finalizer.
+     * @param z the value.
+     * @return the scrambled value.
+     */
+    public static long mix(long z){
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns a new seed mixing the current time with the seeds returned before.
+     * @return the seed.
+     */
+    private static synchronized long nextSeed(){
+        sSeedUniquifier += GOLDEN_GAMMA;
+        return mix(sSeedUniquifier ^ System.nanoTime());
+    }
+}
@@ -0,0 +1,79 @@
+package se.umu.id14ant.thirty.strategy;
+
+/**
+ * A move suggested by {@link MoveAdvisor}: either which dices to keep before the next throw, or which scoring method
+ * to score the round with.
+ */
+public class Advice {
+
+    private final int mKeepMask;
+    private final int mMethod;
+    private final double mExpectedScore;
+    private final int mSamples;
+    private final boolean mComplete;
+
+    /**
+     * Creates an advice.
+     * @param keepMask the dices to keep, or -1 if the advice is a scoring method.
+     * @param method the index of the scoring method, or -1 if the advice is which dices to keep.
+     * @param expectedScore the estimated score of the rest of the game, including the current round, or NaN if
+     *                      it is not known.
+     * @param samples the number of sampled games behind the estimate.
+     * @param complete true if the search reached its sample limit before the time budget ran out.
+     */
+    Advice(int keepMask, int method, double expectedScore, int samples, boolean complete){
+        mKeepMask = keepMask;
+        mMethod = method;
+        mExpectedScore = expectedScore;
+        mSamples = samples;
+        mComplete = complete;
+    }
+
+    /**
+     * Returns true if the advice is which dices to keep, false if it is a scoring method.
+     * @return true if the advice is a keep mask.
+     */
+    public boolean isKeep(){
+        return mKeepMask >= 0;
+    }
+
+    /**
+     * Returns which dices to keep, where bit i refers to die i.
+     * @return the keep mask, or -1 if the advice is a scoring method.
+     */
+    public int getKeepMask(){
+        return mKeepMask;
+    }
+
+    /**
+     * Returns the scoring method to use.
+     * @return the index of the method, or -1 if the advice is which dices to keep.
+     */
+    public int getMethod(){
+        return mMethod;
+    }
+
+    /**
+     * Returns the estimated score of the rest of the game, including the current round, when following the advice.
+     * @return the estimated score, or NaN if the advice was read from a table without estimates.
+     */
+    public double getExpectedScore(){
+        return mExpectedScore;
+    }
+
+    /**
+     * Returns the number of sampled games of every later round behind the estimate.
+     * @return the number of samples.
+     */
+    public int getSamples(){
+        return mSamples;
+    }
+
+    /**
+     * Returns true if the search reached its sample limit, so more time would not change the advice.
+     * @return true if the search is complete.
+     */
+    public boolean isComplete(){
+        return mComplete;
+    }
+}
@@ -0,0 +1,87 @@
+package se.umu.id14ant.thirty.strategy;
+
+import se.umu.id14ant.thirty.model.MultisetScorer;
+import se.umu.id14ant.thirty.model.Rules;
+import se.umu.id14ant.thirty.model.ScoreTable;
+
+/**
+ * Baseline strategy that never keeps any dices and scores with the unused method giving the highest score right
+ * now, preferring the lower method on ties. This is how the simulator plays.
+ *
+ * Under the standard rules the strategy holds no state and may be used from several threads. Under other rules it
+ * scores with a {@link MultisetScorer} of its own and must not be shared between threads.
+ */
+public class GreedyStrategy implements Strategy {
+
+    private final MultisetScorer mScorer;
+    private final int[] mScores;
+
+    /**
+     * Creates a strategy for the standard rules.
+     */
+    public GreedyStrategy(){
+        this(Rules.STANDARD);
+    }
+
+    /**
+     * Creates a strategy for the given rules.
+     * @param rules the rules.
+     */
+    public GreedyStrategy(Rules rules){
+        mScorer = rules.isStandard() ? null : new MultisetScorer(rules);
+        mScores = rules.isStandard() ? null : new int[rules.getMethods()];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int bestKeepMask(int usedMethods, int[] values, int throwsLeft){
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int bestMethod(int usedMethods, int[] values){
+        if(mScorer == null){
+            return bestImmediateMethod(usedMethods, ScoreTable.rank(values));
+        }
+        mScorer.scoreAll(values, mScores);
+        int bestMethod = -1;
+        for(int method = 0; method < mScores.length; method++){
+            if((usedMethods & (1 << method)) == 0 && (bestMethod < 0 || mScores[method] > mScores[bestMethod])){
+                bestMethod = method;
+            }
+        }
+        if(bestMethod < 0){
+            throw new IllegalArgumentException("All scoring methods are used");
+        }
+        return bestMethod;
+    }
+
+    /**
+     * Returns the unused method giving the highest score for the given dices, the lowest such method on ties.
+     * @param usedMethods the used scoring methods.
+     * @param rank the rank of the dice values, see {@link ScoreTable#rank(int[])}.
+     * @return the index of the method.
+     */
+    static int bestImmediateMethod(int usedMethods, int rank){
+        int bestMethod = -1;
+        int bestScore = -1;
+        for(int method = 0; method < ScoreTable.METHODS; method++){
+            if((usedMethods & (1 << method)) == 0){
+                int score = ScoreTable.getScore(rank, method);
+                if(score > bestScore){
+                    bestScore = score;
+                    bestMethod = method;
+                }
+            }
+        }
+        if(bestMethod < 0){
+            throw new IllegalArgumentException("All scoring methods are used");
+        }
+        return bestMethod;
+    }
+}
@@ -0,0 +1,152 @@
+package se.umu.id14ant.thirty.strategy;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.model.MappedTable;
+import se.umu.id14ant.thirty.model.Multisets;
+import se.umu.id14ant.thirty.model.ScoreTable;
+
+/**
+ * The optimal strategy read from a {@link MappedTable}, so it can be used without solving the game or holding the
+ * decisions on the heap.
+ *
+ * The table has one record per set of used methods. A record holds the expected score of the rest of the game, the
+ * multiset to keep for every throw and number of throws left, and the method to choose for every throw:
+ * <pre>
+ *    0 double  expected score of the remaining rounds
+ *    8 short[] multiset to keep, indexed by (throws left - 1) * 462 + rank
+ * 1856 byte[]  method to choose, indexed by rank
+ * </pre>
+ * Entries of the finished game are -1.
+ */
+public class MappedStrategy implements Strategy, Closeable {
+
+    public static final int TABLE_TYPE = 1;
+
+    private static final int VALUE_OFFSET = 0;
+    private static final int KEPT_OFFSET = 8;
+    private static final int METHOD_OFFSET = KEPT_OFFSET + RoundSolver.MAX_THROWS_LEFT * ScoreTable.MULTISETS * 2;
+    private static final int RECORD_SIZE = METHOD_OFFSET + ScoreTable.MULTISETS;
+    private static final int STATES = 1 << Game.NUMBER_OF_ROUNDS;
+
+    private final MappedTable mTable;
+
+    /**
+     * Opens the strategy stored in the given file.
+     * @param file the file.
+     * @return the strategy.
+     * @throws IOException if the file cannot be read or does not hold a strategy.
+     */
+    public static MappedStrategy open(File file) throws IOException {
+        MappedTable table = MappedTable.open(file, TABLE_TYPE);
+        if(table.getRecordSize() != RECORD_SIZE || table.getRecordCount() != STATES){
+            table.close();
+            throw new IOException("Unexpected layout of strategy table");
+        }
+        return new MappedStrategy(table);
+    }
+
+    /**
+     * Writes the decisions of the given strategy to a file.
+     * @param strategy the strategy.
+     * @param file the file.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(OptimalStrategy strategy, File file) throws IOException {
+        ByteBuffer records = ByteBuffer.allocate(RECORD_SIZE * STATES);
+        int[] bestKept = new int[ScoreTable.MULTISETS];
+        int[] values = new int[Multisets.MAX_SIZE];
+
+        for(int usedMethods = 0; usedMethods < STATES; usedMethods++){
+            int record = usedMethods * RECORD_SIZE;
+            records.putDouble(record + VALUE_OFFSET, strategy.getExpectedScore(usedMethods));
+            boolean finished = RoundSolver.isFinished(usedMethods);
+
+            for(int throwsLeft = 1; throwsLeft <= RoundSolver.MAX_THROWS_LEFT; throwsLeft++){
+                if(!finished){
+                    strategy.bestKept(usedMethods, throwsLeft, bestKept);
+                }
+                for(int rank = 0; rank < ScoreTable.MULTISETS; rank++){
+                    int offset = KEPT_OFFSET + ((throwsLeft - 1) * ScoreTable.MULTISETS + rank) * 2;
+                    records.putShort(record + offset, (short) (finished ? -1 : bestKept[rank]));
+                }
+            }
+
+            for(int rank = 0; rank < ScoreTable.MULTISETS; rank++){
+                int method = -1;
+                if(!finished){
+                    Multisets.values(Multisets.ofRank(rank), values);
+                    method = strategy.bestMethod(usedMethods, values);
+                }
+                records.put(record + METHOD_OFFSET + rank, (byte) method);
+            }
+        }
+        MappedTable.write(file, TABLE_TYPE, RECORD_SIZE, records);
+    }
+
+    /**
+     * Creates a strategy reading from the given table.
+     * @param table the table.
+     */
+    private MappedStrategy(MappedTable table){
+        mTable = table;
+    }
+
+    /**
+     * Returns the expected score of the remaining rounds, before the first throw of the next round.
+     * @param usedMethods the used scoring methods.
+     * @return the expected score.
+     */
+    public double getExpectedScore(int usedMethods){
+        return mTable.getDouble(usedMethods, VALUE_OFFSET);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int bestKeepMask(int usedMethods, int[] values, int throwsLeft){
+        if(throwsLeft < 1 || throwsLeft > RoundSolver.MAX_THROWS_LEFT){
+            throw new IllegalArgumentException("Invalid number of throws left: " + throwsLeft);
+        }
+        int offset = KEPT_OFFSET + ((throwsLeft - 1) * ScoreTable.MULTISETS + ScoreTable.rank(values)) * 2;
+        int kept = mTable.getShort(usedMethods, offset);
+        if(kept < 0){
+            throw new IllegalArgumentException("All scoring methods are used");
+        }
+        return Multisets.maskOf(values, kept);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int bestMethod(int usedMethods, int[] values){
+        int method = mTable.getByte(usedMethods, METHOD_OFFSET + ScoreTable.rank(values));
+        if(method < 0){
+            throw new IllegalArgumentException("All scoring methods are used");
+        }
+        return method;
+    }
+
+    /**
+     * Verifies the checksum of the whole table.
+     * @throws IOException if the table is corrupt.
+     */
+    public void verify() throws IOException {
+        mTable.verify();
+    }
+
+    /**
+     * Closes the underlying table.
+     * @throws IOException if the table cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        mTable.close();
+    }
+}
@@ -0,0 +1,393 @@
+package se.umu.id14ant.thirty.strategy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import se.umu.id14ant.thirty.model.Multisets;
+import se.umu.id14ant.thirty.model.PartitionScorer;
+import se.umu.id14ant.thirty.model.RandomSource;
+import se.umu.id14ant.thirty.model.ScoreTable;
+import se.umu.id14ant.thirty.model.ScoringMethod;
+import se.umu.id14ant.thirty.model.SplitMixRandom;
+
+/**
+ * Suggests moves during a game within a fixed time budget, for devices where the table of {@link OptimalStrategy} is
+ * not available. Once it is, it can be set by {@link #setExactStrategy(Strategy)} and its decisions are returned
+ * instead.
+ *
+ * The current round is solved exactly by a {@link RoundSolver}, which needs the expected score of the rest of the
+ * game after each unused method is chosen. Those are estimated by sampling the later rounds, played the way
+ * {@link TargetMultiplesStrategy} plays, with the same random numbers for every method so that their differences are
+ * sharper than the estimates themselves. The sampled rounds are played on multiset numbers, with the dices to keep
+ * looked up in a table made once, so sampling never allocates. The search deepens by doubling the number of samples
+ * and solving the round again after each step, and the advice of the last finished step is returned when the budget
+ * runs out. With no time at all the advice maximizes the score of the current round only.
+ *
+ * The samples of each set of used methods are cached and shared by every throw of the round, so later searches of the
+ * round continue where the earlier ones stopped. The advice is cached per dice state together with the number of
+ * samples behind it, so asking again for the same dices, in any order and whatever dices are saved, only searches
+ * again if the round has been sampled further since. A search stops early, without caching its advice, if the thread
+ * is interrupted.
+ *
+ * The caches and working state are not synchronized, so an instance must only be used from one thread at a time.
+ */
+public class MoveAdvisor {
+
+    public static final long DEFAULT_BUDGET_MILLIS = 30;
+
+    private static final int FIRST_SAMPLES = 4;
+    private static final int MAX_SAMPLES = 4096;
+    private static final int CACHED_ROUNDS = 64;
+    private static final int CACHED_ADVICE = 1024;
+    private static final int METHOD_ADVICE = 0;
+    private static final int LOW_LIMIT = 3;
+    private static final int[][] KEPT = createKeptTable();
+
+    private final long mBudgetNanos;
+    private final long mSeed;
+    private final RandomSource mRandom = new SplitMixRandom(0);
+    private final RoundSolver mSolver = new RoundSolver();
+    private final double[] mGameValues = new double[1 << ScoreTable.METHODS];
+    private final Map<Integer, Estimate> mEstimates = new LruMap<>(CACHED_ROUNDS);
+    private final Map<Long, CachedAdvice> mAdvice = new LruMap<>(CACHED_ADVICE);
+    private Strategy mExact;
+    private int mSolvedSamples;
+    private int mSearches;
+
+    /**
+     * Creates an advisor with the default budget and a seed of its own.
+     */
+    public MoveAdvisor(){
+        this(DEFAULT_BUDGET_MILLIS, new SplitMixRandom().getSeed());
+    }
+
+    /**
+     * Creates an advisor with the given budget, sampling later rounds from the given seed.
+     * @param budgetMillis the longest time a search may take, in milliseconds.
+     * @param seed the seed of the sampled rounds.
+     */
+    public MoveAdvisor(long budgetMillis, long seed){
+        mBudgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        mSeed = seed;
+    }
+
+    /**
+     * Sets a strategy whose decisions are returned without searching, such as the optimal strategy read from a table.
+     * Its advice has no expected score.
+     * @param strategy the strategy, or null to search again.
+     */
+    public void setExactStrategy(Strategy strategy){
+        mExact = strategy;
+    }
+
+    /**
+     * Returns which dices to keep before the next throw.
+     * @param usedMethods the used scoring methods, with at least one method unused.
+     * @param values the current dice values.
+     * @param throwsLeft the number of throws left on the current round, at least 1.
+     * @return the advice, with the dices to keep.
+     */
+    public Advice adviseKeep(int usedMethods, int[] values, int throwsLeft){
+        if(throwsLeft < 1 || throwsLeft > RoundSolver.MAX_THROWS_LEFT){
+            throw new IllegalArgumentException("Invalid number of throws left: " + throwsLeft);
+        }
+        if(mExact != null){
+            return new Advice(mExact.bestKeepMask(usedMethods, values, throwsLeft), -1, Double.NaN, 0, true);
+        }
+        long key = key(usedMethods, ScoreTable.rank(values), throwsLeft);
+        CachedAdvice cached = cachedAdvice(key, usedMethods);
+        if(cached == null){
+            boolean finished = search(usedMethods);
+            int kept = mSolver.bestKept(Multisets.indexOf(values), throwsLeft);
+            cached = new CachedAdvice(kept, mSolver.expected(kept, throwsLeft - 1), mSolvedSamples);
+            if(finished){
+                mAdvice.put(key, cached);
+            }
+        }
+        //The cache holds the kept multiset, which is turned into dices of the given order.
+        return new Advice(Multisets.maskOf(values, cached.mChoice), -1, cached.mExpectedScore, cached.mSamples,
+                cached.mSamples >= MAX_SAMPLES);
+    }
+
+    /**
+     * Returns which unused scoring method to score the current dices with.
+     * @param usedMethods the used scoring methods, with at least one method unused.
+     * @param values the current dice values.
+     * @return the advice, with the scoring method.
+     */
+    public Advice adviseMethod(int usedMethods, int[] values){
+        if(mExact != null){
+            return new Advice(-1, mExact.bestMethod(usedMethods, values), Double.NaN, 0, true);
+        }
+        int rank = ScoreTable.rank(values);
+        long key = key(usedMethods, rank, METHOD_ADVICE);
+        CachedAdvice cached = cachedAdvice(key, usedMethods);
+        if(cached == null){
+            boolean finished = search(usedMethods);
+            int bestMethod = -1;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for(int method = 0; method < ScoreTable.METHODS; method++){
+                int next = usedMethods | (1 << method);
+                if(next != usedMethods && ScoreTable.getScore(rank, method) + mGameValues[next] > bestValue){
+                    bestValue = ScoreTable.getScore(rank, method) + mGameValues[next];
+                    bestMethod = method;
+                }
+            }
+            cached = new CachedAdvice(bestMethod, bestValue, mSolvedSamples);
+            if(finished){
+                mAdvice.put(key, cached);
+            }
+        }
+        return new Advice(-1, cached.mChoice, cached.mExpectedScore, cached.mSamples, cached.mSamples >= MAX_SAMPLES);
+    }
+
+    /**
+     * Returns the number of searches made so far, which only grows when advice is not found in the cache.
+     * @return the number of searches.
+     */
+    int getSearches(){
+        return mSearches;
+    }
+
+    /**
+     * Returns the cached advice of a dice state, unless the round has been sampled further since it was cached.
+     * @param key the key of the dice state.
+     * @param usedMethods the used scoring methods.
+     * @return the advice, or null if the state has to be searched.
+     */
+    private CachedAdvice cachedAdvice(long key, int usedMethods){
+        CachedAdvice cached = mAdvice.get(key);
+        if(cached == null || cached.mSamples >= MAX_SAMPLES){
+            return cached;
+        }
+        Estimate estimate = mEstimates.get(usedMethods);
+        return estimate == null || estimate.mSamples <= cached.mSamples ? cached : null;
+    }
+
+    /**
+     * Samples the rounds after the current one until the budget runs out, solving the round again each time the
+     * number of samples has doubled. The round is left solved with the estimates of the last finished step.
+     * @param usedMethods the used scoring methods.
+     * @return true if the search ran until the budget or the sample limit, false if the thread was interrupted.
+     */
+    private boolean search(int usedMethods){
+        if(RoundSolver.isFinished(usedMethods)){
+            throw new IllegalArgumentException("All scoring methods are used");
+        }
+        mSearches++;
+        long deadline = System.nanoTime() + mBudgetNanos;
+        Estimate estimate = mEstimates.get(usedMethods);
+        if(estimate == null){
+            estimate = new Estimate();
+            mEstimates.put(usedMethods, estimate);
+        }
+
+        solve(usedMethods, estimate);
+        int target = FIRST_SAMPLES;
+        while(estimate.mSamples < MAX_SAMPLES){
+            while(target <= estimate.mSamples){
+                target *= 2;
+            }
+            while(estimate.mSamples < target){
+                if(Thread.currentThread().isInterrupted()){
+                    return false;
+                }
+                if(System.nanoTime() - deadline >= 0){
+                    return true;
+                }
+                sample(usedMethods, estimate);
+            }
+            solve(usedMethods, estimate);
+        }
+        return true;
+    }
+
+    /**
+     * Solves the current round with the estimated score of the rest of the game after each unused method.
+     * @param usedMethods the used scoring methods.
+     * @param estimate the samples of the rounds after the current one.
+     */
+    private void solve(int usedMethods, Estimate estimate){
+        for(int method = 0; method < ScoreTable.METHODS; method++){
+            int next = usedMethods | (1 << method);
+            if(next != usedMethods){
+                mGameValues[next] = estimate.mSamples == 0 ? 0 : estimate.mSums[method] / estimate.mSamples;
+            }
+        }
+        mSolver.invalidate();
+        mSolver.solve(usedMethods, mGameValues);
+        mSolvedSamples = estimate.mSamples;
+    }
+
+    /**
+     * Plays the rounds after the current one once for each unused method, all with the same random numbers.
+     * @param usedMethods the used scoring methods.
+     * @param estimate the samples to add to.
+     */
+    private void sample(int usedMethods, Estimate estimate){
+        long state = mSeed + estimate.mSamples;
+        for(int method = 0; method < ScoreTable.METHODS; method++){
+            int next = usedMethods | (1 << method);
+            if(next != usedMethods && !RoundSolver.isFinished(next)){
+                mRandom.setState(state);
+                estimate.mSums[method] += playOut(next);
+            }
+        }
+        estimate.mSamples++;
+    }
+
+    /**
+     * Plays the rest of the game, keeping the dices of the most groups of the target giving the highest score.
+     * @param usedMethods the used scoring methods.
+     * @return the score of the rest of the game.
+     */
+    private int playOut(int usedMethods){
+        int total = 0;
+        while(!RoundSolver.isFinished(usedMethods)){
+            int multiset = rollUp(0);
+            for(int throwsLeft = RoundSolver.MAX_THROWS_LEFT; throwsLeft > 0; throwsLeft--){
+                int rank = Multisets.rank(multiset);
+                multiset = rollUp(KEPT[methodToKeep(usedMethods, rank)][rank]);
+            }
+            int rank = Multisets.rank(multiset);
+            int method = GreedyStrategy.bestImmediateMethod(usedMethods, rank);
+            total += ScoreTable.getScore(rank, method);
+            usedMethods |= 1 << method;
+        }
+        return total;
+    }
+
+    /**
+     * Returns which row of the kept table to keep dices by, chosen like {@link TargetMultiplesStrategy} does: the
+     * unused target giving the highest score, the higher one on ties. If no target scores, Low is kept when it is the
+     * only method left and otherwise nothing.
+     * @param usedMethods the used scoring methods.
+     * @param rank the rank of the dices.
+     * @return the index of the method, or {@link ScoreTable#METHODS} to keep nothing.
+     */
+    private static int methodToKeep(int usedMethods, int rank){
+        int bestMethod = -1;
+        int bestScore = 0;
+        for(int method = ScoreTable.METHODS - 1; method > ScoreTable.LOW; method--){
+            if((usedMethods & (1 << method)) == 0 && ScoreTable.getScore(rank, method) > bestScore){
+                bestScore = ScoreTable.getScore(rank, method);
+                bestMethod = method;
+            }
+        }
+        if(bestMethod >= 0){
+            return bestMethod;
+        }
+        return usedMethods == (1 << ScoreTable.METHODS) - 1 - (1 << ScoreTable.LOW) ? ScoreTable.LOW
+                : ScoreTable.METHODS;
+    }
+
+    /**
+     * Rolls dices until the multiset holds six values.
+     * @param kept the number of the kept multiset.
+     * @return the number of the full multiset.
+     */
+    private int rollUp(int kept){
+        for(int size = Multisets.size(kept); size < Multisets.MAX_SIZE; size++){
+            kept = Multisets.add(kept, mRandom.rollDie());
+        }
+        return kept;
+    }
+
+    /**
+     * Creates the table of which multiset {@link TargetMultiplesStrategy} keeps from each throw, indexed by the
+     * method it keeps for and the rank of the throw. Low keeps the dices of three or less, and the extra last row
+     * keeps nothing.
+     * @return the table.
+     */
+    private static int[][] createKeptTable(){
+        int[][] kept = new int[ScoreTable.METHODS + 1][ScoreTable.MULTISETS];
+        int[] values = new int[ScoreTable.DICES];
+        PartitionScorer groups = new PartitionScorer(ScoreTable.DICES);
+        for(int rank = 0; rank < ScoreTable.MULTISETS; rank++){
+            Multisets.values(Multisets.ofRank(rank), values);
+            int lowMask = 0;
+            for(int i = 0; i < values.length; i++){
+                if(values[i] <= LOW_LIMIT){
+                    lowMask |= 1 << i;
+                }
+            }
+            kept[ScoreTable.LOW][rank] = Multisets.indexOf(values, lowMask);
+            for(int method = ScoreTable.LOW + 1; method < ScoreTable.METHODS; method++){
+                int target = ScoringMethod.fromIndex(method).getTarget();
+                kept[method][rank] = Multisets.indexOf(values, groups.groupMask(values, target));
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Returns the key of a dice state in the advice cache.
+     * @param usedMethods the used scoring methods.
+     * @param rank the rank of the dice values.
+     * @param throwsLeft the number of throws left, or {@link #METHOD_ADVICE} for the choice of method.
+     * @return the key.
+     */
+    private static long key(int usedMethods, int rank, int throwsLeft){
+        return ((long) usedMethods * (RoundSolver.MAX_THROWS_LEFT + 1) + throwsLeft) * ScoreTable.MULTISETS + rank;
+    }
+
+    /**
+     * The sampled score of the rest of the game after each unused method, for one set of used methods.
+     */
+    private static class Estimate {
+        private final double[] mSums = new double[ScoreTable.METHODS];
+        private int mSamples;
+    }
+
+    /**
+     * Advice of one dice state, with the choice independent of the order of the dices.
+     */
+    private static class CachedAdvice {
+        private final int mChoice;
+        private final double mExpectedScore;
+        private final int mSamples;
+
+        /**
+         * Creates cached advice.
+         * @param choice the number of the kept multiset, or the index of the scoring method.
+         * @param expectedScore the expected score.
+         * @param samples the number of samples the advice is based on.
+         */
+        CachedAdvice(int choice, double expectedScore, int samples){
+            mChoice = choice;
+            mExpectedScore = expectedScore;
+            mSamples = samples;
+        }
+    }
+
+    /**
+     * Map dropping the least recently used entry when it grows beyond its capacity.
+     * @param <K> the type of the keys.
+     * @param <V> the type of the values.
+     */
+    private static class LruMap<K, V> extends LinkedHashMap<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        private final int mCapacity;
+
+        /**
+         * Creates an empty map.
+         * @param capacity the most entries kept.
+         */
+        LruMap(int capacity){
+            super(16, 0.75f, true);
+            mCapacity = capacity;
+        }
+
+        /**
+         * Returns true if the map has grown beyond its capacity.
+         * @param eldest the least recently used entry.
+         * @return true if the entry should be dropped.
+         */
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest){
+            return size() > mCapacity;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package se.umu.id14ant.thirty.strategy;
+
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.model.Multisets;
+import se.umu.id14ant.thirty.model.ScoreTable;
+
+/**
+ * The strategy maximizing the expected total score, created by {@link StrategySolver}.
+ *
+ * Only the expected score of the rest of the game for each set of used methods is stored. The expectations within a
+ * round are recalculated when a query concerns a new set of used methods, which takes a fraction of a millisecond
+ * and is then reused for the rest of the round. Each thread keeps its own working state, so queries may be made
+ * from several threads.
+ */
+public class OptimalStrategy implements Strategy {
+
+    private final double[] mGameValues;
+    private final ThreadLocal<RoundSolver> mSolvers = new ThreadLocal<RoundSolver>() {
+        @Override
+        protected RoundSolver initialValue() {
+            return new RoundSolver();
+        }
+    };
+
+    /**
+     * Creates a strategy from the expected score of the rest of the game for each set of used methods.
+     * @param gameValues the expected scores, indexed by used methods.
+     */
+    public OptimalStrategy(double[] gameValues){
+        if(gameValues.length != 1 << Game.NUMBER_OF_ROUNDS){
+            throw new IllegalArgumentException("Expected a value for every set of used methods");
+        }
+        mGameValues = gameValues;
+    }
+
+    /**
+     * Returns the expected total score of a new game when playing optimally.
+     * @return the expected total score.
+     */
+    public double getExpectedScore(){
+        return mGameValues[0];
+    }
+
+    /**
+     * Returns the expected score of the remaining rounds, before the first throw of the next round.
+     * @param usedMethods the used scoring methods.
+     * @return the expected score.
+     */
+    public double getExpectedScore(int usedMethods){
+        return mGameValues[usedMethods];
+    }
+
+    /**
+     * Returns the expected score of the rest of the game, including the current round, when keeping the given
+     * dices and playing optimally from there.
+     * @param usedMethods the used scoring methods.
+     * @param values the current dice values.
+     * @param keepMask the dices to keep.
+     * @param throwsLeft the number of throws left on the current round, at least 1.
+     * @return the expected score.
+     */
+    public double getExpectedScore(int usedMethods, int[] values, int keepMask, int throwsLeft){
+        checkThrowsLeft(throwsLeft, RoundSolver.MAX_THROWS_LEFT + 1);
+        RoundSolver solver = solver(usedMethods);
+        return solver.expected(Multisets.indexOf(values, keepMask), throwsLeft - 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * When several choices are equally good, the one keeping the most dices is returned.
+     */
+    @Override
+    public int bestKeepMask(int usedMethods, int[] values, int throwsLeft){
+        checkThrowsLeft(throwsLeft, RoundSolver.MAX_THROWS_LEFT);
+        RoundSolver solver = solver(usedMethods);
+        return Multisets.maskOf(values, solver.bestKept(Multisets.indexOf(values), throwsLeft));
+    }
+
+    /**
+     * Returns the multiset to keep for every throw of the dices, as numbered by {@link Multisets}.
+     * @param usedMethods the used scoring methods, with at least one method unused.
+     * @param throwsLeft the number of throws left on the current round, at least 1.
+     * @param bestKept the array to store the multiset to keep in, indexed by the rank of the throw.
+     */
+    public void bestKept(int usedMethods, int throwsLeft, int[] bestKept){
+        checkThrowsLeft(throwsLeft, RoundSolver.MAX_THROWS_LEFT);
+        RoundSolver solver = solver(usedMethods);
+        for(int rank = 0; rank < ScoreTable.MULTISETS; rank++){
+            bestKept[rank] = solver.bestKept(Multisets.ofRank(rank), throwsLeft);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int bestMethod(int usedMethods, int[] values){
+        int rank = ScoreTable.rank(values);
+        int bestMethod = -1;
+        double best = Double.NEGATIVE_INFINITY;
+        for(int method = 0; method < Game.NUMBER_OF_ROUNDS; method++){
+            if((usedMethods & (1 << method)) != 0){
+                continue;
+            }
+            double value = ScoreTable.getScore(rank, method) + mGameValues[usedMethods | (1 << method)];
+            if(value > best){
+                best = value;
+                bestMethod = method;
+            }
+        }
+        if(bestMethod < 0){
+            throw new IllegalArgumentException("All scoring methods are used");
+        }
+        return bestMethod;
+    }
+
+    /**
+     * Returns the working state of the current thread, solved for the given used methods.
+     * @param usedMethods the used scoring methods.
+     * @return the solved round.
+     */
+    private RoundSolver solver(int usedMethods){
+        if(RoundSolver.isFinished(usedMethods)){
+            throw new IllegalArgumentException("All scoring methods are used");
+        }
+        RoundSolver solver = mSolvers.get();
+        solver.solve(usedMethods, mGameValues);
+        return solver;
+    }
+
+    /**
+     * Throws an exception if there are no throws left to keep dices for, or more than the given maximum.
+     * @param throwsLeft the number of throws left.
+     * @param max the largest allowed number of throws left.
+     */
+    private static void checkThrowsLeft(int throwsLeft, int max){
+        if(throwsLeft < 1 || throwsLeft > max){
+            throw new IllegalArgumentException("Invalid number of throws left: " + throwsLeft);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package se.umu.id14ant.thirty.strategy;
+
+import se.umu.id14ant.thirty.model.RandomSource;
+import se.umu.id14ant.thirty.model.Rules;
+
+/**
+ * Baseline strategy keeping a random set of dices and choosing a random unused scoring method.
+ *
+ * The strategy draws from its own random source, separate from the one rolling the dices, and is not thread-safe.
+ */
+public class RandomStrategy implements Strategy {
+
+    private final RandomSource mRandom;
+    private final int mMethods;
+
+    /**
+     * Creates a strategy for the standard rules drawing its choices from the given source.
+     * @param random the source of random numbers.
+     */
+    public RandomStrategy(RandomSource random){
+        this(random, Rules.STANDARD);
+    }
+
+    /**
+     * Creates a strategy for the given rules drawing its choices from the given source.
+     * @param random the source of random numbers.
+     * @param rules the rules.
+     */
+    public RandomStrategy(RandomSource random, Rules rules){
+        mRandom = random;
+        mMethods = rules.getMethods();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int bestKeepMask(int usedMethods, int[] values, int throwsLeft){
+        return mRandom.nextInt(1 << values.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int bestMethod(int usedMethods, int[] values){
+        int unused = mMethods - Integer.bitCount(usedMethods);
+        if(unused <= 0){
+            throw new IllegalArgumentException("All scoring methods are used");
+        }
+        int choice = mRandom.nextInt(unused);
+        for(int method = 0; method < mMethods; method++){
+            if((usedMethods & (1 << method)) == 0 && choice-- == 0){
+                return method;
+            }
+        }
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,158 @@
+package se.umu.id14ant.thirty.strategy;
+
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.model.Multisets;
+import se.umu.id14ant.thirty.model.ScoreTable;
+
+/**
+ * Calculates the expected scores within a single round, given the expected score of the rest of the game after each
+ * possible choice of scoring method.
+ *
+ * For every number of throws left t, the expected score is calculated for every kept multiset of dices, as the
+ * average over the values of the dices that are rolled. Rolling the dices one at a time gives the same distribution
+ * as rolling them together, so the expectation of a multiset with k values is the average of the expectations of
+ * its six extensions with k + 1 values. A full multiset with t throws left is worth the best expectation among its
+ * sub-multisets with t - 1 throws left, or its best score if no throws are left.
+ *
+ * The working arrays are reused between calls, so an instance must not be shared between threads.
+ */
+class RoundSolver {
+
+    static final int MAX_THROWS_LEFT = Game.NUMBER_OF_THROWS - 1;
+
+    private static final int ALL_METHODS = (1 << Game.NUMBER_OF_ROUNDS) - 1;
+
+    private final double[][] mExpected = new double[MAX_THROWS_LEFT + 1][Multisets.COUNT];
+    private final double[] mBestKept = new double[Multisets.COUNT];
+    private final int[][] mBestKeptIndex = new int[MAX_THROWS_LEFT][Multisets.COUNT];
+    private int mUsedMethods = -1;
+
+    /**
+     * Solves the round with the given used methods, unless it is already solved.
+     * @param usedMethods the used scoring methods, with at least one method unused.
+     * @param gameValues the expected score of the rest of the game, indexed by used methods.
+     */
+    void solve(int usedMethods, double[] gameValues){
+        if(usedMethods == mUsedMethods){
+            return;
+        }
+
+        int full = Multisets.first(Multisets.MAX_SIZE);
+        double[] expected = mExpected[0];
+        for(int rank = 0; rank < ScoreTable.MULTISETS; rank++){
+            expected[full + rank] = bestMethodValue(usedMethods, rank, gameValues);
+        }
+        average(expected);
+
+        for(int throwsLeft = 1; throwsLeft <= MAX_THROWS_LEFT; throwsLeft++){
+            bestKept(mExpected[throwsLeft - 1], mBestKept, mBestKeptIndex[throwsLeft - 1]);
+            expected = mExpected[throwsLeft];
+            System.arraycopy(mBestKept, full, expected, full, ScoreTable.MULTISETS);
+            average(expected);
+        }
+        mUsedMethods = usedMethods;
+    }
+
+    /**
+     * Forgets the solved round, so the next call to {@link #solve(int, double[])} solves it again even if the used
+     * methods are the same. Needed when the expected scores of the rest of the game have changed.
+     */
+    void invalidate(){
+        mUsedMethods = -1;
+    }
+
+    /**
+     * Returns the expected score when keeping the given multiset and rolling the other dices, with the given number
+     * of throws left after that roll. The round must have been solved first.
+     * @param kept the number of the kept multiset.
+     * @param throwsLeft the number of throws left after the roll.
+     * @return the expected score.
+     */
+    double expected(int kept, int throwsLeft){
+        return mExpected[throwsLeft][kept];
+    }
+
+    /**
+     * Returns which sub-multiset of the given dices to keep, to get the highest expected score. When several are
+     * equally good, the largest one is returned. The round must have been solved first.
+     * @param multiset the number of the multiset of the current dices.
+     * @param throwsLeft the number of throws left, at least 1.
+     * @return the number of the multiset to keep.
+     */
+    int bestKept(int multiset, int throwsLeft){
+        return mBestKeptIndex[throwsLeft - 1][multiset];
+    }
+
+    /**
+     * Returns the expected score of the round and the rest of the game, before the first throw.
+     * @return the expected score.
+     */
+    double roundValue(){
+        return mExpected[MAX_THROWS_LEFT][0];
+    }
+
+    /**
+     * Returns the highest score plus expected score of the rest of the game, over all unused methods.
+     * @param usedMethods the used scoring methods.
+     * @param rank the rank of the dices.
+     * @param gameValues the expected score of the rest of the game, indexed by used methods.
+     * @return the best value.
+     */
+    static double bestMethodValue(int usedMethods, int rank, double[] gameValues){
+        double best = Double.NEGATIVE_INFINITY;
+        for(int method = 0; method < Game.NUMBER_OF_ROUNDS; method++){
+            if((usedMethods & (1 << method)) == 0){
+                best = Math.max(best, ScoreTable.getScore(rank, method) + gameValues[usedMethods | (1 << method)]);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns true if all scoring methods are used, otherwise false.
+     * @param usedMethods the used scoring methods.
+     * @return true if the game is finished.
+     */
+    static boolean isFinished(int usedMethods){
+        return usedMethods == ALL_METHODS;
+    }
+
+    /**
+     * Fills in the expectation of every multiset smaller than six, from the full multisets already in the array.
+     * @param expected the expectations, indexed by multiset.
+     */
+    static void average(double[] expected){
+        for(int index = Multisets.first(Multisets.MAX_SIZE) - 1; index >= 0; index--){
+            double sum = 0;
+            for(int value = 1; value <= Multisets.FACES; value++){
+                sum += expected[Multisets.add(index, value)];
+            }
+            expected[index] = sum / Multisets.FACES;
+        }
+    }
+
+    /**
+     * Calculates, for every multiset, the highest expectation among all of its sub-multisets and which
+     * sub-multiset gives it. Sub-multisets are only chosen over larger ones if they are strictly better, so among
+     * equally good sub-multisets the largest one is chosen.
+     * @param expected the expectations, indexed by multiset.
+     * @param bestKept the array to store the highest expectation of each multiset in.
+     * @param bestIndex the array to store the best sub-multiset of each multiset in.
+     */
+    static void bestKept(double[] expected, double[] bestKept, int[] bestIndex){
+        for(int index = 0; index < Multisets.COUNT; index++){
+            double best = expected[index];
+            int bestSubset = index;
+            for(int value = 1; value <= Multisets.FACES; value++){
+                int smaller = Multisets.remove(index, value);
+                if(smaller >= 0 && (bestKept[smaller] > best || bestKept[smaller] == best
+                        && Multisets.size(bestIndex[smaller]) > Multisets.size(bestSubset))){
+                    best = bestKept[smaller];
+                    bestSubset = bestIndex[smaller];
+                }
+            }
+            bestKept[index] = best;
+            bestIndex[index] = bestSubset;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package se.umu.id14ant.thirty.strategy;
+
+/**
+ * The exact probability distribution of the score of a round with a single scoring method. Probabilities are kept as
+ * integer weights over a common denominator, a power of six, so they are exact and sum to exactly one.
+ */
+public class ScoreDistribution {
+
+    private final int mMethod;
+    private final long[] mWeights;
+    private final long mDenominator;
+
+    /**
+     * Creates a distribution.
+     * @param method the index of the scoring method.
+     * @param weights the weight of each score, indexed by score. The array is not copied.
+     * @param denominator the sum of the weights.
+     */
+    ScoreDistribution(int method, long[] weights, long denominator){
+        mMethod = method;
+        mWeights = weights;
+        mDenominator = denominator;
+    }
+
+    /**
+     * Returns the index of the scoring method.
+     * @return the index of the method.
+     */
+    public int getMethod(){
+        return mMethod;
+    }
+
+    /**
+     * Returns the highest score the method can give.
+     * @return the highest score.
+     */
+    public int getMaxScore(){
+        return mWeights.length - 1;
+    }
+
+    /**
+     * Returns the probability of the given score.
+     * @param score the score.
+     * @return the probability, zero for scores outside the range of the method.
+     */
+    public double getProbability(int score){
+        return (double) getWeight(score) / mDenominator;
+    }
+
+    /**
+     * Returns the probability of at least the given score.
+     * @param score the score.
+     * @return the probability.
+     */
+    public double getProbabilityAtLeast(int score){
+        long weight = 0;
+        for(int i = Math.max(0, score); i < mWeights.length; i++){
+            weight += mWeights[i];
+        }
+        return (double) weight / mDenominator;
+    }
+
+    /**
+     * Returns the number of equally likely outcomes giving the given score, out of {@link #getDenominator()}.
+     * @param score the score.
+     * @return the weight.
+     */
+    public long getWeight(int score){
+        return score >= 0 && score < mWeights.length ? mWeights[score] : 0;
+    }
+
+    /**
+     * Returns the number of equally likely outcomes the weights are counted over.
+     * @return the denominator.
+     */
+    public long getDenominator(){
+        return mDenominator;
+    }
+
+    /**
+     * Returns the expected score.
+     * @return the mean.
+     */
+    public double getMean(){
+        double sum = 0;
+        for(int score = 0; score < mWeights.length; score++){
+            sum += (double) score * mWeights[score];
+        }
+        return sum / mDenominator;
+    }
+}
@@ -0,0 +1,218 @@
+package se.umu.id14ant.thirty.strategy;
+
+import se.umu.id14ant.thirty.model.Die;
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.model.Multisets;
+import se.umu.id14ant.thirty.model.ScoreTable;
+
+/**
+ * Calculates the exact distribution of the score of the current round for each scoring method, when the saved dices
+ * are kept, the others are rolled and every later throw keeps the dices that maximize the expected score of that
+ * method. Only the standard rules are supported.
+ *
+ * Outcomes are counted per multiset of dice values rather than per ordered roll, and the distribution of every
+ * method, number of throws left and kept multiset is cached once calculated. Different keep masks, dice orders and
+ * throw sequences reaching the same multiset share its entry, so the cache fills up after a few queries and later
+ * queries are lookups.
+ *
+ * With t throws left after a roll, weights are counted over 6^(6(t + 1)) equally likely outcomes. Rolling the
+ * missing dices one at a time gives each extension of a multiset by a single value a sixth of its weight, and a full
+ * multiset carries the weights of the best multiset to keep from it, scaled by the 6^6 outcomes of the next throw.
+ * The largest denominator, 6^18, fits in a long, so all weights are exact.
+ *
+ * The cache is filled while answering queries, so an instance must not be shared between threads.
+ */
+public class ScoreDistributions {
+
+    private static final int LEVELS = RoundSolver.MAX_THROWS_LEFT + 1;
+    private static final int FULL = Multisets.first(Multisets.MAX_SIZE);
+    private static final long OUTCOMES_PER_THROW = 46656;
+
+    private final int[][][] mBestKept = new int[ScoreTable.METHODS][][];
+    private final long[][][][] mWeights = new long[ScoreTable.METHODS][LEVELS][Multisets.COUNT][];
+    private final int[] mMaxScores = new int[ScoreTable.METHODS];
+
+    /**
+     * Creates an empty cache.
+     */
+    public ScoreDistributions(){
+        for(int rank = 0; rank < ScoreTable.MULTISETS; rank++){
+            for(int method = 0; method < ScoreTable.METHODS; method++){
+                mMaxScores[method] = Math.max(mMaxScores[method], ScoreTable.getScore(rank, method));
+            }
+        }
+    }
+
+    /**
+     * Returns the score distribution of each unused method for the current dices of the game, keeping the saved
+     * dices.
+     * @param game the game, played under the standard rules.
+     * @return the distributions indexed by method, null for used methods.
+     */
+    public ScoreDistribution[] distributions(Game game){
+        Die[] dices = game.getDices();
+        int savedMask = 0;
+        for(int i = 0; i < dices.length; i++){
+            if(dices[i].isSaved()){
+                savedMask |= 1 << i;
+            }
+        }
+        return distributions(dices, savedMask, game.getThrowsLeft(), game.getUsedMethods());
+    }
+
+    /**
+     * Returns the score distribution of each unused method when the given dices are kept and the others rolled.
+     * @param dices the current dices.
+     * @param savedMask the dices to keep, where bit i refers to die i.
+     * @param throwsLeft the number of throws left, where 0 means the dices are scored as they are.
+     * @param usedMethods the used scoring methods.
+     * @return the distributions indexed by method, null for used methods.
+     */
+    public ScoreDistribution[] distributions(Die[] dices, int savedMask, int throwsLeft, int usedMethods){
+        int[] values = new int[dices.length];
+        for(int i = 0; i < dices.length; i++){
+            values[i] = dices[i].getValue();
+        }
+        return distributions(values, savedMask, throwsLeft, usedMethods);
+    }
+
+    /**
+     * Returns the score distribution of each unused method for every way of choosing the dices to keep.
+     * @param dices the current dices.
+     * @param throwsLeft the number of throws left, at least 1.
+     * @param usedMethods the used scoring methods.
+     * @return the distributions indexed by keep mask and method, null for used methods.
+     */
+    public ScoreDistribution[][] allKeepMasks(Die[] dices, int throwsLeft, int usedMethods){
+        checkThrowsLeft(throwsLeft, 1);
+        int[] values = new int[dices.length];
+        for(int i = 0; i < dices.length; i++){
+            values[i] = dices[i].getValue();
+        }
+        ScoreDistribution[][] distributions = new ScoreDistribution[1 << dices.length][];
+        for(int mask = 0; mask < distributions.length; mask++){
+            distributions[mask] = distributions(values, mask, throwsLeft, usedMethods);
+        }
+        return distributions;
+    }
+
+    /**
+     * Returns the score distribution of each unused method when the given dice values are kept and the others
+     * rolled.
+     * @param values the current dice values.
+     * @param savedMask the dices to keep.
+     * @param throwsLeft the number of throws left.
+     * @param usedMethods the used scoring methods.
+     * @return the distributions indexed by method, null for used methods.
+     */
+    private ScoreDistribution[] distributions(int[] values, int savedMask, int throwsLeft, int usedMethods){
+        checkThrowsLeft(throwsLeft, 0);
+        ScoreDistribution[] distributions = new ScoreDistribution[ScoreTable.METHODS];
+        int kept = Multisets.indexOf(values, savedMask);
+        int rank = ScoreTable.rank(values);
+        for(int method = 0; method < ScoreTable.METHODS; method++){
+            if((usedMethods & (1 << method)) != 0){
+                continue;
+            }
+            if(throwsLeft == 0){
+                long[] weights = new long[mMaxScores[method] + 1];
+                weights[ScoreTable.getScore(rank, method)] = 1;
+                distributions[method] = new ScoreDistribution(method, weights, 1);
+            } else{
+                distributions[method] = new ScoreDistribution(method, weights(method, throwsLeft - 1, kept),
+                        denominator(throwsLeft - 1));
+            }
+        }
+        return distributions;
+    }
+
+    /**
+     * Returns the cached weights of keeping the given multiset and rolling the other dices, calculating them if
+     * needed. The returned array is shared and must not be modified.
+     * @param method the index of the scoring method.
+     * @param throwsLeft the number of throws left after the roll.
+     * @param kept the number of the kept multiset.
+     * @return the weight of each score, over {@link #denominator(int)} outcomes.
+     */
+    private long[] weights(int method, int throwsLeft, int kept){
+        long[] weights = mWeights[method][throwsLeft][kept];
+        if(weights != null){
+            return weights;
+        }
+
+        weights = new long[mMaxScores[method] + 1];
+        if(kept >= FULL){
+            //Nothing is rolled. With throws left the best multiset to keep is rolled instead, one throw later.
+            if(throwsLeft == 0){
+                weights[ScoreTable.getScore(kept - FULL, method)] = OUTCOMES_PER_THROW;
+            } else{
+                long[] next = weights(method, throwsLeft - 1, bestKept(method, throwsLeft)[kept]);
+                for(int score = 0; score < weights.length; score++){
+                    weights[score] = next[score] * OUTCOMES_PER_THROW;
+                }
+            }
+        } else{
+            for(int value = 1; value <= Multisets.FACES; value++){
+                long[] extended = weights(method, throwsLeft, Multisets.add(kept, value));
+                for(int score = 0; score < weights.length; score++){
+                    weights[score] += extended[score];
+                }
+            }
+            for(int score = 0; score < weights.length; score++){
+                weights[score] /= Multisets.FACES;
+            }
+        }
+        mWeights[method][throwsLeft][kept] = weights;
+        return weights;
+    }
+
+    /**
+     * Returns the best multiset to keep from each full multiset for the given method and throws left, solving the
+     * expected scores of the method the first time.
+     * @param method the index of the scoring method.
+     * @param throwsLeft the number of throws left, at least 1.
+     * @return the best kept multiset, indexed by multiset.
+     */
+    private int[] bestKept(int method, int throwsLeft){
+        if(mBestKept[method] == null){
+            double[] expected = new double[Multisets.COUNT];
+            double[] best = new double[Multisets.COUNT];
+            int[][] bestKept = new int[RoundSolver.MAX_THROWS_LEFT][Multisets.COUNT];
+            for(int rank = 0; rank < ScoreTable.MULTISETS; rank++){
+                expected[FULL + rank] = ScoreTable.getScore(rank, method);
+            }
+            RoundSolver.average(expected);
+            for(int level = 1; level <= RoundSolver.MAX_THROWS_LEFT; level++){
+                RoundSolver.bestKept(expected, best, bestKept[level - 1]);
+                System.arraycopy(best, FULL, expected, FULL, ScoreTable.MULTISETS);
+                RoundSolver.average(expected);
+            }
+            mBestKept[method] = bestKept;
+        }
+        return mBestKept[method][throwsLeft - 1];
+    }
+
+    /**
+     * Returns the number of equally likely outcomes of a roll with the given number of throws left after it.
+     * @param throwsLeft the number of throws left after the roll.
+     * @return the denominator, 6^(6(throwsLeft + 1)).
+     */
+    private static long denominator(int throwsLeft){
+        long denominator = OUTCOMES_PER_THROW;
+        for(int i = 0; i < throwsLeft; i++){
+            denominator *= OUTCOMES_PER_THROW;
+        }
+        return denominator;
+    }
+
+    /**
+     * Throws an exception if the number of throws left is out of range.
+     * @param throwsLeft the number of throws left.
+     * @param min the least allowed number.
+     */
+    private static void checkThrowsLeft(int throwsLeft, int min){
+        if(throwsLeft < min || throwsLeft > LEVELS){
+            throw new IllegalArgumentException("Invalid number of throws left: " + throwsLeft);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package se.umu.id14ant.thirty.strategy;
+
+/**
+ * Decides how to play a round of the game.
+ *
+ * Dices are given by their values in the same order as in the game, and a set of dices is a bitmask where bit i
+ * refers to die i. Used scoring methods are a bitmask where bit i is set if method i is used, with method 0 being
+ * Low and method 1 to 9 the targets 4 to 12.
+ */
+public interface Strategy {
+
+    /**
+     * Returns which dices to keep before the next throw. Dices outside the mask are rolled again.
+     * @param usedMethods the used scoring methods.
+     * @param values the current dice values.
+     * @param throwsLeft the number of throws left on the current round, at least 1.
+     * @return the dices to keep.
+     */
+    int bestKeepMask(int usedMethods, int[] values, int throwsLeft);
+
+    /**
+     * Returns which unused scoring method to score the current dices with.
+     * @param usedMethods the used scoring methods, with at least one method unused.
+     * @param values the current dice values.
+     * @return the index of the scoring method.
+     */
+    int bestMethod(int usedMethods, int[] values);
+}
@@ -0,0 +1,99 @@
+package se.umu.id14ant.thirty.strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import se.umu.id14ant.thirty.model.Game;
+
+/**
+ * Calculates the optimal strategy of the game, maximizing the expected total score.
+ *
+ * The state between rounds is the set of used scoring methods, which gives 1024 states. The expected score of the
+ * rest of the game from a state only depends on the states with one more method used, so the states are solved in
+ * layers of decreasing number of used methods, starting from the finished game. All states within a layer are
+ * independent and solved in parallel.
+ */
+public final class StrategySolver {
+
+    private StrategySolver(){
+    }
+
+    /**
+     * Solves the game using all available cores.
+     * @return the optimal strategy.
+     */
+    public static OptimalStrategy solve(){
+        return solve(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Solves the game using the given number of threads.
+     * @param threads the number of threads.
+     * @return the optimal strategy.
+     */
+    public static OptimalStrategy solve(int threads){
+        final double[] gameValues = new double[1 << Game.NUMBER_OF_ROUNDS];
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for(int layer = Game.NUMBER_OF_ROUNDS - 1; layer >= 0; layer--){
+                final int[] states = statesWithBitCount(layer);
+                List<Future<Void>> futures = new ArrayList<>();
+                for(int thread = 0; thread < threads; thread++){
+                    final int first = thread;
+                    final int step = threads;
+                    futures.add(executor.submit(new Callable<Void>() {
+                        @Override
+                        public Void call() {
+                            RoundSolver solver = new RoundSolver();
+                            for(int i = first; i < states.length; i += step){
+                                solver.solve(states[i], gameValues);
+                                gameValues[states[i]] = solver.roundValue();
+                            }
+                            return null;
+                        }
+                    }));
+                }
+                //Waiting for the futures also publishes the values of this layer to the next one.
+                for (Future<Void> future: futures) {
+                    future.get();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while solving", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to solve", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        return new OptimalStrategy(gameValues);
+    }
+
+    /**
+     * Returns all sets of used methods where the given number of methods are used.
+     * @param bitCount the number of used methods.
+     * @return the sets of used methods.
+     */
+    private static int[] statesWithBitCount(int bitCount){
+        int total = 1 << Game.NUMBER_OF_ROUNDS;
+        int size = 0;
+        for(int state = 0; state < total; state++){
+            if(Integer.bitCount(state) == bitCount){
+                size++;
+            }
+        }
+        int[] states = new int[size];
+        int next = 0;
+        for(int state = 0; state < total; state++){
+            if(Integer.bitCount(state) == bitCount){
+                states[next++] = state;
+            }
+        }
+        return states;
+    }
+}
@@ -0,0 +1,90 @@
+package se.umu.id14ant.thirty.strategy;
+
+import se.umu.id14ant.thirty.model.MultisetScorer;
+import se.umu.id14ant.thirty.model.PartitionScorer;
+import se.umu.id14ant.thirty.model.Rules;
+import se.umu.id14ant.thirty.model.ScoreTable;
+
+/**
+ * Baseline heuristic that picks a target and always keeps the dices already forming groups summing to it.
+ *
+ * Before each throw the target is the unused target method giving the highest score right now, preferring the
+ * higher target on ties, and the dices of the most disjoint groups summing to it are kept. When only Low is left the
+ * dices counted by Low are kept. A round is scored with the unused method giving the highest score, like
+ * {@link GreedyStrategy}.
+ *
+ * The groups are found by a {@link PartitionScorer} of the strategy, and under other than the standard rules the
+ * scores come from a {@link MultisetScorer} of its own, so a strategy must not be shared between threads.
+ */
+public class TargetMultiplesStrategy implements Strategy {
+
+    private final Rules mRules;
+    private final MultisetScorer mScorer;
+    private final int[] mScores;
+    private final PartitionScorer mGroups;
+    private final GreedyStrategy mMethods;
+
+    /**
+     * Creates a strategy for the standard rules.
+     */
+    public TargetMultiplesStrategy(){
+        this(Rules.STANDARD);
+    }
+
+    /**
+     * Creates a strategy for the given rules.
+     * @param rules the rules, with at most 16 dices.
+     * @throws IllegalArgumentException if the rules have more dices than the groups can be found for.
+     */
+    public TargetMultiplesStrategy(Rules rules){
+        mRules = rules;
+        mScorer = rules.isStandard() ? null : new MultisetScorer(rules);
+        mScores = new int[rules.getMethods()];
+        mGroups = new PartitionScorer(rules.getDices());
+        mMethods = new GreedyStrategy(rules);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int bestKeepMask(int usedMethods, int[] values, int throwsLeft){
+        if(mScorer == null){
+            int rank = ScoreTable.rank(values);
+            for(int method = 0; method < mScores.length; method++){
+                mScores[method] = ScoreTable.getScore(rank, method);
+            }
+        } else{
+            mScorer.scoreAll(values, mScores);
+        }
+        int bestMethod = -1;
+        int bestScore = 0;
+        for(int method = mScores.length - 1; method > Rules.LOW; method--){
+            if((usedMethods & (1 << method)) == 0 && mScores[method] > bestScore){
+                bestScore = mScores[method];
+                bestMethod = method;
+            }
+        }
+
+        if(bestMethod >= 0){
+            return mGroups.groupMask(values, mRules.getTarget(bestMethod));
+        }
+        int keepMask = 0;
+        if(usedMethods == (mRules.getAllMethods() & ~(1 << Rules.LOW))){
+            for(int i = 0; i < values.length; i++){
+                if(values[i] <= mRules.getLowLimit()){
+                    keepMask |= 1 << i;
+                }
+            }
+        }
+        return keepMask;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int bestMethod(int usedMethods, int[] values){
+        return mMethods.bestMethod(usedMethods, values);
+    }
+}
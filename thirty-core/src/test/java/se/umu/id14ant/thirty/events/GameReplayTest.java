@@ -0,0 +1,240 @@
+package se.umu.id14ant.thirty.events;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import se.umu.id14ant.thirty.model.Die;
+import se.umu.id14ant.thirty.model.Game;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of writing games to an event log and replaying them, including logs cut short by a crash and logs holding
+ * records of unknown types.
+ */
+public class GameReplayTest {
+
+    private static final long[] SEEDS = {3, 1234, -42};
+    private static final int SCORE_RECORD_SIZE = EventLog.RECORD_HEADER_SIZE + 2;
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    private File mFile;
+
+    @Before
+    public void setUp(){
+        mFile = new File(mFolder.getRoot(), "events");
+    }
+
+    @Test
+    public void seededGamesReplayWithTheSameScores() throws IOException {
+        long total = 0;
+        Game last = null;
+        EventLogWriter writer = EventLogWriter.open(mFile);
+        try {
+            for (long seed: SEEDS) {
+                last = playGame(new Game(seed), writer);
+                total += last.getResult();
+            }
+        } finally {
+            writer.close();
+        }
+
+        GameReplay replay = GameReplay.replay(mFile);
+        assertTrue(replay.matches());
+        assertEquals(SEEDS.length, replay.getGames());
+        assertEquals(SEEDS.length * Game.NUMBER_OF_ROUNDS, replay.getRounds());
+        assertEquals(total, replay.getTotalScore());
+        assertEquals(last.toPacked(), replay.getGame().toPacked());
+        assertEquals(last.getResult(), replay.getGame().getResult());
+    }
+
+    @Test
+    public void changedScoreIsDetected() throws IOException {
+        EventLogWriter writer = EventLogWriter.open(mFile);
+        try {
+            playGame(new Game(SEEDS[0]), writer);
+        } finally {
+            writer.close();
+        }
+
+        //The last record is the score of the last round.
+        RandomAccessFile file = new RandomAccessFile(mFile, "rw");
+        try {
+            file.seek(file.length() - 1);
+            int score = file.read();
+            file.seek(file.length() - 1);
+            file.write(score + 1);
+        } finally {
+            file.close();
+        }
+
+        GameReplay replay = GameReplay.replay(mFile);
+        assertFalse(replay.matches());
+        assertEquals(1, replay.getScoreMismatches());
+        assertEquals(0, replay.getRollMismatches());
+        assertEquals(Game.NUMBER_OF_ROUNDS, replay.getRounds());
+    }
+
+    @Test
+    public void recordCutShortIsRemoved() throws IOException {
+        EventLogWriter writer = EventLogWriter.open(mFile);
+        Game game;
+        try {
+            game = playGame(new Game(SEEDS[1]), writer);
+        } finally {
+            writer.close();
+        }
+        long complete = mFile.length() - SCORE_RECORD_SIZE;
+        int lastScore = game.getScores().get(Game.NUMBER_OF_ROUNDS - 1).getScore();
+
+        //A crash while writing the score of the last round leaves only part of the record.
+        RandomAccessFile file = new RandomAccessFile(mFile, "rw");
+        try {
+            file.setLength(mFile.length() - 1);
+        } finally {
+            file.close();
+        }
+        assertEquals(complete, EventLogReader.validLength(mFile));
+        EventLogReader reader = new EventLogReader(mFile);
+        try {
+            reader.read(null);
+            assertTrue(reader.isTruncated());
+            assertEquals(complete, reader.getPosition());
+        } finally {
+            reader.close();
+        }
+
+        GameReplay replay = GameReplay.replay(mFile);
+        assertTrue(replay.matches());
+        assertEquals(Game.NUMBER_OF_ROUNDS - 1, replay.getRounds());
+        assertEquals(game.getResult() - lastScore, replay.getTotalScore());
+
+        //Opening the log for appending removes the partial record, and later games are read after it.
+        writer = EventLogWriter.open(mFile);
+        try {
+            assertEquals(complete, mFile.length());
+            playGame(new Game(SEEDS[2]), writer);
+        } finally {
+            writer.close();
+        }
+        reader = new EventLogReader(mFile);
+        try {
+            reader.read(null);
+            assertFalse(reader.isTruncated());
+        } finally {
+            reader.close();
+        }
+        replay = GameReplay.replay(mFile);
+        assertEquals(2, replay.getGames());
+        assertEquals(2 * Game.NUMBER_OF_ROUNDS - 1, replay.getRounds());
+    }
+
+    @Test
+    public void unknownRecordsAreSkipped() throws IOException {
+        EventLogWriter writer = EventLogWriter.open(mFile);
+        try {
+            playGame(new Game(SEEDS[0]), writer);
+        } finally {
+            writer.close();
+        }
+        long events = readEvents();
+
+        //A record of a type added by a later version, between two games.
+        RandomAccessFile file = new RandomAccessFile(mFile, "rw");
+        try {
+            file.seek(file.length());
+            file.write(new byte[]{3, 99, 1, 2, 3});
+        } finally {
+            file.close();
+        }
+        //The same game again gives the same events.
+        writer = EventLogWriter.open(mFile);
+        try {
+            playGame(new Game(SEEDS[0]), writer);
+        } finally {
+            writer.close();
+        }
+
+        assertEquals(2 * events + 1, readEvents());
+        GameReplay replay = GameReplay.replay(mFile);
+        assertTrue(replay.matches());
+        assertEquals(2, replay.getGames());
+        assertEquals(2 * Game.NUMBER_OF_ROUNDS, replay.getRounds());
+    }
+
+    @Test(expected = IOException.class)
+    public void otherFilesAreRejected() throws IOException {
+        RandomAccessFile file = new RandomAccessFile(mFile, "rw");
+        try {
+            file.writeLong(0);
+        } finally {
+            file.close();
+        }
+        EventLogWriter.open(mFile);
+    }
+
+    /**
+     * Returns the number of events in the log.
+     * @return the number of events.
+     * @throws IOException if the log cannot be read.
+     */
+    private long readEvents() throws IOException {
+        EventLogReader reader = new EventLogReader(mFile);
+        try {
+            return reader.read(null);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Plays a full game logged by the given writer, saving the dices showing five or six and scoring each round with
+     * the unused method giving the highest score.
+     * @param game the new game.
+     * @param writer the writer.
+     * @return the finished game.
+     */
+    private static Game playGame(Game game, EventLogWriter writer){
+        game.setEventListener(writer);
+        for(int round = 1; round <= Game.NUMBER_OF_ROUNDS; round++){
+            Die[] dices = game.getDices();
+            while(game.getThrowsLeft() > 0){
+                for(int i = 0; i < dices.length; i++){
+                    if((dices[i].getValue() >= 5) != dices[i].isSaved()){
+                        game.toggleSaved(i);
+                    }
+                }
+                game.rollDices();
+            }
+
+            int[] scores = game.getMethodScores();
+            int method = -1;
+            for(int i = 0; i < scores.length; i++){
+                if(!game.methodIsUsed(i) && (method < 0 || scores[i] > scores[method])){
+                    method = i;
+                }
+            }
+            game.addScore(scores[method], method);
+            game.addUsedMethod(method);
+            if(round < Game.NUMBER_OF_ROUNDS){
+                for(int i = 0; i < dices.length; i++){
+                    if(dices[i].isSaved()){
+                        game.toggleSaved(i);
+                    }
+                }
+                game.nextRound();
+                game.rollDices();
+            }
+        }
+        game.setEventListener(null);
+        return game;
+    }
+}
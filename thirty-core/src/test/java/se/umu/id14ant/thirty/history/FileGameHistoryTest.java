@@ -0,0 +1,269 @@
+package se.umu.id14ant.thirty.history;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.model.ScoreTable;
+import se.umu.id14ant.thirty.model.ScoringMethod;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the file-backed game history, comparing its statistics and leaderboard with values calculated from all
+ * stored games.
+ */
+public class FileGameHistoryTest {
+
+    private static final int GAMES = 500;
+    private static final int LEADERBOARD_SIZE = 10;
+    private static final double DELTA = 1e-9;
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    private File mFile;
+
+    @Before
+    public void setUp(){
+        mFile = new File(mFolder.getRoot(), "history");
+    }
+
+    @Test
+    public void statisticsMatchAllGames() throws IOException {
+        List<Game> games = addGames(0, GAMES);
+        FileGameHistory history = FileGameHistory.open(mFile, LEADERBOARD_SIZE);
+        try {
+            assertEquals(GAMES, history.size());
+            assertStatistics(games, history);
+        } finally {
+            history.close();
+        }
+    }
+
+    @Test
+    public void storedGamesAreReadBack() throws IOException {
+        List<Game> games = addGames(0, GAMES);
+        FileGameHistory history = FileGameHistory.open(mFile, LEADERBOARD_SIZE);
+        try {
+            for(int i = 0; i < GAMES; i++){
+                HistoryEntry entry = history.get(i);
+                Game game = games.get(i);
+                assertEquals(i, entry.getIndex());
+                assertEquals(1000L + i, entry.getTimestamp());
+                assertEquals(game.getResult(), entry.getResult());
+                for(int round = 1; round <= Game.NUMBER_OF_ROUNDS; round++){
+                    assertEquals(game.getScores().get(round - 1).getScore(), entry.getScore(round));
+                    assertEquals(game.getScores().get(round - 1).getScoringMethod(), entry.getScoringMethod(round));
+                }
+            }
+        } finally {
+            history.close();
+        }
+    }
+
+    @Test
+    public void missingSummaryIsRebuilt() throws IOException {
+        List<Game> games = addGames(0, GAMES);
+        assertTrue(summaryFile().delete());
+
+        FileGameHistory history = FileGameHistory.open(mFile, LEADERBOARD_SIZE);
+        try {
+            assertStatistics(games, history);
+        } finally {
+            history.close();
+        }
+        assertTrue(summaryFile().exists());
+    }
+
+    @Test
+    public void staleSummaryCatchesUp() throws IOException {
+        List<Game> games = addGames(0, GAMES / 2);
+        File saved = new File(mFolder.getRoot(), "saved");
+        assertTrue(summaryFile().renameTo(saved));
+        FileGameHistory history = FileGameHistory.open(mFile, LEADERBOARD_SIZE);
+        history.close();
+
+        games.addAll(addGames(GAMES / 2, GAMES));
+        assertTrue(summaryFile().delete());
+        assertTrue(saved.renameTo(summaryFile()));
+
+        history = FileGameHistory.open(mFile, LEADERBOARD_SIZE);
+        try {
+            assertStatistics(games, history);
+        } finally {
+            history.close();
+        }
+    }
+
+    @Test
+    public void incompleteRecordIsDropped() throws IOException {
+        List<Game> games = addGames(0, GAMES);
+        RandomAccessFile file = new RandomAccessFile(mFile, "rw");
+        file.setLength(file.length() + HistoryEntry.RECORD_SIZE / 2);
+        file.close();
+
+        FileGameHistory history = FileGameHistory.open(mFile, LEADERBOARD_SIZE);
+        try {
+            assertEquals(GAMES, history.size());
+            assertStatistics(games, history);
+
+            Game game = playGame(GAMES);
+            history.add(game, 0);
+            assertEquals(game.getResult(), history.get(GAMES).getResult());
+        } finally {
+            history.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unfinishedGameIsRejected() throws IOException {
+        FileGameHistory history = FileGameHistory.open(mFile, LEADERBOARD_SIZE);
+        try {
+            history.add(new Game(1), 0);
+        } finally {
+            history.close();
+        }
+    }
+
+    /**
+     * Plays games with the given seeds and adds them to the history, reopening it now and then.
+     * @param from the first seed.
+     * @param to the seed after the last one.
+     * @return the games.
+     * @throws IOException if the history cannot be written.
+     */
+    private List<Game> addGames(int from, int to) throws IOException {
+        List<Game> games = new ArrayList<>();
+        FileGameHistory history = FileGameHistory.open(mFile, LEADERBOARD_SIZE);
+        try {
+            for(int seed = from; seed < to; seed++){
+                if(seed % 100 == 99){
+                    history.close();
+                    history = FileGameHistory.open(mFile, LEADERBOARD_SIZE);
+                }
+                Game game = playGame(seed);
+                history.add(game, 1000L + seed);
+                games.add(game);
+            }
+        } finally {
+            history.close();
+        }
+        return games;
+    }
+
+    /**
+     * Returns the summary file kept next to the game file.
+     * @return the summary file.
+     */
+    private File summaryFile(){
+        return new File(mFile.getPath() + ".summary");
+    }
+
+    /**
+     * Checks the statistics and the leaderboard of the history against the given games.
+     * @param games all games of the history, in order.
+     * @param history the history.
+     */
+    private static void assertStatistics(List<Game> games, GameHistory history){
+        HistoryStatistics statistics = history.getStatistics();
+        int n = games.size();
+        double mean = 0;
+        long[] methodTotals = new long[Game.NUMBER_OF_ROUNDS];
+        int best = Integer.MIN_VALUE;
+        int worst = Integer.MAX_VALUE;
+        int streak = 0;
+        int longestStreak = 0;
+        for(int i = 0; i < n; i++){
+            Game game = games.get(i);
+            int result = game.getResult();
+            mean += (double) result / n;
+            best = Math.max(best, result);
+            worst = Math.min(worst, result);
+            streak = i > 0 && result > games.get(i - 1).getResult() ? streak + 1 : 1;
+            longestStreak = Math.max(longestStreak, streak);
+            for(int round = 0; round < Game.NUMBER_OF_ROUNDS; round++){
+                methodTotals[game.getScores().get(round).getScoringMethod().getIndex()]
+                        += game.getScores().get(round).getScore();
+            }
+        }
+        double variance = 0;
+        for (Game game: games) {
+            variance += (game.getResult() - mean) * (game.getResult() - mean) / (n - 1);
+        }
+
+        assertEquals(n, statistics.getGames());
+        assertEquals(mean, statistics.getMean(), DELTA);
+        assertEquals(variance, statistics.getVariance(), 1e-6);
+        assertEquals(best, statistics.getBest());
+        assertEquals(worst, statistics.getWorst());
+        assertEquals(streak, statistics.getCurrentStreak());
+        assertEquals(longestStreak, statistics.getLongestStreak());
+        for(int method = 0; method < Game.NUMBER_OF_ROUNDS; method++){
+            assertEquals((double) methodTotals[method] / n, statistics.getMethodAverage(method), DELTA);
+        }
+
+        //The leaderboard holds the best games, with earlier games first among equal results.
+        List<Integer> order = new ArrayList<>();
+        for(int i = 0; i < n; i++){
+            order.add(i);
+        }
+        final List<Game> all = games;
+        Collections.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b){
+                int results = Integer.compare(all.get(b).getResult(), all.get(a).getResult());
+                return results != 0 ? results : Integer.compare(a, b);
+            }
+        });
+        List<HistoryEntry> leaderboard = history.getLeaderboard();
+        assertEquals(Math.min(LEADERBOARD_SIZE, n), leaderboard.size());
+        for(int i = 0; i < leaderboard.size(); i++){
+            assertEquals((long) order.get(i), leaderboard.get(i).getIndex());
+            assertEquals(games.get(order.get(i)).getResult(), leaderboard.get(i).getResult());
+        }
+    }
+
+    /**
+     * Plays a game choosing the unused method giving the highest score after using all throws.
+     * @param seed the seed of the game.
+     * @return the finished game.
+     */
+    private static Game playGame(long seed){
+        Game game = new Game(seed);
+        for(int round = 1; round <= Game.NUMBER_OF_ROUNDS; round++){
+            while(game.rollDices()){
+                //Use all throws.
+            }
+            int bestMethod = -1;
+            int bestScore = -1;
+            for(int method = 0; method < Game.NUMBER_OF_ROUNDS; method++){
+                if(game.methodIsUsed(method)){
+                    continue;
+                }
+                int score = method == ScoreTable.LOW
+                        ? game.calculateLowScore() : game.calculateScore(ScoringMethod.fromIndex(method).getTarget());
+                if(score > bestScore){
+                    bestScore = score;
+                    bestMethod = method;
+                }
+            }
+            game.addScore(bestScore, ScoringMethod.fromIndex(bestMethod));
+            game.addUsedMethod(bestMethod);
+            if(round < Game.NUMBER_OF_ROUNDS){
+                game.nextRound();
+            }
+        }
+        return game;
+    }
+}
@@ -0,0 +1,86 @@
+package se.umu.id14ant.thirty.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the bucket layout of histograms with different numbers of sub-bucket bits, and of adding histograms.
+ */
+public class HistogramTest {
+
+    @Test
+    public void bucketsCoverEveryValueOnce(){
+        for(int bits = 1; bits <= 8; bits++){
+            Histogram histogram = new Histogram(bits);
+            long highest = -1;
+            for(int bucket = 0; bucket < 40 << bits; bucket++){
+                long value = histogram.highestValueOf(bucket);
+                assertTrue(bits + ": " + bucket, value > highest);
+                assertEquals(bits + ": " + bucket, bucket, histogram.bucketOf(highest + 1));
+                assertEquals(bits + ": " + bucket, bucket, histogram.bucketOf(value));
+                highest = value;
+            }
+        }
+    }
+
+    @Test
+    public void bucketsAreWithinTheRelativeError(){
+        for(int bits = 1; bits <= 16; bits++){
+            Histogram histogram = new Histogram(bits);
+            for (long value: new long[]{0, 1, 1000, 123456789, Long.MAX_VALUE / 3, 1L << 61}) {
+                long highest = histogram.highestValueOf(histogram.bucketOf(value));
+                assertTrue(bits + ": " + value, highest >= value);
+                assertTrue(bits + ": " + value, highest - value <= value >> bits);
+            }
+        }
+    }
+
+    @Test
+    public void percentilesFollowTheSubBucketBits(){
+        Histogram coarse = new Histogram(4);
+        Histogram fine = new Histogram(5);
+        coarse.record(1000);
+        fine.record(1000);
+        coarse.record(2000);
+        fine.record(2000);
+
+        assertEquals(1023, coarse.getPercentile(50));
+        assertEquals(1007, fine.getPercentile(50));
+        assertEquals(2000, coarse.getPercentile(100));
+        assertEquals(2000, fine.getPercentile(100));
+    }
+
+    @Test
+    public void addSumsTheRecordedValues(){
+        Histogram first = new Histogram(5);
+        Histogram second = new Histogram(5);
+        first.record(10);
+        first.record(-5);
+        second.record(30);
+        second.record(20);
+
+        first.add(second);
+        assertEquals(4, first.getCount());
+        assertEquals(15, first.getMean(), 0);
+        assertEquals(30, first.getMax());
+        assertEquals(0, first.getPercentile(25));
+        assertEquals(20, first.getPercentile(75));
+        assertEquals(2, second.getCount());
+
+        first.reset();
+        assertEquals(0, first.getCount());
+        assertEquals(0, first.getMax());
+        assertEquals(0, first.getPercentile(50));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addRejectsAnotherLayout(){
+        new Histogram(4).add(new Histogram(5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManySubBucketBitsAreRejected(){
+        new Histogram(17);
+    }
+}
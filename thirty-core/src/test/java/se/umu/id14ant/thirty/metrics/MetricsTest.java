@@ -0,0 +1,75 @@
+package se.umu.id14ant.thirty.metrics;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import se.umu.id14ant.thirty.model.Game;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the metrics, comparing the percentiles of a metric with exact percentiles of the recorded durations and
+ * checking that nothing is recorded while metrics are off.
+ */
+public class MetricsTest {
+
+    private static final int DURATIONS = 10000;
+    private static final double RELATIVE_ERROR = 1.0 / 16;
+
+    @After
+    public void tearDown(){
+        Metrics.setEnabled(false);
+        Metrics.reset();
+    }
+
+    @Test
+    public void percentilesAreWithinOneBucket(){
+        Metric metric = Metrics.metric("test.percentiles");
+        long[] durations = new long[DURATIONS];
+        Random random = new Random(1);
+        for(int i = 0; i < DURATIONS; i++){
+            durations[i] = (long) Math.exp(random.nextDouble() * 20);
+            metric.record(durations[i]);
+        }
+        Arrays.sort(durations);
+
+        assertEquals(DURATIONS, metric.getCount());
+        assertEquals(durations[DURATIONS - 1], metric.getMax());
+        for (double percentile: new double[]{1, 50, 90, 99, 100}) {
+            long exact = durations[(int) Math.ceil(percentile / 100 * DURATIONS) - 1];
+            long estimate = metric.getPercentile(percentile);
+            assertTrue(percentile + ": " + estimate + " < " + exact, estimate >= exact);
+            assertTrue(percentile + ": " + estimate + " > " + exact, estimate <= exact + exact * RELATIVE_ERROR);
+        }
+    }
+
+    @Test
+    public void nothingIsRecordedWhileOff(){
+        Metric metric = Metrics.metric("test.off");
+        long start = Metrics.start();
+        assertEquals(0, start);
+        metric.stop(start);
+        assertEquals(0, metric.getCount());
+
+        Metrics.setEnabled(true);
+        metric.stop(Metrics.start());
+        assertEquals(1, metric.getCount());
+    }
+
+    @Test
+    public void gameIsInstrumented(){
+        Metrics.setEnabled(true);
+        Game game = new Game();
+        game.rollDices();
+        game.calculateScore(12);
+
+        assertEquals(1, Metrics.metric("game.rollDices").getCount());
+        assertEquals(1, Metrics.metric("game.calculateScore").getCount());
+        String json = Metrics.toJson();
+        assertTrue(json, json.contains("\"game.rollDices\": {\"count\": 1,"));
+        assertTrue(json, json.contains("\"p99Nanos\""));
+    }
+}
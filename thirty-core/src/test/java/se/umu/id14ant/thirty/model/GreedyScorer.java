@@ -0,0 +1,91 @@
+package se.umu.id14ant.thirty.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The scorer the game first shipped with, kept to report the throws where it differs from the best split. It takes
+ * single dices matching the target, then pairs, triplets, quadruplets and quintuplets in index order, each group as
+ * soon as it is found, and finally all six dices if none were taken.
+ */
+class GreedyScorer {
+
+    private GreedyScorer(){
+    }
+
+    /**
+     * Returns the score of the given values for the given target, split the way the first version did.
+     * @param values the dice values.
+     * @param target the target sum of each group.
+     * @return the score.
+     */
+    static int score(int[] values, int target){
+        int score = 0;
+        List<Integer> left = new ArrayList<>();
+        for (int value: values) {
+            if(value == target){
+                score += value;
+            } else if(value < target){
+                left.add(value);
+            }
+        }
+        for(int size = 2; size < values.length; size++){
+            boolean[] used = new boolean[left.size()];
+            score += takeGroups(left, used, new int[size], 0, 0, target);
+            List<Integer> unused = new ArrayList<>();
+            for(int i = 0; i < left.size(); i++){
+                if(!used[i]){
+                    unused.add(left.get(i));
+                }
+            }
+            left = unused;
+        }
+        if(left.size() == values.length){
+            int sum = 0;
+            for (int value: left) {
+                sum += value;
+            }
+            if(sum == target){
+                score += sum;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Walks through every combination of the given size in index order, taking each one summing to the target whose
+     * dices are all unused.
+     * @param left the values left.
+     * @param used the values taken so far by groups of this size.
+     * @param combination the indices of the combination being built.
+     * @param position the position in the combination to fill.
+     * @param start the lowest index allowed at the position.
+     * @param target the target sum.
+     * @return the score of the groups taken.
+     */
+    private static int takeGroups(List<Integer> left, boolean[] used, int[] combination, int position, int start,
+                                  int target){
+        if(position == combination.length){
+            int sum = 0;
+            for (int i: combination) {
+                if(used[i]){
+                    return 0;
+                }
+                sum += left.get(i);
+            }
+            if(sum != target){
+                return 0;
+            }
+            for (int i: combination) {
+                used[i] = true;
+            }
+            return sum;
+        }
+        int score = 0;
+        for(int i = start; i <= left.size() - combination.length + position; i++){
+            combination[position] = i;
+            score += takeGroups(left, used, combination, position + 1, i + 1, target);
+        }
+        return score;
+    }
+}
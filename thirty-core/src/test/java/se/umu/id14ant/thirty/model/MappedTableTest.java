@@ -0,0 +1,184 @@
+package se.umu.id14ant.thirty.model;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of writing and reading mapped tables, and of rejecting files with a damaged header or records.
+ */
+public class MappedTableTest {
+
+    private static final int TYPE = 7;
+    private static final int RECORD_SIZE = 16;
+    private static final int RECORDS = 100;
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    private File mFile;
+
+    @Before
+    public void setUp() throws IOException {
+        mFile = new File(mFolder.getRoot(), "table");
+        ByteBuffer records = ByteBuffer.allocate(RECORD_SIZE * RECORDS);
+        for(int record = 0; record < RECORDS; record++){
+            records.putInt(record);
+            records.putShort((short) -record);
+            records.put((byte) record);
+            records.put((byte) 0);
+            records.putDouble(record / 4.0);
+        }
+        records.flip();
+        MappedTable.write(mFile, TYPE, RECORD_SIZE, records);
+    }
+
+    @Test
+    public void recordsAreReadBack() throws IOException {
+        assertEquals(MappedTable.HEADER_SIZE + RECORD_SIZE * RECORDS, mFile.length());
+        MappedTable table = MappedTable.open(mFile, TYPE);
+        try {
+            assertEquals(TYPE, table.getType());
+            assertEquals(RECORD_SIZE, table.getRecordSize());
+            assertEquals(RECORDS, table.getRecordCount());
+            for(int record = 0; record < RECORDS; record++){
+                assertEquals(record, table.getInt(record, 0));
+                assertEquals(-record, table.getShort(record, 4));
+                assertEquals((byte) record, table.getByte(record, 6));
+                assertEquals(record / 4.0, table.getDouble(record, 8), 0);
+            }
+            table.verify();
+        } finally {
+            table.close();
+        }
+    }
+
+    @Test
+    public void valuesOutsideTheRecordsAreRejected() throws IOException {
+        MappedTable table = MappedTable.open(mFile, TYPE);
+        try {
+            int[][] bad = {{-1, 0}, {RECORDS, 0}, {0, -1}, {0, RECORD_SIZE - 3}};
+            for (int[] position: bad) {
+                try {
+                    table.getInt(position[0], position[1]);
+                    fail(position[0] + " " + position[1]);
+                } catch (IndexOutOfBoundsException e) {
+                    //Expected.
+                }
+            }
+        } finally {
+            table.close();
+        }
+    }
+
+    @Test
+    public void badMagicNumberIsRejected() throws IOException {
+        writeByte(0, 'X');
+        assertRejected(TYPE);
+    }
+
+    @Test
+    public void otherVersionIsRejected() throws IOException {
+        writeByte(5, MappedTable.VERSION + 1);
+        assertRejected(TYPE);
+    }
+
+    @Test
+    public void otherTypeIsRejected() throws IOException {
+        assertRejected(TYPE + 1);
+    }
+
+    @Test
+    public void sizeNotMatchingTheHeaderIsRejected() throws IOException {
+        RandomAccessFile file = new RandomAccessFile(mFile, "rw");
+        try {
+            file.setLength(file.length() - 1);
+        } finally {
+            file.close();
+        }
+        assertRejected(TYPE);
+
+        file = new RandomAccessFile(mFile, "rw");
+        try {
+            file.setLength(file.length() + 2);
+        } finally {
+            file.close();
+        }
+        assertRejected(TYPE);
+
+        file = new RandomAccessFile(mFile, "rw");
+        try {
+            file.setLength(MappedTable.HEADER_SIZE - 1);
+        } finally {
+            file.close();
+        }
+        assertRejected(TYPE);
+    }
+
+    @Test
+    public void flippedByteFailsVerification() throws IOException {
+        int position = MappedTable.HEADER_SIZE + 37 * RECORD_SIZE + 9;
+        RandomAccessFile file = new RandomAccessFile(mFile, "rw");
+        try {
+            file.seek(position);
+            int value = file.read();
+            file.seek(position);
+            file.write(value ^ 0x10);
+        } finally {
+            file.close();
+        }
+
+        //The header is still valid, so only verifying finds the damage.
+        MappedTable table = MappedTable.open(mFile, TYPE);
+        try {
+            table.verify();
+            fail("Checksum mismatch not detected");
+        } catch (IOException e) {
+            //Expected.
+        } finally {
+            table.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void recordsNotMatchingTheRecordSizeAreRejected() throws IOException {
+        MappedTable.write(mFile, TYPE, RECORD_SIZE, ByteBuffer.allocate(RECORD_SIZE + 1));
+    }
+
+    /**
+     * Replaces a byte of the table file.
+     * @param position the position in the file.
+     * @param value the new byte.
+     * @throws IOException if the file cannot be written.
+     */
+    private void writeByte(int position, int value) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(mFile, "rw");
+        try {
+            file.seek(position);
+            file.write(value);
+        } finally {
+            file.close();
+        }
+    }
+
+    /**
+     * Checks that opening the table file fails.
+     * @param type the table type to open the file as.
+     */
+    private void assertRejected(int type){
+        try {
+            MappedTable.open(mFile, type).close();
+            fail("Table opened");
+        } catch (IOException e) {
+            //Expected.
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package se.umu.id14ant.thirty.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the bit layout of packed games, of playing on packed states and of packing a game while it is played.
+ */
+public class PackedGameTest {
+
+    private static final int ALL_VALUES = (1 << 18) - 1;
+    private static final int ALL_DICES = (1 << Game.NUMBER_OF_DICES) - 1;
+    private static final int ALL_METHODS = (1 << Game.NUMBER_OF_ROUNDS) - 1;
+    private static final int MAX_TOTAL = 511;
+    //Dices 0, 2 and 4 show 1, 3 and 5, and dices 1, 3 and 5 show 2, 4 and 6.
+    private static final int VALUES = 1 | 2 << 3 | 3 << 6 | 4 << 9 | 5 << 12 | 6 << 15;
+
+    @Test
+    public void fieldsArePlacedAsDocumented(){
+        assertEquals(ALL_VALUES, PackedGame.pack(ALL_VALUES, 0, 1, 0, 0, 0) & ~(1L << 24));
+        assertEquals((long) ALL_DICES << 18, PackedGame.pack(0, ALL_DICES, 1, 0, 0, 0) & ~(1L << 24));
+        assertEquals(10L << 24, PackedGame.pack(0, 0, 10, 0, 0, 0));
+        assertEquals(3L << 28, PackedGame.pack(0, 0, 1, 3, 0, 0) & ~(1L << 24));
+        assertEquals((long) ALL_METHODS << 30, PackedGame.pack(0, 0, 1, 0, ALL_METHODS, 0) & ~(1L << 24));
+        assertEquals((long) MAX_TOTAL << 40, PackedGame.pack(0, 0, 1, 0, 0, MAX_TOTAL) & ~(1L << 24));
+        assertEquals(0, PackedGame.pack(ALL_VALUES, ALL_DICES, 10, 3, ALL_METHODS, MAX_TOTAL) >>> 49);
+    }
+
+    @Test
+    public void fieldsAreReadBackAtTheirLimits(){
+        long full = PackedGame.pack(ALL_VALUES, ALL_DICES, 10, 3, ALL_METHODS, MAX_TOTAL);
+        assertEquals(ALL_VALUES, PackedGame.values(full));
+        assertEquals(ALL_DICES, PackedGame.savedMask(full));
+        assertEquals(10, PackedGame.round(full));
+        assertEquals(3, PackedGame.throwsLeft(full));
+        assertEquals(ALL_METHODS, PackedGame.usedMethods(full));
+        assertEquals(MAX_TOTAL, PackedGame.total(full));
+        assertTrue(PackedGame.isFinished(full));
+
+        long state = PackedGame.pack(VALUES, 0x15, 1, 0, 0x200, 0);
+        for(int die = 0; die < Game.NUMBER_OF_DICES; die++){
+            assertEquals(die + 1, PackedGame.value(state, die));
+        }
+        assertEquals(0x15, PackedGame.savedMask(state));
+        assertEquals(1, PackedGame.round(state));
+        assertEquals(0, PackedGame.throwsLeft(state));
+        assertEquals(0x200, PackedGame.usedMethods(state));
+        assertEquals(0, PackedGame.total(state));
+        assertFalse(PackedGame.isFinished(state));
+    }
+
+    @Test
+    public void outOfRangeStatesAreRejected(){
+        int[][] bad = {{0, 0, 0}, {11, 0, 0}, {1, -1, 0}, {1, 4, 0}, {1, 0, -1}, {1, 0, MAX_TOTAL + 1}};
+        for (int[] fields: bad) {
+            try {
+                PackedGame.pack(0, 0, fields[0], fields[1], 0, fields[2]);
+                fail(fields[0] + " " + fields[1] + " " + fields[2]);
+            } catch (IllegalArgumentException e) {
+                //Expected.
+            }
+        }
+    }
+
+    @Test
+    public void savedDicesAreChangedAlone(){
+        long state = PackedGame.pack(VALUES, 0, 4, 2, 0x0f, 100);
+        long toggled = PackedGame.toggleSaved(PackedGame.toggleSaved(state, 5), 0);
+        assertEquals(0x21, PackedGame.savedMask(toggled));
+        assertEquals(state, PackedGame.toggleSaved(PackedGame.toggleSaved(toggled, 0), 5));
+        assertEquals(PackedGame.pack(VALUES, 0x3c, 4, 2, 0x0f, 100), PackedGame.withSaved(toggled, 0x3c));
+    }
+
+    @Test
+    public void rollKeepsTheSavedDices(){
+        long state = PackedGame.pack(VALUES, 0x15, 3, 2, 0x3, 20);
+        RandomSource random = RandomSource.create(5);
+        long expected = RandomSource.create(5).rollAll(0x2a);
+
+        long rolled = PackedGame.roll(state, random);
+        for(int die = 0; die < Game.NUMBER_OF_DICES; die++){
+            if((0x15 & (1 << die)) != 0){
+                assertEquals(die + 1, PackedGame.value(rolled, die));
+            } else{
+                assertEquals((expected >>> (3 * die)) & 0x7, PackedGame.value(rolled, die));
+            }
+        }
+        assertEquals(1, PackedGame.throwsLeft(rolled));
+        assertEquals(state & ~((long) ALL_VALUES | 3L << 28), rolled & ~((long) ALL_VALUES | 3L << 28));
+
+        long noThrows = PackedGame.pack(VALUES, 0, 3, 0, 0x3, 20);
+        long stateBefore = random.getState();
+        assertEquals(noThrows, PackedGame.roll(noThrows, random));
+        assertEquals(stateBefore, random.getState());
+    }
+
+    @Test
+    public void chooseMethodScoresAndStartsTheNextRound(){
+        //Dices 1 to 6 form three pairs summing to 7, and Low counts 1 + 2 + 3.
+        long state = PackedGame.pack(VALUES, 0x3f, 2, 1, 0x1, 30);
+        assertEquals(21, PackedGame.score(state, 4));
+        assertEquals(6, PackedGame.score(state, 0));
+        long next = PackedGame.chooseMethod(state, 4);
+        assertEquals(PackedGame.pack(VALUES, 0, 3, Game.NUMBER_OF_THROWS, 0x11, 30 + 21), next);
+    }
+
+    @Test
+    public void lastRoundKeepsTheRound(){
+        long state = PackedGame.pack(VALUES, 0x3, 10, 0, ALL_METHODS & ~0x1, 200);
+        long finished = PackedGame.chooseMethod(state, 0);
+        assertEquals(PackedGame.pack(VALUES, 0, 10, 0, ALL_METHODS, 206), finished);
+        assertTrue(PackedGame.isFinished(finished));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void usedMethodIsRejected(){
+        PackedGame.chooseMethod(PackedGame.pack(VALUES, 0, 2, 0, 0x8, 12), 3);
+    }
+
+    @Test
+    public void gamePacksAndUnpacksThroughAWholeGame(){
+        Game game = new Game(11);
+        long packed = PackedGame.newGame(RandomSource.create(11));
+        RandomSource random = RandomSource.create(11);
+        random.rollAll(ALL_DICES);
+        assertEquals(packed, game.toPacked());
+
+        for(int round = 1; round <= Game.NUMBER_OF_ROUNDS; round++){
+            while(game.getThrowsLeft() > 0){
+                //Save the dices showing the highest values.
+                Die[] dices = game.getDices();
+                for(int i = 0; i < dices.length; i++){
+                    if((dices[i].getValue() >= 5) != dices[i].isSaved()){
+                        game.toggleSaved(i);
+                        packed = PackedGame.toggleSaved(packed, i);
+                    }
+                }
+                game.rollDices();
+                packed = PackedGame.roll(packed, random);
+                assertRoundTrip(game, packed);
+            }
+
+            int method = bestMethod(game);
+            game.addScore(game.getMethodScores()[method], method);
+            game.addUsedMethod(method);
+            Die[] dices = game.getDices();
+            for(int i = 0; i < dices.length; i++){
+                if(dices[i].isSaved()){
+                    game.toggleSaved(i);
+                }
+            }
+            if(round < Game.NUMBER_OF_ROUNDS){
+                game.nextRound();
+            }
+            packed = PackedGame.chooseMethod(packed, method);
+            assertRoundTrip(game, packed);
+        }
+        assertTrue(PackedGame.isFinished(packed));
+        assertEquals(game.getResult(), PackedGame.total(packed));
+    }
+
+    /**
+     * Checks that the game packs to the given state, and that the game unpacked from it packs to the same state.
+     * @param game the game.
+     * @param packed the state played alongside the game.
+     */
+    private static void assertRoundTrip(Game game, long packed){
+        assertEquals(packed, game.toPacked());
+        Game unpacked = Game.fromPacked(packed, RandomSource.create(0));
+        assertEquals(packed, unpacked.toPacked());
+        assertEquals(game.getResult(), unpacked.getResult());
+        assertEquals(game.getCurrentRound(), unpacked.getCurrentRound());
+        assertEquals(game.getThrowsLeft(), unpacked.getThrowsLeft());
+        assertEquals(game.getUsedMethods(), unpacked.getUsedMethods());
+    }
+
+    /**
+     * Returns the unused method giving the highest score.
+     * @param game the game.
+     * @return the index of the method.
+     */
+    private static int bestMethod(Game game){
+        int[] scores = game.getMethodScores();
+        int best = -1;
+        for(int method = 0; method < scores.length; method++){
+            if(!game.methodIsUsed(method) && (best < 0 || scores[method] > scores[best])){
+                best = method;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,79 @@
+package se.umu.id14ant.thirty.model;
+
+/**
+ * A slow but obviously correct scorer, used as the reference in tests of the real scorers. Every way of splitting
+ * the dices into groups is tried: the first die left is either unused, or grouped with some subset of the dices after
+ * it that sums to the target together with it. Nothing is cached or pruned.
+ */
+class PartitionOracle {
+
+    private PartitionOracle(){
+    }
+
+    /**
+     * Returns the score of the given values with the given method under the standard rules.
+     * @param values the dice values.
+     * @param method the index of the scoring method.
+     * @return the score.
+     */
+    static int score(int[] values, int method){
+        if(method == ScoreTable.LOW){
+            return low(values, 3);
+        }
+        return groups(values, (1 << values.length) - 1, method + 3);
+    }
+
+    /**
+     * Returns the sum of the values not higher than the given limit.
+     * @param values the dice values.
+     * @param limit the highest value counted.
+     * @return the score of Low.
+     */
+    static int low(int[] values, int limit){
+        int sum = 0;
+        for (int value: values) {
+            if(value <= limit){
+                sum += value;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the highest total of disjoint groups summing to the target, among the dices in the given mask.
+     * @param values the dice values.
+     * @param mask the dices left, where bit i refers to die i.
+     * @param target the target sum of each group.
+     * @return the score.
+     */
+    static int groups(int[] values, int mask, int target){
+        if(mask == 0){
+            return 0;
+        }
+        int first = Integer.numberOfTrailingZeros(mask);
+        int rest = mask & ~(1 << first);
+        int best = groups(values, rest, target);
+        for(int others = 0; others < 1 << values.length; others++){
+            if((others & ~rest) == 0 && sum(values, others) + values[first] == target){
+                best = Math.max(best, target + groups(values, rest & ~others, target));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the sum of the dices in the given mask.
+     * @param values the dice values.
+     * @param mask the dices, where bit i refers to die i.
+     * @return the sum.
+     */
+    private static int sum(int[] values, int mask){
+        int sum = 0;
+        for(int i = 0; i < values.length; i++){
+            if((mask & (1 << i)) != 0){
+                sum += values[i];
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,75 @@
+package se.umu.id14ant.thirty.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the partition scorer on hand-picked throws, including the largest number of dices it supports.
+ */
+public class PartitionScorerTest {
+
+    private final PartitionScorer mScorer = new PartitionScorer(Game.NUMBER_OF_DICES);
+
+    @Test
+    public void groupsSummingToTheTargetAreCounted(){
+        assertEquals(24, mScorer.score(new int[]{6, 6, 4, 2, 1, 5}, 12));
+        assertEquals(24, mScorer.score(new int[]{4, 4, 4, 4, 4, 4}, 8));
+        assertEquals(18, mScorer.score(new int[]{3, 3, 3, 3, 3, 3}, 6));
+        assertEquals(21, mScorer.score(new int[]{1, 2, 3, 4, 5, 6}, 7));
+    }
+
+    @Test
+    public void throwWithoutGroupsScoresNothing(){
+        assertEquals(0, mScorer.score(new int[]{1, 1, 1, 1, 1, 1}, 7));
+        assertEquals(0, mScorer.score(new int[]{6, 6, 6, 6, 6, 6}, 11));
+    }
+
+    @Test
+    public void bestSplitIsFoundWhateverTheOrder(){
+        //Taking 5 + 2 + 1 for 8 leaves 6 + 3 + 3 without a group, while 6 + 2 and 5 + 3 score 16.
+        assertEquals(16, mScorer.score(new int[]{5, 2, 1, 6, 3, 3}, 8));
+        assertEquals(16, mScorer.score(new int[]{3, 6, 3, 1, 2, 5}, 8));
+    }
+
+    @Test
+    public void fewerDicesThanTheMaximumAreScored(){
+        assertEquals(0, mScorer.score(new int[0], 4));
+        assertEquals(4, mScorer.score(new int[]{4}, 4));
+        assertEquals(10, mScorer.score(new int[]{6, 4, 3}, 5 + 5));
+    }
+
+    @Test
+    public void diceAndValuesScoreAlike(){
+        int[] values = {2, 5, 3, 6, 4, 1};
+        RandomSource random = RandomSource.create(1);
+        Die[] dices = new Die[values.length];
+        for(int i = 0; i < values.length; i++){
+            dices[i] = new Die("dice" + (i + 1), i % 2 == 0, values[i], random);
+        }
+        for(int target = 4; target <= 12; target++){
+            assertEquals(mScorer.score(values, target), mScorer.score(dices, target));
+        }
+    }
+
+    @Test
+    public void sixteenDicesAreSupported(){
+        PartitionScorer scorer = new PartitionScorer(16);
+        int[] values = new int[16];
+        for(int i = 0; i < values.length; i++){
+            values[i] = 1 + i % RandomSource.FACES;
+        }
+        //The values sum to 52, and seven pairs of 7 take every die but a 1 and a 2.
+        assertEquals(49, scorer.score(values, 7));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyDicesAreRejected(){
+        mScorer.score(new int[Game.NUMBER_OF_DICES + 1], 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedMaximumIsRejected(){
+        new PartitionScorer(17);
+    }
+}
@@ -0,0 +1,174 @@
+package se.umu.id14ant.thirty.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of rolling many dices from each draw and of restoring the state of the default random source.
+ */
+public class RandomSourceTest {
+
+    private static final int MAX_DICES = 21;
+    private static final int OUTCOMES_PER_DRAW = 46656;
+    private static final long DRAW_LIMIT = Long.MAX_VALUE - Long.MAX_VALUE % OUTCOMES_PER_DRAW;
+
+    @Test
+    public void sixDicesAreReadFromEachDraw(){
+        //Die i shows digit i of the base-6 number, and the seventh die is the first digit of the next draw.
+        FixedRandom random = new FixedRandom(digits(0, 1, 2, 3, 4, 5), digits(5, 4, 3, 2, 1, 0));
+        long values = random.rollAll(0x7f);
+        for(int i = 0; i < 6; i++){
+            assertEquals(i + 1, die(values, i));
+        }
+        assertEquals(6, die(values, 6));
+        assertEquals(2, random.getDraws());
+    }
+
+    @Test
+    public void onlyMaskedDicesAreRolled(){
+        FixedRandom random = new FixedRandom(digits(2, 0, 5, 1, 3, 4));
+        long values = random.rollAll(0x29);
+        assertEquals(3, die(values, 0));
+        assertEquals(1, die(values, 3));
+        assertEquals(6, die(values, 5));
+        assertEquals(0, values & ~(0x7L | 0x7L << 9 | 0x7L << 15));
+        assertEquals(1, random.getDraws());
+
+        assertEquals(0, random.rollAll(0));
+        assertEquals(1, random.getDraws());
+    }
+
+    @Test
+    public void drawsAboveTheLimitAreRejected(){
+        FixedRandom random = new FixedRandom(DRAW_LIMIT << 1, digits(4, 4, 4, 4, 4, 4));
+        long values = random.rollAll(0x3f);
+        for(int i = 0; i < 6; i++){
+            assertEquals(5, die(values, i));
+        }
+        assertEquals(2, random.getDraws());
+    }
+
+    @Test
+    public void allDicesStayWithinTheFaces(){
+        RandomSource random = RandomSource.create(7);
+        int allDices = (1 << MAX_DICES) - 1;
+        int[] counts = new int[RandomSource.FACES + 1];
+        for(int roll = 0; roll < 10000; roll++){
+            long values = random.rollAll(allDices);
+            assertEquals(0, values >>> (3 * MAX_DICES));
+            for(int i = 0; i < MAX_DICES; i++){
+                int value = die(values, i);
+                assertTrue(value >= 1 && value <= RandomSource.FACES);
+                counts[value]++;
+            }
+        }
+        //Every face shows up about a sixth of the time.
+        for(int face = 1; face <= RandomSource.FACES; face++){
+            assertEquals(10000 * MAX_DICES / RandomSource.FACES, counts[face], 1000);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyDicesAreRejected(){
+        RandomSource.create(1).rollAll(1 << MAX_DICES);
+    }
+
+    @Test
+    public void restoredStateRepeatsTheStream(){
+        RandomSource random = RandomSource.create(42);
+        random.rollAll(0x3f);
+        long state = random.getState();
+        long[] first = new long[20];
+        for(int i = 0; i < first.length; i++){
+            first[i] = i % 2 == 0 ? random.nextLong() : random.rollAll(0x1fffff);
+        }
+
+        random.setState(state);
+        RandomSource other = RandomSource.create(1);
+        other.setState(state);
+        for(int i = 0; i < first.length; i++){
+            assertEquals(first[i], i % 2 == 0 ? random.nextLong() : random.rollAll(0x1fffff));
+            assertEquals(first[i], i % 2 == 0 ? other.nextLong() : other.rollAll(0x1fffff));
+        }
+        assertEquals(42, random.getSeed());
+        assertEquals(1, other.getSeed());
+    }
+
+    @Test
+    public void seedGivesTheSplitMixSequence(){
+        RandomSource random = RandomSource.create(0);
+        assertEquals(0, random.getState());
+        assertEquals(0xE220A8397B1DCDAFL, random.nextLong());
+        assertEquals(0x9E3779B97F4A7C15L, random.getState());
+        assertEquals(RandomSource.create(0).nextLong(), SplitMixRandom.mix(0x9E3779B97F4A7C15L));
+    }
+
+    /**
+     * Returns a draw that is read as the given base-6 digits, least significant first.
+     * @param digits the six digits.
+     * @return the draw.
+     */
+    private static long digits(int... digits){
+        long number = 0;
+        for(int i = digits.length - 1; i >= 0; i--){
+            number = number * RandomSource.FACES + digits[i];
+        }
+        //The lowest bit is dropped by the source.
+        return number << 1;
+    }
+
+    /**
+     * Returns the value of the given die from packed values.
+     * @param values the values, three bits per die.
+     * @param die the index of the die.
+     * @return the value.
+     */
+    private static int die(long values, int die){
+        return (int) (values >>> (3 * die)) & 0x7;
+    }
+
+    /**
+     * Source returning the given draws in order.
+     */
+    private static class FixedRandom extends RandomSource {
+        private final long[] mDraws;
+        private int mNext;
+
+        /**
+         * Creates a source returning the given draws.
+         * @param draws the draws.
+         */
+        FixedRandom(long... draws){
+            mDraws = draws;
+        }
+
+        /**
+         * Returns the number of draws made.
+         * @return the number of draws.
+         */
+        int getDraws(){
+            return mNext;
+        }
+
+        @Override
+        public long nextLong(){
+            return mDraws[mNext++];
+        }
+
+        @Override
+        public long getSeed(){
+            return 0;
+        }
+
+        @Override
+        public long getState(){
+            return mNext;
+        }
+
+        @Override
+        public void setState(long state){
+            mNext = (int) state;
+        }
+    }
+}
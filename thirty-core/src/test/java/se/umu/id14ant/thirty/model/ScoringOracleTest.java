@@ -0,0 +1,308 @@
+package se.umu.id14ant.thirty.model;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Differential tests of the scorers against {@link PartitionOracle}. Every ordered throw of six dices is scored with
+ * every method, split over all processors by the value of the first die, followed by randomized property tests. The
+ * throws where {@link GreedyScorer} scores lower than the best split are written to
+ * build/reports/scoring/greedy-underscores.txt. There are none with six dices, but there are with eight.
+ */
+public class ScoringOracleTest {
+
+    private static final int THROWS = 46656;
+    private static final int RANDOM_CASES = 2000;
+    private static final long SEED = 30;
+    private static final File REPORT = new File("build/reports/scoring/greedy-underscores.txt");
+    private static final String REPORT_HEADER = "# Throws where the greedy scorer is lower than the best split: ";
+
+    private static List<String> sMismatches;
+    private static List<String> sUnderscores;
+
+    @BeforeClass
+    public static void scoreAllThrows() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            List<Future<ThrowResults>> futures = new ArrayList<>();
+            for(int first = 1; first <= RandomSource.FACES; first++){
+                final int firstValue = first;
+                futures.add(executor.submit(new Callable<ThrowResults>() {
+                    @Override
+                    public ThrowResults call(){
+                        return scoreThrows(firstValue);
+                    }
+                }));
+            }
+            sMismatches = new ArrayList<>();
+            sUnderscores = new ArrayList<>();
+            for (Future<ThrowResults> future: futures) {
+                ThrowResults results = future.get();
+                sMismatches.addAll(results.mMismatches);
+                sUnderscores.addAll(results.mUnderscores);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        writeReport();
+    }
+
+    @Test
+    public void everyThrowMatchesOracle(){
+        assertTrue(sMismatches.size() + " mismatches, first: " + sMismatches.subList(0, Math.min(10,
+                sMismatches.size())), sMismatches.isEmpty());
+    }
+
+    @Test
+    public void greedyReportListsTheUnderscores() throws IOException {
+        List<String> lines = Files.readAllLines(REPORT.toPath(), StandardCharsets.UTF_8);
+        assertEquals(REPORT_HEADER + sUnderscores.size(), lines.get(0));
+        assertEquals(sUnderscores, lines.subList(1, lines.size()));
+        //With six dices taking groups in order of size never blocks a better split.
+        assertEquals(0, sUnderscores.size());
+    }
+
+    @Test
+    public void greedyScorerMissesSplitsOfEightDices(){
+        //The greedy scorer takes 1 + 3 + 3 first and is left with five twos, while 2 + 2 + 3 twice scores 14.
+        int[] values = {1, 2, 2, 2, 2, 2, 3, 3};
+        assertEquals(7, GreedyScorer.score(values, 7));
+        assertEquals(14, PartitionOracle.groups(values, (1 << values.length) - 1, 7));
+        assertEquals(14, new PartitionScorer(values.length).score(values, 7));
+    }
+
+    @Test
+    public void scoreIgnoresOrderOfDices(){
+        Random random = new Random(SEED);
+        PartitionScorer scorer = new PartitionScorer(16);
+        for(int i = 0; i < RANDOM_CASES; i++){
+            int[] values = randomValues(random, 1 + random.nextInt(12));
+            int target = 4 + random.nextInt(9);
+            int score = scorer.score(values, target);
+            int[] shuffled = shuffle(values, random);
+            assertEquals(Arrays.toString(values), score, scorer.score(shuffled, target));
+            if(values.length == Game.NUMBER_OF_DICES){
+                for(int method = 0; method < ScoreTable.METHODS; method++){
+                    assertEquals(ScoreTable.getScore(ScoreTable.rank(values), method),
+                            ScoreTable.getScore(ScoreTable.rank(shuffled), method));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void removingDieNeverRaisesScore(){
+        Random random = new Random(SEED);
+        PartitionScorer scorer = new PartitionScorer(16);
+        for(int i = 0; i < RANDOM_CASES; i++){
+            int[] values = randomValues(random, 2 + random.nextInt(11));
+            int target = 4 + random.nextInt(9);
+            int removed = random.nextInt(values.length);
+            int[] fewer = new int[values.length - 1];
+            for(int j = 0, k = 0; j < values.length; j++){
+                if(j != removed){
+                    fewer[k++] = values[j];
+                }
+            }
+            int score = scorer.score(values, target);
+            int fewerScore = scorer.score(fewer, target);
+            assertTrue(Arrays.toString(values), fewerScore <= score);
+            assertTrue(Arrays.toString(values), score - fewerScore <= target);
+            assertTrue(PartitionOracle.low(fewer, 3) <= PartitionOracle.low(values, 3));
+        }
+    }
+
+    @Test
+    public void scoreIsMultipleOfTargetAndAtMostSum(){
+        Random random = new Random(SEED);
+        PartitionScorer scorer = new PartitionScorer(16);
+        for(int i = 0; i < RANDOM_CASES; i++){
+            int[] values = randomValues(random, 1 + random.nextInt(12));
+            int target = 4 + random.nextInt(9);
+            int score = scorer.score(values, target);
+            int sum = 0;
+            for (int value: values) {
+                sum += value;
+            }
+            assertEquals(0, score % target);
+            assertTrue(score <= sum);
+        }
+    }
+
+    @Test
+    public void otherDiceCountsMatchOracle(){
+        Random random = new Random(SEED);
+        for(int dices = 3; dices <= 9; dices++){
+            Rules rules = new Rules(dices, RandomSource.FACES, Game.NUMBER_OF_THROWS, Rules.STANDARD.getTargets(), 3);
+            MultisetScorer multisetScorer = new MultisetScorer(rules);
+            PartitionScorer partitionScorer = new PartitionScorer(dices);
+            for(int i = 0; i < RANDOM_CASES / 10; i++){
+                int[] values = randomValues(random, dices);
+                for(int method = 0; method < rules.getMethods(); method++){
+                    int expected = method == Rules.LOW ? PartitionOracle.low(values, 3)
+                            : PartitionOracle.groups(values, (1 << dices) - 1, rules.getTarget(method));
+                    assertEquals(Arrays.toString(values), expected, multisetScorer.score(values, method));
+                    if(method != Rules.LOW){
+                        assertEquals(Arrays.toString(values), expected,
+                                partitionScorer.score(values, rules.getTarget(method)));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Scores every throw starting with the given value with every scorer and method.
+     * @param first the value of the first die.
+     * @return the mismatches against the oracle and the throws where the greedy scorer is lower.
+     */
+    private static ThrowResults scoreThrows(int first){
+        ThrowResults results = new ThrowResults();
+        List<String> mismatches = results.mMismatches;
+        List<String> underscores = results.mUnderscores;
+        PartitionScorer partitionScorer = new PartitionScorer(Game.NUMBER_OF_DICES);
+        MultisetScorer multisetScorer = new MultisetScorer(Rules.STANDARD);
+        int[] values = new int[Game.NUMBER_OF_DICES];
+        for(int code = 0; code < THROWS / RandomSource.FACES; code++){
+            values[0] = first;
+            for(int i = 1, rest = code; i < values.length; i++, rest /= RandomSource.FACES){
+                values[i] = 1 + rest % RandomSource.FACES;
+            }
+            Game game = createGame(values);
+            int rank = ScoreTable.rank(values);
+            for(int method = 0; method < ScoreTable.METHODS; method++){
+                int expected = PartitionOracle.score(values, method);
+                int target = method + 3;
+                check(mismatches, "ScoreTable", values, method, expected, ScoreTable.getScore(rank, method));
+                check(mismatches, "MultisetScorer", values, method, expected, multisetScorer.score(values, method));
+                if(method == ScoreTable.LOW){
+                    check(mismatches, "Game", values, method, expected, game.calculateLowScore());
+                } else{
+                    check(mismatches, "Game", values, method, expected, game.calculateScore(target));
+                    check(mismatches, "PartitionScorer", values, method, expected,
+                            partitionScorer.score(values, target));
+                    int greedy = GreedyScorer.score(values, target);
+                    if(greedy > expected){
+                        mismatches.add("GreedyScorer " + Arrays.toString(values) + " method " + method
+                                + ": " + greedy + " above the best " + expected);
+                    } else if(greedy < expected){
+                        underscores.add(Arrays.toString(values) + " target " + target + ": " + greedy + " instead of "
+                                + expected);
+                    }
+                }
+                check(mismatches, "Game.getMethodScores", values, method, expected, game.getMethodScores()[method]);
+                check(mismatches, "Game.explainScore", values, method, expected, game.explainScore(method).getScore());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Adds a line to the mismatches if the actual score differs from the expected one.
+     * @param mismatches the mismatches.
+     * @param scorer the name of the scorer.
+     * @param values the dice values.
+     * @param method the index of the scoring method.
+     * @param expected the score of the oracle.
+     * @param actual the score of the scorer.
+     */
+    private static void check(List<String> mismatches, String scorer, int[] values, int method, int expected,
+                              int actual){
+        if(actual != expected){
+            mismatches.add(scorer + " " + Arrays.toString(values) + " method " + method + ": " + actual
+                    + " instead of " + expected);
+        }
+    }
+
+    /**
+     * Writes the throws where the greedy scorer is lower than the best split, sorted, one per line.
+     * @throws IOException if the report could not be written.
+     */
+    private static void writeReport() throws IOException {
+        Collections.sort(sUnderscores);
+        File directory = REPORT.getParentFile();
+        if(!directory.isDirectory() && !directory.mkdirs()){
+            throw new IOException("Could not create " + directory);
+        }
+        PrintWriter writer = new PrintWriter(REPORT, "UTF-8");
+        try {
+            writer.println(REPORT_HEADER + sUnderscores.size());
+            for (String line: sUnderscores) {
+                writer.println(line);
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Creates a game on its first round showing the given values.
+     * @param values the dice values.
+     * @return the game.
+     */
+    private static Game createGame(int[] values){
+        RandomSource random = RandomSource.create(SEED);
+        Die[] dices = new Die[values.length];
+        for(int i = 0; i < values.length; i++){
+            dices[i] = new Die("dice" + (i + 1), false, values[i], random);
+        }
+        return new Game(1, Game.NUMBER_OF_THROWS - 1, dices, new ArrayList<Score>(),
+                new boolean[Game.NUMBER_OF_ROUNDS], random);
+    }
+
+    /**
+     * Returns random values of six-sided dices.
+     * @param random the random numbers.
+     * @param count the number of dices.
+     * @return the values.
+     */
+    private static int[] randomValues(Random random, int count){
+        int[] values = new int[count];
+        for(int i = 0; i < count; i++){
+            values[i] = 1 + random.nextInt(RandomSource.FACES);
+        }
+        return values;
+    }
+
+    /**
+     * Returns a copy of the values in random order.
+     * @param values the values.
+     * @param random the random numbers.
+     * @return the shuffled copy.
+     */
+    private static int[] shuffle(int[] values, Random random){
+        int[] shuffled = values.clone();
+        for(int i = shuffled.length - 1; i > 0; i--){
+            int j = random.nextInt(i + 1);
+            int swap = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = swap;
+        }
+        return shuffled;
+    }
+
+    /**
+     * The lines found while scoring the throws starting with one value.
+     */
+    private static class ThrowResults {
+        private final List<String> mMismatches = new ArrayList<>();
+        private final List<String> mUnderscores = new ArrayList<>();
+    }
+}
@@ -0,0 +1,94 @@
+package se.umu.id14ant.thirty.strategy;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import se.umu.id14ant.thirty.model.MappedTable;
+import se.umu.id14ant.thirty.model.Multisets;
+import se.umu.id14ant.thirty.model.ScoreTable;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the strategy table, comparing every decision read from it with the solved strategy it was written from.
+ */
+public class MappedStrategyTest {
+
+    private static final int STATES = 1 << ScoreTable.METHODS;
+
+    private static OptimalStrategy sOptimal;
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void solve(){
+        sOptimal = StrategySolver.solve();
+    }
+
+    @Test
+    public void decisionsMatchTheSolvedStrategy() throws IOException {
+        File file = new File(mFolder.getRoot(), "strategy");
+        MappedStrategy.write(sOptimal, file);
+        MappedStrategy mapped = MappedStrategy.open(file);
+        try {
+            mapped.verify();
+            int[] values = new int[Multisets.MAX_SIZE];
+            for(int usedMethods = 0; usedMethods < STATES; usedMethods++){
+                assertEquals(sOptimal.getExpectedScore(usedMethods), mapped.getExpectedScore(usedMethods), 0);
+                if(RoundSolver.isFinished(usedMethods)){
+                    continue;
+                }
+                for(int rank = 0; rank < ScoreTable.MULTISETS; rank++){
+                    Multisets.values(Multisets.ofRank(rank), values);
+                    String state = usedMethods + " " + rank;
+                    assertEquals(state, sOptimal.bestMethod(usedMethods, values),
+                            mapped.bestMethod(usedMethods, values));
+                    for(int throwsLeft = 1; throwsLeft <= RoundSolver.MAX_THROWS_LEFT; throwsLeft++){
+                        assertEquals(state + " " + throwsLeft, sOptimal.bestKeepMask(usedMethods, values, throwsLeft),
+                                mapped.bestKeepMask(usedMethods, values, throwsLeft));
+                    }
+                }
+            }
+        } finally {
+            mapped.close();
+        }
+    }
+
+    @Test
+    public void finishedGameHasNoDecisions() throws IOException {
+        File file = new File(mFolder.getRoot(), "strategy");
+        MappedStrategy.write(sOptimal, file);
+        MappedStrategy mapped = MappedStrategy.open(file);
+        try {
+            int[] values = {1, 2, 3, 4, 5, 6};
+            try {
+                mapped.bestMethod(STATES - 1, values);
+                fail("Method chosen in a finished game");
+            } catch (IllegalArgumentException e) {
+                //Expected.
+            }
+            try {
+                mapped.bestKeepMask(STATES - 1, values, 1);
+                fail("Dices kept in a finished game");
+            } catch (IllegalArgumentException e) {
+                //Expected.
+            }
+        } finally {
+            mapped.close();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void tableOfAnotherLayoutIsRejected() throws IOException {
+        File file = new File(mFolder.getRoot(), "strategy");
+        MappedTable.write(file, MappedStrategy.TABLE_TYPE, 8, ByteBuffer.allocate(8 * STATES));
+        MappedStrategy.open(file);
+    }
+}
@@ -0,0 +1,116 @@
+package se.umu.id14ant.thirty.strategy;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import se.umu.id14ant.thirty.model.Multisets;
+import se.umu.id14ant.thirty.model.ScoreTable;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the time budget and the advice cache of the move advisor.
+ */
+public class MoveAdvisorTest {
+
+    private static final long UNLIMITED_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final long BUDGET_MILLIS = 20;
+    private static final long SLACK_MILLIS = 200;
+    //Only three targets are left, so a search reaches the sample limit quickly.
+    private static final int LATE_USED_METHODS = 0x3f1;
+    private static final int[] VALUES = {6, 2, 6, 3, 1, 6};
+    private static final int[] SHUFFLED_VALUES = {3, 6, 1, 6, 2, 6};
+
+    @After
+    public void tearDown(){
+        //Clears an interrupt left by a failed test.
+        Thread.interrupted();
+    }
+
+    @Test
+    public void searchStaysWithinTheBudget(){
+        MoveAdvisor advisor = new MoveAdvisor(BUDGET_MILLIS, 1);
+        //The first search also creates the tables of the advisor.
+        advisor.adviseKeep(LATE_USED_METHODS, VALUES, 2);
+
+        long start = System.nanoTime();
+        Advice advice = advisor.adviseKeep(0, VALUES, 2);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsed + " ms", elapsed < BUDGET_MILLIS + SLACK_MILLIS);
+        assertTrue(advice.isKeep());
+
+        start = System.nanoTime();
+        advice = advisor.adviseMethod(1, VALUES);
+        elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsed + " ms", elapsed < BUDGET_MILLIS + SLACK_MILLIS);
+        assertFalse(advice.isKeep());
+    }
+
+    @Test
+    public void noBudgetAdvisesWithoutSamples(){
+        MoveAdvisor advisor = new MoveAdvisor(0, 1);
+        Advice keep = advisor.adviseKeep(0, VALUES, 2);
+        assertEquals(0, keep.getSamples());
+        assertFalse(keep.isComplete());
+
+        //Without samples the method scoring the most now is chosen.
+        Advice method = advisor.adviseMethod(0, VALUES);
+        assertEquals(0, method.getSamples());
+        int rank = ScoreTable.rank(VALUES);
+        for(int m = 0; m < ScoreTable.METHODS; m++){
+            assertTrue(ScoreTable.getScore(rank, m) <= method.getExpectedScore());
+        }
+        assertEquals(ScoreTable.getScore(rank, method.getMethod()), method.getExpectedScore(), 0);
+    }
+
+    @Test
+    public void repeatedStateHitsTheCache(){
+        MoveAdvisor advisor = new MoveAdvisor(UNLIMITED_MILLIS, 1);
+        Advice first = advisor.adviseKeep(LATE_USED_METHODS, VALUES, 2);
+        assertTrue(first.isComplete());
+        assertEquals(1, advisor.getSearches());
+
+        //The same dices in another order get the same dices kept, without searching again.
+        Advice second = advisor.adviseKeep(LATE_USED_METHODS, SHUFFLED_VALUES, 2);
+        assertEquals(1, advisor.getSearches());
+        assertEquals(first.getExpectedScore(), second.getExpectedScore(), 0);
+        assertEquals(first.getSamples(), second.getSamples());
+        assertEquals(Multisets.indexOf(VALUES, first.getKeepMask()),
+                Multisets.indexOf(SHUFFLED_VALUES, second.getKeepMask()));
+
+        Advice method = advisor.adviseMethod(LATE_USED_METHODS, VALUES);
+        assertEquals(2, advisor.getSearches());
+        assertEquals(method.getMethod(), advisor.adviseMethod(LATE_USED_METHODS, SHUFFLED_VALUES).getMethod());
+        assertEquals(2, advisor.getSearches());
+
+        //Another number of throws left is another state.
+        advisor.adviseKeep(LATE_USED_METHODS, VALUES, 1);
+        assertEquals(3, advisor.getSearches());
+    }
+
+    @Test
+    public void interruptedSearchIsNotCached(){
+        MoveAdvisor advisor = new MoveAdvisor(UNLIMITED_MILLIS, 1);
+        Thread.currentThread().interrupt();
+        Advice advice = advisor.adviseKeep(0, VALUES, 2);
+        assertTrue(Thread.interrupted());
+        assertEquals(0, advice.getSamples());
+        assertFalse(advice.isComplete());
+        assertEquals(1, advisor.getSearches());
+
+        Thread.currentThread().interrupt();
+        advisor.adviseMethod(0, VALUES);
+        assertTrue(Thread.interrupted());
+        assertEquals(2, advisor.getSearches());
+
+        //Nothing was cached, so asking again searches.
+        advisor.adviseMethod(LATE_USED_METHODS, VALUES);
+        Thread.currentThread().interrupt();
+        advisor.adviseKeep(0, VALUES, 2);
+        advisor.adviseMethod(0, VALUES);
+        assertTrue(Thread.interrupted());
+        assertEquals(5, advisor.getSearches());
+    }
+}
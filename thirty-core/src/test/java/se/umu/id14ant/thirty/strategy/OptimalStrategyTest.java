@@ -0,0 +1,110 @@
+package se.umu.id14ant.thirty.strategy;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import se.umu.id14ant.thirty.model.ScoreTable;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the solved strategy, pinning the expected score of a game and checking decisions on states that can be
+ * worked out by hand.
+ */
+public class OptimalStrategyTest {
+
+    private static final int STATES = 1 << ScoreTable.METHODS;
+    private static final int ALL_METHODS = STATES - 1;
+    private static final int TWELVE = 9;
+    private static final double DELTA = 1e-9;
+    private static final int[] ONE_TO_SIX = {1, 2, 3, 4, 5, 6};
+    private static final int[] SIXES = {6, 6, 6, 6, 6, 6};
+    private static final int[] ONES = {1, 1, 1, 1, 1, 1};
+
+    private static OptimalStrategy sStrategy;
+
+    @BeforeClass
+    public static void solve(){
+        sStrategy = StrategySolver.solve();
+    }
+
+    @Test
+    public void newGameHasTheKnownExpectedScore(){
+        assertEquals(203.3948, sStrategy.getExpectedScore(), 1e-4);
+        assertEquals(sStrategy.getExpectedScore(), sStrategy.getExpectedScore(0), 0);
+        assertEquals(0, sStrategy.getExpectedScore(ALL_METHODS), 0);
+    }
+
+    @Test
+    public void solutionDoesNotDependOnTheThreads(){
+        OptimalStrategy single = StrategySolver.solve(1);
+        for(int usedMethods = 0; usedMethods < STATES; usedMethods++){
+            assertEquals(single.getExpectedScore(usedMethods), sStrategy.getExpectedScore(usedMethods), 0);
+        }
+    }
+
+    @Test
+    public void lowAloneKeepsTheSmallDices(){
+        //Rerolling a die is worth 1 for Low with one throw left, since 4 to 6 count nothing, and 1.5 with two throws
+        //left, since the second throw is kept only if it shows 1 to 3. A new round is worth 6 * 11 / 6.
+        int usedMethods = ALL_METHODS & ~(1 << ScoreTable.LOW);
+        assertEquals(11, sStrategy.getExpectedScore(usedMethods), DELTA);
+        assertEquals(0x06, sStrategy.bestKeepMask(usedMethods, ONE_TO_SIX, 2));
+        assertEquals(2 + 3 + 4 * 1.5, sStrategy.getExpectedScore(usedMethods, ONE_TO_SIX, 0x06, 2), DELTA);
+
+        //Keeping the 1 or rerolling it is equally good with one throw left, and the larger set of dices is kept.
+        assertEquals(0x07, sStrategy.bestKeepMask(usedMethods, ONE_TO_SIX, 1));
+        assertEquals(9, sStrategy.getExpectedScore(usedMethods, ONE_TO_SIX, 0x07, 1), DELTA);
+        assertEquals(9, sStrategy.getExpectedScore(usedMethods, ONE_TO_SIX, 0x06, 1), DELTA);
+        assertEquals(6, sStrategy.getExpectedScore(usedMethods, ONE_TO_SIX, 0, 1), DELTA);
+    }
+
+    @Test
+    public void lastMethodIsAlwaysChosen(){
+        for(int method = 0; method < ScoreTable.METHODS; method++){
+            int usedMethods = ALL_METHODS & ~(1 << method);
+            assertEquals(method, sStrategy.bestMethod(usedMethods, ONE_TO_SIX));
+            assertEquals(method, sStrategy.bestMethod(usedMethods, ONES));
+        }
+    }
+
+    @Test
+    public void fullScoreIsKept(){
+        int usedMethods = ALL_METHODS & ~(1 << TWELVE);
+        for(int throwsLeft = 1; throwsLeft <= RoundSolver.MAX_THROWS_LEFT; throwsLeft++){
+            assertEquals(0x3f, sStrategy.bestKeepMask(usedMethods, SIXES, throwsLeft));
+            assertEquals(36, sStrategy.getExpectedScore(usedMethods, SIXES, 0x3f, throwsLeft), DELTA);
+        }
+    }
+
+    @Test
+    public void methodWeighsTheScoreAgainstTheRestOfTheGame(){
+        int usedMethods = ALL_METHODS & ~(1 << ScoreTable.LOW | 1 << TWELVE);
+        double lowLeft = sStrategy.getExpectedScore(ALL_METHODS & ~(1 << ScoreTable.LOW));
+        double twelveLeft = sStrategy.getExpectedScore(ALL_METHODS & ~(1 << TWELVE));
+
+        //Six sixes score 36 for 12 and nothing for Low.
+        assertTrue(36 + lowLeft > twelveLeft);
+        assertEquals(TWELVE, sStrategy.bestMethod(usedMethods, SIXES));
+
+        //Six ones score 6 for Low and nothing for 12.
+        assertTrue(6 + twelveLeft > lowLeft);
+        assertEquals(ScoreTable.LOW, sStrategy.bestMethod(usedMethods, ONES));
+        assertEquals(6 + twelveLeft, sStrategy.getExpectedScore(usedMethods, ONES, 0x3f, 1), DELTA);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noThrowsLeftIsRejected(){
+        sStrategy.bestKeepMask(0, ONE_TO_SIX, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyThrowsLeftIsRejected(){
+        sStrategy.bestKeepMask(0, ONE_TO_SIX, RoundSolver.MAX_THROWS_LEFT + 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void finishedGameIsRejected(){
+        sStrategy.bestMethod(ALL_METHODS, ONE_TO_SIX);
+    }
+}
@@ -0,0 +1,117 @@
+package se.umu.id14ant.thirty.strategy;
+
+import org.junit.Test;
+
+import se.umu.id14ant.thirty.model.Die;
+import se.umu.id14ant.thirty.model.Multisets;
+import se.umu.id14ant.thirty.model.RandomSource;
+import se.umu.id14ant.thirty.model.ScoreTable;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the exact score distributions, checking their weights and comparing their means with the expected scores
+ * of {@link RoundSolver}.
+ */
+public class ScoreDistributionsTest {
+
+    private static final long OUTCOMES_PER_THROW = 46656;
+    private static final int ALL_METHODS = (1 << ScoreTable.METHODS) - 1;
+    private static final int MAX_THROWS_LEFT = RoundSolver.MAX_THROWS_LEFT + 1;
+    private static final int[] VALUES = {1, 3, 3, 5, 6, 2};
+    private static final int[] SAVED_MASKS = {0, 0x06, 0x18, 0x3f};
+
+    private final ScoreDistributions mDistributions = new ScoreDistributions();
+
+    @Test
+    public void weightsSumToTheNumberOfOutcomes(){
+        Die[] dices = createDices(VALUES);
+        for (int savedMask: SAVED_MASKS) {
+            long denominator = 1;
+            for(int throwsLeft = 0; throwsLeft <= MAX_THROWS_LEFT; throwsLeft++){
+                ScoreDistribution[] distributions = mDistributions.distributions(dices, savedMask, throwsLeft, 0);
+                for(int method = 0; method < ScoreTable.METHODS; method++){
+                    ScoreDistribution distribution = distributions[method];
+                    assertEquals(denominator, distribution.getDenominator());
+                    long sum = 0;
+                    for(int score = 0; score <= distribution.getMaxScore(); score++){
+                        assertTrue(distribution.getWeight(score) >= 0);
+                        sum += distribution.getWeight(score);
+                    }
+                    assertEquals(savedMask + " " + throwsLeft + " " + method, denominator, sum);
+                }
+                denominator *= OUTCOMES_PER_THROW;
+            }
+        }
+    }
+
+    @Test
+    public void meanIsTheExpectedScoreOfTheRoundSolver(){
+        Die[] dices = createDices(VALUES);
+        double[] gameValues = new double[1 << ScoreTable.METHODS];
+        for(int method = 0; method < ScoreTable.METHODS; method++){
+            //With every other method used, the solver maximizes the score of this method alone.
+            int usedMethods = ALL_METHODS & ~(1 << method);
+            RoundSolver solver = new RoundSolver();
+            solver.solve(usedMethods, gameValues);
+            for (int savedMask: SAVED_MASKS) {
+                int kept = Multisets.indexOf(VALUES, savedMask);
+                for(int throwsLeft = 1; throwsLeft <= MAX_THROWS_LEFT; throwsLeft++){
+                    ScoreDistribution distribution =
+                            mDistributions.distributions(dices, savedMask, throwsLeft, usedMethods)[method];
+                    assertEquals(method + " " + savedMask + " " + throwsLeft, solver.expected(kept, throwsLeft - 1),
+                            distribution.getMean(), 1e-9);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void scoredDicesHaveOneScore(){
+        ScoreDistribution[] distributions = mDistributions.distributions(createDices(VALUES), 0, 0, 0x3);
+        assertNull(distributions[0]);
+        assertNull(distributions[1]);
+        int rank = ScoreTable.rank(VALUES);
+        for(int method = 2; method < ScoreTable.METHODS; method++){
+            assertEquals(1, distributions[method].getProbability(ScoreTable.getScore(rank, method)), 0);
+        }
+    }
+
+    @Test
+    public void everyKeepMaskIsDistributed(){
+        ScoreDistribution[][] distributions = mDistributions.allKeepMasks(createDices(VALUES), 1, 0);
+        assertEquals(1 << VALUES.length, distributions.length);
+        for(int mask = 0; mask < distributions.length; mask++){
+            assertEquals(OUTCOMES_PER_THROW, distributions[mask][ScoreTable.LOW].getDenominator());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeThrowsLeftAreRejected(){
+        mDistributions.distributions(createDices(VALUES), 0, -1, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyThrowsLeftAreRejected(){
+        mDistributions.distributions(createDices(VALUES), 0, MAX_THROWS_LEFT + 1, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void keepMasksWithoutThrowsLeftAreRejected(){
+        mDistributions.allKeepMasks(createDices(VALUES), 0, 0);
+    }
+
+    /**
+     * Creates unsaved dices showing the given values.
+     * @param values the dice values.
+     * @return the dices.
+     */
+    private static Die[] createDices(int[] values){
+        RandomSource random = RandomSource.create(1);
+        Die[] dices = new Die[values.length];
+        for(int i = 0; i < values.length; i++){
+            dices[i] = new Die("dice" + (i + 1), false, values[i], random);
+        }
+        return dices;
+    }
+}
@@ -0,0 +1,59 @@
+package se.umu.id14ant.thirty.strategy;
+
+import org.junit.Test;
+
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.model.RandomSource;
+import se.umu.id14ant.thirty.model.Rules;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the dices kept by the target multiples strategy, under the standard rules and house rules.
+ */
+public class TargetMultiplesStrategyTest {
+
+    private static final int ALL_BUT_LOW = (1 << 10) - 2;
+
+    @Test
+    public void groupsOfTheBestTargetAreKept(){
+        TargetMultiplesStrategy strategy = new TargetMultiplesStrategy();
+        //Twelve scores 24 with 6 + 6 and 5 + 4 + 2 + 1, more than any other target.
+        assertEquals(0x3f, strategy.bestKeepMask(0, new int[]{6, 5, 6, 4, 2, 1}, 2));
+        //With only eleven left, 6 + 5 and 6 + 4 + 1 are kept and the 2 is rolled.
+        assertEquals(0x2f, strategy.bestKeepMask(ALL_BUT_LOW & ~(1 << 8), new int[]{6, 5, 6, 4, 2, 1}, 2));
+    }
+
+    @Test
+    public void lowDicesAreKeptWhenOnlyLowIsLeft(){
+        TargetMultiplesStrategy strategy = new TargetMultiplesStrategy();
+        assertEquals(0x25, strategy.bestKeepMask(ALL_BUT_LOW, new int[]{1, 5, 3, 4, 6, 2}, 1));
+        //Nothing is kept while there are targets left that score nothing.
+        assertEquals(0, strategy.bestKeepMask(ALL_BUT_LOW & ~(1 << 9), new int[]{1, 1, 1, 1, 1, 1}, 1));
+    }
+
+    @Test
+    public void houseRulesAreScoredByTheirOwnTargets(){
+        Rules rules = new Rules(8, RandomSource.FACES, Game.NUMBER_OF_THROWS, new int[]{7, 10}, 2);
+        TargetMultiplesStrategy strategy = new TargetMultiplesStrategy(rules);
+        int[] values = {1, 2, 2, 2, 2, 2, 3, 3};
+        //Seven scores 14 with two groups of 2 + 2 + 3, ten scores 10 with a single group.
+        int keepMask = strategy.bestKeepMask(0, values, 2);
+        int sum = 0;
+        for(int i = 0; i < values.length; i++){
+            if((keepMask & (1 << i)) != 0){
+                sum += values[i];
+            }
+        }
+        assertEquals(Integer.toBinaryString(keepMask), 14, sum);
+        assertEquals(1, strategy.bestMethod(0, values));
+
+        //Low counts the dices of two or less under these rules.
+        assertEquals(0x3f, strategy.bestKeepMask(0x6, values, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyDicesAreRejected(){
+        new TargetMultiplesStrategy(new Rules(17, RandomSource.FACES, Game.NUMBER_OF_THROWS, new int[]{7}, 3));
+    }
+}
@@ -0,0 +1,43 @@
+package se.umu.id14ant.thirty.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A batch of games of the simulator has been played.
+ */
+@Name("se.umu.id14ant.thirty.SimulatorBatch")
+@Label("Simulator Batch")
+@Category({"Thirty", "Simulator"})
+@Description("A batch of games of the simulator has been played")
+@Enabled(false)
+@StackTrace(false)
+public class BatchEvent extends Event {
+
+    @Label("Batch")
+    @Description("The index of the batch within its simulation")
+    long batch;
+
+    @Label("Games")
+    long games;
+
+    @Label("Mean Score")
+    double meanScore;
+
+    /**
+     * Sets the fields of the event, before it is committed.
+     * @param batch the index of the batch.
+     * @param games the number of games of the batch.
+     * @param meanScore the mean score of the games.
+     */
+    public void set(long batch, long games, double meanScore){
+        this.batch = batch;
+        this.games = games;
+        this.meanScore = meanScore;
+    }
+}
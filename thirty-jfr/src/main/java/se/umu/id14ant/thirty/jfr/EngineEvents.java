@@ -0,0 +1,163 @@
+package se.umu.id14ant.thirty.jfr;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.FlightRecorder;
+import se.umu.id14ant.thirty.model.Die;
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.sim.SimulationListener;
+
+/**
+ * Reports the games and batches of a simulator as flight recorder events, so recordings of headless runs can be read
+ * next to the GC and allocation events of the JVM in the usual JFR tools. Pass an instance to
+ * {@link se.umu.id14ant.thirty.sim.Simulator#Simulator(int, SimulationListener)}.
+ *
+ * Every event is off by default and is turned on by the settings of a recording, such as a .jfc file given to
+ * -XX:StartFlightRecording or {@code Recording.enable("se.umu.id14ant.thirty.Roll")}. Events are created and checked
+ * with shouldCommit() where they happen, which the JIT reduces to a flag test while they are off. Fields that need
+ * allocation, such as the dices as text, are only filled in for events that are committed, and a game only gets a
+ * listener if one of the game events is on when it starts.
+ */
+public class EngineEvents implements SimulationListener {
+
+    private static final LongAdder sGames = new LongAdder();
+    private static final LongAdder sBatches = new LongAdder();
+    private static final ThroughputHook sThroughput = new ThroughputHook();
+    private static final AtomicBoolean sRegistered = new AtomicBoolean();
+
+    /**
+     * Creates the listener and registers the periodic throughput event with the flight recorder, unless it is
+     * already registered. The recorder only picks up a new periodic event at its next wake-up, so the listener
+     * should be created before the recording starts.
+     */
+    public EngineEvents(){
+        if(sRegistered.compareAndSet(false, true)){
+            FlightRecorder.addPeriodicEvent(ThroughputEvent.class, sThroughput);
+        }
+    }
+
+    /**
+     * Returns the listener recording the score and batch events of a batch.
+     * @param batch the index of the batch within the simulation.
+     * @return the listener of the batch.
+     */
+    @Override
+    public BatchListener onBatchStart(long batch){
+        return new BatchRecorder(batch);
+    }
+
+    /**
+     * Records the start, rolls and end of the given game, if any of those events are on. The game must not have
+     * another listener.
+     * @param game the new game.
+     */
+    public static void attach(Game game){
+        if(new GameStartEvent().isEnabled() || new RollEvent().isEnabled() || new GameEndEvent().isEnabled()){
+            game.setEventListener(new GameRecorder(game));
+        }
+    }
+
+    /**
+     * Returns the values of the dices of the given game as text.
+     * @param game the game.
+     * @return the values separated by spaces.
+     */
+    public static String dice(Game game){
+        Die[] dices = game.getDices();
+        StringBuilder text = new StringBuilder(2 * dices.length);
+        for (Die die: dices) {
+            if(text.length() > 0){
+                text.append(' ');
+            }
+            text.append(die.getValue());
+        }
+        return text.toString();
+    }
+
+    /**
+     * Emits a throughput event right away, covering the time since the last one. The flight recorder calls this at
+     * the period of the event.
+     */
+    static void emitThroughput(){
+        sThroughput.run();
+    }
+
+    /**
+     * Records the score events and the batch event of a single batch, on the thread playing it.
+     */
+    private static class BatchRecorder implements BatchListener {
+
+        private final long mBatch;
+        private final BatchEvent mBatchEvent = new BatchEvent();
+        private ScoreEvent mScoreEvent;
+
+        /**
+         * Creates the recorder of the given batch and starts timing it.
+         * @param batch the index of the batch.
+         */
+        BatchRecorder(long batch){
+            mBatch = batch;
+            mBatchEvent.begin();
+        }
+
+        @Override
+        public void onGameStart(Game game){
+            attach(game);
+        }
+
+        @Override
+        public void onScoreStart(){
+            mScoreEvent = new ScoreEvent();
+            mScoreEvent.begin();
+        }
+
+        @Override
+        public void onScoreEnd(Game game, int round, int method, int score){
+            mScoreEvent.end();
+            if(mScoreEvent.shouldCommit()){
+                mScoreEvent.set(round, method, score, dice(game));
+                mScoreEvent.commit();
+            }
+        }
+
+        @Override
+        public void onBatchEnd(long games, double meanScore){
+            sGames.add(games);
+            sBatches.increment();
+            mBatchEvent.end();
+            if(mBatchEvent.shouldCommit()){
+                mBatchEvent.set(mBatch, games, meanScore);
+                mBatchEvent.commit();
+            }
+        }
+    }
+
+    /**
+     * Emits the throughput since the last time it was called.
+     */
+    private static class ThroughputHook implements Runnable {
+
+        private long mLastTime = System.nanoTime();
+        private long mLastGames;
+        private long mLastBatches;
+
+        @Override
+        public synchronized void run(){
+            long now = System.nanoTime();
+            long games = sGames.sum();
+            long batches = sBatches.sum();
+            double seconds = Math.max(now - mLastTime, 1) / 1e9;
+
+            ThroughputEvent event = new ThroughputEvent();
+            event.gamesPerSecond = (games - mLastGames) / seconds;
+            event.batchesPerSecond = (batches - mLastBatches) / seconds;
+            event.games = games;
+            event.commit();
+
+            mLastTime = now;
+            mLastGames = games;
+            mLastBatches = batches;
+        }
+    }
+}
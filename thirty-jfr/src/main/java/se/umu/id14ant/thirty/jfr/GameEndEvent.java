@@ -0,0 +1,29 @@
+package se.umu.id14ant.thirty.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A game has been finished, lasting from its start until its last score was added.
+ */
+@Name("se.umu.id14ant.thirty.GameEnd")
+@Label("Game End")
+@Category({"Thirty", "Engine"})
+@Description("A game has been finished, with the duration of the whole game")
+@Enabled(false)
+@StackTrace(false)
+public class GameEndEvent extends Event {
+
+    @Label("Seed")
+    @Description("The seed of the random source of the game")
+    long seed;
+
+    @Label("Result")
+    @Description("The total score of the game")
+    int result;
+}
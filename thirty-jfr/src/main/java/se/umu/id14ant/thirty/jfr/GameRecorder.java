@@ -0,0 +1,88 @@
+package se.umu.id14ant.thirty.jfr;
+
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.model.GameEventListener;
+
+/**
+ * Turns the changes of a game into flight recorder events: a start event when it is attached, a roll event for every
+ * roll and an end event, lasting the whole game, when the score of the last round is added.
+ */
+class GameRecorder implements GameEventListener {
+
+    private final Game mGame;
+    private GameEndEvent mEnd;
+
+    /**
+     * Creates a recorder of the given game. Attach it with {@link EngineEvents#attach(Game)}.
+     * @param game the game.
+     */
+    GameRecorder(Game game){
+        mGame = game;
+    }
+
+    /**
+     * Records the start of the game and starts timing it.
+     * @param seed the seed of the random source of the game.
+     * @param randomState the current state of the random source.
+     * @param state the game packed by {@link se.umu.id14ant.thirty.model.PackedGame}.
+     */
+    @Override
+    public void onStart(long seed, long randomState, long state){
+        GameStartEvent event = new GameStartEvent();
+        if(event.shouldCommit()){
+            event.seed = seed;
+            event.commit();
+        }
+        mEnd = new GameEndEvent();
+        mEnd.seed = seed;
+        mEnd.begin();
+    }
+
+    /**
+     * Records the roll with the values of all dices after it.
+     * @param rollMask the rolled dices, where bit i is set if die i was rolled.
+     * @param values the new values of the rolled dices, three bits per die with die i at bit 3i.
+     */
+    @Override
+    public void onRoll(int rollMask, int values){
+        RollEvent event = new RollEvent();
+        if(event.shouldCommit()){
+            event.round = mGame.getCurrentRound();
+            event.throwsLeft = mGame.getThrowsLeft();
+            event.rollMask = rollMask;
+            event.dice = EngineEvents.dice(mGame);
+            event.commit();
+        }
+    }
+
+    /**
+     * Does nothing, saving a die is not recorded.
+     * @param die the index of the die.
+     */
+    @Override
+    public void onToggleSaved(int die){
+    }
+
+    /**
+     * Records the end of the game when the score of the last round has been added.
+     * @param method the index of the scoring method.
+     * @param score the score.
+     */
+    @Override
+    public void onScore(int method, int score){
+        if(mGame.getScores().size() == Game.NUMBER_OF_ROUNDS){
+            mEnd.end();
+            if(mEnd.shouldCommit()){
+                mEnd.result = mGame.getResult();
+                mEnd.commit();
+            }
+        }
+    }
+
+    /**
+     * Does nothing, the rounds are part of the roll events.
+     */
+    @Override
+    public void onNextRound(){
+    }
+}
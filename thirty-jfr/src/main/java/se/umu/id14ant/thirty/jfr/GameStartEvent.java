@@ -0,0 +1,25 @@
+package se.umu.id14ant.thirty.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A game has been started by the engine.
+ */
+@Name("se.umu.id14ant.thirty.GameStart")
+@Label("Game Start")
+@Category({"Thirty", "Engine"})
+@Description("A game has been started")
+@Enabled(false)
+@StackTrace(false)
+public class GameStartEvent extends Event {
+
+    @Label("Seed")
+    @Description("The seed of the random source of the game")
+    long seed;
+}
@@ -0,0 +1,16 @@
+package se.umu.id14ant.thirty.jfr;
+
+import se.umu.id14ant.thirty.sim.SimulatorMain;
+
+/**
+ * Command line entry point of the simulator reporting flight recorder events, see {@link EngineEvents}. The events
+ * are only recorded when the JVM runs a recording that turns them on.
+ *
+ * Usage: RecordedSimulatorMain games [seed] [threads], as for {@link SimulatorMain}.
+ */
+public class RecordedSimulatorMain {
+
+    public static void main(String[] args){
+        SimulatorMain.run(args, new EngineEvents());
+    }
+}
@@ -0,0 +1,36 @@
+package se.umu.id14ant.thirty.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Dices of a game have been rolled.
+ */
+@Name("se.umu.id14ant.thirty.Roll")
+@Label("Roll")
+@Category({"Thirty", "Engine"})
+@Description("Dices of a game have been rolled")
+@Enabled(false)
+@StackTrace(false)
+public class RollEvent extends Event {
+
+    @Label("Round")
+    int round;
+
+    @Label("Throws Left")
+    @Description("The number of throws left in the round after this one")
+    int throwsLeft;
+
+    @Label("Roll Mask")
+    @Description("The rolled dices, where bit i is set if die i was rolled")
+    int rollMask;
+
+    @Label("Dice")
+    @Description("The values of all dices after the roll")
+    String dice;
+}
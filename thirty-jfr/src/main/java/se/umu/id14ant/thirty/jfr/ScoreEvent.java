@@ -0,0 +1,50 @@
+package se.umu.id14ant.thirty.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The scores of the dices have been computed and a scoring method has been chosen. The duration is the computation
+ * of the scores of every method.
+ */
+@Name("se.umu.id14ant.thirty.Score")
+@Label("Score")
+@Category({"Thirty", "Engine"})
+@Description("The scores of the dices have been computed and a scoring method chosen")
+@Enabled(false)
+@StackTrace(false)
+public class ScoreEvent extends Event {
+
+    @Label("Round")
+    int round;
+
+    @Label("Method")
+    @Description("The index of the chosen scoring method, 0 for Low")
+    int method;
+
+    @Label("Score")
+    int score;
+
+    @Label("Dice")
+    @Description("The values of the scored dices")
+    String dice;
+
+    /**
+     * Sets the fields of the event, before it is committed.
+     * @param round the round.
+     * @param method the index of the chosen scoring method.
+     * @param score the score of the chosen method.
+     * @param dice the values of the dices, from {@link EngineEvents#dice(se.umu.id14ant.thirty.model.Game)}.
+     */
+    public void set(int round, int method, int score, String dice){
+        this.round = round;
+        this.method = method;
+        this.score = score;
+        this.dice = dice;
+    }
+}
@@ -0,0 +1,33 @@
+package se.umu.id14ant.thirty.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+/**
+ * The throughput of the simulator since the last event of this type, emitted periodically by {@link EngineEvents}.
+ */
+@Name("se.umu.id14ant.thirty.Throughput")
+@Label("Engine Throughput")
+@Category({"Thirty", "Simulator"})
+@Description("Games and batches finished per second since the last throughput event")
+@Enabled(false)
+@Period("1 s")
+@StackTrace(false)
+public class ThroughputEvent extends Event {
+
+    @Label("Games per Second")
+    double gamesPerSecond;
+
+    @Label("Batches per Second")
+    double batchesPerSecond;
+
+    @Label("Games")
+    @Description("The number of games finished since the process started")
+    long games;
+}
@@ -0,0 +1,113 @@
+package se.umu.id14ant.thirty.jfr;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.sim.SimulationStatistics;
+import se.umu.id14ant.thirty.sim.Simulator;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the flight recorder events, recording a short simulation and checking that every event is present and
+ * agrees with the results of the simulation.
+ */
+public class EngineEventsTest {
+
+    private static final long GAMES = 100;
+    private static final long SEED = 30;
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    @Test
+    public void simulationIsRecorded() throws IOException {
+        Simulator simulator = new Simulator(1, new EngineEvents());
+        Recording recording = new Recording();
+        SimulationStatistics statistics;
+        try {
+            recording.enable(GameStartEvent.class);
+            recording.enable(GameEndEvent.class);
+            recording.enable(RollEvent.class);
+            recording.enable(ScoreEvent.class);
+            recording.enable(BatchEvent.class);
+            recording.enable(ThroughputEvent.class);
+            recording.start();
+            statistics = simulator.run(GAMES, SEED);
+            //Emit the periodic event directly, instead of waiting for the recorder to do it.
+            EngineEvents.emitThroughput();
+            recording.stop();
+        } finally {
+            simulator.shutdown();
+        }
+
+        File file = new File(mFolder.getRoot(), "engine.jfr");
+        recording.dump(file.toPath());
+        recording.close();
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file.toPath());
+
+        Map<String, Integer> counts = new HashMap<>();
+        long result = 0;
+        long batchGames = 0;
+        long throughputGames = 0;
+        for (RecordedEvent event: events) {
+            String name = event.getEventType().getName();
+            Integer count = counts.get(name);
+            counts.put(name, count == null ? 1 : count + 1);
+            if(name.equals("se.umu.id14ant.thirty.GameEnd")){
+                result += event.getInt("result");
+            } else if(name.equals("se.umu.id14ant.thirty.SimulatorBatch")){
+                batchGames += event.getLong("games");
+            } else if(name.equals("se.umu.id14ant.thirty.Throughput")){
+                throughputGames = Math.max(throughputGames, event.getLong("games"));
+            } else if(name.equals("se.umu.id14ant.thirty.Score")){
+                assertEquals(2 * Game.NUMBER_OF_DICES - 1, event.getString("dice").length());
+            }
+        }
+
+        assertEquals(Integer.valueOf((int) GAMES), counts.get("se.umu.id14ant.thirty.GameStart"));
+        assertEquals(Integer.valueOf((int) GAMES), counts.get("se.umu.id14ant.thirty.GameEnd"));
+        assertEquals(Integer.valueOf((int) GAMES * Game.NUMBER_OF_ROUNDS),
+                counts.get("se.umu.id14ant.thirty.Score"));
+        //The first roll of a game is made when it is created, before the recorder is attached.
+        assertEquals(Integer.valueOf((int) GAMES * (Game.NUMBER_OF_ROUNDS * Game.NUMBER_OF_THROWS - 1)),
+                counts.get("se.umu.id14ant.thirty.Roll"));
+        assertEquals(Integer.valueOf(1), counts.get("se.umu.id14ant.thirty.SimulatorBatch"));
+        assertNotNull(counts.get("se.umu.id14ant.thirty.Throughput"));
+
+        assertEquals(statistics.getMeanScore() * GAMES, result, 1e-6);
+        assertEquals(GAMES, batchGames);
+        assertTrue(throughputGames >= GAMES);
+    }
+
+    @Test
+    public void nothingIsRecordedByDefault() throws IOException {
+        Simulator simulator = new Simulator(1, new EngineEvents());
+        Recording recording = new Recording();
+        try {
+            recording.start();
+            simulator.run(GAMES, SEED);
+            recording.stop();
+        } finally {
+            simulator.shutdown();
+        }
+
+        File file = new File(mFolder.getRoot(), "default.jfr");
+        recording.dump(file.toPath());
+        recording.close();
+        for (RecordedEvent event: RecordingFile.readAllEvents(file.toPath())) {
+            assertFalse(event.getEventType().getName(), event.getEventType().getName().startsWith("se.umu.id14ant"));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package se.umu.id14ant.thirty.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves the requests of one client until it disconnects. The connection blocks its thread while waiting for a
+ * request, which is why every connection gets a thread of its own.
+ *
+ * Responses are buffered and only flushed once there are no more requests waiting to be read, so a client sending
+ * several requests at once gets the responses in a single write.
+ */
+class Connection implements Runnable {
+
+    private final Socket mSocket;
+    private final RequestHandler mHandler;
+    private final GameServer mServer;
+    private final byte[] mLine = new byte[Protocol.MAX_LINE_LENGTH];
+    private int mLineLength;
+
+    /**
+     * Creates a connection serving the given socket.
+     * @param socket the socket of the client.
+     * @param sessions the session table.
+     * @param server the server, told when the connection is closed.
+     */
+    Connection(Socket socket, SessionTable sessions, GameServer server){
+        mSocket = socket;
+        mHandler = new RequestHandler(sessions);
+        mServer = server;
+    }
+
+    /**
+     * Serves requests until the client disconnects or sends a malformed line, then closes the socket and removes
+     * the games started on the connection.
+     */
+    @Override
+    public void run(){
+        try {
+            InputStream in = new BufferedInputStream(mSocket.getInputStream());
+            OutputStream out = new BufferedOutputStream(mSocket.getOutputStream());
+            while(readLine(in)){
+                StringBuilder response = mHandler.handle(new String(mLine, 0, mLineLength, StandardCharsets.US_ASCII));
+                for(int i = 0; i < response.length(); i++){
+                    out.write(response.charAt(i));
+                }
+                out.write('\n');
+                if(in.available() == 0){
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            //The client is gone, there is no one to report to.
+        } finally {
+            mHandler.close();
+            close();
+            mServer.closed(this);
+        }
+    }
+
+    /**
+     * Closes the socket, which also ends a thread blocked reading it.
+     */
+    void close(){
+        try {
+            mSocket.close();
+        } catch (IOException e) {
+            //Nothing left to release.
+        }
+    }
+
+    /**
+     * Reads the next request line, without the line break, into the line buffer.
+     * @param in the input of the socket.
+     * @return true if a line was read, false if the client disconnected.
+     * @throws IOException if the socket cannot be read or the line is too long.
+     */
+    private boolean readLine(InputStream in) throws IOException {
+        mLineLength = 0;
+        int b;
+        while((b = in.read()) != '\n'){
+            if(b < 0){
+                return false;
+            }
+            if(b == '\r'){
+                continue;
+            }
+            if(mLineLength == mLine.length){
+                throw new IOException("Request longer than " + Protocol.MAX_LINE_LENGTH + " characters");
+            }
+            mLine[mLineLength++] = (byte) b;
+        }
+        return true;
+    }
+}
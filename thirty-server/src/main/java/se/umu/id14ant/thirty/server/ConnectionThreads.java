@@ -0,0 +1,79 @@
+package se.umu.id14ant.thirty.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the executors running one thread per connection. On a JVM with virtual threads every task gets a new
+ * virtual thread, so ten thousands of blocked connections cost little more than their buffers. The module is built
+ * for Java 8, so the virtual thread executor is looked up by reflection, and older JVMs get a cached pool of
+ * platform threads instead.
+ */
+public final class ConnectionThreads {
+
+    private static final long PLATFORM_STACK_SIZE = 256 * 1024;
+
+    private ConnectionThreads(){
+    }
+
+    /**
+     * Returns an executor running each task on a thread of its own.
+     * @param name the name prefix of platform threads.
+     * @return the executor.
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String name){
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        if(executor != null){
+            return executor;
+        }
+        return Executors.newCachedThreadPool(new PlatformThreadFactory(name));
+    }
+
+    /**
+     * Returns true if the JVM has virtual threads.
+     * @return true if there are virtual threads, otherwise false.
+     */
+    public static boolean hasVirtualThreads(){
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        if(executor == null){
+            return false;
+        }
+        executor.shutdown();
+        return true;
+    }
+
+    /**
+     * Returns the virtual thread executor of the JVM.
+     * @return the executor, or null if there are no virtual threads or they are a disabled preview.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor(){
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates named daemon threads with a small stack.
+     */
+    private static final class PlatformThreadFactory implements ThreadFactory {
+        private final String mName;
+        private final AtomicInteger mCount = new AtomicInteger();
+
+        PlatformThreadFactory(String name){
+            mName = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable task){
+            Thread thread = new Thread(null, task, mName + "-" + mCount.incrementAndGet(), PLATFORM_STACK_SIZE);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
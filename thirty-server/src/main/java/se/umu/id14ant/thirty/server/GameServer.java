@@ -0,0 +1,161 @@
+package se.umu.id14ant.thirty.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hosts games for clients on the loopback interface, speaking {@link Protocol}. Every accepted connection is served
+ * by a thread of its own, virtual if the JVM has them, see {@link ConnectionThreads}. All connections share a
+ * {@link SessionTable}.
+ */
+public class GameServer implements Closeable {
+
+    private static final int BACKLOG = 4096;
+
+    private final ServerSocket mServerSocket;
+    private final SessionTable mSessions;
+    private final ExecutorService mExecutor;
+    private final Thread mAcceptThread;
+    private final Set<Connection> mConnections =
+            Collections.newSetFromMap(new ConcurrentHashMap<Connection, Boolean>());
+    private volatile boolean mClosed;
+
+    /**
+     * Starts a server listening on the given loopback port.
+     * @param port the port, or 0 for any free port.
+     * @param sessions the session table.
+     * @return the server.
+     * @throws IOException if the port cannot be bound.
+     */
+    public static GameServer start(int port, SessionTable sessions) throws IOException {
+        ServerSocket serverSocket = new ServerSocket();
+        try {
+            serverSocket.setReuseAddress(true);
+            serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        } catch (IOException | RuntimeException e) {
+            serverSocket.close();
+            throw e;
+        }
+        GameServer server = new GameServer(serverSocket, sessions);
+        server.mAcceptThread.start();
+        return server;
+    }
+
+    /**
+     * Creates a server accepting connections on the given socket.
+     * @param serverSocket the bound socket.
+     * @param sessions the session table.
+     */
+    private GameServer(ServerSocket serverSocket, SessionTable sessions){
+        mServerSocket = serverSocket;
+        mSessions = sessions;
+        mExecutor = ConnectionThreads.newThreadPerTaskExecutor("thirty-connection");
+        mAcceptThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                accept();
+            }
+        }, "thirty-accept");
+    }
+
+    /**
+     * Returns the port the server listens on.
+     * @return the port.
+     */
+    public int getPort(){
+        return mServerSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the session table of the server.
+     * @return the session table.
+     */
+    public SessionTable getSessions(){
+        return mSessions;
+    }
+
+    /**
+     * Returns the number of open connections.
+     * @return the number of connections.
+     */
+    public int getConnections(){
+        return mConnections.size();
+    }
+
+    /**
+     * Accepts connections until the server is closed.
+     */
+    private void accept(){
+        while(!mClosed){
+            Socket socket;
+            try {
+                socket = mServerSocket.accept();
+            } catch (IOException e) {
+                //Closing the server socket ends the loop. Other errors, like running out of file descriptors, are
+                //tried again after a pause.
+                pause();
+                continue;
+            }
+            try {
+                socket.setTcpNoDelay(true);
+                Connection connection = new Connection(socket, mSessions, this);
+                mConnections.add(connection);
+                mExecutor.execute(connection);
+            } catch (IOException | RuntimeException e) {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    //Nothing left to release.
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits a moment before accepting again after an error.
+     */
+    private void pause(){
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Called by a connection when it has been closed.
+     * @param connection the connection.
+     */
+    void closed(Connection connection){
+        mConnections.remove(connection);
+    }
+
+    /**
+     * Stops accepting connections, closes the open ones and waits a moment for their threads to finish.
+     * @throws IOException if the server socket cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        mClosed = true;
+        mServerSocket.close();
+        for (Connection connection: mConnections) {
+            connection.close();
+        }
+        mExecutor.shutdown();
+        try {
+            mExecutor.awaitTermination(5, TimeUnit.SECONDS);
+            mAcceptThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package se.umu.id14ant.thirty.server;
+
+import se.umu.id14ant.thirty.metrics.Histogram;
+
+/**
+ * Counts latencies in nanoseconds. Values below 32 nanoseconds get a bucket each, and every power of two above that
+ * is split into 32 buckets.
+ *
+ * Each thread records into its own histogram and the histograms are added up at the end.
+ */
+public class LatencyHistogram extends Histogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /**
+     * Creates an empty histogram.
+     */
+    public LatencyHistogram(){
+        super(SUB_BUCKET_BITS);
+    }
+}
@@ -0,0 +1,273 @@
+package se.umu.id14ant.thirty.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.model.ScoreTable;
+
+/**
+ * Command line load generator opening many concurrent players against a game server on localhost, and reporting the
+ * latency percentiles of their requests.
+ *
+ * Every player has a connection and a thread of its own. All players connect first and then start playing at the
+ * same moment. A player saves its fives and sixes, uses all throws and scores the unused method giving the highest
+ * score, one request at a time, and ends each game when it is over.
+ *
+ * Usage: LoadGenerator [port] [players] [games], where port 0 starts a server in the same process. The defaults are
+ * port {@link ServerMain#DEFAULT_PORT}, 10000 players and 1 game per player.
+ */
+public class LoadGenerator {
+
+    private static final int STATE_FIELDS = 6;
+
+    private final int mPort;
+    private final int mGames;
+    private final CountDownLatch mConnected;
+    private final CountDownLatch mStart = new CountDownLatch(1);
+    private final CountDownLatch mFinished;
+    private final LatencyHistogram mLatencies = new LatencyHistogram();
+    private final AtomicLong mErrors = new AtomicLong();
+    private final AtomicLong mFailedPlayers = new AtomicLong();
+    private final AtomicLong mTotalScore = new AtomicLong();
+
+    /**
+     * Creates a load generator.
+     * @param port the port of the server.
+     * @param players the number of players.
+     * @param games the number of games per player.
+     */
+    private LoadGenerator(int port, int players, int games){
+        mPort = port;
+        mGames = games;
+        mConnected = new CountDownLatch(players);
+        mFinished = new CountDownLatch(players);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : ServerMain.DEFAULT_PORT;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+        GameServer server = null;
+        if(port == 0){
+            server = GameServer.start(0, new SessionTable());
+            port = server.getPort();
+        }
+        try {
+            new LoadGenerator(port, players, games).run(players);
+        } finally {
+            if(server != null){
+                server.close();
+            }
+        }
+    }
+
+    /**
+     * Runs the players and prints the report.
+     * @param players the number of players.
+     * @throws InterruptedException if interrupted while waiting for the players.
+     */
+    private void run(int players) throws InterruptedException {
+        System.out.printf(Locale.ROOT, "Starting %d players with %d games each against localhost:%d, %s threads%n",
+                players, mGames, mPort, ConnectionThreads.hasVirtualThreads() ? "virtual" : "platform");
+
+        ExecutorService executor = ConnectionThreads.newThreadPerTaskExecutor("thirty-player");
+        long connectStart = System.nanoTime();
+        for(int i = 0; i < players; i++){
+            final long seed = i;
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    play(seed);
+                }
+            });
+        }
+        mConnected.await();
+        double connectSeconds = (System.nanoTime() - connectStart) / 1e9;
+
+        long start = System.nanoTime();
+        mStart.countDown();
+        mFinished.await();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        long requests = mLatencies.getCount();
+        long games = (players - mFailedPlayers.get()) * mGames;
+        System.out.printf(Locale.ROOT, "Connected in %.2f s, played %d games with %d requests in %.2f s%n",
+                connectSeconds, games, requests, seconds);
+        System.out.printf(Locale.ROOT, "Throughput: %.0f requests/s, %.0f games/s, mean score %.2f%n",
+                requests / seconds, games / seconds, games == 0 ? 0.0 : (double) mTotalScore.get() / games);
+        System.out.printf(Locale.ROOT, "Latency (us): mean %.1f, p50 %.1f, p90 %.1f, p99 %.1f, p99.9 %.1f, max %.1f%n",
+                mLatencies.getMean() / 1e3, mLatencies.getPercentile(50) / 1e3, mLatencies.getPercentile(90) / 1e3,
+                mLatencies.getPercentile(99) / 1e3, mLatencies.getPercentile(99.9) / 1e3, mLatencies.getMax() / 1e3);
+        System.out.printf(Locale.ROOT, "Error responses: %d, failed players: %d%n", mErrors.get(),
+                mFailedPlayers.get());
+    }
+
+    /**
+     * Connects a player, waits for all players to be connected and plays its games.
+     * @param seed the seed of the first game, later games use the following seeds.
+     */
+    private void play(long seed){
+        LatencyHistogram latencies = new LatencyHistogram();
+        Socket socket = null;
+        boolean connected = false;
+        try {
+            socket = new Socket(InetAddress.getLoopbackAddress(), mPort);
+            socket.setTcpNoDelay(true);
+            Player player = new Player(socket, latencies);
+            mConnected.countDown();
+            connected = true;
+            mStart.await();
+            for(int i = 0; i < mGames; i++){
+                mTotalScore.addAndGet(player.playGame(seed * mGames + i));
+            }
+            mErrors.addAndGet(player.mErrors);
+        } catch (IOException e) {
+            mFailedPlayers.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if(!connected){
+                mConnected.countDown();
+            }
+            if(socket != null){
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    //Nothing left to release.
+                }
+            }
+            synchronized (mLatencies) {
+                mLatencies.add(latencies);
+            }
+            mFinished.countDown();
+        }
+    }
+
+    /**
+     * A client playing games over one connection.
+     */
+    private static final class Player {
+        private final InputStream mIn;
+        private final OutputStream mOut;
+        private final LatencyHistogram mLatencies;
+        private final StringBuilder mLine = new StringBuilder(64);
+        private final int[] mState = new int[STATE_FIELDS];
+        private final int[] mValues = new int[Game.NUMBER_OF_DICES];
+        private long mErrors;
+
+        Player(Socket socket, LatencyHistogram latencies) throws IOException {
+            mIn = new BufferedInputStream(socket.getInputStream());
+            mOut = new BufferedOutputStream(socket.getOutputStream());
+            mLatencies = latencies;
+        }
+
+        /**
+         * Plays a full game.
+         * @param seed the seed of the game.
+         * @return the total score.
+         * @throws IOException if the connection fails.
+         */
+        int playGame(long seed) throws IOException {
+            String[] fields = request(Protocol.NEW + " " + seed);
+            String id = fields[1];
+            readState(fields, 2);
+
+            for(int round = 1; round <= Game.NUMBER_OF_ROUNDS; round++){
+                for(int die = 0; die < Game.NUMBER_OF_DICES; die++){
+                    if(mValues[die] >= 5){
+                        request(Protocol.TOGGLE + " " + id + " " + die);
+                    }
+                }
+                while(mState[1] > 0){
+                    fields = request(Protocol.ROLL + " " + id);
+                    readState(fields, 1);
+                }
+
+                int rank = ScoreTable.rank(mValues);
+                int bestMethod = -1;
+                int bestScore = -1;
+                for(int method = 0; method < Game.NUMBER_OF_ROUNDS; method++){
+                    int score = ScoreTable.getScore(rank, method);
+                    if((mState[4] & (1 << method)) == 0 && score > bestScore){
+                        bestScore = score;
+                        bestMethod = method;
+                    }
+                }
+                fields = request(Protocol.SCORE + " " + id + " " + bestMethod);
+                readState(fields, 2);
+            }
+
+            fields = request(Protocol.RESULT + " " + id);
+            int result = fields.length > 1 ? Integer.parseInt(fields[1]) : 0;
+            request(Protocol.END + " " + id);
+            return result;
+        }
+
+        /**
+         * Sends a request and waits for the response, recording the time it took.
+         * @param request the request line.
+         * @return the fields of the response.
+         * @throws IOException if the connection fails.
+         */
+        private String[] request(String request) throws IOException {
+            long start = System.nanoTime();
+            for(int i = 0; i < request.length(); i++){
+                mOut.write(request.charAt(i));
+            }
+            mOut.write('\n');
+            mOut.flush();
+
+            mLine.setLength(0);
+            int b;
+            while((b = mIn.read()) != '\n'){
+                if(b < 0){
+                    throw new IOException("Server closed the connection");
+                }
+                mLine.append((char) b);
+            }
+            mLatencies.record(System.nanoTime() - start);
+
+            String[] fields = mLine.toString().split(" ");
+            if(!fields[0].equals(Protocol.OK)){
+                mErrors++;
+            }
+            return fields;
+        }
+
+        /**
+         * Reads a game state from the fields of a response.
+         * @param fields the fields of the response.
+         * @param offset the index of the first field of the state.
+         * @throws IOException if the response does not hold a state.
+         */
+        private void readState(String[] fields, int offset) throws IOException {
+            if(fields.length < offset + STATE_FIELDS){
+                throw new IOException("Unexpected response: " + mLine);
+            }
+            for(int i = 0; i < STATE_FIELDS; i++){
+                if(i != 2){
+                    mState[i] = Integer.parseInt(fields[offset + i]);
+                }
+            }
+            String values = fields[offset + 2];
+            for(int die = 0; die < Game.NUMBER_OF_DICES; die++){
+                mValues[die] = values.charAt(die) - '0';
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package se.umu.id14ant.thirty.server;
+
+/**
+ * The protocol spoken by the server. Requests and responses are single lines of ASCII text ending with a newline,
+ * with fields separated by a single space. Every request gets exactly one response, in the order they were sent, so a
+ * client may send several requests before reading the responses.
+ *
+ * <pre>
+ * NEW [seed]          OK id state         starts a game, seeded if a seed is given
+ * STATE id            OK state
+ * ROLL id             OK state            rolls the dices that are not saved
+ * TOGGLE id die       OK state            saves or unsaves die 0 to 5
+ * SCORE id method     OK score state      scores with method 0 (Low) to 9 (12) and starts the next round
+ * RESULT id           OK result over      the total score, and 1 if the game is over, otherwise 0
+ * END id              OK                  removes the game
+ * </pre>
+ *
+ * A state is "round throwsLeft values savedMask usedMethods result", where values are the six dice values written as
+ * six digits and the masks have bit i set for die or method i. A failed request gets "ERR code" with one of the error
+ * codes below. A game can only be reached from the connection that started it, and other connections get
+ * UNKNOWN_GAME for its id. A connection may have at most {@link #MAX_GAMES_PER_CONNECTION} games at a time, and NEW
+ * gets TOO_MANY_GAMES beyond that or when the server holds as many games as it allows. Games started on a connection
+ * are removed when the connection is closed, and a line longer than {@link #MAX_LINE_LENGTH} closes the connection.
+ */
+public final class Protocol {
+
+    public static final String NEW = "NEW";
+    public static final String STATE = "STATE";
+    public static final String ROLL = "ROLL";
+    public static final String TOGGLE = "TOGGLE";
+    public static final String SCORE = "SCORE";
+    public static final String RESULT = "RESULT";
+    public static final String END = "END";
+
+    public static final String OK = "OK";
+    public static final String ERROR = "ERR";
+
+    public static final String ERROR_BAD_REQUEST = "BAD_REQUEST";
+    public static final String ERROR_UNKNOWN_GAME = "UNKNOWN_GAME";
+    public static final String ERROR_NO_THROWS = "NO_THROWS";
+    public static final String ERROR_METHOD_USED = "METHOD_USED";
+    public static final String ERROR_GAME_OVER = "GAME_OVER";
+    public static final String ERROR_TOO_MANY_GAMES = "TOO_MANY_GAMES";
+
+    public static final int MAX_LINE_LENGTH = 128;
+    public static final int MAX_GAMES_PER_CONNECTION = 16;
+
+    private Protocol(){
+    }
+}
@@ -0,0 +1,18 @@
+package se.umu.id14ant.thirty.server;
+
+/**
+ * Thrown when a request cannot be carried out. The message is the error code sent back to the client, see
+ * {@link Protocol}.
+ */
+class RequestException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates an exception with the given error code.
+     * @param code the error code.
+     */
+    RequestException(String code){
+        super(code, null, false, false);
+    }
+}
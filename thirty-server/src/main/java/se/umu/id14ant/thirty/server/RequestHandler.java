@@ -0,0 +1,162 @@
+package se.umu.id14ant.thirty.server;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import se.umu.id14ant.thirty.model.Game;
+
+/**
+ * Carries out the requests of a single connection against the session table, see {@link Protocol}. The handler
+ * remembers the games started through it, so only those can be reached through it and they can be removed when the
+ * connection is closed.
+ *
+ * A handler is only used by the thread of its connection and is not thread safe itself.
+ */
+public class RequestHandler {
+
+    private final SessionTable mSessions;
+    private final Set<Long> mStarted = new HashSet<>();
+    private final StringBuilder mResponse = new StringBuilder(64);
+
+    /**
+     * Creates a handler using the given session table.
+     * @param sessions the session table.
+     */
+    public RequestHandler(SessionTable sessions){
+        mSessions = sessions;
+    }
+
+    /**
+     * Carries out the given request and returns the response. The returned builder is reused by the next request.
+     * @param request the request line, without the newline.
+     * @return the response line, without the newline.
+     */
+    public StringBuilder handle(String request){
+        mResponse.setLength(0);
+        try {
+            String[] fields = request.split(" ");
+            String command = fields[0];
+            if(command.equals(Protocol.NEW)){
+                checkFields(fields, 1, 2);
+                Game game = fields.length == 2 ? new Game(parseLong(fields[1])) : new Game();
+                if(mStarted.size() >= Protocol.MAX_GAMES_PER_CONNECTION){
+                    throw new RequestException(Protocol.ERROR_TOO_MANY_GAMES);
+                }
+                ServerSession session = mSessions.create(game);
+                if(session == null){
+                    throw new RequestException(Protocol.ERROR_TOO_MANY_GAMES);
+                }
+                mStarted.add(session.getId());
+                mResponse.append(Protocol.OK).append(' ').append(session.getId()).append(' ');
+                session.appendState(mResponse);
+            } else if(command.equals(Protocol.STATE)){
+                checkFields(fields, 2, 2);
+                ServerSession session = session(fields[1]);
+                mResponse.append(Protocol.OK).append(' ');
+                session.appendState(mResponse);
+            } else if(command.equals(Protocol.ROLL)){
+                checkFields(fields, 2, 2);
+                ServerSession session = session(fields[1]);
+                session.roll();
+                mResponse.append(Protocol.OK).append(' ');
+                session.appendState(mResponse);
+            } else if(command.equals(Protocol.TOGGLE)){
+                checkFields(fields, 3, 3);
+                ServerSession session = session(fields[1]);
+                session.toggle(parseInt(fields[2]));
+                mResponse.append(Protocol.OK).append(' ');
+                session.appendState(mResponse);
+            } else if(command.equals(Protocol.SCORE)){
+                checkFields(fields, 3, 3);
+                ServerSession session = session(fields[1]);
+                int score = session.score(parseInt(fields[2]));
+                mResponse.append(Protocol.OK).append(' ').append(score).append(' ');
+                session.appendState(mResponse);
+            } else if(command.equals(Protocol.RESULT)){
+                checkFields(fields, 2, 2);
+                ServerSession session = session(fields[1]);
+                mResponse.append(Protocol.OK).append(' ').append(session.getResult()).append(' ')
+                        .append(session.isOver() ? 1 : 0);
+            } else if(command.equals(Protocol.END)){
+                checkFields(fields, 2, 2);
+                long id = parseLong(fields[1]);
+                if(!mStarted.remove(id) || mSessions.remove(id) == null){
+                    throw new RequestException(Protocol.ERROR_UNKNOWN_GAME);
+                }
+                mResponse.append(Protocol.OK);
+            } else{
+                throw new RequestException(Protocol.ERROR_BAD_REQUEST);
+            }
+        } catch (RequestException e) {
+            mResponse.setLength(0);
+            mResponse.append(Protocol.ERROR).append(' ').append(e.getMessage());
+        }
+        return mResponse;
+    }
+
+    /**
+     * Removes the games started through this handler that are still in the table.
+     */
+    public void close(){
+        for (Long id: mStarted) {
+            mSessions.remove(id);
+        }
+        mStarted.clear();
+    }
+
+    /**
+     * Returns the session with the given id, if it was started through this handler.
+     * @param field the id as text.
+     * @return the session.
+     * @throws RequestException if the id is malformed or there is no such session started through this handler.
+     */
+    private ServerSession session(String field) throws RequestException {
+        long id = parseLong(field);
+        ServerSession session = mStarted.contains(id) ? mSessions.get(id) : null;
+        if(session == null){
+            throw new RequestException(Protocol.ERROR_UNKNOWN_GAME);
+        }
+        return session;
+    }
+
+    /**
+     * Throws if the number of fields is outside the given range.
+     * @param fields the fields of the request.
+     * @param min the least number of fields.
+     * @param max the greatest number of fields.
+     * @throws RequestException if the number is outside the range.
+     */
+    private static void checkFields(String[] fields, int min, int max) throws RequestException {
+        if(fields.length < min || fields.length > max){
+            throw new RequestException(Protocol.ERROR_BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Parses a long field.
+     * @param field the field.
+     * @return the value.
+     * @throws RequestException if the field is not a number.
+     */
+    private static long parseLong(String field) throws RequestException {
+        try {
+            return Long.parseLong(field);
+        } catch (NumberFormatException e) {
+            throw new RequestException(Protocol.ERROR_BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Parses an int field.
+     * @param field the field.
+     * @return the value.
+     * @throws RequestException if the field is not a number.
+     */
+    private static int parseInt(String field) throws RequestException {
+        try {
+            return Integer.parseInt(field);
+        } catch (NumberFormatException e) {
+            throw new RequestException(Protocol.ERROR_BAD_REQUEST);
+        }
+    }
+}
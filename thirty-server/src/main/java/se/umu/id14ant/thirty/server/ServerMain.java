@@ -0,0 +1,39 @@
+package se.umu.id14ant.thirty.server;
+
+import java.io.IOException;
+
+/**
+ * Command line entry point running the game server until the process is stopped.
+ *
+ * Usage: ServerMain [port] [stripes] [capacity], where port 0 picks a free port and capacity is the greatest number of
+ * games held at once.
+ */
+public class ServerMain {
+
+    public static final int DEFAULT_PORT = 3030;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int stripes = args.length > 1 ? Integer.parseInt(args[1]) : SessionTable.DEFAULT_STRIPES;
+        int capacity = args.length > 2 ? Integer.parseInt(args[2]) : SessionTable.DEFAULT_CAPACITY;
+
+        final GameServer server = GameServer.start(port, new SessionTable(stripes, capacity));
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    server.close();
+                } catch (IOException e) {
+                    //The process is ending anyway.
+                }
+            }
+        }));
+        System.out.printf("Serving games on localhost:%d with %d stripes, %s threads%n", server.getPort(),
+                server.getSessions().getStripes(), ConnectionThreads.hasVirtualThreads() ? "virtual" : "platform");
+
+        while(true){
+            Thread.sleep(10000);
+            System.out.printf("%d connections, %d games%n", server.getConnections(), server.getSessions().size());
+        }
+    }
+}
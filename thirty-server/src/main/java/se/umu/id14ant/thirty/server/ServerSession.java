@@ -0,0 +1,139 @@
+package se.umu.id14ant.thirty.server;
+
+import se.umu.id14ant.thirty.model.Die;
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.model.ScoringMethod;
+
+/**
+ * A game hosted by the server. The game itself is not thread safe, so every change goes through the synchronized
+ * methods of its session. A session is only locked by the requests for its own game, which means requests for
+ * different games never wait for each other.
+ *
+ * A round is played as in the app: the dices of a new round are rolled once, a scored round unsaves all dices, and
+ * the game is over when all scoring methods are used.
+ */
+public class ServerSession {
+
+    private static final int ALL_METHODS = (1 << Game.NUMBER_OF_ROUNDS) - 1;
+
+    private final long mId;
+    private final Game mGame;
+
+    /**
+     * Creates a session for the given game.
+     * @param id the id of the session.
+     * @param game the game.
+     */
+    ServerSession(long id, Game game){
+        mId = id;
+        mGame = game;
+    }
+
+    /**
+     * Returns the id of the session.
+     * @return the id.
+     */
+    public long getId(){
+        return mId;
+    }
+
+    /**
+     * Rolls the dices that are not saved.
+     * @throws RequestException if the game is over or there are no throws left.
+     */
+    public synchronized void roll() throws RequestException {
+        checkNotOver();
+        if(!mGame.rollDices()){
+            throw new RequestException(Protocol.ERROR_NO_THROWS);
+        }
+    }
+
+    /**
+     * Changes the saved state of the given die.
+     * @param die the index of the die.
+     * @throws RequestException if the game is over or there is no such die.
+     */
+    public synchronized void toggle(int die) throws RequestException {
+        checkNotOver();
+        if(die < 0 || die >= Game.NUMBER_OF_DICES){
+            throw new RequestException(Protocol.ERROR_BAD_REQUEST);
+        }
+        mGame.toggleSaved(die);
+    }
+
+    /**
+     * Scores the current dices with the given method and starts the next round, if there is one.
+     * @param method the index of the scoring method.
+     * @return the score.
+     * @throws RequestException if the game is over, there is no such method or the method is used.
+     */
+    public synchronized int score(int method) throws RequestException {
+        checkNotOver();
+        if(method < 0 || method >= Game.NUMBER_OF_ROUNDS){
+            throw new RequestException(Protocol.ERROR_BAD_REQUEST);
+        }
+        if(mGame.methodIsUsed(method)){
+            throw new RequestException(Protocol.ERROR_METHOD_USED);
+        }
+
+        int score = mGame.getMethodScores()[method];
+        mGame.addScore(score, ScoringMethod.fromIndex(method));
+        mGame.addUsedMethod(method);
+
+        if(!isOver()){
+            Die[] dices = mGame.getDices();
+            for(int i = 0; i < dices.length; i++){
+                if(dices[i].isSaved()){
+                    mGame.toggleSaved(i);
+                }
+            }
+            mGame.nextRound();
+            mGame.rollDices();
+        }
+        return score;
+    }
+
+    /**
+     * Returns the total score of the game.
+     * @return the total score.
+     */
+    public synchronized int getResult(){
+        return mGame.getResult();
+    }
+
+    /**
+     * Returns true if all scoring methods are used, otherwise false.
+     * @return true if the game is over.
+     */
+    public synchronized boolean isOver(){
+        return mGame.getUsedMethods() == ALL_METHODS;
+    }
+
+    /**
+     * Appends the state of the game in the format of {@link Protocol}.
+     * @param out the builder to append to.
+     */
+    public synchronized void appendState(StringBuilder out){
+        out.append(mGame.getCurrentRound()).append(' ').append(mGame.getThrowsLeft()).append(' ');
+        int savedMask = 0;
+        Die[] dices = mGame.getDices();
+        for(int i = 0; i < dices.length; i++){
+            out.append((char) ('0' + dices[i].getValue()));
+            if(dices[i].isSaved()){
+                savedMask |= 1 << i;
+            }
+        }
+        out.append(' ').append(savedMask).append(' ').append(mGame.getUsedMethods()).append(' ')
+                .append(mGame.getResult());
+    }
+
+    /**
+     * Throws if the game is over.
+     * @throws RequestException if the game is over.
+     */
+    private void checkNotOver() throws RequestException {
+        if(isOver()){
+            throw new RequestException(Protocol.ERROR_GAME_OVER);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package se.umu.id14ant.thirty.server;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.model.SplitMixRandom;
+
+/**
+ * The sessions of the server, keyed by id. The table is split into stripes, each a plain map with its own lock, and
+ * a session belongs to the stripe chosen by a hash of its id. There is no lock over the whole table, so threads
+ * creating or looking up sessions only contend when their ids fall in the same stripe.
+ *
+ * Ids are handed out in order from a counter, and the hash spreads consecutive ids over all stripes. The table holds
+ * at most a fixed number of sessions, so clients cannot make it grow until memory runs out.
+ */
+public class SessionTable {
+
+    public static final int DEFAULT_STRIPES = 64;
+    public static final int DEFAULT_CAPACITY = 100000;
+
+    private final Stripe[] mStripes;
+    private final int mMask;
+    private final int mCapacity;
+    private final AtomicLong mNextId = new AtomicLong(1);
+    private final AtomicInteger mCount = new AtomicInteger();
+
+    /**
+     * Creates a table with the default number of stripes and capacity.
+     */
+    public SessionTable(){
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates a table with the given number of stripes, rounded up to a power of two, and the default capacity.
+     * @param stripes the number of stripes.
+     */
+    public SessionTable(int stripes){
+        this(stripes, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a table with the given number of stripes, rounded up to a power of two, holding at most the given
+     * number of sessions.
+     * @param stripes the number of stripes.
+     * @param capacity the greatest number of sessions.
+     */
+    public SessionTable(int stripes, int capacity){
+        if(stripes < 1 || stripes > 1 << 16){
+            throw new IllegalArgumentException("Unsupported number of stripes: " + stripes);
+        }
+        if(capacity < 1){
+            throw new IllegalArgumentException("Unsupported capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(stripes);
+        if(size < stripes){
+            size <<= 1;
+        }
+        mStripes = new Stripe[size];
+        for(int i = 0; i < size; i++){
+            mStripes[i] = new Stripe();
+        }
+        mMask = size - 1;
+        mCapacity = capacity;
+    }
+
+    /**
+     * Adds a session for the given game under a new id, unless the table is full.
+     * @param game the game.
+     * @return the session, or null if the table already holds as many sessions as it allows.
+     */
+    public ServerSession create(Game game){
+        if(mCount.incrementAndGet() > mCapacity){
+            mCount.decrementAndGet();
+            return null;
+        }
+        ServerSession session = new ServerSession(mNextId.getAndIncrement(), game);
+        Stripe stripe = stripeOf(session.getId());
+        synchronized (stripe) {
+            stripe.mSessions.put(session.getId(), session);
+        }
+        return session;
+    }
+
+    /**
+     * Returns the session with the given id.
+     * @param id the id.
+     * @return the session, or null if there is none.
+     */
+    public ServerSession get(long id){
+        Stripe stripe = stripeOf(id);
+        synchronized (stripe) {
+            return stripe.mSessions.get(id);
+        }
+    }
+
+    /**
+     * Removes the session with the given id.
+     * @param id the id.
+     * @return the removed session, or null if there was none.
+     */
+    public ServerSession remove(long id){
+        ServerSession session;
+        Stripe stripe = stripeOf(id);
+        synchronized (stripe) {
+            session = stripe.mSessions.remove(id);
+        }
+        if(session != null){
+            mCount.decrementAndGet();
+        }
+        return session;
+    }
+
+    /**
+     * Returns the number of sessions. The stripes are counted one at a time, so the number is only exact when no
+     * sessions are added or removed meanwhile.
+     * @return the number of sessions.
+     */
+    public int size(){
+        int size = 0;
+        for (Stripe stripe: mStripes) {
+            synchronized (stripe) {
+                size += stripe.mSessions.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the greatest number of sessions the table holds.
+     * @return the capacity.
+     */
+    public int getCapacity(){
+        return mCapacity;
+    }
+
+    /**
+     * Returns the number of stripes.
+     * @return the number of stripes.
+     */
+    public int getStripes(){
+        return mStripes.length;
+    }
+
+    /**
+     * Returns the stripe holding the given id.
+     * @param id the id.
+     * @return the stripe.
+     */
+    private Stripe stripeOf(long id){
+        return mStripes[(int) SplitMixRandom.mix(id) & mMask];
+    }
+
+    /**
+     * A part of the table, locked on itself.
+     */
+    private static final class Stripe {
+        private final Map<Long, ServerSession> mSessions = new HashMap<>();
+    }
+}
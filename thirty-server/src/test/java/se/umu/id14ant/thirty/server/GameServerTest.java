@@ -0,0 +1,150 @@
+package se.umu.id14ant.thirty.server;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import se.umu.id14ant.thirty.model.Game;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of a server on a loopback port, talking to it through a socket like a client would.
+ */
+public class GameServerTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private GameServer mServer;
+
+    @Before
+    public void setUp() throws IOException {
+        mServer = GameServer.start(0, new SessionTable());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        mServer.close();
+    }
+
+    @Test
+    public void requestsAreAnsweredInOrder() throws Exception {
+        Socket socket = connect();
+        try {
+            BufferedReader in = reader(socket);
+            String created = send(socket, in, "NEW 5");
+            assertTrue(created, created.startsWith("OK "));
+            String id = created.split(" ")[1];
+
+            assertTrue(send(socket, in, "ROLL " + id).startsWith("OK 1 " + (Game.NUMBER_OF_THROWS - 2) + " "));
+            String scored = send(socket, in, "SCORE " + id + " 9");
+            assertTrue(scored, scored.startsWith("OK "));
+            assertEquals("OK " + scored.split(" ")[1] + " 0", send(socket, in, "RESULT " + id));
+            assertEquals("ERR " + Protocol.ERROR_BAD_REQUEST, send(socket, in, "HELLO"));
+
+            //Several requests sent at once get their responses in the same order.
+            write(socket, "STATE " + id + "\nEND " + id + "\nSTATE " + id + "\n");
+            assertTrue(in.readLine().startsWith("OK 2 "));
+            assertEquals("OK", in.readLine());
+            assertEquals("ERR " + Protocol.ERROR_UNKNOWN_GAME, in.readLine());
+        } finally {
+            socket.close();
+        }
+    }
+
+    @Test
+    public void closingAConnectionRemovesItsGames() throws Exception {
+        Socket first = connect();
+        Socket second = connect();
+        try {
+            BufferedReader firstIn = reader(first);
+            BufferedReader secondIn = reader(second);
+            send(first, firstIn, "NEW");
+            send(first, firstIn, "NEW");
+            String kept = send(second, secondIn, "NEW").split(" ")[1];
+            assertEquals(3, mServer.getSessions().size());
+            assertEquals(2, mServer.getConnections());
+
+            first.close();
+            awaitConnections(1);
+            assertEquals(1, mServer.getSessions().size());
+            assertNotNull(mServer.getSessions().get(Long.parseLong(kept)));
+            assertTrue(send(second, secondIn, "STATE " + kept).startsWith("OK "));
+        } finally {
+            first.close();
+            second.close();
+        }
+        awaitConnections(0);
+        assertEquals(0, mServer.getSessions().size());
+    }
+
+    /**
+     * Connects to the server.
+     * @return the socket.
+     * @throws IOException if the connection fails.
+     */
+    private Socket connect() throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), mServer.getPort());
+        socket.setSoTimeout((int) TIMEOUT_MILLIS);
+        return socket;
+    }
+
+    /**
+     * Sends a request and waits for its response.
+     * @param socket the socket.
+     * @param in the reader of the socket.
+     * @param request the request, without the newline.
+     * @return the response, without the newline.
+     * @throws IOException if the connection fails.
+     */
+    private static String send(Socket socket, BufferedReader in, String request) throws IOException {
+        write(socket, request + "\n");
+        String response = in.readLine();
+        assertNotNull(response);
+        return response;
+    }
+
+    /**
+     * Writes text to the socket in a single write.
+     * @param socket the socket.
+     * @param text the text.
+     * @throws IOException if the connection fails.
+     */
+    private static void write(Socket socket, String text) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(text.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    /**
+     * Returns a line reader of the socket.
+     * @param socket the socket.
+     * @return the reader.
+     * @throws IOException if the connection fails.
+     */
+    private static BufferedReader reader(Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Waits until the server has the given number of open connections.
+     * @param connections the number of connections.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    private void awaitConnections(int connections) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while(mServer.getConnections() != connections){
+            assertTrue("Connections left open: " + mServer.getConnections(),
+                    System.currentTimeMillis() < deadline);
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package se.umu.id14ant.thirty.server;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import se.umu.id14ant.thirty.model.Game;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the request handler, sending every command of the protocol and every kind of malformed request.
+ */
+public class RequestHandlerTest {
+
+    private static final String STATE = "\\d+ \\d [1-6]{6} \\d+ \\d+ \\d+";
+    private static final String BAD_REQUEST = "ERR " + Protocol.ERROR_BAD_REQUEST;
+    private static final String UNKNOWN_GAME = "ERR " + Protocol.ERROR_UNKNOWN_GAME;
+    private static final String TOO_MANY_GAMES = "ERR " + Protocol.ERROR_TOO_MANY_GAMES;
+
+    private SessionTable mSessions;
+    private RequestHandler mHandler;
+
+    @Before
+    public void setUp(){
+        mSessions = new SessionTable();
+        mHandler = new RequestHandler(mSessions);
+    }
+
+    @Test
+    public void newStartsAGame(){
+        String response = handle("NEW");
+        assertTrue(response, response.matches("OK \\d+ " + STATE));
+        assertEquals(1, mSessions.size());
+
+        //The first round is rolled once when the game starts.
+        assertEquals("1 " + (Game.NUMBER_OF_THROWS - 1), fields(response, 2, 4));
+    }
+
+    @Test
+    public void newWithSeedIsReproducible(){
+        String first = handle("NEW 42");
+        String second = new RequestHandler(mSessions).handle("NEW 42").toString();
+        assertEquals(fields(first, 2, 8), fields(second, 2, 8));
+        assertNotEquals(fields(first, 1, 2), fields(second, 1, 2));
+    }
+
+    @Test
+    public void stateReturnsTheStateOfNew(){
+        String created = handle("NEW 1");
+        String id = fields(created, 1, 2);
+        assertEquals("OK " + fields(created, 2, 8), handle("STATE " + id));
+    }
+
+    @Test
+    public void rollUsesAThrow(){
+        String id = newGame();
+        String response = handle("ROLL " + id);
+        assertTrue(response, response.matches("OK " + STATE));
+        assertEquals("1 " + (Game.NUMBER_OF_THROWS - 2), fields(response, 1, 3));
+    }
+
+    @Test
+    public void toggleSavesAndUnsavesADie(){
+        String id = newGame();
+        assertEquals("4", fields(handle("TOGGLE " + id + " 2"), 4, 5));
+        assertEquals("36", fields(handle("TOGGLE " + id + " 5"), 4, 5));
+        assertEquals("32", fields(handle("TOGGLE " + id + " 2"), 4, 5));
+    }
+
+    @Test
+    public void scoreUsesTheMethodAndStartsTheNextRound(){
+        String id = newGame();
+        String response = handle("SCORE " + id + " 0");
+        assertTrue(response, response.matches("OK \\d+ " + STATE));
+        String score = fields(response, 1, 2);
+        assertEquals("2 " + (Game.NUMBER_OF_THROWS - 1), fields(response, 2, 4));
+        assertEquals("0 1 " + score, fields(response, 5, 8));
+        assertEquals("OK " + score + " 0", handle("RESULT " + id));
+    }
+
+    @Test
+    public void resultIsOverAfterTheLastRound(){
+        String id = newGame();
+        int total = 0;
+        for(int method = 0; method < Game.NUMBER_OF_ROUNDS; method++){
+            total += Integer.parseInt(fields(handle("SCORE " + id + " " + method), 1, 2));
+        }
+        assertEquals("OK " + total + " 1", handle("RESULT " + id));
+    }
+
+    @Test
+    public void endRemovesTheGame(){
+        String id = newGame();
+        assertEquals("OK", handle("END " + id));
+        assertEquals(0, mSessions.size());
+        assertEquals(UNKNOWN_GAME, handle("STATE " + id));
+        assertEquals(UNKNOWN_GAME, handle("END " + id));
+    }
+
+    @Test
+    public void unknownCommandsAreBadRequests(){
+        assertEquals(BAD_REQUEST, handle(""));
+        assertEquals(BAD_REQUEST, handle("new"));
+        assertEquals(BAD_REQUEST, handle("QUIT 1"));
+        assertEquals(BAD_REQUEST, handle(" NEW"));
+    }
+
+    @Test
+    public void wrongFieldCountsAreBadRequests(){
+        String id = newGame();
+        assertEquals(BAD_REQUEST, handle("NEW 1 2"));
+        assertEquals(BAD_REQUEST, handle("STATE"));
+        assertEquals(BAD_REQUEST, handle("STATE " + id + " 1"));
+        assertEquals(BAD_REQUEST, handle("ROLL"));
+        assertEquals(BAD_REQUEST, handle("ROLL " + id + " 1"));
+        assertEquals(BAD_REQUEST, handle("TOGGLE " + id));
+        assertEquals(BAD_REQUEST, handle("TOGGLE " + id + " 1 2"));
+        assertEquals(BAD_REQUEST, handle("SCORE " + id));
+        assertEquals(BAD_REQUEST, handle("SCORE " + id + " 1 2"));
+        assertEquals(BAD_REQUEST, handle("RESULT"));
+        assertEquals(BAD_REQUEST, handle("RESULT " + id + " 1"));
+        assertEquals(BAD_REQUEST, handle("END"));
+        assertEquals(BAD_REQUEST, handle("END " + id + " 1"));
+        assertEquals(BAD_REQUEST, handle("STATE  " + id));
+    }
+
+    @Test
+    public void badNumbersAreBadRequests(){
+        String id = newGame();
+        assertEquals(BAD_REQUEST, handle("NEW seed"));
+        assertEquals(BAD_REQUEST, handle("STATE x"));
+        assertEquals(BAD_REQUEST, handle("ROLL 99999999999999999999"));
+        assertEquals(BAD_REQUEST, handle("TOGGLE " + id + " one"));
+        assertEquals(BAD_REQUEST, handle("TOGGLE " + id + " 2.0"));
+        assertEquals(BAD_REQUEST, handle("SCORE " + id + " -"));
+        assertEquals(BAD_REQUEST, handle("RESULT 1e3"));
+        assertEquals(BAD_REQUEST, handle("END " + id + "x"));
+    }
+
+    @Test
+    public void valuesOutOfRangeAreBadRequests(){
+        String id = newGame();
+        assertEquals(BAD_REQUEST, handle("TOGGLE " + id + " -1"));
+        assertEquals(BAD_REQUEST, handle("TOGGLE " + id + " " + Game.NUMBER_OF_DICES));
+        assertEquals(BAD_REQUEST, handle("SCORE " + id + " -1"));
+        assertEquals(BAD_REQUEST, handle("SCORE " + id + " " + Game.NUMBER_OF_ROUNDS));
+    }
+
+    @Test
+    public void unknownGamesAreReported(){
+        assertEquals(UNKNOWN_GAME, handle("STATE 1"));
+        assertEquals(UNKNOWN_GAME, handle("ROLL 1"));
+        assertEquals(UNKNOWN_GAME, handle("TOGGLE 1 0"));
+        assertEquals(UNKNOWN_GAME, handle("SCORE 1 0"));
+        assertEquals(UNKNOWN_GAME, handle("RESULT 1"));
+        assertEquals(UNKNOWN_GAME, handle("END 1"));
+    }
+
+    @Test
+    public void rollingWithoutThrowsLeftIsReported(){
+        String id = newGame();
+        for(int i = 1; i < Game.NUMBER_OF_THROWS; i++){
+            assertTrue(handle("ROLL " + id).startsWith("OK "));
+        }
+        assertEquals("ERR " + Protocol.ERROR_NO_THROWS, handle("ROLL " + id));
+    }
+
+    @Test
+    public void scoringAUsedMethodIsReported(){
+        String id = newGame();
+        handle("SCORE " + id + " 3");
+        assertEquals("ERR " + Protocol.ERROR_METHOD_USED, handle("SCORE " + id + " 3"));
+    }
+
+    @Test
+    public void changingAFinishedGameIsReported(){
+        String id = newGame();
+        for(int method = 0; method < Game.NUMBER_OF_ROUNDS; method++){
+            handle("SCORE " + id + " " + method);
+        }
+        String gameOver = "ERR " + Protocol.ERROR_GAME_OVER;
+        assertEquals(gameOver, handle("ROLL " + id));
+        assertEquals(gameOver, handle("TOGGLE " + id + " 0"));
+        assertEquals(gameOver, handle("SCORE " + id + " 0"));
+        assertTrue(handle("STATE " + id).startsWith("OK "));
+    }
+
+    @Test
+    public void gamesOfOtherHandlersCannotBeReached(){
+        RequestHandler other = new RequestHandler(mSessions);
+        String otherId = fields(other.handle("NEW 3").toString(), 1, 2);
+        String before = other.handle("STATE " + otherId).toString();
+
+        assertEquals(UNKNOWN_GAME, handle("STATE " + otherId));
+        assertEquals(UNKNOWN_GAME, handle("ROLL " + otherId));
+        assertEquals(UNKNOWN_GAME, handle("TOGGLE " + otherId + " 0"));
+        assertEquals(UNKNOWN_GAME, handle("SCORE " + otherId + " 0"));
+        assertEquals(UNKNOWN_GAME, handle("RESULT " + otherId));
+        assertEquals(UNKNOWN_GAME, handle("END " + otherId));
+
+        //The game is untouched and still reachable through the handler that started it.
+        assertEquals(1, mSessions.size());
+        assertEquals(before, other.handle("STATE " + otherId).toString());
+        assertEquals("OK", other.handle("END " + otherId).toString());
+    }
+
+    @Test
+    public void gamesPerConnectionAreLimited(){
+        String first = newGame();
+        for(int i = 1; i < Protocol.MAX_GAMES_PER_CONNECTION; i++){
+            newGame();
+        }
+        assertEquals(TOO_MANY_GAMES, handle("NEW"));
+        assertEquals(TOO_MANY_GAMES, handle("NEW 7"));
+        assertEquals(Protocol.MAX_GAMES_PER_CONNECTION, mSessions.size());
+
+        //Another connection is not affected, and ending a game makes room for a new one.
+        assertTrue(new RequestHandler(mSessions).handle("NEW").toString().startsWith("OK "));
+        assertEquals("OK", handle("END " + first));
+        assertTrue(handle("NEW").startsWith("OK "));
+        assertEquals(TOO_MANY_GAMES, handle("NEW"));
+    }
+
+    @Test
+    public void gamesOnTheServerAreLimited(){
+        mSessions = new SessionTable(4, 3);
+        mHandler = new RequestHandler(mSessions);
+        RequestHandler other = new RequestHandler(mSessions);
+        String otherId = fields(other.handle("NEW").toString(), 1, 2);
+        newGame();
+        newGame();
+        assertEquals(TOO_MANY_GAMES, handle("NEW"));
+        assertEquals(TOO_MANY_GAMES, other.handle("NEW").toString());
+        assertEquals(3, mSessions.size());
+
+        //A closed connection frees the games it held.
+        other.close();
+        assertNull(mSessions.get(Long.parseLong(otherId)));
+        assertTrue(handle("NEW").startsWith("OK "));
+        assertEquals(TOO_MANY_GAMES, handle("NEW"));
+    }
+
+    @Test
+    public void closeRemovesOnlyTheGamesOfTheHandler(){
+        RequestHandler other = new RequestHandler(mSessions);
+        String otherId = fields(other.handle("NEW").toString(), 1, 2);
+        newGame();
+        String ended = newGame();
+        handle("END " + ended);
+        newGame();
+        assertEquals(3, mSessions.size());
+
+        mHandler.close();
+        assertEquals(1, mSessions.size());
+        assertNotNull(mSessions.get(Long.parseLong(otherId)));
+    }
+
+    /**
+     * Starts a game and returns its id.
+     * @return the id.
+     */
+    private String newGame(){
+        return fields(handle("NEW 7"), 1, 2);
+    }
+
+    /**
+     * Sends a request to the handler.
+     * @param request the request.
+     * @return the response.
+     */
+    private String handle(String request){
+        return mHandler.handle(request).toString();
+    }
+
+    /**
+     * Returns the given fields of a response, separated by spaces.
+     * @param response the response.
+     * @param from the index of the first field.
+     * @param to the index after the last field.
+     * @return the fields.
+     */
+    private static String fields(String response, int from, int to){
+        String[] fields = response.split(" ");
+        StringBuilder text = new StringBuilder();
+        for(int i = from; i < to; i++){
+            if(i > from){
+                text.append(' ');
+            }
+            text.append(fields[i]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,127 @@
+package se.umu.id14ant.thirty.server;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import se.umu.id14ant.thirty.model.Game;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of scoring a game through a server session until it is over.
+ */
+public class ServerSessionTest {
+
+    private Game mGame;
+    private ServerSession mSession;
+
+    @Before
+    public void setUp(){
+        mGame = new Game(3);
+        mSession = new ServerSession(1, mGame);
+    }
+
+    @Test
+    public void scoringAddsToTheResultAndStartsTheNextRound() throws RequestException {
+        mSession.roll();
+        mSession.toggle(0);
+        int expected = mGame.getMethodScores()[5];
+
+        assertEquals(expected, mSession.score(5));
+        assertEquals(expected, mSession.getResult());
+        assertTrue(mGame.methodIsUsed(5));
+        assertEquals(2, mGame.getCurrentRound());
+        assertEquals(Game.NUMBER_OF_THROWS - 1, mGame.getThrowsLeft());
+        assertFalse(mGame.getDices()[0].isSaved());
+        assertFalse(mSession.isOver());
+    }
+
+    @Test
+    public void gameIsOverAfterEveryMethodIsUsed() throws RequestException {
+        int total = 0;
+        for(int method = Game.NUMBER_OF_ROUNDS - 1; method >= 0; method--){
+            assertFalse(mSession.isOver());
+            total += mSession.score(method);
+        }
+        assertTrue(mSession.isOver());
+        assertEquals(total, mSession.getResult());
+        assertEquals(Game.NUMBER_OF_ROUNDS, mGame.getCurrentRound());
+
+        assertError(Protocol.ERROR_GAME_OVER, new Request() {
+            @Override
+            public void run() throws RequestException {
+                mSession.score(0);
+            }
+        });
+        assertError(Protocol.ERROR_GAME_OVER, new Request() {
+            @Override
+            public void run() throws RequestException {
+                mSession.roll();
+            }
+        });
+        assertError(Protocol.ERROR_GAME_OVER, new Request() {
+            @Override
+            public void run() throws RequestException {
+                mSession.toggle(0);
+            }
+        });
+    }
+
+    @Test
+    public void usedMethodsAndUnknownMethodsAreRejected() throws RequestException {
+        mSession.score(2);
+        assertError(Protocol.ERROR_METHOD_USED, new Request() {
+            @Override
+            public void run() throws RequestException {
+                mSession.score(2);
+            }
+        });
+        assertError(Protocol.ERROR_BAD_REQUEST, new Request() {
+            @Override
+            public void run() throws RequestException {
+                mSession.score(Game.NUMBER_OF_ROUNDS);
+            }
+        });
+        assertEquals(2, mGame.getCurrentRound());
+    }
+
+    @Test
+    public void stateListsTheGame() throws RequestException {
+        mSession.toggle(1);
+        mSession.toggle(4);
+        StringBuilder state = new StringBuilder();
+        mSession.appendState(state);
+
+        StringBuilder values = new StringBuilder();
+        for(int i = 0; i < Game.NUMBER_OF_DICES; i++){
+            values.append(mGame.getDices()[i].getValue());
+        }
+        assertEquals("1 " + (Game.NUMBER_OF_THROWS - 1) + " " + values + " 18 0 0", state.toString());
+    }
+
+    /**
+     * Runs the given request and checks that it fails with the given error code.
+     * @param code the expected error code.
+     * @param request the request.
+     */
+    private static void assertError(String code, Request request){
+        try {
+            request.run();
+            fail("Expected " + code);
+        } catch (RequestException e) {
+            assertEquals(code, e.getMessage());
+        }
+    }
+
+    /**
+     * A request to a session that may fail.
+     */
+    private interface Request {
+
+        /**
+         * Runs the request.
+         * @throws RequestException if the request fails.
+         */
+        void run() throws RequestException;
+    }
+}
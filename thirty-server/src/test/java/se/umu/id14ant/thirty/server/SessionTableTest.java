@@ -0,0 +1,138 @@
+package se.umu.id14ant.thirty.server;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import se.umu.id14ant.thirty.model.Game;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the session table, with sessions spread over one or several stripes.
+ */
+public class SessionTableTest {
+
+    private static final int SESSIONS = 1000;
+
+    @Test
+    public void stripesAreRoundedUpToAPowerOfTwo(){
+        assertEquals(SessionTable.DEFAULT_STRIPES, new SessionTable().getStripes());
+        assertEquals(1, new SessionTable(1).getStripes());
+        assertEquals(4, new SessionTable(3).getStripes());
+        assertEquals(64, new SessionTable(64).getStripes());
+        assertEquals(1 << 16, new SessionTable(1 << 16).getStripes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noStripesAreRejected(){
+        new SessionTable(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyStripesAreRejected(){
+        new SessionTable((1 << 16) + 1);
+    }
+
+    @Test
+    public void createGetAndRemoveWithOneStripe(){
+        createGetAndRemove(new SessionTable(1));
+    }
+
+    @Test
+    public void createGetAndRemoveWithSeveralStripes(){
+        createGetAndRemove(new SessionTable(3));
+        createGetAndRemove(new SessionTable());
+    }
+
+    @Test
+    public void fullTableCreatesNoSessions(){
+        SessionTable table = new SessionTable(2, 3);
+        assertEquals(3, table.getCapacity());
+        ServerSession first = table.create(new Game(1));
+        table.create(new Game(2));
+        table.create(new Game(3));
+        assertNull(table.create(new Game(4)));
+        assertEquals(3, table.size());
+
+        assertSame(first, table.remove(first.getId()));
+        assertNull(table.remove(first.getId()));
+        assertNotNull(table.create(new Game(5)));
+        assertNull(table.create(new Game(6)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyCapacityIsRejected(){
+        new SessionTable(1, 0);
+    }
+
+    @Test
+    public void concurrentCreatesGetUniqueIds() throws Exception {
+        final SessionTable table = new SessionTable(4);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Set<Future<long[]>> futures = new HashSet<>();
+            for(int t = 0; t < 4; t++){
+                futures.add(executor.submit(new Callable<long[]>() {
+                    @Override
+                    public long[] call() {
+                        long[] ids = new long[SESSIONS];
+                        for(int i = 0; i < SESSIONS; i++){
+                            ids[i] = table.create(new Game(i)).getId();
+                        }
+                        return ids;
+                    }
+                }));
+            }
+            Set<Long> ids = new HashSet<>();
+            for (Future<long[]> future: futures) {
+                for (long id: future.get()) {
+                    assertTrue(ids.add(id));
+                }
+            }
+            assertEquals(4 * SESSIONS, table.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Creates sessions in the table, looks them up and removes every other one, checking the table after each step.
+     * @param table an empty table.
+     */
+    private static void createGetAndRemove(SessionTable table){
+        assertEquals(0, table.size());
+        ServerSession[] sessions = new ServerSession[SESSIONS];
+        for(int i = 0; i < SESSIONS; i++){
+            sessions[i] = table.create(new Game(i));
+            assertEquals(i + 1, sessions[i].getId());
+        }
+        assertEquals(SESSIONS, table.size());
+        for (ServerSession session: sessions) {
+            assertSame(session, table.get(session.getId()));
+        }
+        assertNull(table.get(0));
+        assertNull(table.get(SESSIONS + 1));
+
+        for(int i = 0; i < SESSIONS; i += 2){
+            assertSame(sessions[i], table.remove(sessions[i].getId()));
+            assertNull(table.remove(sessions[i].getId()));
+        }
+        assertEquals(SESSIONS / 2, table.size());
+        for(int i = 0; i < SESSIONS; i++){
+            if(i % 2 == 0){
+                assertNull(table.get(sessions[i].getId()));
+            } else{
+                assertSame(sessions[i], table.get(sessions[i].getId()));
+            }
+        }
+
+        //Ids are never reused.
+        assertEquals(SESSIONS + 1, table.create(new Game()).getId());
+    }
+}
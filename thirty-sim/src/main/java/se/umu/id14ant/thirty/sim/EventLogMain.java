@@ -0,0 +1,82 @@
+package se.umu.id14ant.thirty.sim;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+import se.umu.id14ant.thirty.events.EventLogReader;
+import se.umu.id14ant.thirty.events.EventLogWriter;
+import se.umu.id14ant.thirty.events.GameReplay;
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.model.RandomSource;
+
+/**
+ * Command line entry point writing and replaying game event logs.
+ *
+ * Usage: EventLogMain record file games [seed], appending the events of games played by the simulator to the log,
+ * or EventLogMain replay file, replaying a log and checking it against the engine.
+ */
+public class EventLogMain {
+
+    public static void main(String[] args) throws IOException {
+        if(args.length >= 3 && args[0].equals("record")){
+            record(new File(args[1]), Long.parseLong(args[2]), args.length > 3 ? Long.parseLong(args[3]) : 0);
+        } else if(args.length == 2 && args[0].equals("replay")){
+            replay(new File(args[1]));
+        } else{
+            System.err.println("Usage: EventLogMain record file games [seed] | replay file");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Plays the given number of games and appends their events to the log.
+     * @param file the log.
+     * @param games the number of games.
+     * @param seed the seed of the random source of the first game, later games use the following seeds.
+     * @throws IOException if the log cannot be written.
+     */
+    private static void record(File file, long games, long seed) throws IOException {
+        long start = System.nanoTime();
+        EventLogWriter writer = EventLogWriter.open(file);
+        try {
+            for(long i = 0; i < games; i++){
+                Game game = new Game(RandomSource.create(seed + i));
+                game.setEventListener(writer);
+                Simulator.playGame(game);
+            }
+        } finally {
+            writer.close();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "Recorded %d games in %.2f s, log is %d bytes%n", games, seconds,
+                file.length());
+    }
+
+    /**
+     * Replays the log and prints how fast it was replayed and whether it matched the engine.
+     * @param file the log.
+     * @throws IOException if the log cannot be read.
+     */
+    private static void replay(File file) throws IOException {
+        long start = System.nanoTime();
+        GameReplay replay = new GameReplay();
+        EventLogReader reader = new EventLogReader(file);
+        try {
+            reader.read(replay);
+        } finally {
+            reader.close();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf(Locale.ROOT, "Replayed %d events of %d games in %.2f s (%.0f events/s)%n",
+                reader.getEvents(), replay.getGames(), seconds, reader.getEvents() / seconds);
+        System.out.printf(Locale.ROOT, "Rounds: %d, total score: %d%n", replay.getRounds(), replay.getTotalScore());
+        System.out.printf(Locale.ROOT, "Roll mismatches: %d, score mismatches: %d, invalid events: %d%s%n",
+                replay.getRollMismatches(), replay.getScoreMismatches(), replay.getInvalidEvents(),
+                reader.isTruncated() ? ", log ends with an incomplete record" : "");
+        if(!replay.matches()){
+            System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package se.umu.id14ant.thirty.sim;
+
+import se.umu.id14ant.thirty.model.Game;
+
+/**
+ * Observes the batches of a {@link Simulator}, for example to report them to a profiler. The simulator itself does
+ * not depend on any such tool, so it runs on any Java 8 runtime.
+ *
+ * Batches are played concurrently, so the listener is asked for a {@link BatchListener} at the start of each batch.
+ * A batch listener is only used by the thread playing its batch and may keep state without synchronization.
+ */
+public interface SimulationListener {
+
+    /**
+     * Called on the thread playing a batch, before its first game.
+     * @param batch the index of the batch within the simulation.
+     * @return the listener of the batch.
+     */
+    BatchListener onBatchStart(long batch);
+
+    /**
+     * Observes the games of a single batch, on the thread playing it.
+     */
+    interface BatchListener {
+
+        /**
+         * Called when a game of the batch has been created, before it is played.
+         * @param game the new game.
+         */
+        void onGameStart(Game game);
+
+        /**
+         * Called right before the scores of the dices are computed in a round.
+         */
+        void onScoreStart();
+
+        /**
+         * Called when the scores of the dices have been computed and a scoring method has been chosen, before the
+         * score is added to the game.
+         * @param game the game.
+         * @param round the round.
+         * @param method the index of the chosen method.
+         * @param score the score of the chosen method.
+         */
+        void onScoreEnd(Game game, int round, int method, int score);
+
+        /**
+         * Called when every game of the batch has been played.
+         * @param games the number of games of the batch.
+         * @param meanScore the mean score of the games.
+         */
+        void onBatchEnd(long games, double meanScore);
+    }
+}
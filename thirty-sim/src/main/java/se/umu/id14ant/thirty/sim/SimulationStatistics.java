@@ -0,0 +1,128 @@
+package se.umu.id14ant.thirty.sim;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import se.umu.id14ant.thirty.model.Game;
+
+/**
+ * Aggregated results of simulated games, shared by all workers of a simulation.
+ *
+ * Every counter is a {@link LongAdder}, which spreads concurrent updates over several cells instead of contending on
+ * a single value. Workers collect the results of a batch of games locally and add them here once per batch. All
+ * aggregates are integer sums, so the result does not depend on the order in which batches finish.
+ */
+public class SimulationStatistics {
+
+    /**
+     * Upper bound of the total score of a game, since no round can score more than the sum of six sixes.
+     */
+    public static final int MAX_SCORE = Game.NUMBER_OF_ROUNDS * 36;
+
+    private final LongAdder mGames = new LongAdder();
+    private final LongAdder[] mScoreHistogram = createAdders(MAX_SCORE + 1);
+    private final LongAdder[] mMethodUsage = createAdders(Game.NUMBER_OF_ROUNDS);
+    private final LongAdder[] mRoundScores = createAdders(Game.NUMBER_OF_ROUNDS);
+
+    /**
+     * Adds the results of a batch of games.
+     * @param games the number of games in the batch.
+     * @param scoreHistogram the number of games per total score.
+     * @param methodUsage the number of times each scoring method was used.
+     * @param roundScores the sum of the scores of each round.
+     */
+    void add(long games, long[] scoreHistogram, long[] methodUsage, long[] roundScores){
+        mGames.add(games);
+        addAll(mScoreHistogram, scoreHistogram);
+        addAll(mMethodUsage, methodUsage);
+        addAll(mRoundScores, roundScores);
+    }
+
+    /**
+     * Returns the number of simulated games.
+     * @return the number of games.
+     */
+    public long getGames(){
+        return mGames.sum();
+    }
+
+    /**
+     * Returns the number of games that ended with each total score.
+     * @return the histogram indexed by total score.
+     */
+    public long[] getScoreHistogram(){
+        return sumAll(mScoreHistogram);
+    }
+
+    /**
+     * Returns the number of times the given scoring method was used.
+     * @param method the index of the scoring method.
+     * @return the number of times it was used.
+     */
+    public long getMethodUsage(int method){
+        return mMethodUsage[method].sum();
+    }
+
+    /**
+     * Returns the average score of the given round.
+     * @param round the round, starting at 1.
+     * @return the average score.
+     */
+    public double getRoundAverage(int round){
+        long games = getGames();
+        return games == 0 ? 0 : (double) mRoundScores[round - 1].sum() / games;
+    }
+
+    /**
+     * Returns the average total score.
+     * @return the average total score.
+     */
+    public double getMeanScore(){
+        long[] histogram = getScoreHistogram();
+        long games = 0;
+        long sum = 0;
+        for(int score = 0; score < histogram.length; score++){
+            games += histogram[score];
+            sum += score * histogram[score];
+        }
+        return games == 0 ? 0 : (double) sum / games;
+    }
+
+    /**
+     * Creates an array of counters.
+     * @param size the number of counters.
+     * @return the counters.
+     */
+    private static LongAdder[] createAdders(int size){
+        LongAdder[] adders = new LongAdder[size];
+        for(int i = 0; i < size; i++){
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Adds the non-zero values to the corresponding counters.
+     * @param adders the counters.
+     * @param values the values to add.
+     */
+    private static void addAll(LongAdder[] adders, long[] values){
+        for(int i = 0; i < values.length; i++){
+            if(values[i] != 0){
+                adders[i].add(values[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the current value of each counter.
+     * @param adders the counters.
+     * @return the values.
+     */
+    private static long[] sumAll(LongAdder[] adders){
+        long[] values = new long[adders.length];
+        for(int i = 0; i < adders.length; i++){
+            values[i] = adders[i].sum();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,211 @@
+package se.umu.id14ant.thirty.sim;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.model.RandomSource;
+import se.umu.id14ant.thirty.model.Score;
+import se.umu.id14ant.thirty.model.ScoringMethod;
+import se.umu.id14ant.thirty.model.SplitMixRandom;
+
+/**
+ * Plays complete games without any user interface, spread over all cores using fork-join.
+ *
+ * The games are divided into fixed-size batches. Each batch gets its own random source, seeded from the
+ * simulation seed and the index of the batch, so a simulation with a given seed gives the same result no matter how
+ * many threads run it or in which order the batches finish.
+ *
+ * A {@link SimulationListener} can observe the games, scores and batches, for example to report them to a
+ * profiler.
+ */
+public class Simulator {
+
+    private static final int GAMES_PER_BATCH = 4096;
+
+    private final ForkJoinPool mPool;
+    private final SimulationListener mListener;
+
+    /**
+     * Creates a simulator using all available cores.
+     */
+    public Simulator(){
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a simulator using the given number of threads.
+     * @param parallelism the number of threads.
+     */
+    public Simulator(int parallelism){
+        this(parallelism, null);
+    }
+
+    /**
+     * Creates a simulator using the given number of threads, reporting every batch to the given listener.
+     * @param parallelism the number of threads.
+     * @param listener the listener, or null.
+     */
+    public Simulator(int parallelism, SimulationListener listener){
+        mPool = new ForkJoinPool(parallelism);
+        mListener = listener;
+    }
+
+    /**
+     * Plays the given number of games using a random seed.
+     * @param games the number of games.
+     * @return the aggregated results.
+     */
+    public SimulationStatistics run(long games){
+        return run(games, System.nanoTime());
+    }
+
+    /**
+     * Plays the given number of games. Two simulations with the same number of games and seed give identical
+     * results.
+     * @param games the number of games.
+     * @param seed the seed of the simulation.
+     * @return the aggregated results.
+     */
+    public SimulationStatistics run(long games, long seed){
+        SimulationStatistics statistics = new SimulationStatistics();
+        long batches = (games + GAMES_PER_BATCH - 1) / GAMES_PER_BATCH;
+        mPool.invoke(new BatchTask(statistics, mListener, games, seed, 0, batches));
+        return statistics;
+    }
+
+    /**
+     * Stops the threads of the simulator.
+     */
+    public void shutdown(){
+        mPool.shutdown();
+    }
+
+    /**
+     * Returns the seed of the given batch. The seeds are spread out using the SplitMix64 finalizer, so neighbouring
+     * batches get unrelated sequences.
+     * @param seed the seed of the simulation.
+     * @param batch the index of the batch.
+     * @return the seed of the batch.
+     */
+    static long batchSeed(long seed, long batch){
+        return SplitMixRandom.mix(seed + (batch + 1) * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * Plays a full game where all throws are used without saving any dices, and the unused scoring method giving
+     * the highest score is chosen each round.
+     * @param game the new game.
+     * @return the finished game.
+     */
+    static Game playGame(Game game){
+        return playGame(game, null);
+    }
+
+    /**
+     * Plays a full game like {@link #playGame(Game)}, reporting the computation of every score to the listener.
+     * @param game the new game.
+     * @param listener the listener of the batch, or null.
+     * @return the finished game.
+     */
+    static Game playGame(Game game, SimulationListener.BatchListener listener){
+        for(int round = 1; round <= Game.NUMBER_OF_ROUNDS; round++){
+            while(game.rollDices()){
+                //Use all throws.
+            }
+
+            if(listener != null){
+                listener.onScoreStart();
+            }
+            int[] scores = game.getMethodScores();
+            int bestMethod = -1;
+            int bestScore = -1;
+            for(int i = 0; i < Game.NUMBER_OF_ROUNDS; i++){
+                if(!game.methodIsUsed(i) && scores[i] > bestScore){
+                    bestScore = scores[i];
+                    bestMethod = i;
+                }
+            }
+            if(listener != null){
+                listener.onScoreEnd(game, round, bestMethod, bestScore);
+            }
+            game.addScore(bestScore, ScoringMethod.fromIndex(bestMethod));
+            game.addUsedMethod(bestMethod);
+
+            if(round < Game.NUMBER_OF_ROUNDS){
+                game.nextRound();
+                game.rollDices();
+            }
+        }
+        return game;
+    }
+
+    /**
+     * Task playing a range of batches, splitting it in half until a single batch remains.
+     */
+    private static class BatchTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final SimulationStatistics mStatistics;
+        private final SimulationListener mListener;
+        private final long mGames;
+        private final long mSeed;
+        private final long mFrom;
+        private final long mTo;
+
+        BatchTask(SimulationStatistics statistics, SimulationListener listener, long games, long seed, long from,
+                long to){
+            mStatistics = statistics;
+            mListener = listener;
+            mGames = games;
+            mSeed = seed;
+            mFrom = from;
+            mTo = to;
+        }
+
+        @Override
+        protected void compute(){
+            if(mTo - mFrom > 1){
+                long middle = (mFrom + mTo) >>> 1;
+                invokeAll(new BatchTask(mStatistics, mListener, mGames, mSeed, mFrom, middle),
+                        new BatchTask(mStatistics, mListener, mGames, mSeed, middle, mTo));
+                return;
+            }
+
+            SimulationListener.BatchListener listener = mListener != null ? mListener.onBatchStart(mFrom) : null;
+            long first = mFrom * GAMES_PER_BATCH;
+            long games = Math.min(GAMES_PER_BATCH, mGames - first);
+            RandomSource random = RandomSource.create(batchSeed(mSeed, mFrom));
+            long[] scoreHistogram = new long[SimulationStatistics.MAX_SCORE + 1];
+            long[] methodUsage = new long[Game.NUMBER_OF_ROUNDS];
+            long[] roundScores = new long[Game.NUMBER_OF_ROUNDS];
+
+            for(long i = 0; i < games; i++){
+                Game game = new Game(random);
+                if(listener != null){
+                    listener.onGameStart(game);
+                }
+                playGame(game, listener);
+                for (Score score: game.getScores()) {
+                    roundScores[score.getRound() - 1] += score.getScore();
+                }
+                for(int method = 0; method < Game.NUMBER_OF_ROUNDS; method++){
+                    if(game.methodIsUsed(method)){
+                        methodUsage[method]++;
+                    }
+                }
+                scoreHistogram[game.getResult()]++;
+            }
+
+            mStatistics.add(games, scoreHistogram, methodUsage, roundScores);
+            if(listener != null){
+                long total = 0;
+                for (long roundScore: roundScores) {
+                    total += roundScore;
+                }
+                listener.onBatchEnd(games, games == 0 ? 0 : (double) total / games);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package se.umu.id14ant.thirty.sim;
+
+import java.util.Locale;
+
+import se.umu.id14ant.thirty.model.Game;
+
+/**
+ * Command line entry point of the simulator.
+ *
+ * Usage: SimulatorMain games [seed] [threads]. Without a seed every run is different, with a seed the printed
+ * results are reproducible.
+ */
+public class SimulatorMain {
+
+    public static void main(String[] args){
+        run(args, null);
+    }
+
+    /**
+     * Runs the simulation given by the command line arguments and prints the results.
+     * @param args the command line arguments.
+     * @param listener the listener of the simulator, or null.
+     */
+    public static void run(String[] args, SimulationListener listener){
+        if(args.length < 1){
+            System.err.println("Usage: SimulatorMain games [seed] [threads]");
+            System.exit(1);
+        }
+
+        long games = Long.parseLong(args[0]);
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        Simulator simulator = new Simulator(threads, listener);
+
+        long start = System.nanoTime();
+        SimulationStatistics statistics = args.length > 1
+                ? simulator.run(games, Long.parseLong(args[1]))
+                : simulator.run(games);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        simulator.shutdown();
+
+        System.out.printf(Locale.ROOT, "Games: %d in %.2f s (%.0f games/s) on %d threads%n",
+                statistics.getGames(), seconds, statistics.getGames() / seconds, threads);
+        System.out.printf(Locale.ROOT, "Mean score: %.3f%n", statistics.getMeanScore());
+        for(int round = 1; round <= Game.NUMBER_OF_ROUNDS; round++){
+            System.out.printf(Locale.ROOT, "Round %d average: %.3f%n", round, statistics.getRoundAverage(round));
+        }
+        for(int method = 0; method < Game.NUMBER_OF_ROUNDS; method++){
+            System.out.printf(Locale.ROOT, "Method %d used: %d%n", method, statistics.getMethodUsage(method));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package se.umu.id14ant.thirty.sim;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+import se.umu.id14ant.thirty.strategy.MappedStrategy;
+import se.umu.id14ant.thirty.strategy.OptimalStrategy;
+import se.umu.id14ant.thirty.strategy.StrategySolver;
+
+/**
+ * Command line entry point solving the game and writing the optimal strategy to a table file.
+ *
+ * Usage: SolverMain file [threads].
+ */
+public class SolverMain {
+
+    public static void main(String[] args) throws IOException {
+        if(args.length < 1){
+            System.err.println("Usage: SolverMain file [threads]");
+            System.exit(1);
+        }
+
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+        OptimalStrategy strategy = StrategySolver.solve(threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "Solved in %.2f s on %d threads, expected score %.4f%n",
+                seconds, threads, strategy.getExpectedScore());
+
+        File file = new File(args[0]);
+        MappedStrategy.write(strategy, file);
+        System.out.printf(Locale.ROOT, "Wrote %d bytes to %s%n", file.length(), file);
+    }
+}
@@ -0,0 +1,132 @@
+package se.umu.id14ant.thirty.sim;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+import se.umu.id14ant.thirty.model.MappedTable;
+import se.umu.id14ant.thirty.strategy.MappedStrategy;
+import se.umu.id14ant.thirty.strategy.OptimalStrategy;
+import se.umu.id14ant.thirty.strategy.StrategySolver;
+
+/**
+ * Command line entry point run by the build of the app, writing the tables the app reads as assets together with a
+ * Java class describing them. The output only depends on the rules engine, so the build can skip this step as long
+ * as the engine is unchanged.
+ *
+ * Usage: TableAssetsMain assetsDir sourcesDir [threads].
+ */
+public class TableAssetsMain {
+
+    static final String ASSET_DIRECTORY = "tables";
+    static final String STRATEGY_ASSET = "strategy.tbl";
+    static final String INDEX_PACKAGE = "se.umu.id14ant.thirty.tables";
+    static final String INDEX_CLASS = "TableIndex";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    public static void main(String[] args) throws IOException {
+        if(args.length < 2){
+            System.err.println("Usage: TableAssetsMain assetsDir sourcesDir [threads]");
+            System.exit(1);
+        }
+
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        OptimalStrategy strategy = StrategySolver.solve(threads);
+        File assets = new File(args[0], ASSET_DIRECTORY);
+        File file = new File(assets, STRATEGY_ASSET);
+        createDirectory(assets);
+        MappedStrategy.write(strategy, file);
+
+        File sources = new File(args[1], INDEX_PACKAGE.replace('.', File.separatorChar));
+        createDirectory(sources);
+        File index = new File(sources, INDEX_CLASS + ".java");
+        writeIndex(index, file);
+        System.out.printf(Locale.ROOT, "Wrote %d bytes to %s and the index to %s%n", file.length(), file, index);
+    }
+
+    /**
+     * Writes the class describing the strategy table. The class holds no timestamps, so the same table always gives
+     * the same class.
+     * @param index the file of the class.
+     * @param table the file of the table.
+     * @throws IOException if a file cannot be read or written.
+     */
+    private static void writeIndex(File index, File table) throws IOException {
+        MappedTable mapped = MappedTable.open(table, MappedStrategy.TABLE_TYPE);
+        int recordSize;
+        int recordCount;
+        try {
+            recordSize = mapped.getRecordSize();
+            recordCount = mapped.getRecordCount();
+        } finally {
+            mapped.close();
+        }
+
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(Files.newOutputStream(index.toPath()),
+                StandardCharsets.UTF_8));
+        try {
+            writer.println("package " + INDEX_PACKAGE + ";");
+            writer.println();
+            writer.println("/**");
+            writer.println(" * The tables generated from the rules engine when the app was built. Generated by "
+                    + TableAssetsMain.class.getSimpleName() + ", do not edit.");
+            writer.println(" */");
+            writer.println("public final class " + INDEX_CLASS + " {");
+            writer.println();
+            writer.println("    public static final String STRATEGY_ASSET = \"" + ASSET_DIRECTORY + "/"
+                    + STRATEGY_ASSET + "\";");
+            writer.println("    public static final int STRATEGY_TYPE = " + MappedStrategy.TABLE_TYPE + ";");
+            writer.println("    public static final int STRATEGY_RECORDS_OFFSET = " + MappedTable.HEADER_SIZE + ";");
+            writer.println("    public static final int STRATEGY_RECORD_SIZE = " + recordSize + ";");
+            writer.println("    public static final int STRATEGY_RECORD_COUNT = " + recordCount + ";");
+            writer.println("    public static final long STRATEGY_SIZE = " + table.length() + "L;");
+            writer.printf(Locale.ROOT, "    public static final long STRATEGY_CRC = 0x%08xL;%n", checksum(table));
+            writer.println();
+            writer.println("    private " + INDEX_CLASS + "(){");
+            writer.println("    }");
+            writer.println("}");
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Returns the CRC-32 of the whole file, header included.
+     * @param file the file.
+     * @return the checksum.
+     * @throws IOException if the file cannot be read.
+     */
+    private static long checksum(File file) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        InputStream in = new FileInputStream(file);
+        try {
+            int read;
+            while((read = in.read(buffer)) > 0){
+                crc.update(buffer, 0, read);
+            }
+        } finally {
+            in.close();
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Creates the given directory and its parents, unless it exists.
+     * @param directory the directory.
+     * @throws IOException if the directory cannot be created.
+     */
+    private static void createDirectory(File directory) throws IOException {
+        if(!directory.isDirectory() && !directory.mkdirs()){
+            throw new IOException("Could not create " + directory);
+        }
+    }
+}
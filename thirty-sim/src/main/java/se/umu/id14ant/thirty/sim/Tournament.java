@@ -0,0 +1,246 @@
+package se.umu.id14ant.thirty.sim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import se.umu.id14ant.thirty.model.Die;
+import se.umu.id14ant.thirty.model.Game;
+import se.umu.id14ant.thirty.model.RandomSource;
+import se.umu.id14ant.thirty.model.Rules;
+import se.umu.id14ant.thirty.model.SplitMixRandom;
+import se.umu.id14ant.thirty.strategy.Strategy;
+
+/**
+ * Plays strategies against each other over many seeded games, spread over all cores using fork-join.
+ *
+ * Every strategy plays every game, and a game is given by the seed of its dices, so all strategies face the same
+ * dice sequence and every pair is compared game by game. This covers the whole round-robin with one game per
+ * strategy and seed instead of one per pair. The games are split into batches like in {@link Simulator}, and each
+ * batch creates its own instances of the strategies, so a tournament with a given seed gives the same result no
+ * matter how many threads run it.
+ *
+ * The games are played under the standard rules unless other {@link Rules} are given, for house rule tournaments.
+ */
+public class Tournament {
+
+    private static final int GAMES_PER_BATCH = 4096;
+
+    private final ForkJoinPool mPool;
+    private final Rules mRules;
+    private final List<String> mNames = new ArrayList<>();
+    private final List<StrategyFactory> mFactories = new ArrayList<>();
+
+    /**
+     * Creates a strategy for a batch of games.
+     */
+    public interface StrategyFactory {
+
+        /**
+         * Creates a strategy. Strategies making random choices draw them from the given source, which is separate
+         * from the dices.
+         * @param random the source of random numbers of the batch.
+         * @return the strategy.
+         */
+        Strategy create(RandomSource random);
+    }
+
+    /**
+     * Creates a tournament under the standard rules using the given number of threads.
+     * @param parallelism the number of threads.
+     */
+    public Tournament(int parallelism){
+        this(parallelism, Rules.STANDARD);
+    }
+
+    /**
+     * Creates a tournament under the given rules using the given number of threads.
+     * @param parallelism the number of threads.
+     * @param rules the rules of the games.
+     */
+    public Tournament(int parallelism, Rules rules){
+        mPool = new ForkJoinPool(parallelism);
+        mRules = rules;
+    }
+
+    /**
+     * Adds a strategy to the tournament.
+     * @param name the name of the strategy.
+     * @param factory creates the strategy for each batch.
+     */
+    public void add(String name, StrategyFactory factory){
+        mNames.add(name);
+        mFactories.add(factory);
+    }
+
+    /**
+     * Adds a strategy that may be used from several threads, shared by all batches.
+     * @param name the name of the strategy.
+     * @param strategy the strategy.
+     */
+    public void add(String name, final Strategy strategy){
+        add(name, new StrategyFactory() {
+            @Override
+            public Strategy create(RandomSource random) {
+                return strategy;
+            }
+        });
+    }
+
+    /**
+     * Plays the given number of games with every strategy. Two tournaments with the same strategies, number of games
+     * and seed give identical results.
+     * @param games the number of games per strategy.
+     * @param seed the seed of the tournament.
+     * @return the aggregated results.
+     */
+    public TournamentStatistics run(long games, long seed){
+        TournamentStatistics statistics = new TournamentStatistics(mNames.toArray(new String[0]));
+        long batches = (games + GAMES_PER_BATCH - 1) / GAMES_PER_BATCH;
+        mPool.invoke(new BatchTask(statistics, games, seed, 0, batches));
+        return statistics;
+    }
+
+    /**
+     * Stops the threads of the tournament.
+     */
+    public void shutdown(){
+        mPool.shutdown();
+    }
+
+    /**
+     * Plays a full game with the given strategy. Before each throw the strategy picks the dices to keep, and keeping
+     * all of them ends the round early.
+     * @param game the new game.
+     * @param strategy the strategy.
+     * @param values space for the dice values, one per die of the rules of the game.
+     * @return the total score.
+     */
+    static int play(Game game, Strategy strategy, int[] values){
+        Die[] dices = game.getDices();
+        int allDices = (1 << dices.length) - 1;
+        int rounds = game.getRules().getMethods();
+        for(int round = 1; round <= rounds; round++){
+            while(game.getThrowsLeft() > 0){
+                readValues(dices, values);
+                int keepMask = strategy.bestKeepMask(game.getUsedMethods(), values, game.getThrowsLeft());
+                if(keepMask == allDices){
+                    break;
+                }
+                setSaved(game, keepMask);
+                game.rollDices();
+            }
+
+            readValues(dices, values);
+            int method = strategy.bestMethod(game.getUsedMethods(), values);
+            game.addScore(game.getMethodScores()[method], method);
+            game.addUsedMethod(method);
+
+            if(round < rounds){
+                setSaved(game, 0);
+                game.nextRound();
+                game.rollDices();
+            }
+        }
+        return game.getResult();
+    }
+
+    /**
+     * Copies the dice values.
+     * @param dices the dices.
+     * @param values the array to copy the values to.
+     */
+    private static void readValues(Die[] dices, int[] values){
+        for(int i = 0; i < dices.length; i++){
+            values[i] = dices[i].getValue();
+        }
+    }
+
+    /**
+     * Saves exactly the given dices.
+     * @param game the game.
+     * @param savedMask the dices to save.
+     */
+    private static void setSaved(Game game, int savedMask){
+        Die[] dices = game.getDices();
+        for(int i = 0; i < dices.length; i++){
+            if(dices[i].isSaved() != ((savedMask & (1 << i)) != 0)){
+                game.toggleSaved(i);
+            }
+        }
+    }
+
+    /**
+     * Task playing a range of batches, splitting it in half until a single batch remains.
+     */
+    private class BatchTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final TournamentStatistics mStatistics;
+        private final long mGames;
+        private final long mSeed;
+        private final long mFrom;
+        private final long mTo;
+
+        BatchTask(TournamentStatistics statistics, long games, long seed, long from, long to){
+            mStatistics = statistics;
+            mGames = games;
+            mSeed = seed;
+            mFrom = from;
+            mTo = to;
+        }
+
+        @Override
+        protected void compute(){
+            if(mTo - mFrom > 1){
+                long middle = (mFrom + mTo) >>> 1;
+                invokeAll(new BatchTask(mStatistics, mGames, mSeed, mFrom, middle),
+                        new BatchTask(mStatistics, mGames, mSeed, middle, mTo));
+                return;
+            }
+
+            long first = mFrom * GAMES_PER_BATCH;
+            long games = Math.min(GAMES_PER_BATCH, mGames - first);
+            long batchSeed = Simulator.batchSeed(mSeed, mFrom);
+
+            //The strategies draw from a source of their own, so their choices never shift the dices.
+            int count = mFactories.size();
+            RandomSource strategyRandom = RandomSource.create(SplitMixRandom.mix(~batchSeed));
+            Strategy[] strategies = new Strategy[count];
+            for(int i = 0; i < count; i++){
+                strategies[i] = mFactories.get(i).create(strategyRandom);
+            }
+
+            long[] scores = new long[count];
+            long[] squaredScores = new long[count];
+            long[] wins = new long[count * count];
+            long[] ties = new long[count * count];
+            long[] squaredDifferences = new long[count * count];
+            int[] results = new int[count];
+            int[] values = new int[mRules.getDices()];
+
+            for(long game = 0; game < games; game++){
+                for(int i = 0; i < count; i++){
+                    results[i] = play(new Game(mRules, RandomSource.create(batchSeed + game)), strategies[i], values);
+                    scores[i] += results[i];
+                    squaredScores[i] += results[i] * results[i];
+                }
+                for(int i = 0; i < count; i++){
+                    for(int j = 0; j < count; j++){
+                        int difference = results[i] - results[j];
+                        if(difference > 0){
+                            wins[i * count + j]++;
+                        } else if(difference == 0){
+                            ties[i * count + j]++;
+                        }
+                        squaredDifferences[i * count + j] += difference * difference;
+                    }
+                }
+            }
+
+            mStatistics.add(games, scores, squaredScores, wins, ties, squaredDifferences);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package se.umu.id14ant.thirty.sim;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+import se.umu.id14ant.thirty.model.RandomSource;
+import se.umu.id14ant.thirty.strategy.GreedyStrategy;
+import se.umu.id14ant.thirty.strategy.MappedStrategy;
+import se.umu.id14ant.thirty.strategy.RandomStrategy;
+import se.umu.id14ant.thirty.strategy.Strategy;
+import se.umu.id14ant.thirty.strategy.TargetMultiplesStrategy;
+
+/**
+ * Command line entry point playing the baseline strategies against each other.
+ *
+ * Usage: TournamentMain games [seed] [threads] [strategy-file]. The random, greedy and target multiples strategies
+ * always take part, and the optimal strategy joins if a table written by {@link SolverMain} is given.
+ */
+public class TournamentMain {
+
+    public static void main(String[] args) throws IOException {
+        if(args.length < 1){
+            System.err.println("Usage: TournamentMain games [seed] [threads] [strategy-file]");
+            System.exit(1);
+        }
+
+        long games = Long.parseLong(args[0]);
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        Tournament tournament = new Tournament(threads);
+        tournament.add("random", new Tournament.StrategyFactory() {
+            @Override
+            public Strategy create(RandomSource random) {
+                return new RandomStrategy(random);
+            }
+        });
+        tournament.add("greedy", new GreedyStrategy());
+        tournament.add("target-multiples", new Tournament.StrategyFactory() {
+            @Override
+            public Strategy create(RandomSource random) {
+                return new TargetMultiplesStrategy();
+            }
+        });
+
+        MappedStrategy optimal = null;
+        if(args.length > 3){
+            optimal = MappedStrategy.open(new File(args[3]));
+            tournament.add("optimal", optimal);
+        }
+
+        TournamentStatistics statistics;
+        long start = System.nanoTime();
+        try {
+            statistics = tournament.run(games, seed);
+        } finally {
+            tournament.shutdown();
+            if(optimal != null){
+                optimal.close();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int strategies = statistics.getStrategies();
+        System.out.printf(Locale.ROOT, "Games: %d per strategy in %.2f s (%.0f games/s) on %d threads, seed %d%n",
+                statistics.getGames(), seconds, statistics.getGames() * strategies / seconds, threads, seed);
+        for(int i = 0; i < strategies; i++){
+            System.out.printf(Locale.ROOT, "%-18s mean %8.3f +- %.3f, sd %.3f%n", statistics.getName(i),
+                    statistics.getMean(i), statistics.getMeanInterval(i), statistics.getStandardDeviation(i));
+        }
+        for(int i = 0; i < strategies; i++){
+            for(int j = i + 1; j < strategies; j++){
+                System.out.printf(Locale.ROOT,
+                        "%s vs %s: wins %.2f%% +- %.2f, ties %.2f%%, difference %.3f +- %.3f%n",
+                        statistics.getName(i), statistics.getName(j),
+                        statistics.getWinRate(i, j) * 100, statistics.getWinRateInterval(i, j) * 100,
+                        statistics.getTieRate(i, j) * 100,
+                        statistics.getMeanDifference(i, j), statistics.getMeanDifferenceInterval(i, j));
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package se.umu.id14ant.thirty.sim;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregated results of a tournament, shared by all workers. Every strategy plays every game of the tournament, so
+ * each pair of strategies meets on the same dice sequence in every game.
+ *
+ * As in {@link SimulationStatistics} every aggregate is an integer sum in a {@link LongAdder}, added once per batch.
+ * Pairs are indexed by first * strategies + second, and a pair is counted from both sides.
+ *
+ * Intervals are 95% normal approximations, which are tight at the number of games a tournament plays.
+ */
+public class TournamentStatistics {
+
+    private static final double Z_95 = 1.959964;
+
+    private final String[] mNames;
+    private final LongAdder mGames = new LongAdder();
+    private final LongAdder[] mScores;
+    private final LongAdder[] mSquaredScores;
+    private final LongAdder[] mWins;
+    private final LongAdder[] mTies;
+    private final LongAdder[] mSquaredDifferences;
+
+    /**
+     * Creates empty statistics for the given strategies.
+     * @param names the names of the strategies.
+     */
+    TournamentStatistics(String[] names){
+        mNames = names.clone();
+        int strategies = names.length;
+        mScores = createAdders(strategies);
+        mSquaredScores = createAdders(strategies);
+        mWins = createAdders(strategies * strategies);
+        mTies = createAdders(strategies * strategies);
+        mSquaredDifferences = createAdders(strategies * strategies);
+    }
+
+    /**
+     * Adds the results of a batch of games.
+     * @param games the number of games in the batch.
+     * @param scores the sum of the total scores of each strategy.
+     * @param squaredScores the sum of the squared total scores of each strategy.
+     * @param wins the number of games the first strategy of each pair scored higher.
+     * @param ties the number of games the strategies of each pair scored the same.
+     * @param squaredDifferences the sum of the squared score differences of each pair.
+     */
+    void add(long games, long[] scores, long[] squaredScores, long[] wins, long[] ties, long[] squaredDifferences){
+        mGames.add(games);
+        addAll(mScores, scores);
+        addAll(mSquaredScores, squaredScores);
+        addAll(mWins, wins);
+        addAll(mTies, ties);
+        addAll(mSquaredDifferences, squaredDifferences);
+    }
+
+    /**
+     * Returns the number of strategies.
+     * @return the number of strategies.
+     */
+    public int getStrategies(){
+        return mNames.length;
+    }
+
+    /**
+     * Returns the name of the given strategy.
+     * @param strategy the index of the strategy.
+     * @return the name.
+     */
+    public String getName(int strategy){
+        return mNames[strategy];
+    }
+
+    /**
+     * Returns the number of games played by each strategy.
+     * @return the number of games.
+     */
+    public long getGames(){
+        return mGames.sum();
+    }
+
+    /**
+     * Returns the mean total score of the given strategy.
+     * @param strategy the index of the strategy.
+     * @return the mean.
+     */
+    public double getMean(int strategy){
+        long games = getGames();
+        return games == 0 ? 0 : (double) mScores[strategy].sum() / games;
+    }
+
+    /**
+     * Returns the sample standard deviation of the total score of the given strategy.
+     * @param strategy the index of the strategy.
+     * @return the standard deviation.
+     */
+    public double getStandardDeviation(int strategy){
+        return standardDeviation(getGames(), mScores[strategy].sum(), mSquaredScores[strategy].sum());
+    }
+
+    /**
+     * Returns the half width of the 95% confidence interval of the mean total score of the given strategy.
+     * @param strategy the index of the strategy.
+     * @return the half width.
+     */
+    public double getMeanInterval(int strategy){
+        return halfWidth(getStandardDeviation(strategy), getGames());
+    }
+
+    /**
+     * Returns the share of games where the first strategy scored higher than the second, counting ties as half.
+     * @param first the index of the first strategy.
+     * @param second the index of the second strategy.
+     * @return the win rate, between 0 and 1.
+     */
+    public double getWinRate(int first, int second){
+        long games = getGames();
+        int pair = first * mNames.length + second;
+        return games == 0 ? 0 : (mWins[pair].sum() + mTies[pair].sum() / 2.0) / games;
+    }
+
+    /**
+     * Returns the share of games where the two strategies scored the same.
+     * @param first the index of the first strategy.
+     * @param second the index of the second strategy.
+     * @return the tie rate, between 0 and 1.
+     */
+    public double getTieRate(int first, int second){
+        long games = getGames();
+        return games == 0 ? 0 : (double) mTies[first * mNames.length + second].sum() / games;
+    }
+
+    /**
+     * Returns the half width of the 95% confidence interval of the win rate of the first strategy over the second.
+     * @param first the index of the first strategy.
+     * @param second the index of the second strategy.
+     * @return the half width.
+     */
+    public double getWinRateInterval(int first, int second){
+        long games = getGames();
+        int pair = first * mNames.length + second;
+        if(games < 2){
+            return Double.NaN;
+        }
+        //Each game counts 1 for a win, 1/2 for a tie and 0 for a loss.
+        double rate = getWinRate(first, second);
+        double squares = mWins[pair].sum() + mTies[pair].sum() / 4.0;
+        double variance = Math.max(0, (squares - games * rate * rate) / (games - 1));
+        return halfWidth(Math.sqrt(variance), games);
+    }
+
+    /**
+     * Returns the mean difference in total score between the first and the second strategy.
+     * @param first the index of the first strategy.
+     * @param second the index of the second strategy.
+     * @return the mean difference.
+     */
+    public double getMeanDifference(int first, int second){
+        return getMean(first) - getMean(second);
+    }
+
+    /**
+     * Returns the half width of the 95% confidence interval of the mean difference. Since both strategies play the
+     * same games the interval comes from the differences of each game, which is much narrower than combining the
+     * intervals of the two means.
+     * @param first the index of the first strategy.
+     * @param second the index of the second strategy.
+     * @return the half width.
+     */
+    public double getMeanDifferenceInterval(int first, int second){
+        long games = getGames();
+        long difference = mScores[first].sum() - mScores[second].sum();
+        long squares = mSquaredDifferences[first * mNames.length + second].sum();
+        return halfWidth(standardDeviation(games, difference, squares), games);
+    }
+
+    /**
+     * Returns the sample standard deviation from the given sums.
+     * @param count the number of values.
+     * @param sum the sum of the values.
+     * @param squares the sum of the squared values.
+     * @return the standard deviation, or NaN if there are less than two values.
+     */
+    private static double standardDeviation(long count, long sum, long squares){
+        if(count < 2){
+            return Double.NaN;
+        }
+        double mean = (double) sum / count;
+        return Math.sqrt(Math.max(0, (squares - count * mean * mean) / (count - 1)));
+    }
+
+    /**
+     * Returns the half width of the 95% confidence interval of a mean.
+     * @param standardDeviation the sample standard deviation.
+     * @param count the number of values.
+     * @return the half width.
+     */
+    private static double halfWidth(double standardDeviation, long count){
+        return Z_95 * standardDeviation / Math.sqrt(count);
+    }
+
+    /**
+     * Creates an array of counters.
+     * @param size the number of counters.
+     * @return the counters.
+     */
+    private static LongAdder[] createAdders(int size){
+        LongAdder[] adders = new LongAdder[size];
+        for(int i = 0; i < size; i++){
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Adds the non-zero values to the corresponding counters.
+     * @param adders the counters.
+     * @param values the values to add.
+     */
+    private static void addAll(LongAdder[] adders, long[] values){
+        for(int i = 0; i < values.length; i++){
+            if(values[i] != 0){
+                adders[i].add(values[i]);
+            }
+        }
+    }
+}
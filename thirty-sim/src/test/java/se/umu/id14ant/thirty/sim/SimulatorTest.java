@@ -0,0 +1,65 @@
+package se.umu.id14ant.thirty.sim;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import se.umu.id14ant.thirty.model.Game;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that a seeded simulation gives the same statistics no matter how many threads play its batches.
+ */
+public class SimulatorTest {
+
+    //Three full batches and one partial batch.
+    private static final long GAMES = 3 * 4096 + 1000;
+    private static final long SEED = 20181018L;
+
+    @Test
+    public void sameSeedGivesTheSameStatisticsOnAnyNumberOfThreads(){
+        SimulationStatistics single = run(1, SEED);
+        SimulationStatistics parallel = run(4, SEED);
+
+        assertEquals(GAMES, single.getGames());
+        assertEquals(single.getGames(), parallel.getGames());
+        assertArrayEquals(single.getScoreHistogram(), parallel.getScoreHistogram());
+        for(int method = 0; method < Game.NUMBER_OF_ROUNDS; method++){
+            assertEquals(GAMES, single.getMethodUsage(method));
+            assertEquals(single.getMethodUsage(method), parallel.getMethodUsage(method));
+        }
+        for(int round = 1; round <= Game.NUMBER_OF_ROUNDS; round++){
+            assertEquals(single.getRoundAverage(round), parallel.getRoundAverage(round), 0);
+        }
+        assertEquals(single.getMeanScore(), parallel.getMeanScore(), 0);
+    }
+
+    @Test
+    public void otherSeedGivesOtherGames(){
+        SimulationStatistics first = run(2, SEED);
+        SimulationStatistics second = run(2, SEED + 1);
+        assertFalse(Arrays.equals(first.getScoreHistogram(), second.getScoreHistogram()));
+    }
+
+    @Test
+    public void batchSeedsDiffer(){
+        assertNotEquals(Simulator.batchSeed(SEED, 0), Simulator.batchSeed(SEED, 1));
+        assertNotEquals(Simulator.batchSeed(SEED, 1), Simulator.batchSeed(SEED + 1, 0));
+    }
+
+    /**
+     * Runs a simulation of the test games on the given number of threads.
+     * @param parallelism the number of threads.
+     * @param seed the seed of the simulation.
+     * @return the statistics.
+     */
+    private static SimulationStatistics run(int parallelism, long seed){
+        Simulator simulator = new Simulator(parallelism);
+        try {
+            return simulator.run(GAMES, seed);
+        } finally {
+            simulator.shutdown();
+        }
+    }
+}